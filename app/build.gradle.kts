@@ -11,6 +11,9 @@ plugins {
 
     // The official JavaFX plugin, which handles the complexities of using JavaFX.
     id("org.openjfx.javafxplugin") version "0.1.0"
+
+    // Microbenchmarks in src/jmh, run with ./gradlew jmh
+    id("me.champeau.jmh") version "0.7.3"
 }
 
 repositories {
@@ -53,6 +56,12 @@ javafx {
     modules = listOf("javafx.controls", "javafx.fxml")
 }
 
+jmh {
+    // e.g. ./gradlew jmh -PjmhIncludes=PasswordManagerBenchmark
+    providers.gradleProperty("jmhIncludes").orNull?.let { includes = listOf(it) }
+    jmhVersion = libs.versions.jmh.get()
+}
+
 tasks.named<Test>("test") {
     // Use JUnit Platform for unit tests.
     useJUnitPlatform()
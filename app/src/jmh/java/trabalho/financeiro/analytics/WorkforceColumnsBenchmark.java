@@ -0,0 +1,87 @@
+package trabalho.financeiro.analytics;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import trabalho.candidatura.model.Pessoa;
+import trabalho.common.database.AppData;
+import trabalho.exceptions.DuplicateDataException;
+import trabalho.exceptions.MissingDataException;
+import trabalho.financeiro.analytics.WorkforceColumns.Coluna;
+import trabalho.financeiro.analytics.WorkforceColumns.Grupo;
+import trabalho.financeiro.model.Funcionario;
+
+/**
+ * Salary totals per departamento from {@link WorkforceColumns}, against the
+ * same report over {@link AppData#getAllFuncionarios()}.
+ * <p>
+ * {@code ./gradlew jmh -PjmhIncludes=WorkforceColumnsBenchmark}
+ *
+ * @author Gabriel M.S.O.
+ */
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class WorkforceColumnsBenchmark {
+    private static final String[] DEPARTAMENTOS = { "TI", "RH", "Financeiro", "Vendas", "Jurídico", "Operações" };
+    private static final String[] STATUS = { "Ativo", "Ativo", "Ativo", "Férias", "Afastado" };
+
+    @Param({ "1000", "100000" })
+    public int funcionarios;
+
+    private AppData data;
+    private WorkforceColumns columns;
+
+    @Setup
+    public void setUp() throws DuplicateDataException, MissingDataException {
+        data = new AppData();
+        for (int i = 0; i < funcionarios; i++) {
+            String cpf = String.format("%011d", 10_000_000_000L + i);
+            data.addPessoa(new Pessoa(cpf, "Pessoa " + i, null, null, 0));
+            data.addFuncionario(new Funcionario(cpf, "Cargo " + (i % 40), STATUS[i % STATUS.length],
+                    DEPARTAMENTOS[i % DEPARTAMENTOS.length], 1500 + (i * 37) % 20_000));
+        }
+        columns = WorkforceColumns.attach(data);
+    }
+
+    @Benchmark
+    public List<Grupo> porDepartamento() {
+        return columns.agrupar(Coluna.DEPARTAMENTO);
+    }
+
+    @Benchmark
+    public Map<String, Double> porDepartamentoObjetos() {
+        return data.getAllFuncionarios().stream().collect(
+                Collectors.groupingBy(Funcionario::getDepartamento, Collectors.summingDouble(Funcionario::getSalarioBase)));
+    }
+
+    @Benchmark
+    public List<Grupo> ativosPorDepartamento() {
+        return columns.agrupar(Coluna.DEPARTAMENTO, Coluna.STATUS, "Ativo");
+    }
+
+    @Benchmark
+    public Map<String, Double> ativosPorDepartamentoObjetos() {
+        return data.getAllFuncionarios().stream()
+                .filter(f -> "Ativo".equals(f.getStatus()))
+                .collect(Collectors.groupingBy(Funcionario::getDepartamento,
+                        Collectors.summingDouble(Funcionario::getSalarioBase)));
+    }
+}
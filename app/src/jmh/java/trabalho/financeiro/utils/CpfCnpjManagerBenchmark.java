@@ -0,0 +1,153 @@
+package trabalho.financeiro.utils;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * {@link CpfCnpjManager} against the regex based version it replaced, kept
+ * below as {@link RegexCpfCnpj}. Run with {@code -prof gc} to see the
+ * allocations too.
+ * <p>
+ * {@code ./gradlew jmh -PjmhIncludes=CpfCnpjManagerBenchmark}
+ *
+ * @author Gabriel M.S.O.
+ */
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class CpfCnpjManagerBenchmark {
+
+    // A formatted CPF, a clean one (as stored) and a formatted CNPJ
+    @Param({ "123.456.789-09", "12345678909", "11.222.333/0001-81" })
+    public String doc;
+
+    @Benchmark
+    public String toOnlyNumbers() {
+        return CpfCnpjManager.toOnlyNumbers(doc);
+    }
+
+    @Benchmark
+    public String toOnlyNumbersRegex() {
+        return RegexCpfCnpj.toOnlyNumbers(doc);
+    }
+
+    @Benchmark
+    public boolean isValid() {
+        return CpfCnpjManager.isValid(doc);
+    }
+
+    @Benchmark
+    public boolean isValidRegex() {
+        return RegexCpfCnpj.isValid(doc);
+    }
+
+    @Benchmark
+    public String normalize() {
+        return CpfCnpjManager.normalize(doc);
+    }
+
+    @Benchmark
+    public String normalizeRegex() {
+        return RegexCpfCnpj.isValid(doc) ? RegexCpfCnpj.toOnlyNumbers(doc) : null;
+    }
+
+    @Benchmark
+    public String format() {
+        return CpfCnpjManager.format(doc);
+    }
+
+    @Benchmark
+    public String formatRegex() {
+        return RegexCpfCnpj.format(doc);
+    }
+
+    /**
+     * The previous implementation, as the baseline.
+     */
+    private static final class RegexCpfCnpj {
+        private static final int CPF_LENGTH = 11;
+        private static final int CNPJ_LENGTH = 14;
+
+        static String toOnlyNumbers(String doc) {
+            if (doc == null) {
+                return "";
+            }
+            return doc.replaceAll("\\D", "");
+        }
+
+        static boolean isValid(String doc) {
+            String cleanDoc = toOnlyNumbers(doc);
+            if (cleanDoc.length() == CPF_LENGTH) {
+                return isValidCPF(cleanDoc);
+            } else if (cleanDoc.length() == CNPJ_LENGTH) {
+                return isValidCNPJ(cleanDoc);
+            }
+            return false;
+        }
+
+        static String format(String doc) {
+            String cleanDoc = toOnlyNumbers(doc);
+            if (cleanDoc.length() == CPF_LENGTH) {
+                return cleanDoc.replaceFirst("(\\d{3})(\\d{3})(\\d{3})(\\d{2})", "$1.$2.$3-$4");
+            } else if (cleanDoc.length() == CNPJ_LENGTH) {
+                return cleanDoc.replaceFirst("(\\d{2})(\\d{3})(\\d{3})(\\d{4})(\\d{2})", "$1.$2.$3/$4-$5");
+            }
+            return doc;
+        }
+
+        private static boolean isValidCPF(String cpf) {
+            if (cpf.matches("(\\d)\\1{10}")) {
+                return false;
+            }
+            int sm = 0;
+            for (int i = 0; i < 9; i++) {
+                sm += (cpf.charAt(i) - '0') * (10 - i);
+            }
+            int r = 11 - (sm % 11);
+            char dig10 = r == 10 || r == 11 ? '0' : (char) (r + '0');
+            sm = 0;
+            for (int i = 0; i < 10; i++) {
+                sm += (cpf.charAt(i) - '0') * (11 - i);
+            }
+            r = 11 - (sm % 11);
+            char dig11 = r == 10 || r == 11 ? '0' : (char) (r + '0');
+            return dig10 == cpf.charAt(9) && dig11 == cpf.charAt(10);
+        }
+
+        private static boolean isValidCNPJ(String cnpj) {
+            if (cnpj.matches("(\\d)\\1{13}")) {
+                return false;
+            }
+            int sm = 0;
+            int peso = 2;
+            for (int i = 11; i >= 0; i--) {
+                sm += (cnpj.charAt(i) - '0') * peso;
+                peso = peso == 9 ? 2 : peso + 1;
+            }
+            int r = sm % 11;
+            char dig13 = r == 0 || r == 1 ? '0' : (char) ((11 - r) + '0');
+            sm = 0;
+            peso = 2;
+            for (int i = 12; i >= 0; i--) {
+                sm += (cnpj.charAt(i) - '0') * peso;
+                peso = peso == 9 ? 2 : peso + 1;
+            }
+            r = sm % 11;
+            char dig14 = r == 0 || r == 1 ? '0' : (char) ((11 - r) + '0');
+            return dig13 == cnpj.charAt(12) && dig14 == cnpj.charAt(13);
+        }
+    }
+}
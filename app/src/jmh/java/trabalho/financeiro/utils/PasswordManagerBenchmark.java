@@ -0,0 +1,67 @@
+package trabalho.financeiro.utils;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Cost of BCrypt at each work factor, for sizing
+ * {@link AuthenticationService}: the single thread latency is how long one
+ * login takes, and the throughput with every core busy is how many logins per
+ * second the host can check at best. Compare it with
+ * {@code threads * 1000 / latency} for the pool size in use.
+ * <p>
+ * {@code ./gradlew jmh -PjmhIncludes=PasswordManagerBenchmark}
+ *
+ * @author Gabriel M.S.O.
+ */
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 3)
+public class PasswordManagerBenchmark {
+    private static final String PASSWORD = "Senha@2024";
+
+    @Param({ "10", "11", "12", "13", "14" })
+    public int workFactor;
+
+    private String passHash;
+
+    @Setup
+    public void setUp() {
+        passHash = PasswordManager.hashPassword(PASSWORD, workFactor);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public String hashPassword() {
+        return PasswordManager.hashPassword(PASSWORD, workFactor);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public boolean verifyPassword() {
+        return PasswordManager.verifyPassword(PASSWORD, passHash);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    @OutputTimeUnit(TimeUnit.SECONDS)
+    @Threads(Threads.MAX)
+    public boolean verifyPasswordAllCores() {
+        return PasswordManager.verifyPassword(PASSWORD, passHash);
+    }
+}
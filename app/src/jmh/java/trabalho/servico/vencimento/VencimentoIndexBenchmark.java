@@ -0,0 +1,100 @@
+package trabalho.servico.vencimento;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import trabalho.common.database.AppData;
+import trabalho.exceptions.DuplicateDataException;
+import trabalho.exceptions.MissingDataException;
+import trabalho.servico.model.ContratoServico;
+import trabalho.servico.model.ContratoServico.StatusContrato;
+import trabalho.servico.model.PrestadorServico;
+import trabalho.servico.vencimento.VencimentoIndex.Vencimento;
+
+/**
+ * The contracts ending in the next week from {@link VencimentoIndex}, against
+ * a scan of every contract, and the cost of renewing one contract.
+ * <p>
+ * {@code ./gradlew jmh -PjmhIncludes=VencimentoIndexBenchmark}
+ *
+ * @author Gabriel M.S.O.
+ */
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class VencimentoIndexBenchmark {
+    private static final String CNPJ = "11222333000181";
+    private static final LocalDate HOJE = LocalDate.of(2025, 6, 1);
+
+    @Param({ "10000", "300000" })
+    public int contratos;
+
+    private AppData data;
+    private VencimentoIndex index;
+    private ContratoServico[] todos;
+    private int next;
+
+    @Setup
+    public void setUp() throws DuplicateDataException, MissingDataException {
+        data = new AppData();
+        data.addPrestador(new PrestadorServico(CNPJ, "Prestador", null));
+        Random random = new Random(42);
+        List<ContratoServico> novos = new ArrayList<>(contratos);
+        for (int i = 0; i < contratos; i++) {
+            // Ends within two years around today
+            novos.add(new ContratoServico(CNPJ, "Contrato " + i, HOJE.minusYears(2),
+                    HOJE.plusDays(random.nextInt(730) - 365), 5000));
+        }
+        data.addAll(novos);
+        todos = novos.toArray(new ContratoServico[0]);
+        index = VencimentoIndex.attach(data);
+    }
+
+    @Benchmark
+    public List<Vencimento> proximaSemana() {
+        return index.vencendoNosProximos(HOJE, 7);
+    }
+
+    @Benchmark
+    public List<ContratoServico> proximaSemanaVarrendo() {
+        List<ContratoServico> result = new ArrayList<>();
+        LocalDate limite = HOJE.plusDays(7);
+        synchronized (data) {
+            for (ContratoServico c : data.contratosServicoView()) {
+                if (c.getStatus() == StatusContrato.ATIVO && c.getDataFim() != null
+                        && !c.getDataFim().isBefore(HOJE) && !c.getDataFim().isAfter(limite)) {
+                    result.add(c);
+                }
+            }
+        }
+        return result;
+    }
+
+    @Benchmark
+    public void renovar() {
+        ContratoServico contrato = todos[next++ % todos.length];
+        synchronized (data) {
+            // Moves it a year towards today, so the dates stay in the same range
+            contrato.setDataFim(contrato.getDataFim().plusDays(contrato.getDataFim().isAfter(HOJE) ? -365 : 365));
+            data.markUpdated(contrato);
+        }
+    }
+}
@@ -6,12 +6,15 @@ import javafx.scene.Parent;
 import javafx.scene.Scene;
 import javafx.stage.Stage;
 import trabalho.common.database.JsonDataManager;
+import trabalho.financeiro.utils.AuthenticationService;
+import trabalho.servico.vencimento.RenovacaoScheduler;
 
 import java.io.IOException;
 
 
 public class App extends Application {
 
+    private RenovacaoScheduler renovacaoScheduler;
 
     @Override
     public void start(Stage primaryStage) {
@@ -20,6 +23,21 @@ public class App extends Application {
             JsonDataManager dataManager = JsonDataManager.getInstance();
             dataManager.saveData(); 
 
+            // Picks the BCrypt cost for this host without holding up the first screen
+            AuthenticationService.getInstance().configureWorkFactor();
+
+            // Closes expired service contracts and warns about the ones ending soon
+            renovacaoScheduler = new RenovacaoScheduler(dataManager, verificacao -> {
+                if (!verificacao.encerrados().isEmpty()) {
+                    System.out.println(verificacao.encerrados().size() + " contrato(s) de serviço encerrado(s).");
+                }
+                for (RenovacaoScheduler.AlertaRenovacao alerta : verificacao.alertas()) {
+                    System.out.println("Contrato " + alerta.contratoId() + " vence em " + alerta.dataFim()
+                            + " (" + alerta.diasRestantes() + " dias).");
+                }
+            });
+            renovacaoScheduler.start();
+
 
             FXMLLoader loader = new FXMLLoader(getClass().getResource("/trabalho/fxml/common/tela_inicial.fxml"));
 
@@ -44,7 +62,11 @@ public class App extends Application {
     @Override
     public void stop() {
         System.out.println("Closing application and saving data...");
-        JsonDataManager.getInstance().saveData();
+        if (renovacaoScheduler != null) {
+            renovacaoScheduler.shutdown();
+        }
+        // Writes whatever the background saver still has pending
+        JsonDataManager.getInstance().shutdown();
     }
 
 
@@ -3,10 +3,7 @@ package trabalho.admin.controller;
 import java.io.IOException;
 import java.time.LocalDate;
 import java.util.Date;
-import java.util.stream.Collectors;
 import javafx.beans.property.SimpleStringProperty;
-import javafx.collections.FXCollections;
-import javafx.collections.ObservableList;
 import javafx.event.ActionEvent;
 import javafx.fxml.FXML;
 import javafx.fxml.FXMLLoader;
@@ -15,8 +12,11 @@ import javafx.scene.Scene;
 import javafx.scene.control.*;
 import javafx.stage.Stage;
 import trabalho.admin.model.Usuario;
+import trabalho.common.controller.PagedTableSource;
 import trabalho.common.database.AppData;
 import trabalho.common.database.JsonDataManager;
+import trabalho.common.database.search.ContratacaoSearchCriteria;
+import trabalho.common.database.search.SearchService;
 import trabalho.financeiro.utils.CpfCnpjManager;
 import trabalho.recrutamento.model.Contratacao;
 import trabalho.recrutamento.model.Contratacao.StatusContratacao;
@@ -60,7 +60,8 @@ public class AutorizarContratacoesController {
     // </editor-fold>
 
     private Usuario currentUser;
-    private ObservableList<Contratacao> masterContratacoesList = FXCollections.observableArrayList();
+    private PagedTableSource<Contratacao> contratacoes;
+    private ContratacaoSearchCriteria criteria;
 
     public void initData(Usuario currentUser) {
         this.currentUser = currentUser;
@@ -148,42 +149,30 @@ public class AutorizarContratacoesController {
     }
 
     private void loadContratacoes() {
-        masterContratacoesList.setAll(JsonDataManager.getInstance().getData().getContratacoes());
-        contratacoesTableView.setItems(masterContratacoesList);
+        SearchService searchService = JsonDataManager.getInstance().getSearchService();
         statusComboBox.setValue(StatusContratacao.PENDENTE_AUTORIZACAO);
-        handleFiltroAction(null);
+        criteria = currentCriteria();
+        contratacoes = new PagedTableSource<>(request -> searchService.searchContratacoes(criteria, request));
+        contratacoes.bind(contratacoesTableView);
     }
 
     @FXML
     private void handleFiltroAction(ActionEvent event) {
-        ObservableList<Contratacao> filteredList = masterContratacoesList.stream()
-                .filter(this::matchesFilters)
-                .collect(Collectors.toCollection(FXCollections::observableArrayList));
-        contratacoesTableView.setItems(filteredList);
+        criteria = currentCriteria();
+        contratacoes.refresh();
     }
 
-    private boolean matchesFilters(Contratacao contratacao) {
-        String idFilter = idField.getText().trim();
-        RegimeContratacao regimeFilter = regimeComboBox.getValue();
-        StatusContratacao statusFilter = statusComboBox.getValue();
-        String candidatoFilter = candidatoField.getText().trim();
-        String recrutadorFilter = RecrutadorField.getText().trim();
-        LocalDate dataFilter = dataField.getValue();
-
-        if (!idFilter.isEmpty() && !String.valueOf(contratacao.getVagaId()).contains(idFilter))
-            return false;
-        if (regimeFilter != null && contratacao.getRegime() != regimeFilter)
-            return false;
-        if (statusFilter != null && contratacao.getStatus() != statusFilter)
-            return false;
-        if (!candidatoFilter.isEmpty() && !contratacao.getCandidatoCpf().contains(candidatoFilter))
-            return false;
-        if (!recrutadorFilter.isEmpty() && !contratacao.getRecrutadorSolicitanteCpf().contains(recrutadorFilter))
-            return false;
-        if (dataFilter != null && !contratacao.getDataSolicitacao().equals(dataFilter))
-            return false;
-
-        return true;
+    private ContratacaoSearchCriteria currentCriteria() {
+        return new ContratacaoSearchCriteria(
+                null,
+                null,
+                null,
+                statusComboBox.getValue(),
+                regimeComboBox.getValue(),
+                idField.getText().trim(),
+                candidatoField.getText().trim(),
+                RecrutadorField.getText().trim(),
+                dataField.getValue());
     }
 
     @FXML
@@ -207,17 +196,20 @@ public class AutorizarContratacoesController {
         selectedContratacao.setStatus(StatusContratacao.AUTORIZADA);
         selectedContratacao.setDataAutorizacao(new Date()); // Set authorization date to now
         selectedContratacao.setGestorAutorizanteCpf(currentUser.getCpfCnpj());
+        appData.markUpdated(selectedContratacao);
 
         // You might also need to update the Vaga's status
         Vaga vaga = appData.getVagasById().get(selectedContratacao.getVagaId());
         if (vaga != null) {
             vaga.setStatus(Vaga.StatusVaga.FECHADA);
+            appData.markUpdated(vaga);
         }
 
         dataManager.saveData();
 
-        // Refresh the table to show the updated status
-        contratacoesTableView.refresh();
+        // Fetch the pages and the total again, the authorized one leaves the
+        // pending filter
+        contratacoes.refresh();
 
         showAlert(Alert.AlertType.INFORMATION, "Sucesso", "Contratação autorizada com sucesso!");
     }
@@ -4,6 +4,7 @@ import java.io.IOException;
 import java.util.List;
 import java.util.Set;
 
+import javafx.application.Platform;
 import javafx.event.ActionEvent;
 import javafx.fxml.FXML;
 import javafx.fxml.FXMLLoader;
@@ -27,6 +28,7 @@ import trabalho.common.database.JsonDataManager;
 import trabalho.exceptions.DuplicateDataException;
 import trabalho.exceptions.MissingDataException;
 import trabalho.financeiro.model.Funcionario;
+import trabalho.financeiro.utils.AuthenticationService;
 import trabalho.financeiro.utils.CpfCnpjManager;
 import trabalho.financeiro.utils.PasswordManager;
 import trabalho.recrutamento.model.Recrutador;
@@ -202,14 +204,6 @@ public class EditUsuarioController {
             return;
         }
 
-        String userPassHash;
-        // Existing user keeps current password if field is blank
-        if (this.funcionarioToEdit != null && senhaField.getText().isBlank()) {
-            userPassHash = this.funcionarioToEdit.getUsuario(appData).getPassHash();
-        } else {
-            userPassHash = PasswordManager.hashPassword(senhaField.getText());
-        }
-
         long telefone = 0;
 
         try {
@@ -238,6 +232,37 @@ public class EditUsuarioController {
             return;
         }
 
+        // Existing user keeps current password if field is blank
+        if (this.funcionarioToEdit != null && senhaField.getText().isBlank()) {
+            saveUsuario(this.funcionarioToEdit.getUsuario(appData).getPassHash(), telefone, salario);
+            return;
+        }
+
+        // Hashing takes a while, the user is saved once the hash is ready
+        long telefoneValue = telefone;
+        salvarButton.setDisable(true);
+        feedbackLabel.setTextFill(Color.GRAY);
+        feedbackLabel.setText("Salvando...");
+        AuthenticationService.getInstance().hash(senhaField.getText())
+                .whenComplete((userPassHash, error) -> Platform.runLater(() -> {
+                    salvarButton.setDisable(false);
+                    feedbackLabel.setText("");
+                    if (error != null) {
+                        System.err.println("Error hashing password: " + error.getMessage());
+                        showError("Não foi possível salvar a senha, tente novamente.", senhaField);
+                        return;
+                    }
+                    saveUsuario(userPassHash, telefoneValue, salario);
+                }));
+    }
+
+    /**
+     * Saves the validated form.
+     */
+    private void saveUsuario(String userPassHash, long telefone, double salario) {
+        JsonDataManager dataManager = JsonDataManager.getInstance();
+        AppData appData = dataManager.getData();
+
         String formattedCpfCnpj = CpfCnpjManager.toOnlyNumbers(cpfField.getText());
         Pessoa pessoa = new Pessoa(
                 formattedCpfCnpj,
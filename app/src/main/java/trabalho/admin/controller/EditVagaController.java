@@ -197,6 +197,7 @@ public class EditVagaController {
                 vagaToEdit.setStatus(statusSelecionado); // Set the Enum Object found above
                 vagaToEdit.setRecrutadorResponsavelCpf(recrutador.getCpfCnpj());
                 vagaToEdit.setDataAbertura(dataAbertura);
+                appData.markUpdated(vagaToEdit);
 
                 showSuccess("Vaga atualizada com sucesso!");
             } else {
@@ -3,6 +3,7 @@ package trabalho.admin.controller;
 import java.io.IOException;
 import java.util.List;
 import java.util.Set;
+import javafx.application.Platform;
 import javafx.event.ActionEvent;
 import javafx.fxml.FXML;
 import javafx.fxml.FXMLLoader;
@@ -21,6 +22,7 @@ import trabalho.common.controller.ProfilePageController;
 import trabalho.common.database.AppData;
 import trabalho.common.database.JsonDataManager;
 import trabalho.exceptions.DuplicateDataException;
+import trabalho.financeiro.utils.AuthenticationService;
 import trabalho.financeiro.utils.PasswordManager; // Assuming this is the correct path
 
 /**
@@ -108,12 +110,42 @@ public class InfoPessoalController {
 
     @FXML
     private void handleSalvarButtonAction(ActionEvent event) {
-        JsonDataManager dataManager = JsonDataManager.getInstance();
-        AppData appData = dataManager.getData();
         if (!validateInput()) {
             return; // Stop if validation fails
         }
 
+        // **Password Update Logic**: Only update the password if the user has typed a
+        // new one. Hashing takes a while, the information is saved once the hash is
+        // ready.
+        if (senhaField.getText().isEmpty()) {
+            saveInfo(null);
+            return;
+        }
+        salvarButton.setDisable(true);
+        feedbackLabel.setTextFill(Color.GRAY);
+        feedbackLabel.setText("Salvando...");
+        AuthenticationService.getInstance().hash(senhaField.getText())
+                .whenComplete((newHashedPassword, error) -> Platform.runLater(() -> {
+                    salvarButton.setDisable(false);
+                    if (error != null) {
+                        System.err.println("Error hashing password: " + error.getMessage());
+                        feedbackLabel.setText("Não foi possível salvar a senha, tente novamente.");
+                        feedbackLabel.setTextFill(Color.RED);
+                        return;
+                    }
+                    saveInfo(newHashedPassword);
+                }));
+    }
+
+    /**
+     * Saves the validated information.
+     *
+     * @param newHashedPassword {@code null} to keep the current password.
+     */
+    private void saveInfo(String newHashedPassword) {
+        JsonDataManager dataManager = JsonDataManager.getInstance();
+        AppData appData = dataManager.getData();
+
         // --- If validation succeeds, proceed to update the data ---
         Pessoa pessoa = currentUser.getPessoa(appData);
         pessoa.setNome(nomeField.getText());
@@ -121,11 +153,9 @@ public class InfoPessoalController {
         pessoa.setEndereco(enderecoField.getText());
         pessoa.setTelefone(Long.parseLong(telefoneField.getText())); // Be careful with parsing
 
-        // **Password Update Logic**: Only update the password if the user has typed a
-        // new one.
-        if (!senhaField.getText().isEmpty()) {
-            String newHashedPassword = PasswordManager.hashPassword(senhaField.getText());
+        if (newHashedPassword != null) {
             currentUser.setPassHash(newHashedPassword);
+            appData.markUpdated(currentUser);
             System.out.println("Password has been updated.");
         }
 
@@ -1,5 +1,6 @@
 package trabalho.admin.controller;
 
+import javafx.application.Platform;
 import javafx.fxml.FXML;
 import javafx.fxml.FXMLLoader;
 import javafx.scene.Parent;
@@ -7,18 +8,16 @@ import javafx.scene.Scene;
 import javafx.scene.control.Button;
 import javafx.scene.control.Label;
 import javafx.scene.control.PasswordField;
+import javafx.scene.control.ProgressIndicator;
 import javafx.scene.control.TextField;
 import javafx.scene.paint.Color;
 import javafx.stage.Stage;
 import trabalho.admin.model.Usuario;
 import trabalho.common.controller.ProfilePageController;
-import trabalho.common.database.AppData;
 import trabalho.common.database.JsonDataManager;
-import trabalho.financeiro.utils.CpfCnpjManager;
-import trabalho.financeiro.utils.PasswordManager;
+import trabalho.financeiro.utils.AuthenticationService;
 
 import java.io.IOException;
-import java.util.Optional;
 
 /*
  * Senhas devem respeitar políticas mínimas (por exemplo: 8 caracteres, letras e números).
@@ -45,6 +44,9 @@ public class LoginController {
     @FXML
     private Label feedbackLabel;
 
+    @FXML
+    private ProgressIndicator progressIndicator;
+
     /**
      * This method is called when the login button is clicked, as defined by the
      * onAction="#handleLoginButtonAction" in the FXML file.
@@ -67,25 +69,60 @@ public class LoginController {
     }
 
     /**
-     * Checks the user's credentials against the database.
+     * Checks the user's credentials against the database. The password is
+     * checked in the background, the form stays disabled until it is done.
      * 
-     * @param login    The username entered by the user.
-     * @param passHash The password entered by the user.
+     * @param login         The username entered by the user.
+     * @param plainPassword The password entered by the user.
      */
     private void authenticateUser(String login, String plainPassword) {
-        AppData appData = JsonDataManager.getInstance().getData();
+        setBusy(true);
+        showFeedback("Checking...", Color.GRAY);
+        AuthenticationService.getInstance().authenticate(JsonDataManager.getInstance(), login, plainPassword)
+                .thenAccept(result -> Platform.runLater(() -> handleResult(result)));
+    }
 
-        Optional<Usuario> userOptional = Optional
-                .ofNullable(appData.getUsuarios().get((CpfCnpjManager.toOnlyNumbers(login))));
+    private void handleResult(AuthenticationService.Result result) {
+        setBusy(false);
+        switch (result.outcome()) {
+            case SUCCESS -> {
+                showFeedback("Login successful!", Color.GREEN);
+                navigateToProfilePage(result.usuario());
+            }
+            case INVALID -> {
+                passwordField.clear();
+                if (result.retryAfter().isZero()) {
+                    showFeedback("Invalid username or password.", Color.RED);
+                } else {
+                    showFeedback("Invalid username or password. Try again in "
+                            + toSeconds(result) + " s.", Color.RED);
+                }
+            }
+            case THROTTLED -> {
+                if (result.retryAfter().isZero()) {
+                    showFeedback("A login for this user is already in progress.", Color.RED);
+                } else {
+                    showFeedback("Too many attempts. Try again in " + toSeconds(result) + " s.", Color.RED);
+                }
+            }
+            case BUSY -> showFeedback("Too many logins right now. Please try again.", Color.RED);
+        }
+    }
 
-        if (userOptional.isPresent()
-                && PasswordManager.verifyPassword(plainPassword, userOptional.get().getPassHash())) {
-            showFeedback("Login successful!", Color.GREEN);
+    private static long toSeconds(AuthenticationService.Result result) {
+        return Math.max(1, (result.retryAfter().toMillis() + 999) / 1000); // Rounded up
+    }
 
-            navigateToProfilePage(userOptional.get());
-        } else {
-            showFeedback("Invalid username or password.", Color.RED);
-        }
+    /**
+     * Disables the form and shows the progress indicator while a login is
+     * being checked.
+     */
+    private void setBusy(boolean busy) {
+        usernameField.setDisable(busy);
+        passwordField.setDisable(busy);
+        loginButton.setDisable(busy);
+        progressIndicator.setVisible(busy);
+        progressIndicator.setManaged(busy);
     }
 
     private void navigateToProfilePage(Usuario user) {
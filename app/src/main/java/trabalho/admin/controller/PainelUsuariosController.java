@@ -4,6 +4,7 @@ import javafx.scene.control.Alert;
 import javafx.scene.control.ButtonType;
 import java.util.Optional;
 import javafx.collections.FXCollections;
+import javafx.collections.ListChangeListener;
 import javafx.collections.ObservableList;
 import javafx.event.ActionEvent;
 import javafx.fxml.FXML;
@@ -18,13 +19,18 @@ import javafx.stage.Stage;
 import javafx.beans.property.SimpleStringProperty;
 
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
 
 import javafx.beans.property.SimpleDoubleProperty;
 import trabalho.admin.model.Administrador;
 import trabalho.admin.model.Usuario;
+import trabalho.common.controller.BackgroundFilter;
+import trabalho.common.controller.LiveEntityList;
 import trabalho.common.controller.ProfilePageController;
 import trabalho.common.database.AppData;
 import trabalho.common.database.JsonDataManager;
+import trabalho.common.database.search.PessoaSearchKeys;
 import trabalho.financeiro.model.Funcionario;
 import trabalho.financeiro.utils.CpfCnpjManager;
 
@@ -105,11 +111,63 @@ public class PainelUsuariosController {
     @FXML
     private TableColumn<Funcionario, Double> salarioColumn;
 
-    // An ObservableList to hold the user data for the table.
-    private ObservableList<Funcionario> funcionariosList = FXCollections.observableArrayList();
+    // The Funcionarios of the data, following its changes
+    private LiveEntityList<Funcionario> funcionariosList;
     // </editor-fold>
     private Usuario currentUser;
 
+    /**
+     * A Funcionario with its search keys, normalized once instead of on every
+     * keystroke.
+     */
+    private record SearchRow(
+            Funcionario funcionario,
+            PessoaSearchKeys pessoa,
+            String cargo,
+            String departamento,
+            String salario) {
+    }
+
+    /**
+     * The normalized contents of the filter fields, empty ones match anything.
+     */
+    private record SearchFilter(
+            String cpf,
+            String nome,
+            String email,
+            String endereco,
+            String telefone,
+            String cargo,
+            String departamento,
+            String salario) {
+
+        boolean isEmpty() {
+            return cpf.isEmpty() && nome.isEmpty() && email.isEmpty() && endereco.isEmpty()
+                    && telefone.isEmpty() && cargo.isEmpty() && departamento.isEmpty() && salario.isEmpty();
+        }
+
+        boolean matches(SearchRow row) {
+            return row.pessoa().cpfCnpj().contains(cpf)
+                    && row.pessoa().nome().contains(nome)
+                    && row.pessoa().email().contains(email)
+                    && row.pessoa().endereco().contains(endereco)
+                    && row.pessoa().telefone().contains(telefone)
+                    && row.cargo().contains(cargo)
+                    && row.departamento().contains(departamento)
+                    && row.salario().contains(salario);
+        }
+    }
+
+    private record SearchRows(List<Funcionario> source, List<SearchRow> rows) {
+    }
+
+    private final BackgroundFilter<SearchRow> searchFilter = new BackgroundFilter<>(this::showSearchResult);
+
+    // Searches run over this copy of funcionariosList, null once it changes
+    private List<Funcionario> loadedFuncionarios;
+    // Built by the first search after each change, on the filter thread
+    private volatile SearchRows searchRows;
+
     public void initData(Usuario currentUser) {
         this.currentUser = currentUser;
     }
@@ -127,8 +185,8 @@ public class PainelUsuariosController {
 
         loadFuncionarios();
 
-        userTableView.setItems(funcionariosList);
         setupTableSelectionListener();
+        setupSearchAsYouType();
     }
 
     private void configureTableColumns() {
@@ -176,13 +234,54 @@ public class PainelUsuariosController {
     }
 
     /**
-     * A helper method to fetch user data from a database or file
-     * and populate the TableView.
+     * Fills the TableView once, from then on it follows the changes of the
+     * data, and a search in progress runs again over the new rows.
      */
     private void loadFuncionarios() {
         AppData appData = JsonDataManager.getInstance().getData();
-        funcionariosList.setAll(appData.getAllFuncionarios());
-        userTableView.setItems(funcionariosList);
+        funcionariosList = new LiveEntityList<>(Funcionario.class, f -> true)
+                .open(appData, appData::getAllFuncionarios);
+        funcionariosList.bind(userTableView);
+        funcionariosList.getItems().addListener((ListChangeListener<Funcionario>) change -> {
+            loadedFuncionarios = null;
+            if (userTableView.getItems() != funcionariosList.getSorted()) {
+                handleSearch();
+            }
+        });
+    }
+
+    /**
+     * Builds the search rows for the given Funcionarios, or returns the ones
+     * already built. Runs on the filter thread.
+     */
+    private List<SearchRow> getSearchRows(List<Funcionario> funcionarios) {
+        SearchRows cached = searchRows;
+        if (cached != null && cached.source() == funcionarios) {
+            return cached.rows();
+        }
+
+        AppData appData = JsonDataManager.getInstance().getData();
+        List<SearchRow> rows = new ArrayList<>(funcionarios.size());
+        // AppData's mutators hold its lock, so the Pessoas do not change meanwhile
+        synchronized (appData) {
+            for (Funcionario f : funcionarios) {
+                rows.add(new SearchRow(
+                        f,
+                        PessoaSearchKeys.of(f.getPessoa(appData)),
+                        PessoaSearchKeys.normalize(f.getCargo()),
+                        PessoaSearchKeys.normalize(f.getDepartamento()),
+                        String.valueOf(f.getSalarioBase())));
+            }
+        }
+        searchRows = new SearchRows(funcionarios, rows);
+        return rows;
+    }
+
+    private void setupSearchAsYouType() {
+        for (TextField field : List.of(cpfField, nomeField, emailField, enderecoField, telefoneField,
+                cargoField, departamentoField, salarioField)) {
+            field.textProperty().addListener((obs, oldText, newText) -> handleSearch());
+        }
     }
 
     /**
@@ -203,53 +302,42 @@ public class PainelUsuariosController {
 
     @FXML
     private void handlePesquisarButtonAction(ActionEvent event) {
-        AppData appData = JsonDataManager.getInstance().getData();
-
         System.out.println("'Pesquisar' button clicked.");
-        String cpfFilter = cpfField.getText().trim();
-        String nomeFilter = nomeField.getText().trim().toLowerCase();
-        String emailFilter = emailField.getText().trim().toLowerCase();
-        String enderecoFilter = enderecoField.getText().trim().toLowerCase();
-        String telefoneFilter = telefoneField.getText().trim();
-        String cargoFilter = cargoField.getText().trim().toLowerCase();
-        String departamentoFilter = departamentoField.getText().trim().toLowerCase();
-        String salarioFilter = salarioField.getText().trim();
-        if (cpfFilter.isEmpty() && nomeFilter.isEmpty() && emailFilter.isEmpty()
-                && enderecoFilter.isEmpty() && telefoneFilter.isEmpty() && cargoFilter.isEmpty()
-                && departamentoFilter.isEmpty() && salarioFilter.isEmpty()) {
-            userTableView.setItems(funcionariosList);
+        handleSearch();
+    }
+
+    /**
+     * Filters the table with the contents of the search fields. The matching
+     * runs on a background thread, a search started while another is still
+     * running replaces it.
+     */
+    private void handleSearch() {
+        SearchFilter filter = new SearchFilter(
+                cpfField.getText().trim(),
+                PessoaSearchKeys.normalize(nomeField.getText()),
+                PessoaSearchKeys.normalize(emailField.getText()),
+                PessoaSearchKeys.normalize(enderecoField.getText()),
+                telefoneField.getText().trim(),
+                PessoaSearchKeys.normalize(cargoField.getText()),
+                PessoaSearchKeys.normalize(departamentoField.getText()),
+                salarioField.getText().trim());
+        if (filter.isEmpty()) {
+            searchFilter.cancel();
+            userTableView.setItems(funcionariosList.getSorted());
             return;
         }
 
-        ObservableList<Funcionario> filteredList = FXCollections.observableArrayList();
-        for (Funcionario f : funcionariosList) {
-            boolean matchesCpf = cpfFilter.isEmpty()
-                    || CpfCnpjManager.toOnlyNumbers(f.getCpfCnpj()).contains(cpfFilter);
-
-            boolean matchesNome = nomeFilter.isEmpty()
-                    || f.getPessoa(appData).getNome().toLowerCase().contains(nomeFilter);
-
-            boolean matchesEmail = emailFilter.isEmpty()
-                    || f.getPessoa(appData).getEmail().toLowerCase().contains(emailFilter);
-
-            boolean matchesEndereco = enderecoFilter.isEmpty()
-                    || f.getPessoa(appData).getEndereco().toLowerCase().contains(enderecoFilter);
-
-            boolean matchesTelefone = telefoneFilter.isEmpty()
-                    || String.valueOf(f.getPessoa(appData).getTelefone()).contains(telefoneFilter);
-
-            boolean matchesCargo = cargoFilter.isEmpty() || f.getCargo().toLowerCase().contains(cargoFilter);
-
-            boolean matchesDepartamento = departamentoFilter.isEmpty()
-                    || f.getDepartamento().toLowerCase().contains(departamentoFilter);
-
-            boolean matchesSalario = salarioFilter.isEmpty()
-                    || String.valueOf(f.getSalarioBase()).contains(salarioFilter);
+        if (loadedFuncionarios == null) {
+            loadedFuncionarios = List.copyOf(funcionariosList.getItems());
+        }
+        List<Funcionario> funcionarios = loadedFuncionarios;
+        searchFilter.filter(() -> getSearchRows(funcionarios), filter::matches);
+    }
 
-            if (matchesCpf && matchesNome && matchesEmail && matchesEndereco && matchesTelefone
-                    && matchesCargo && matchesDepartamento && matchesSalario) {
-                filteredList.add(f);
-            }
+    private void showSearchResult(List<SearchRow> rows) {
+        ObservableList<Funcionario> filteredList = FXCollections.observableArrayList();
+        for (SearchRow row : rows) {
+            filteredList.add(row.funcionario());
         }
         userTableView.setItems(filteredList);
     }
@@ -374,7 +462,6 @@ public class PainelUsuariosController {
 
                 appData.removeFuncionario(selectedUser);
                 dataManager.saveData();
-                loadFuncionarios();
             }
         }
     }
@@ -1,15 +1,12 @@
 package trabalho.admin.controller;
 
 import java.io.IOException;
-import java.time.LocalDate;
 import java.util.Date;
-import java.util.stream.Collectors;
 
 import javafx.scene.control.Alert;
 import javafx.scene.control.ButtonType;
 import java.util.Optional;
 import javafx.collections.FXCollections;
-import javafx.collections.ObservableList;
 import javafx.event.ActionEvent;
 import javafx.fxml.FXML;
 import javafx.fxml.FXMLLoader;
@@ -25,10 +22,12 @@ import javafx.stage.Stage;
 import javafx.beans.property.SimpleDoubleProperty;
 import javafx.beans.property.SimpleStringProperty;
 
+import trabalho.common.controller.PagedTableSource;
 import trabalho.common.database.AppData;
 import trabalho.common.database.JsonDataManager;
+import trabalho.common.database.search.SearchService;
+import trabalho.common.database.search.VagaSearchCriteria;
 import trabalho.admin.model.Usuario;
-import trabalho.financeiro.model.Funcionario;
 import trabalho.recrutamento.model.RegimeContratacao;
 import trabalho.recrutamento.model.Vaga;
 import trabalho.recrutamento.model.Vaga.StatusVaga;
@@ -110,7 +109,10 @@ public class PainelVagasController {
     @FXML
     private TableColumn<Vaga, String> statusColumn;
 
-    private ObservableList<Vaga> vagasList = FXCollections.observableArrayList();
+    // The filter fields as of the last search
+    private PagedTableSource<Vaga> vagas;
+    private VagaSearchCriteria criteria = new VagaSearchCriteria(
+            null, null, null, null, null, null, null, null, null, null);
     private Usuario currentUser;
 
     public void initData(Usuario currentUser) {
@@ -183,10 +185,13 @@ public class PainelVagasController {
      * Fetches job vacancy data from the data source and populates the TableView.
      */
     private void loadVagas() {
-        AppData appData = JsonDataManager.getInstance().getData();
-        vagasList.setAll(appData.getVagasById().values().stream().toList());
-        vagasTableView.setItems(vagasList);
-        vagasTableView.refresh(); // Good practice to refresh the table view
+        if (vagas == null) {
+            SearchService searchService = JsonDataManager.getInstance().getSearchService();
+            vagas = new PagedTableSource<>(request -> searchService.searchVagas(criteria, request));
+            vagas.bind(vagasTableView);
+        } else {
+            vagas.refresh();
+        }
     }
 
     /**
@@ -206,55 +211,19 @@ public class PainelVagasController {
     private void handlePesquisarButtonAction(ActionEvent event) {
         System.out.println("'Pesquisar' button clicked.");
 
-        // Create a stream from the original full list of vacancies
-        ObservableList<Vaga> filteredList = vagasList.stream()
-                .filter(vaga -> matchesFilters(vaga))
-                .collect(Collectors.toCollection(FXCollections::observableArrayList));
-
-        vagasTableView.setItems(filteredList);
-    }
-
-    /**
-     * Helper method to check if a Vaga object matches the current filter criteria.
-     * 
-     * @param vaga The Vaga to check.
-     * @return true if it matches, false otherwise.
-     */
-    private boolean matchesFilters(Vaga vaga) {
-        AppData appData = JsonDataManager.getInstance().getData();
-        String idFilter = idField.getText().trim();
-        String cargoFilter = cargoField.getText().trim().toLowerCase();
-        String departamentoFilter = departamentoField.getText().trim().toLowerCase();
-        String salarioFilter = salarioField.getText().trim();
-        LocalDate dataFilter = dataPicker.getValue();
-        String cpfRecrutadorFilter = cpfRecrutadorField.getText().trim().toLowerCase();
-        RegimeContratacao regimeFilter = regimeComboBox.getValue();
-        StatusVaga statusFilter = statusComboBox.getValue();
-
-        if (!idFilter.isEmpty() && !String.valueOf(vaga.getId()).contains(idFilter))
-            return false;
-        if (!cargoFilter.isEmpty() && !vaga.getCargo().toLowerCase().contains(cargoFilter))
-            return false;
-        if (!departamentoFilter.isEmpty() && !vaga.getDepartamento().toLowerCase().contains(departamentoFilter))
-            return false;
-        if (!salarioFilter.isEmpty() && !String.valueOf(vaga.getSalarioBase()).contains(salarioFilter))
-            return false;
-        if (dataFilter != null && !vaga.getDataAbertura().toInstant().atZone(java.time.ZoneId.systemDefault())
-                .toLocalDate().equals(dataFilter))
-            return false;
-        if (!cpfRecrutadorFilter.isEmpty()) {
-            Funcionario recrutador = appData.getRecrutadores().get(vaga.getRecrutadorResponsavelCpf());
-            if (recrutador == null
-                    || !recrutador.getPessoa(appData).getNome().toLowerCase().contains(cpfRecrutadorFilter)) {
-                return false;
-            }
-        }
-        if (regimeFilter != null && vaga.getRegimeContratacao() != regimeFilter)
-            return false;
-        if (statusFilter != null && vaga.getStatus() != statusFilter)
-            return false;
-
-        return true;
+        // The recrutador field is matched against the recrutador's name
+        criteria = new VagaSearchCriteria(
+                cargoField.getText(),
+                departamentoField.getText(),
+                statusComboBox.getValue(),
+                regimeComboBox.getValue(),
+                null,
+                null,
+                idField.getText(),
+                cpfRecrutadorField.getText(),
+                salarioField.getText(),
+                dataPicker.getValue());
+        vagas.refresh();
     }
 
     @FXML
@@ -1,11 +1,8 @@
 package trabalho.admin.controller;
 
 import java.io.IOException;
-import java.util.stream.Collectors;
 
 import javafx.beans.property.SimpleStringProperty;
-import javafx.collections.FXCollections;
-import javafx.collections.ObservableList;
 import javafx.event.ActionEvent;
 import javafx.fxml.FXML;
 import javafx.fxml.FXMLLoader;
@@ -21,8 +18,11 @@ import javafx.stage.Stage;
 import trabalho.admin.model.Usuario;
 import trabalho.candidatura.model.Candidatura;
 import trabalho.candidatura.model.Candidatura.StatusCandidatura;
+import trabalho.common.controller.PagedTableSource;
 import trabalho.common.database.AppData;
 import trabalho.common.database.JsonDataManager;
+import trabalho.common.database.search.CandidaturaSearchCriteria;
+import trabalho.common.database.search.SearchService;
 import trabalho.financeiro.utils.CpfCnpjManager;
 
 public class PesquisarCandidaturasController {
@@ -47,7 +47,9 @@ public class PesquisarCandidaturasController {
     // </editor-fold>
 
     private Usuario currentUser;
-    private ObservableList<Candidatura> masterCandidaturasList = FXCollections.observableArrayList();
+    // Only the rows on screen are fetched, filter and sort run in the search
+    private PagedTableSource<Candidatura> candidaturas;
+    private CandidaturaSearchCriteria criteria = new CandidaturaSearchCriteria(null, null, null, null, null);
 
     /**
      * Called by the previous screen to pass necessary data.
@@ -80,7 +82,7 @@ public class PesquisarCandidaturasController {
         // It requires the Candidatura class to have public getter methods
         // like getVagaId(), getCandidatoCpfCnpj(), and getStatus().
         idColumn.setCellValueFactory(cellData -> {
-            String id = cellData.getValue().getVaga().getId();
+            String id = cellData.getValue().getVagaId();
             return new SimpleStringProperty(id != null ? id : "");
         });
         cpfColumn.setCellValueFactory(cellData -> {
@@ -100,47 +102,16 @@ public class PesquisarCandidaturasController {
     }
 
     private void loadInitialData() {
-        // Load all candidaturas from the data source into our master list
-        masterCandidaturasList.setAll(JsonDataManager.getInstance().getData().getCandidaturas());
-        // Display the full list in the table initially
-        candidaturasTableView.setItems(masterCandidaturasList);
+        SearchService searchService = JsonDataManager.getInstance().getSearchService();
+        candidaturas = new PagedTableSource<>(request -> searchService.searchCandidaturas(criteria, request));
+        candidaturas.bind(candidaturasTableView);
     }
 
     @FXML
     private void handlePesquisarButtonAction(ActionEvent event) {
-        // Use a Java Stream to filter the master list based on the filter criteria
-        ObservableList<Candidatura> filteredList = masterCandidaturasList.stream()
-                .filter(this::matchesFilters) // Use a helper method for clean logic
-                .collect(Collectors.toCollection(FXCollections::observableArrayList));
-
-        // Update the table to show only the filtered results
-        candidaturasTableView.setItems(filteredList);
-    }
-
-    /**
-     * Helper method to check if a single Candidatura object matches the current
-     * filters.
-     * 
-     * @param candidatura The candidatura to check.
-     * @return true if it matches, false otherwise.
-     */
-    private boolean matchesFilters(Candidatura candidatura) {
-        String idFilter = idField.getText().trim();
-        StatusCandidatura statusFilter = statusComboBox.getValue();
-
-        if (!idFilter.isEmpty() && !String.valueOf(candidatura.getVaga().getId()).contains(idFilter)) {
-            return false;
-        }
-
-        // Check Status filter (exact match)
-        // This is the crucial fix: only perform the check if the user has selected a
-        // status.
-        if (statusFilter != null && candidatura.getStatusEnum() != statusFilter) {
-            return false;
-        }
-
-        // If the candidatura passed all checks, it's a match
-        return true;
+        criteria = new CandidaturaSearchCriteria(null, null, statusComboBox.getValue(), null,
+                idField.getText().trim());
+        candidaturas.refresh();
     }
 
     @FXML
@@ -86,6 +86,7 @@ public class Gestor extends Funcionario {
      */
     public void atribuirRecrutador(Vaga vaga, Recrutador recrutador) {
         vaga.setRecrutadorResponsavelCpf(recrutador.getCpfCnpj());
+        JsonDataManager.getInstance().getData().markUpdated(vaga);
     }
 
     /**
@@ -116,6 +117,7 @@ public class Gestor extends Funcionario {
      */
     public void autorizarContratacao(Contratacao contratacao) {
         contratacao.setStatus(StatusContratacao.AUTORIZADA);
+        JsonDataManager.getInstance().getData().markUpdated(contratacao);
     }
 
     /**
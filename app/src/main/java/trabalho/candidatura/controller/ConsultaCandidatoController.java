@@ -13,12 +13,17 @@ import javafx.stage.Stage;
 import trabalho.admin.model.Usuario;
 import trabalho.candidatura.model.Candidato;
 import trabalho.candidatura.model.Candidatura;
+import trabalho.candidatura.model.Pessoa;
 import trabalho.common.controller.ProfilePageController;
 import trabalho.common.database.AppData;
 import trabalho.common.database.JsonDataManager;
+import trabalho.common.database.search.FullTextIndex.Hit;
+import trabalho.common.database.search.PessoaTextIndex.Campo;
+import trabalho.common.database.search.TextNormalizer;
 import trabalho.recrutamento.model.Vaga;
 
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 import java.util.stream.Collectors;
@@ -61,16 +66,34 @@ public class ConsultaCandidatoController {
         AppData appData = dataManager.getData();
         Map<String, Candidato> todos = appData.getCandidatos();
 
-        List<Candidato> filtrados = todos.values().stream()
+        // filtro nome, pelo índice de texto: ignora acentos e ordena por relevância.
+        // O índice só acha palavras de 1 ou 2 letras no começo de uma palavra,
+        // então com essas o nome é percorrido e basta conter o texto, como antes
+        List<Candidato> candidatos;
+        String nome = txtNome.getText();
+        if (checkNome.isSelected() && !nome.isBlank()
+                && TextNormalizer.tokenize(nome).stream().allMatch(palavra -> palavra.length() >= 3)) {
+            candidatos = new ArrayList<>();
+            List<Hit> hits = dataManager.getPessoaTextIndex().search(Map.of(Campo.NOME, nome), 0);
+            for (Hit hit : hits) {
+                Candidato c = todos.get(hit.key());
+                if (c != null) {
+                    candidatos.add(c);
+                }
+            }
+        } else if (checkNome.isSelected() && !nome.isBlank()) {
+            String filtro = TextNormalizer.fold(nome);
+            candidatos = todos.values().stream()
+                    .filter(c -> TextNormalizer.fold(c.getPessoa().getNome()).contains(filtro))
+                    .toList();
+        } else {
+            candidatos = List.copyOf(todos.values());
+        }
+
+        List<Candidato> filtrados = candidatos.stream()
                 .filter(c -> {
                     boolean corresponde = true;
 
-                    // filtro nome
-                    if (checkNome.isSelected() && !txtNome.getText().isBlank()) {
-                        String filtro = txtNome.getText().toLowerCase();
-                        corresponde &= c.getPessoa().getNome().toLowerCase().contains(filtro);
-                    }
-
                     // filtro CPF
                     if (checkVaga.isSelected() && !txtVaga.getText().isBlank()) {
                         String filtro = txtVaga.getText().toLowerCase();
@@ -157,12 +180,16 @@ public class ConsultaCandidatoController {
         JsonDataManager dataManager = JsonDataManager.getInstance();
         AppData appData = dataManager.getData();
 
-        appData.getCandidaturas().removeIf(c -> c.getCandidato() != null &&
-                c.getCandidato().getCpfCnpj().equals(candidato.getCpfCnpj()));
+        // Goes through AppData so the removals are recorded
+        appData.getCandidaturasByCandidato(candidato.getCpfCnpj())
+                .forEach(appData::removeCandidatura);
 
-        appData.getCandidatos().remove(candidato.getCpfCnpj());
+        appData.removeCandidato(candidato);
 
-        appData.getPessoas().remove(candidato.getCpfCnpj());
+        Pessoa pessoa = appData.getPessoas().get(candidato.getCpfCnpj());
+        if (pessoa != null) {
+            appData.removePessoa(pessoa);
+        }
 
         dataManager.saveData();
 
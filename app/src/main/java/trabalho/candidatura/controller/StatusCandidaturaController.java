@@ -1,7 +1,5 @@
 package trabalho.candidatura.controller;
 
-import javafx.collections.FXCollections;
-import javafx.collections.ObservableList;
 import javafx.event.ActionEvent;
 import javafx.fxml.FXML;
 import javafx.fxml.FXMLLoader;
@@ -14,6 +12,7 @@ import javafx.scene.input.MouseEvent;
 import javafx.stage.Stage;
 import javafx.beans.property.SimpleStringProperty;
 import trabalho.candidatura.model.Candidatura;
+import trabalho.common.controller.LiveEntityList;
 import trabalho.common.controller.ProfilePageController;
 import trabalho.common.database.AppData;
 import trabalho.common.database.JsonDataManager;
@@ -25,10 +24,8 @@ import java.io.IOException;
 import java.lang.reflect.Field;
 import java.text.SimpleDateFormat;
 import java.util.Date;
-import java.util.LinkedList;
 import java.util.List;
-import java.util.Map;
-import java.util.stream.Collectors;
+import java.util.function.Predicate;
 import javafx.scene.layout.HBox;
 
 public class StatusCandidaturaController {
@@ -55,7 +52,8 @@ public class StatusCandidaturaController {
     @FXML
     private Button btnLimpar;
 
-    private ObservableList<Candidatura> listaCandidaturas;
+    // Follows the data, rows are added, removed and updated as they change
+    private LiveEntityList<Candidatura> listaCandidaturas;
 
     private final SimpleDateFormat sdf = new SimpleDateFormat("dd/MM/yyyy");
 
@@ -137,14 +135,10 @@ public class StatusCandidaturaController {
             JsonDataManager dataManager = JsonDataManager.getInstance();
             AppData appData = dataManager.getData();
 
-            // Remove dos dados
-            appData.getCandidaturas().remove(candidatura);
+            // Remove dos dados, a tabela acompanha
+            appData.removeCandidatura(candidatura);
 
             dataManager.saveData(); // salva no JSON
-
-            // Atualiza tabela
-            listaCandidaturas.remove(candidatura);
-            tabelaCandidaturas.refresh();
         }
     }
 
@@ -162,16 +156,24 @@ public class StatusCandidaturaController {
             candidatura.setStatus(statusSelecionado);
 
             JsonDataManager dataManager = JsonDataManager.getInstance();
+            dataManager.getData().markUpdated(candidatura);
             dataManager.saveData(); // salva no JSON
-
-            tabelaCandidaturas.refresh();
         });
     }
 
     private void carregarCandidaturas() {
-        List<Candidatura> todas = getListaCandidaturas();
-        listaCandidaturas = FXCollections.observableArrayList(todas);
-        tabelaCandidaturas.setItems(listaCandidaturas);
+        AppData appData = JsonDataManager.getInstance().getData();
+        String recrutadorCpf = this.currentUser.getCpfCnpj();
+        // Candidaturas às vagas do recrutador
+        Predicate<Candidatura> doRecrutador = c -> {
+            Vaga vaga = appData.getVagasById().get(c.getVagaId());
+            return vaga != null && recrutadorCpf.equals(vaga.getRecrutadorResponsavelCpf());
+        };
+        // Uma vaga que muda de recrutador leva ou traz as suas candidaturas
+        listaCandidaturas = new LiveEntityList<>(Candidatura.class, doRecrutador)
+                .recheckOn(Vaga.class, vaga -> appData.getCandidaturasByVaga(vaga.getId()))
+                .open(appData, this::getListaCandidaturas);
+        listaCandidaturas.bind(tabelaCandidaturas);
     }
 
     private void configurarAcoes() {
@@ -255,21 +257,7 @@ public class StatusCandidaturaController {
         try {
             JsonDataManager dataManager = JsonDataManager.getInstance();
             AppData appData = dataManager.getData();
-            List<Candidatura> candidaturas = new LinkedList<>();
-
-            for (Candidatura candidatura : appData.getCandidaturas()) {
-                String vagaId = candidatura.getVaga().getId();
-                Map<String, Vaga> vagasByID = appData.getVagasById();
-                if (!vagasByID.containsKey(vagaId)) {
-                    continue;
-                }
-                String recrutadorCpfCnpj = vagasByID.get(vagaId).getRecrutadorResponsavelCpf();
-                if (recrutadorCpfCnpj.equals(this.currentUser.getCpfCnpj())) {
-                    candidaturas.add(candidatura);
-                }
-
-            }
-            return candidaturas;
+            return appData.getCandidaturasByRecrutador(this.currentUser.getCpfCnpj());
         } catch (Exception e) {
             e.printStackTrace();
             return List.of();
@@ -280,9 +268,7 @@ public class StatusCandidaturaController {
         String nomeFiltro = txtNomeCandidato.getText() == null ? "" : txtNomeCandidato.getText().trim().toLowerCase();
         String vagaFiltro = txtVaga.getText() == null ? "" : txtVaga.getText().trim().toLowerCase();
 
-        List<Candidatura> todas = getListaCandidaturas();
-
-        List<Candidatura> filtradas = todas.stream().filter(c -> {
+        listaCandidaturas.setFilter(c -> {
             boolean okNome = true;
             boolean okVaga = true;
 
@@ -296,15 +282,13 @@ public class StatusCandidaturaController {
                 okVaga = nomeVaga.contains(vagaFiltro);
             }
             return okNome && okVaga;
-        }).collect(Collectors.toList());
-
-        tabelaCandidaturas.setItems(FXCollections.observableArrayList(filtradas));
+        });
     }
 
     private void limparFiltros() {
         txtNomeCandidato.clear();
         txtVaga.clear();
-        tabelaCandidaturas.setItems(listaCandidaturas);
+        listaCandidaturas.setFilter(null);
     }
 
     private Usuario currentUser;
@@ -2,6 +2,7 @@ package trabalho.candidatura.model;
 
 import java.util.Date;
 import java.util.List;
+import java.util.Objects;
 
 import trabalho.common.database.AppData;
 import trabalho.common.database.JsonDataManager;
@@ -10,7 +11,9 @@ import trabalho.recrutamento.model.Vaga;
 
 public class Candidatura {
     private String cpfCnpjCandidato;
-    private Vaga vaga;
+    // Only the id is stored, the Vaga itself lives in AppData.getVagasById()
+    // so every Candidatura of a Vaga sees the same, up to date, instance.
+    private String vagaId;
     private Date dataCandidatura;
     private StatusCandidatura status;
 
@@ -23,7 +26,7 @@ public class Candidatura {
 
     public Candidatura(String cpfCnpjCandidato, Vaga vaga, Date dataCandidatura) {
         this.cpfCnpjCandidato = cpfCnpjCandidato;
-        this.vaga = vaga;
+        this.vagaId = vaga != null ? vaga.getId() : null;
         this.dataCandidatura = dataCandidatura;
         this.status = StatusCandidatura.PENDENTE;
     }
@@ -43,12 +46,38 @@ public class Candidatura {
         return candidato;
     }
 
+    /**
+     * Resolves the Vaga through {@link AppData#getVagasById()}.
+     *
+     * @return The Vaga, or {@code null} if it no longer exists.
+     */
     public Vaga getVaga() {
-        return vaga;
+        if (vagaId == null) {
+            return null;
+        }
+        JsonDataManager dataManager = JsonDataManager.getInstance();
+        AppData appData = dataManager.getData();
+        return appData.getVagasById().get(vagaId);
     }
 
     public void setVaga(Vaga vaga) {
-        this.vaga = vaga;
+        this.vagaId = vaga != null ? vaga.getId() : null;
+    }
+
+    public String getVagaId() {
+        return vagaId;
+    }
+
+    public void setVagaId(String vagaId) {
+        this.vagaId = vagaId;
+    }
+
+    public Date getDataCandidatura() {
+        return dataCandidatura;
+    }
+
+    public void setDataCandidatura(Date dataCandidatura) {
+        this.dataCandidatura = dataCandidatura;
     }
 
     public String getStatus() { // Or make it retunr the enum StatusCandidatura
@@ -67,12 +96,7 @@ public class Candidatura {
         JsonDataManager dataManager = JsonDataManager.getInstance();
         AppData appData = dataManager.getData();
 
-        for (Candidatura candidatura : appData.getCandidaturas()) {
-            if (candidatura.getCpfCnpjCandidato().equals(c.getCpfCnpjCandidato()) &&
-                    candidatura.getVaga().equals(c.getVaga())) {
-                return false;
-            }
-        }
+        // addCandidatura rejects a second Candidatura to the same Vaga
         try {
             appData.addCandidatura(c);
             dataManager.saveData();
@@ -109,4 +133,21 @@ public class Candidatura {
         List<Candidatura> candidaturas = appData.getCandidaturas();
 
     }
+
+    // Um candidato se candidata a uma vaga apenas uma vez, (cpf, vagaId) e a chave
+    @Override
+    public boolean equals(Object o) {
+        if (this == o)
+            return true;
+        if (o == null || getClass() != o.getClass())
+            return false;
+        Candidatura that = (Candidatura) o;
+        return Objects.equals(cpfCnpjCandidato, that.cpfCnpjCandidato)
+                && Objects.equals(vagaId, that.vagaId);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(cpfCnpjCandidato, vagaId);
+    }
 }
@@ -0,0 +1,119 @@
+package trabalho.common.controller;
+
+import javafx.application.Platform;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+/**
+ * Filters a list off the JavaFX Application Thread, for search fields that
+ * re-run the query on every keystroke.
+ * <p>
+ * Starting a query cancels the one still running, and only the result of the
+ * latest query is handed to the consumer, on the JavaFX Application Thread.
+ * {@link #filter} and {@link #cancel()} must be called from that thread too.
+ */
+public class BackgroundFilter<T> {
+    // Rows checked between two looks at whether the query became stale
+    private static final int CANCEL_CHECK_INTERVAL = 1024;
+
+    // Shared by every screen, the threads are daemons so they never keep the
+    // application alive.
+    private static final ExecutorService WORKERS = Executors.newFixedThreadPool(
+            Math.max(1, Runtime.getRuntime().availableProcessors() - 1), new DaemonThreadFactory());
+
+    private final Consumer<List<T>> onResult;
+    private final AtomicLong generation = new AtomicLong();
+    private Future<?> running;
+
+    /**
+     * @param onResult Receives the matches of the latest query, in source order.
+     */
+    public BackgroundFilter(Consumer<List<T>> onResult) {
+        this.onResult = onResult;
+    }
+
+    public void filter(List<? extends T> source, Predicate<? super T> predicate) {
+        filter(() -> source, predicate);
+    }
+
+    /**
+     * @param source Called on the worker thread, e.g. to build search rows the
+     *               first time they are needed.
+     */
+    public void filter(Supplier<? extends List<? extends T>> source, Predicate<? super T> predicate) {
+        long query = startQuery();
+        running = WORKERS.submit(() -> {
+            try {
+                List<T> matches = run(query, source, predicate);
+                if (matches != null) {
+                    Platform.runLater(() -> {
+                        if (!isStale(query)) {
+                            onResult.accept(matches);
+                        }
+                    });
+                }
+            } catch (RuntimeException e) {
+                // A Future would swallow it silently
+                System.err.println("Error filtering: " + e.getMessage());
+                e.printStackTrace();
+            }
+        });
+    }
+
+    /**
+     * @return The matches, or {@code null} if the query became stale.
+     */
+    private List<T> run(long query, Supplier<? extends List<? extends T>> source, Predicate<? super T> predicate) {
+        List<T> matches = new ArrayList<>();
+        int checked = 0;
+        for (T item : source.get()) {
+            if (++checked % CANCEL_CHECK_INTERVAL == 0 && isStale(query)) {
+                return null;
+            }
+            if (predicate.test(item)) {
+                matches.add(item);
+            }
+        }
+        return isStale(query) ? null : matches;
+    }
+
+    /**
+     * Drops the running query, if any, without starting a new one.
+     */
+    public void cancel() {
+        startQuery();
+    }
+
+    private long startQuery() {
+        if (running != null) {
+            running.cancel(true);
+            running = null;
+        }
+        return generation.incrementAndGet();
+    }
+
+    private boolean isStale(long query) {
+        return generation.get() != query || Thread.currentThread().isInterrupted();
+    }
+
+    private static final class DaemonThreadFactory implements ThreadFactory {
+        private final AtomicInteger count = new AtomicInteger();
+
+        @Override
+        public Thread newThread(Runnable runnable) {
+            Thread thread = new Thread(runnable, "hr-filter-" + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+}
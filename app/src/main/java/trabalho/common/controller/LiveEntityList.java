@@ -0,0 +1,256 @@
+package trabalho.common.controller;
+
+import javafx.application.Platform;
+import javafx.collections.FXCollections;
+import javafx.collections.ObservableList;
+import javafx.collections.transformation.FilteredList;
+import javafx.collections.transformation.SortedList;
+import javafx.scene.control.ComboBox;
+import javafx.scene.control.TableView;
+
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+import trabalho.common.database.AppData;
+import trabalho.common.database.DataChangeListener;
+import trabalho.common.database.DataChangeListener.Change;
+import trabalho.common.database.DataChangeListener.ChangeType;
+
+/**
+ * The entities of one type held by an {@link AppData}, as an ObservableList
+ * that follows the changes of the data row by row instead of being copied
+ * again after every save.
+ * <p>
+ * The list is copied once, when it is opened. From then on an added entity is
+ * appended, a removed one is taken out and an updated one is replaced in
+ * place, so the {@link FilteredList} and {@link SortedList} on top of it only
+ * re-check that row. Rows are found through a map from the entity to its
+ * position, i.e. by id for the entities whose {@code equals} compares ids, so
+ * a change costs the same however long the list is. A removed row is
+ * replaced by the last one, the order of {@link #getItems()} is not kept.
+ * Several screens can follow the same data, each with its own list.
+ * <p>
+ * Whether an entity belongs in the list is decided when it changes, under
+ * the lock of the data, so the scope may read other entities. When the scope
+ * depends on another type, e.g. the Candidaturas of the Vagas of a
+ * recrutador, {@link #recheckOn} names the rows to decide again when one of
+ * those changes.
+ * <p>
+ * AppData holds the list weakly: once its screen is gone it stops following
+ * the data on the next change, no need to close it. Changes made on other
+ * threads reach the list on the JavaFX Application Thread.
+ */
+public class LiveEntityList<T> {
+    private final Class<T> type;
+    private final Predicate<? super T> scope;
+    private final List<Dependency<?, T>> dependencies = new ArrayList<>();
+    private Executor delivery = LiveEntityList::onFxThread;
+
+    private final ObservableList<T> items = FXCollections.observableArrayList();
+    private final Map<T, Integer> positions = new HashMap<>();
+    private final FilteredList<T> filtered = new FilteredList<>(items);
+    private final SortedList<T> sorted = new SortedList<>(filtered);
+
+    /**
+     * Rows to decide again when an entity of another type changes.
+     */
+    private record Dependency<D, T>(Class<D> type, Function<? super D, ? extends Collection<? extends T>> affected) {
+
+        Collection<? extends T> rows(Object entity) {
+            return type.isInstance(entity) ? affected.apply(type.cast(entity)) : List.of();
+        }
+    }
+
+    /**
+     * An entity and whether it belongs in the list, as decided under the lock
+     * of the data.
+     */
+    private record Row<T>(T entity, boolean inScope) {
+    }
+
+    /**
+     * Call {@link #open} once it is configured.
+     *
+     * @param scope Which entities of the type belong in the list, checked
+     *              again every time one changes, e.g. the Candidaturas of a
+     *              recrutador. Called holding the lock of the data.
+     */
+    public LiveEntityList(Class<T> type, Predicate<? super T> scope) {
+        this.type = type;
+        this.scope = scope;
+    }
+
+    /**
+     * Decides the scope of some rows again when an entity of another type
+     * changes, e.g. the Candidaturas of a Vaga whose recrutador changed. Must
+     * be called before {@link #open}.
+     *
+     * @param affected The entities of the list that depend on the changed
+     *                 one. Called holding the lock of the data.
+     */
+    public <D> LiveEntityList<T> recheckOn(Class<D> dependency,
+            Function<? super D, ? extends Collection<? extends T>> affected) {
+        dependencies.add(new Dependency<>(dependency, affected));
+        return this;
+    }
+
+    /**
+     * Where the changes are applied, the JavaFX Application Thread unless a
+     * test says otherwise.
+     */
+    LiveEntityList<T> deliverWith(Executor executor) {
+        this.delivery = executor;
+        return this;
+    }
+
+    /**
+     * Loads the list and starts following the data.
+     *
+     * @param initial The entities in scope right now, e.g. from one of the
+     *                AppData queries.
+     */
+    public LiveEntityList<T> open(AppData data, Supplier<? extends Collection<? extends T>> initial) {
+        synchronized (data) { // No change can slip between the copy and the listener
+            List<T> rows = new ArrayList<>();
+            for (T entity : initial.get()) {
+                if (positions.putIfAbsent(entity, rows.size()) == null) {
+                    rows.add(entity);
+                }
+            }
+            items.setAll(rows);
+            data.addChangeListener(new Follower(data, this));
+        }
+        return this;
+    }
+
+    /**
+     * Shows the filtered, sorted list in the table, sorted by the table's
+     * columns.
+     */
+    public void bind(TableView<T> table) {
+        sorted.comparatorProperty().bind(table.comparatorProperty());
+        table.setItems(sorted);
+    }
+
+    /**
+     * Shows the filtered list in the combo box.
+     */
+    public void bind(ComboBox<T> combo) {
+        combo.setItems(sorted);
+    }
+
+    /**
+     * @param filter {@code null} to show every entity in scope.
+     */
+    public void setFilter(Predicate<? super T> filter) {
+        filtered.setPredicate(filter);
+    }
+
+    public ObservableList<T> getItems() {
+        return items;
+    }
+
+    public SortedList<T> getSorted() {
+        return sorted;
+    }
+
+    /**
+     * Decides which of the changed entities belong in the list. Called
+     * holding the lock of the data.
+     */
+    private List<Row<T>> rows(List<Change> changes) {
+        List<Row<T>> rows = new ArrayList<>();
+        for (Change change : changes) {
+            Object entity = change.entity();
+            if (type.isInstance(entity)) {
+                T row = type.cast(entity);
+                rows.add(new Row<>(row, change.type() != ChangeType.REMOVED && scope.test(row)));
+            }
+            for (Dependency<?, T> dependency : dependencies) {
+                for (T row : dependency.rows(entity)) {
+                    rows.add(new Row<>(row, scope.test(row)));
+                }
+            }
+        }
+        return rows;
+    }
+
+    private void apply(List<Row<T>> rows) {
+        for (Row<T> row : rows) {
+            Integer index = positions.get(row.entity());
+            if (index != null && row.inScope()) {
+                items.set(index, row.entity()); // Also swaps in a new instance with the same id
+            } else if (index != null) {
+                removeAt(index);
+            } else if (row.inScope()) {
+                positions.put(row.entity(), items.size()); // New, or it just came into scope
+                items.add(row.entity());
+            }
+        }
+    }
+
+    /**
+     * Moves the last row into the gap, so no other position changes.
+     */
+    private void removeAt(int index) {
+        int last = items.size() - 1;
+        positions.remove(items.get(index));
+        if (index != last) {
+            T moved = items.get(last);
+            items.set(index, moved);
+            positions.put(moved, index);
+        }
+        items.remove(last);
+    }
+
+    private static void onFxThread(Runnable runnable) {
+        if (Platform.isFxApplicationThread()) {
+            runnable.run();
+        } else {
+            Platform.runLater(runnable);
+        }
+    }
+
+    /**
+     * What AppData actually holds, so the list itself can be collected.
+     */
+    private static final class Follower implements DataChangeListener {
+        private final AppData data;
+        private final WeakReference<LiveEntityList<?>> list;
+
+        Follower(AppData data, LiveEntityList<?> list) {
+            this.data = data;
+            this.list = new WeakReference<>(list);
+        }
+
+        @Override
+        public void onChange(ChangeType type, Object entity) {
+            onBatch(List.of(new Change(type, entity)));
+        }
+
+        @Override
+        public void onBatch(List<Change> changes) {
+            LiveEntityList<?> target = list.get();
+            if (target == null) {
+                data.removeChangeListener(this);
+                return;
+            }
+            deliver(target, changes);
+        }
+
+        private static <T> void deliver(LiveEntityList<T> target, List<Change> changes) {
+            List<Row<T>> rows = target.rows(changes);
+            if (!rows.isEmpty()) {
+                target.delivery.execute(() -> target.apply(rows));
+            }
+        }
+    }
+}
@@ -0,0 +1,157 @@
+package trabalho.common.controller;
+
+import javafx.application.Platform;
+import javafx.collections.ObservableListBase;
+import javafx.scene.control.TableView;
+
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import trabalho.common.database.search.Page;
+import trabalho.common.database.search.PageRequest;
+
+/**
+ * The items of a TableView, read a page at a time from the search layer.
+ * <p>
+ * A TableView only asks for the rows it is drawing, so only the pages around
+ * them are ever fetched and only the last few are kept. The size of the list
+ * is the total count of the search. Sorting a column does not sort the items
+ * here, the table comparator is handed to the search, see
+ * {@link #bind(TableView)}.
+ * <p>
+ * The rows are whatever the search returned when their page was fetched. Call
+ * {@link #refresh()} after the filter or the data changes. Must be used on
+ * the JavaFX Application Thread.
+ */
+public class PagedTableSource<T> extends ObservableListBase<T> {
+    private static final int DEFAULT_PAGE_SIZE = 100;
+    private static final int CACHED_PAGES = 5;
+
+    /**
+     * Runs the search for one page, e.g.
+     * {@code request -> searchService.searchVagas(criteria, request)}.
+     */
+    @FunctionalInterface
+    public interface PageFetcher<T> {
+        Page<T> fetch(PageRequest<T> request);
+    }
+
+    private final PageFetcher<T> fetcher;
+    private final int pageSize;
+    private Comparator<? super T> order;
+    private int size;
+    private boolean resyncPending;
+
+    // Least recently used first
+    private final Map<Integer, List<T>> pages = new LinkedHashMap<>(CACHED_PAGES, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Integer, List<T>> eldest) {
+            return size() > CACHED_PAGES;
+        }
+    };
+
+    public PagedTableSource(PageFetcher<T> fetcher) {
+        this(fetcher, DEFAULT_PAGE_SIZE);
+    }
+
+    public PagedTableSource(PageFetcher<T> fetcher, int pageSize) {
+        this.fetcher = fetcher;
+        this.pageSize = pageSize;
+    }
+
+    /**
+     * Shows this source in the table and sends the sorting of its columns to
+     * the search instead of sorting the items, which the table cannot do on a
+     * list it does not hold.
+     */
+    public void bind(TableView<T> table) {
+        table.setItems(this);
+        table.setSortPolicy(t -> {
+            setOrder(t.getComparator());
+            return true;
+        });
+        refresh();
+    }
+
+    /**
+     * @param order {@code null} for the order of the data.
+     */
+    public void setOrder(Comparator<? super T> order) {
+        this.order = order;
+        refresh();
+    }
+
+    /**
+     * Drops the fetched pages and asks the search again, starting with the
+     * total count.
+     */
+    public void refresh() {
+        pages.clear();
+        resize(fetch(0).total());
+    }
+
+    @Override
+    public T get(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException(index);
+        }
+        int page = index / pageSize;
+        List<T> rows = pages.get(page);
+        if (rows == null) {
+            Page<T> fetched = fetch(page);
+            if (fetched.total() != size) {
+                resyncLater();
+            }
+            rows = fetched.items();
+        }
+        int offset = index % pageSize;
+        // The data shrank since the size was read, the row stays blank until
+        // the resync
+        return offset < rows.size() ? rows.get(offset) : null;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    private Page<T> fetch(int page) {
+        Page<T> result = fetcher.fetch(new PageRequest<>(page * pageSize, pageSize, order));
+        pages.put(page, result.items());
+        return result;
+    }
+
+    /**
+     * The table is in the middle of a layout pass when it asks for a row, the
+     * size cannot change until it is over.
+     */
+    private void resyncLater() {
+        if (resyncPending) {
+            return;
+        }
+        resyncPending = true;
+        Platform.runLater(() -> {
+            resyncPending = false;
+            refresh();
+        });
+    }
+
+    /**
+     * Tells the table that every row changed.
+     */
+    private void resize(int newSize) {
+        int oldSize = size;
+        size = newSize;
+        beginChange();
+        if (oldSize > 0) {
+            nextRemove(0, Collections.<T>nCopies(oldSize, null));
+        }
+        if (newSize > 0) {
+            nextAdd(0, newSize);
+        }
+        endChange();
+    }
+}
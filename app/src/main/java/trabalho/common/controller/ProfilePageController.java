@@ -1,9 +1,14 @@
 package trabalho.common.controller;
 
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import javafx.application.Platform;
 import javafx.fxml.FXML;
 import javafx.fxml.FXMLLoader;
 import javafx.scene.Parent;
 import javafx.scene.Scene;
+import javafx.scene.control.Alert;
 import javafx.scene.control.Button;
 import javafx.stage.Stage;
 import trabalho.admin.controller.DashboardAdministradorController;
@@ -11,6 +16,8 @@ import trabalho.admin.controller.DashboardGestorController;
 import trabalho.admin.model.Usuario;
 import trabalho.common.database.AppData;
 import trabalho.common.database.JsonDataManager;
+import trabalho.financeiro.folha.PayrollEngine;
+import trabalho.financeiro.model.Contracheque;
 import trabalho.recrutamento.controller.MenuRecrutamentoController;
 
 public class ProfilePageController {
@@ -137,10 +144,46 @@ public class ProfilePageController {
         }
     }
 
+    /**
+     * Shows the payslips of the current user. They are read from the payroll
+     * files in the background, the button stays disabled until then.
+     */
     @FXML
     private void handleFuncionarioButtonAction() {
-        System.out.println("Funcionario button clicked! Navigating to Funcionario Dashboard...");
-        // TODO: Add navigation logic to the funcionario screen
+        funcionarioButton.setDisable(true);
+        String cpf = currentUser.getCpfCnpj();
+        CompletableFuture.supplyAsync(() -> PayrollEngine.lerContracheques(cpf))
+                .whenComplete((contracheques, error) -> Platform.runLater(() -> {
+                    funcionarioButton.setDisable(false);
+                    if (error != null) {
+                        System.err.println("Erro ao ler os contracheques: " + error.getMessage());
+                        showContracheques(Alert.AlertType.ERROR, "Não foi possível ler os contracheques.");
+                        return;
+                    }
+                    showContracheques(contracheques);
+                }));
+    }
+
+    private void showContracheques(List<Contracheque> contracheques) {
+        if (contracheques.isEmpty()) {
+            showContracheques(Alert.AlertType.INFORMATION, "Nenhum contracheque encontrado.");
+            return;
+        }
+        StringBuilder content = new StringBuilder();
+        for (Contracheque contracheque : contracheques) {
+            content.append(String.format("%s   Bruto: R$ %.2f   Descontos: R$ %.2f   Líquido: R$ %.2f%n",
+                    contracheque.competencia(), contracheque.bruto(), contracheque.descontos(),
+                    contracheque.liquido()));
+        }
+        showContracheques(Alert.AlertType.INFORMATION, content.toString());
+    }
+
+    private void showContracheques(Alert.AlertType type, String content) {
+        Alert alert = new Alert(type);
+        alert.setTitle("Contracheques");
+        alert.setHeaderText(null);
+        alert.setContentText(content);
+        alert.showAndWait();
     }
 
     @FXML
@@ -7,18 +7,29 @@ import trabalho.financeiro.model.Funcionario;
 import trabalho.recrutamento.model.Recrutador;
 import trabalho.candidatura.model.Candidato;
 import trabalho.candidatura.model.Candidatura;
+import trabalho.candidatura.model.Candidatura.StatusCandidatura;
 import trabalho.candidatura.model.Pessoa;
 import trabalho.exceptions.DuplicateDataException;
 import trabalho.exceptions.MissingDataException;
 import trabalho.recrutamento.model.Vaga;
+import trabalho.recrutamento.model.Vaga.StatusVaga;
 import trabalho.recrutamento.model.Entrevista;
 import trabalho.recrutamento.model.Contratacao;
+import trabalho.recrutamento.model.Contratacao.StatusContratacao;
+import trabalho.common.database.DataChangeListener.Change;
+import trabalho.common.database.DataChangeListener.ChangeType;
+import trabalho.servico.model.ContratoServico;
+import trabalho.servico.model.ContratoServico.StatusContrato;
+import trabalho.servico.model.PrestadorServico;
 
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
 
 /**
  * A container class that acts as an in-memory database for the application.
@@ -31,7 +42,8 @@ import java.util.Map;
  * @author Gabriel M.S.O.
  */
 public class AppData {
-    // For fast lookups lets organize them by cpf
+    // For fast lookups lets organize them by cpf, packed in a long, see
+    // CpfCnpjMap
     private Map<String, Pessoa> pessoasByCpf;
     private Map<String, Usuario> usuariosByCpf;
 
@@ -44,27 +56,117 @@ public class AppData {
     private Map<String, Candidato> candidatosByCpf;
 
     private Map<String, Vaga> vagasById;
-    private List<Candidatura> candidaturas;
-    private List<Entrevista> entrevistas;
-    public List<Contratacao> contratacoes;
+    // Keyed by (cpf, vagaId) and by id, written to JSON as plain arrays
+    private KeyedCollection<CandidaturaKey, Candidatura> candidaturas;
+    private KeyedCollection<String, Entrevista> entrevistas;
+    private KeyedCollection<String, Contratacao> contratacoes;
+
+    private Map<String, PrestadorServico> prestadoresByCnpj;
+    private KeyedCollection<String, ContratoServico> contratosServico;
+
+    // Transient so GSON does not try to persist them. Copy on write, screens
+    // come and go while changes are being fired.
+    private transient List<DataChangeListener> listeners;
+
+    // Secondary indexes, kept in sync by every mutator below.
+    private transient SecondaryIndex<String, Funcionario> funcionariosByCargo;
+    private transient SecondaryIndex<String, Funcionario> funcionariosByStatus;
+    private transient SecondaryIndex<String, Funcionario> funcionariosByDepartamento;
+    private transient SecondaryIndex<String, Vaga> vagasByRecrutador;
+    private transient SecondaryIndex<StatusVaga, Vaga> vagasByStatus;
+    private transient SecondaryIndex<String, Candidatura> candidaturasByCandidato;
+    private transient SecondaryIndex<String, Candidatura> candidaturasByVaga;
+    private transient SecondaryIndex<StatusCandidatura, Candidatura> candidaturasByStatus;
+    private transient SecondaryIndex<String, Entrevista> entrevistasByCandidato;
+    private transient SecondaryIndex<String, Entrevista> entrevistasByVaga;
+    private transient SecondaryIndex<String, Entrevista> entrevistasByAvaliador;
+    private transient SecondaryIndex<String, Contratacao> contratacoesByCandidato;
+    private transient SecondaryIndex<String, Contratacao> contratacoesByVaga;
+    private transient SecondaryIndex<String, Contratacao> contratacoesByRecrutador;
+    private transient SecondaryIndex<StatusContratacao, Contratacao> contratacoesByStatus;
+    private transient SecondaryIndex<String, ContratoServico> contratosServicoByPrestador;
+    private transient SecondaryIndex<StatusContrato, ContratoServico> contratosServicoByStatus;
 
     public AppData() {
-        this.pessoasByCpf = new HashMap<>();
-        this.usuariosByCpf = new HashMap<>();
+        this.pessoasByCpf = new CpfCnpjMap<>();
+        this.usuariosByCpf = new CpfCnpjMap<>();
 
-        this.funcionariosByCpf = new HashMap<>();
+        this.funcionariosByCpf = new CpfCnpjMap<>();
 
-        this.administradoresByCpf = new HashMap<>();
-        this.gestoresByCpf = new HashMap<>();
-        this.recrutadoresByCpf = new HashMap<>();
+        this.administradoresByCpf = new CpfCnpjMap<>();
+        this.gestoresByCpf = new CpfCnpjMap<>();
+        this.recrutadoresByCpf = new CpfCnpjMap<>();
 
-        this.candidatosByCpf = new HashMap<>();
+        this.candidatosByCpf = new CpfCnpjMap<>();
 
         this.vagasById = new HashMap<>();
-        this.candidaturas = new ArrayList<>();
-        this.entrevistas = new ArrayList<>();
-        this.contratacoes = new ArrayList<>();
+        this.candidaturas = new KeyedCollection<>(CandidaturaKey::of);
+        this.entrevistas = new KeyedCollection<>(Entrevista::getId);
+        this.contratacoes = new KeyedCollection<>(Contratacao::getId);
+
+        this.prestadoresByCnpj = new CpfCnpjMap<>();
+        this.contratosServico = new KeyedCollection<>(ContratoServico::getId);
+
+        this.listeners = new CopyOnWriteArrayList<>();
+
+        this.funcionariosByCargo = new SecondaryIndex<>(Funcionario::getCargo);
+        this.funcionariosByStatus = new SecondaryIndex<>(Funcionario::getStatus);
+        this.funcionariosByDepartamento = new SecondaryIndex<>(Funcionario::getDepartamento);
+        this.vagasByRecrutador = new SecondaryIndex<>(Vaga::getRecrutadorResponsavelCpf);
+        this.vagasByStatus = new SecondaryIndex<>(Vaga::getStatus);
+        this.candidaturasByCandidato = new SecondaryIndex<>(Candidatura::getCpfCnpjCandidato);
+        this.candidaturasByVaga = new SecondaryIndex<>(Candidatura::getVagaId);
+        this.candidaturasByStatus = new SecondaryIndex<>(Candidatura::getStatusEnum);
+        this.entrevistasByCandidato = new SecondaryIndex<>(Entrevista::getCandidatoCpf);
+        this.entrevistasByVaga = new SecondaryIndex<>(Entrevista::getVagaId);
+        this.entrevistasByAvaliador = new SecondaryIndex<>(Entrevista::getAvaliadorCpf);
+        this.contratacoesByCandidato = new SecondaryIndex<>(Contratacao::getCandidatoCpf);
+        this.contratacoesByVaga = new SecondaryIndex<>(Contratacao::getVagaId);
+        this.contratacoesByRecrutador = new SecondaryIndex<>(Contratacao::getRecrutadorSolicitanteCpf);
+        this.contratacoesByStatus = new SecondaryIndex<>(Contratacao::getStatus);
+        this.contratosServicoByPrestador = new SecondaryIndex<>(ContratoServico::getPrestadorCnpj);
+        this.contratosServicoByStatus = new SecondaryIndex<>(ContratoServico::getStatus);
+    }
+
+    /**
+     * Copies the collections, not the entities, see {@link #snapshotCopy()}.
+     * The copy has no listeners and no secondary indexes.
+     */
+    private AppData(AppData source) {
+        this.pessoasByCpf = copyOf(source.pessoasByCpf);
+        this.usuariosByCpf = copyOf(source.usuariosByCpf);
+        this.funcionariosByCpf = copyOf(source.funcionariosByCpf);
+        this.administradoresByCpf = copyOf(source.administradoresByCpf);
+        this.gestoresByCpf = copyOf(source.gestoresByCpf);
+        this.recrutadoresByCpf = copyOf(source.recrutadoresByCpf);
+        this.candidatosByCpf = copyOf(source.candidatosByCpf);
+        this.vagasById = new HashMap<>(source.vagasById);
+        this.candidaturas = source.candidaturas.copy();
+        this.entrevistas = source.entrevistas.copy();
+        this.contratacoes = source.contratacoes.copy();
+        this.prestadoresByCnpj = copyOf(source.prestadoresByCnpj);
+        this.contratosServico = source.contratosServico.copy();
+    }
+
+    private static <V> Map<String, V> copyOf(Map<String, V> map) {
+        if (map instanceof CpfCnpjMap<V> cpfCnpjMap) {
+            return cpfCnpjMap.copy();
+        }
+        if (map instanceof MappedEntityStore<V> store) {
+            return store.frozenCopy();
+        }
+        return new HashMap<>(map);
+    }
 
+    /**
+     * A copy of what is stored right now, for writing a snapshot without
+     * holding this lock: later adds and removals do not show in it. It shares
+     * the entities, so a field changed in place after the copy may or may not
+     * be written; that change is saved again once it is marked updated.
+     * Only meant to be read by a {@link StorageFormat}.
+     */
+    synchronized AppData snapshotCopy() {
+        return new AppData(this);
     }
 
     // --- Start Getters ---
@@ -100,22 +202,291 @@ public class AppData {
         return vagasById;
     }
 
-    public List<Candidatura> getCandidaturas() {
-        return candidaturas;
+    public Map<String, PrestadorServico> getPrestadores() {
+        return prestadoresByCnpj;
+    }
+
+    // The lists are read only copies, changes must go through the mutators
+    // below so the indexes stay consistent.
+    public synchronized List<Candidatura> getCandidaturas() {
+        return candidaturas.toList();
+    }
+
+    public synchronized List<Entrevista> getEntrevistas() {
+        return entrevistas.toList();
     }
 
-    public List<Entrevista> getEntrevistas() {
-        return entrevistas;
+    public synchronized List<Contratacao> getContratacoes() {
+        return contratacoes.toList();
     }
 
-    public List<Contratacao> getContratacoes() {
-        return contratacoes;
+    public synchronized List<ContratoServico> getContratosServico() {
+        return contratosServico.toList();
     }
 
     // --- End Getters ---
 
+    // --- Start Queries ---
+    // Answered from the secondary indexes, each returns a new list.
+
+    public synchronized List<Vaga> getVagasByRecrutador(String recrutadorCpf) {
+        return vagasByRecrutador.get(recrutadorCpf);
+    }
+
+    public synchronized List<Candidatura> getCandidaturasByCandidato(String cpf) {
+        return candidaturasByCandidato.get(cpf);
+    }
+
+    public synchronized List<Candidatura> getCandidaturasByVaga(String vagaId) {
+        return candidaturasByVaga.get(vagaId);
+    }
+
+    public synchronized List<Candidatura> getCandidaturasByStatus(StatusCandidatura status) {
+        return candidaturasByStatus.get(status);
+    }
+
+    /**
+     * Candidaturas to the Vagas the recrutador is responsible for.
+     */
+    public synchronized List<Candidatura> getCandidaturasByRecrutador(String recrutadorCpf) {
+        List<Candidatura> result = new ArrayList<>();
+        for (Vaga vaga : vagasByRecrutador.get(recrutadorCpf)) {
+            result.addAll(candidaturasByVaga.get(vaga.getId()));
+        }
+        return result;
+    }
+
+    /**
+     * @return The Candidatura of the candidate to the Vaga, or {@code null}.
+     */
+    public synchronized Candidatura findCandidatura(String cpf, String vagaId) {
+        return candidaturas.get(new CandidaturaKey(cpf, vagaId));
+    }
+
+    public synchronized List<Entrevista> getEntrevistasByCandidato(String cpf) {
+        return entrevistasByCandidato.get(cpf);
+    }
+
+    public synchronized List<Entrevista> getEntrevistasByVaga(String vagaId) {
+        return entrevistasByVaga.get(vagaId);
+    }
+
+    public synchronized List<Entrevista> getEntrevistasByAvaliador(String avaliadorCpf) {
+        return entrevistasByAvaliador.get(avaliadorCpf);
+    }
+
+    public synchronized List<Contratacao> getContratacoesByCandidato(String cpf) {
+        return contratacoesByCandidato.get(cpf);
+    }
+
+    public synchronized List<Contratacao> getContratacoesByVaga(String vagaId) {
+        return contratacoesByVaga.get(vagaId);
+    }
+
+    public synchronized List<Contratacao> getContratacoesByRecrutador(String recrutadorCpf) {
+        return contratacoesByRecrutador.get(recrutadorCpf);
+    }
+
+    public synchronized List<Contratacao> getContratacoesByStatus(StatusContratacao status) {
+        return contratacoesByStatus.get(status);
+    }
+
+    /**
+     * @return The ContratoServico with the id, or {@code null}.
+     */
+    public synchronized ContratoServico findContratoServico(String id) {
+        return contratosServico.get(id);
+    }
+
+    public synchronized List<ContratoServico> getContratosServicoByPrestador(String cnpj) {
+        return contratosServicoByPrestador.get(cnpj);
+    }
+
+    public synchronized List<ContratoServico> getContratosServicoByStatus(StatusContrato status) {
+        return contratosServicoByStatus.get(status);
+    }
+
+    // --- End Queries ---
+
+    // --- Start Planner Access ---
+    // Live, unmodifiable views for the query planner in
+    // trabalho.common.database.search, so a search reads only the entities it
+    // returns. They copy nothing and must only be used while holding the lock
+    // of this instance.
+
+    public Collection<Candidatura> candidaturasView() {
+        return Collections.unmodifiableCollection(candidaturas);
+    }
+
+    public Collection<Contratacao> contratacoesView() {
+        return Collections.unmodifiableCollection(contratacoes);
+    }
+
+    public Collection<ContratoServico> contratosServicoView() {
+        return Collections.unmodifiableCollection(contratosServico);
+    }
+
+    public IndexLookup<String, Funcionario> funcionariosByCargo() {
+        return funcionariosByCargo;
+    }
+
+    public IndexLookup<String, Funcionario> funcionariosByStatus() {
+        return funcionariosByStatus;
+    }
+
+    public IndexLookup<String, Funcionario> funcionariosByDepartamento() {
+        return funcionariosByDepartamento;
+    }
+
+    public IndexLookup<String, Vaga> vagasByRecrutador() {
+        return vagasByRecrutador;
+    }
+
+    public IndexLookup<StatusVaga, Vaga> vagasByStatus() {
+        return vagasByStatus;
+    }
+
+    public IndexLookup<String, Candidatura> candidaturasByCandidato() {
+        return candidaturasByCandidato;
+    }
+
+    public IndexLookup<String, Candidatura> candidaturasByVaga() {
+        return candidaturasByVaga;
+    }
+
+    public IndexLookup<StatusCandidatura, Candidatura> candidaturasByStatus() {
+        return candidaturasByStatus;
+    }
+
+    public IndexLookup<String, Contratacao> contratacoesByCandidato() {
+        return contratacoesByCandidato;
+    }
+
+    public IndexLookup<String, Contratacao> contratacoesByVaga() {
+        return contratacoesByVaga;
+    }
+
+    public IndexLookup<String, Contratacao> contratacoesByRecrutador() {
+        return contratacoesByRecrutador;
+    }
+
+    public IndexLookup<StatusContratacao, Contratacao> contratacoesByStatus() {
+        return contratacoesByStatus;
+    }
+
+    // --- End Planner Access ---
+
     // --- Start Setters ---
-    public void addPessoa(Pessoa pessoa) throws DuplicateDataException {
+    // Mutators are synchronized on this instance, the background saver holds
+    // the same lock while it serializes the data.
+    public synchronized void addPessoa(Pessoa pessoa) throws DuplicateDataException {
+        insertPessoa(pessoa);
+        fireChange(ChangeType.ADDED, pessoa);
+    }
+
+    public synchronized void addUsuario(Usuario usuario) throws DuplicateDataException, MissingDataException {
+        insertUsuario(usuario);
+        fireChange(ChangeType.ADDED, usuario);
+    }
+
+    public synchronized void addFuncionario(Funcionario f) throws DuplicateDataException, MissingDataException {
+        insertFuncionario(f);
+        fireChange(ChangeType.ADDED, f);
+    }
+
+    public synchronized void addCandidato(Candidato c) throws DuplicateDataException {
+        insertCandidato(c);
+        fireChange(ChangeType.ADDED, c);
+    }
+
+    public synchronized void addVaga(Vaga v) throws DuplicateDataException {
+        insertVaga(v);
+        fireChange(ChangeType.ADDED, v);
+    }
+
+    public synchronized void addCandidatura(Candidatura c) throws DuplicateDataException {
+        insertCandidatura(c);
+        fireChange(ChangeType.ADDED, c);
+    }
+
+    public synchronized void addEntrevista(Entrevista e) throws DuplicateDataException {
+        insertEntrevista(e);
+        fireChange(ChangeType.ADDED, e);
+    }
+
+    public synchronized void addContratacao(Contratacao con) throws DuplicateDataException {
+        insertContratacao(con);
+        fireChange(ChangeType.ADDED, con);
+    }
+
+    public synchronized void addPrestador(PrestadorServico p) throws DuplicateDataException {
+        insertPrestador(p);
+        fireChange(ChangeType.ADDED, p);
+    }
+
+    /**
+     * @throws MissingDataException If its PrestadorServico is not stored.
+     */
+    public synchronized void addContratoServico(ContratoServico c)
+            throws DuplicateDataException, MissingDataException {
+        insertContratoServico(c);
+        fireChange(ChangeType.ADDED, c);
+    }
+
+    /**
+     * Adds many entities at once, e.g. an import. Each one is checked as by
+     * its add method, in order, so an entity may depend on one before it
+     * (a Pessoa before its Usuario). Listeners get the ones added as a single
+     * {@link DataChangeListener#onBatch(List) batch}.
+     *
+     * @return The entities that were not added, in order. Empty if all of
+     *         them were.
+     */
+    public synchronized List<Rejection> addAll(Collection<?> entities) {
+        List<Rejection> rejected = new ArrayList<>();
+        List<Change> batch = new ArrayList<>(entities.size());
+        for (Object entity : entities) {
+            try {
+                insert(entity);
+                batch.add(new Change(ChangeType.ADDED, entity));
+            } catch (DuplicateDataException | MissingDataException e) {
+                rejected.add(new Rejection(entity, e.getMessage()));
+            }
+        }
+        if (!batch.isEmpty()) {
+            for (DataChangeListener listener : listeners) {
+                listener.onBatch(batch);
+            }
+        }
+        return rejected;
+    }
+
+    /**
+     * An entity {@link #addAll} did not add, with the message of the add
+     * method.
+     */
+    public record Rejection(Object entity, String reason) {
+    }
+
+    // The checks and the storing of the add methods, without the notification
+
+    private void insert(Object entity) throws DuplicateDataException, MissingDataException {
+        switch (entity) {
+            case Pessoa p -> insertPessoa(p);
+            case Usuario u -> insertUsuario(u);
+            case Funcionario f -> insertFuncionario(f);
+            case Candidato c -> insertCandidato(c);
+            case Vaga v -> insertVaga(v);
+            case Candidatura c -> insertCandidatura(c);
+            case Entrevista e -> insertEntrevista(e);
+            case Contratacao c -> insertContratacao(c);
+            case PrestadorServico p -> insertPrestador(p);
+            case ContratoServico c -> insertContratoServico(c);
+            default -> throw new IllegalArgumentException("Tipo não suportado: " + entity.getClass().getName());
+        }
+    }
+
+    private void insertPessoa(Pessoa pessoa) throws DuplicateDataException {
         String cpf = pessoa.getCpfCnpj();
         if (pessoasByCpf.containsKey(cpf)) {
             throw new DuplicateDataException("Pessoa com CPF/CNPJ " + cpf + " já existe.");
@@ -123,7 +494,7 @@ public class AppData {
         pessoasByCpf.put(cpf, pessoa);
     }
 
-    public void addUsuario(Usuario usuario) throws DuplicateDataException, MissingDataException {
+    private void insertUsuario(Usuario usuario) throws DuplicateDataException, MissingDataException {
         String cpf = usuario.getCpfCnpj();
         if (usuariosByCpf.containsKey(cpf)) {
             throw new DuplicateDataException("Usuário com CPF/CNPJ " + cpf + " já existe.");
@@ -134,7 +505,7 @@ public class AppData {
         usuariosByCpf.put(cpf, usuario);
     }
 
-    public void addFuncionario(Funcionario f) throws DuplicateDataException, MissingDataException {
+    private void insertFuncionario(Funcionario f) throws DuplicateDataException, MissingDataException {
         String cpf = f.getCpfCnpj();
         if (!pessoasByCpf.containsKey(cpf)) {
             throw new MissingDataException("Pessoa com CPF/CNPJ" + cpf + "Não existe");
@@ -168,10 +539,10 @@ public class AppData {
                 funcionariosByCpf.put(cpf, f);
             }
         }
-
+        index(f);
     }
 
-    public void addCandidato(Candidato c) throws DuplicateDataException {
+    private void insertCandidato(Candidato c) throws DuplicateDataException {
         String cpf = c.getCpfCnpj();
         if (candidatosByCpf.containsKey(cpf)) {
             throw new DuplicateDataException("Candidato com CPF/CNPJ " + cpf + " já existe.");
@@ -179,97 +550,450 @@ public class AppData {
         candidatosByCpf.put(cpf, c);
     }
 
-    public void addVaga(Vaga v) throws DuplicateDataException {
+    private void insertVaga(Vaga v) throws DuplicateDataException {
         String id = v.getId();
         if (vagasById.containsKey(id)) {
             throw new DuplicateDataException("Vaga já existe.");
         }
         vagasById.put(id, v);
+        index(v);
     }
 
-    public void addCandidatura(Candidatura c) throws DuplicateDataException {
-        if (candidaturas.contains(c)) {
+    private void insertCandidatura(Candidatura c) throws DuplicateDataException {
+        if (!candidaturas.add(c)) {
             throw new DuplicateDataException("Candidatura já existe.");
         }
-        candidaturas.add(c);
+        index(c);
     }
 
-    public void addEntrevista(Entrevista e) throws DuplicateDataException {
-        if (entrevistas.contains(e)) {
+    private void insertEntrevista(Entrevista e) throws DuplicateDataException {
+        if (!entrevistas.add(e)) {
             throw new DuplicateDataException("Entrevista já existe.");
         }
-        entrevistas.add(e);
+        index(e);
     }
 
-    public void addContratacao(Contratacao con) throws DuplicateDataException {
-        if (contratacoes.contains(con)) {
+    private void insertContratacao(Contratacao con) throws DuplicateDataException {
+        if (!contratacoes.add(con)) {
             throw new DuplicateDataException("Contratação já existe.");
         }
-        contratacoes.add(con);
+        index(con);
+    }
+
+    private void insertPrestador(PrestadorServico p) throws DuplicateDataException {
+        String cnpj = p.getCnpj();
+        if (prestadoresByCnpj.containsKey(cnpj)) {
+            throw new DuplicateDataException("Prestador com CNPJ " + cnpj + " já existe.");
+        }
+        prestadoresByCnpj.put(cnpj, p);
+    }
+
+    private void insertContratoServico(ContratoServico c) throws DuplicateDataException, MissingDataException {
+        if (!prestadoresByCnpj.containsKey(c.getPrestadorCnpj())) {
+            throw new MissingDataException("Prestador com CNPJ " + c.getPrestadorCnpj() + " não existe.");
+        }
+        if (!contratosServico.add(c)) {
+            throw new DuplicateDataException("Contrato de serviço já existe.");
+        }
+        index(c);
     }
     // --- End Setters ---
 
     // --- Start Removers ---
-    public void removePessoa(Pessoa p) {
-        pessoasByCpf.remove(p.getCpfCnpj());
+    public synchronized void removePessoa(Pessoa p) {
+        if (pessoasByCpf.remove(p.getCpfCnpj()) != null) {
+            fireChange(ChangeType.REMOVED, p);
+        }
     }
 
-    public void removeUsuario(Usuario u) {
-        usuariosByCpf.remove(u.getCpfCnpj());
+    public synchronized void removeUsuario(Usuario u) {
+        if (usuariosByCpf.remove(u.getCpfCnpj()) != null) {
+            fireChange(ChangeType.REMOVED, u);
+        }
     }
 
-    // Exemplo de Polymorfirsmo
-    public void removeFuncionario(Funcionario f) {
-        String cpf = f.getCpfCnpj();
-        switch (f) {
-            case Administrador admin -> administradoresByCpf.remove(cpf);
+    /**
+     * Removes the Funcionario. The Vagas of a Recrutador stay, without a
+     * recrutador, see {@link #removeCascading(Object)}.
+     *
+     * @return Every change made, in order.
+     */
+    public synchronized List<Change> removeFuncionario(Funcionario f) {
+        return removeCascading(f);
+    }
+
+    public synchronized void removeCandidato(Candidato c) {
+        if (candidatosByCpf.remove(c.getCpfCnpj()) != null) {
+            fireChange(ChangeType.REMOVED, c);
+        }
+    }
 
-            case Gestor gestor -> gestoresByCpf.remove(cpf);
+    /**
+     * Removes the Vaga together with its Candidaturas, Entrevistas and
+     * Contratacoes, see {@link #removeCascading(Object)}.
+     *
+     * @return Every change made, in order.
+     */
+    public synchronized List<Change> removeVaga(Vaga v) {
+        return removeCascading(v);
+    }
 
-            case Recrutador recrutador -> {
-                recrutadoresByCpf.remove(cpf);
-                List<Vaga> allVagas = vagasById.values().stream().toList();
-                System.out.println("Removing Recrutador");
-
-                for (Vaga vaga : allVagas) {
-                    if (vaga.getRecrutadorResponsavelCpf() != null
-                            && vaga.getRecrutadorResponsavelCpf().equals(recrutador.getCpfCnpj())) {
-                        System.out.println("Vaga " + vaga.getId() + "Recrutador " + recrutador.getCpfCnpj());
-                        vagasById.remove(vaga.getId());
-                        vaga.setRecrutadorResponsavelCpf(null);
-                        vagasById.put(vaga.getId(), vaga);
-                    }
-                }
+    public synchronized void removeCandidatura(Candidatura c) {
+        Candidatura removed = candidaturas.removeKey(CandidaturaKey.of(c));
+        if (removed != null) {
+            unindex(removed);
+            fireChange(ChangeType.REMOVED, removed);
+        }
+    }
+
+    /**
+     * Removes the PrestadorServico together with its contracts, see
+     * {@link #removeCascading(Object)}.
+     *
+     * @return Every change made, in order.
+     */
+    public synchronized List<Change> removePrestador(PrestadorServico p) {
+        return removeCascading(p);
+    }
+
+    public synchronized void removeContratoServico(ContratoServico c) {
+        ContratoServico removed = contratosServico.removeKey(c.getId());
+        if (removed != null) {
+            unindex(removed);
+            fireChange(ChangeType.REMOVED, removed);
+        }
+    }
+    // --- End Removers ---
+
+    // --- Cascading removal ---
+    // The relationships between the entities:
+    //   Vaga       -> Candidatura, Entrevista, Contratacao  (removed with it)
+    //   Recrutador -> Vaga                                  (left without a recrutador)
+    //   PrestadorServico -> ContratoServico                 (removed with it)
+    // The dependents are found through the secondary indexes, so a removal
+    // costs O(dependents) instead of a scan of every collection.
+
+    /**
+     * Removes the entity and, following the relationships above, everything
+     * that depends on it. Listeners get all the changes as one
+     * {@link DataChangeListener#onBatch(List) batch}, so the journal persists
+     * them as a single change.
+     *
+     * @return Every change made, dependents before the entity itself. Empty if
+     *         the entity was not stored.
+     */
+    public synchronized List<Change> removeCascading(Object entity) {
+        List<Change> batch = new ArrayList<>();
+        cascade(entity, batch);
+        if (!batch.isEmpty()) {
+            for (DataChangeListener listener : listeners) {
+                listener.onBatch(batch);
+            }
+        }
+        return batch;
+    }
+
+    private void cascade(Object entity, List<Change> batch) {
+        if (entity instanceof Vaga v) {
+            for (Candidatura c : candidaturasByVaga.get(v.getId())) {
+                cascade(c, batch);
+            }
+            for (Entrevista e : entrevistasByVaga.get(v.getId())) {
+                cascade(e, batch);
+            }
+            for (Contratacao c : contratacoesByVaga.get(v.getId())) {
+                cascade(c, batch);
+            }
+        } else if (entity instanceof PrestadorServico p) {
+            for (ContratoServico c : contratosServicoByPrestador.get(p.getCnpj())) {
+                cascade(c, batch);
             }
+        } else if (entity instanceof Recrutador r) {
+            for (Vaga vaga : vagasByRecrutador.get(r.getCpfCnpj())) {
+                vaga.setRecrutadorResponsavelCpf(null);
+                reindex(vaga);
+                batch.add(new Change(ChangeType.UPDATED, vaga));
+            }
+        }
 
-            default -> funcionariosByCpf.remove(cpf);
+        Object removed = removeStored(entity);
+        if (removed != null) {
+            unindex(removed);
+            batch.add(new Change(ChangeType.REMOVED, removed));
         }
     }
 
-    public void removeCandidato(Candidato c) {
-        candidatosByCpf.remove(c.getCpfCnpj());
+    // --- Change Notification ---
+
+    public void addChangeListener(DataChangeListener listener) {
+        listeners.add(listener);
     }
 
-    public void removeVaga(Vaga v) {
-        vagasById.remove(v.getId());
-        for (Candidatura candidatura : this.candidaturas) {
-            if (candidatura.getVaga().getId().equals(v.getId())) {
-                removeCandidatura(candidatura);
+    public void removeChangeListener(DataChangeListener listener) {
+        listeners.remove(listener);
+    }
+
+    /**
+     * Must be called after an entity that is already stored here is modified in
+     * place (e.g. {@code candidatura.setStatus(...)}), so listeners such as the
+     * journal can record the new state.
+     */
+    public synchronized void markUpdated(Object entity) {
+        // A MappedEntityStore keeps the record encoded, write the change back
+        if (entity instanceof Pessoa p && pessoasByCpf.containsKey(p.getCpfCnpj())) {
+            pessoasByCpf.put(p.getCpfCnpj(), p);
+        } else if (entity instanceof Candidato c && candidatosByCpf.containsKey(c.getCpfCnpj())) {
+            candidatosByCpf.put(c.getCpfCnpj(), c);
+        }
+        reindex(entity);
+        fireChange(ChangeType.UPDATED, entity);
+    }
+
+    /**
+     * Like {@link #markUpdated(Object)} for many entities changed together,
+     * e.g. the contracts closed by a scheduled job. Listeners get them as a
+     * single {@link DataChangeListener#onBatch(List) batch}.
+     */
+    public synchronized void markAllUpdated(Collection<?> entities) {
+        if (entities.isEmpty()) {
+            return;
+        }
+        List<Change> batch = new ArrayList<>(entities.size());
+        for (Object entity : entities) {
+            reindex(entity);
+            batch.add(new Change(ChangeType.UPDATED, entity));
+        }
+        for (DataChangeListener listener : listeners) {
+            listener.onBatch(batch);
+        }
+    }
+
+    private void fireChange(ChangeType type, Object entity) {
+        for (DataChangeListener listener : listeners) {
+            listener.onChange(type, entity);
+        }
+    }
+
+    /**
+     * Moves the Pessoas and Candidatos to the given maps, e.g.
+     * {@link MappedEntityStore}s, and keeps them there from now on.
+     */
+    synchronized void useStores(Map<String, Pessoa> pessoas, Map<String, Candidato> candidatos) {
+        pessoas.putAll(this.pessoasByCpf);
+        candidatos.putAll(this.candidatosByCpf);
+        this.pessoasByCpf = pessoas;
+        this.candidatosByCpf = candidatos;
+    }
+
+    // --- Raw access used when replaying the journal ---
+    // These skip validation and do not notify listeners, the change being
+    // replayed is already recorded.
+
+    /**
+     * Stores the entity, replacing any previous entity with the same key.
+     */
+    synchronized void putEntity(Object entity) {
+        switch (entity) {
+            case Pessoa p -> pessoasByCpf.put(p.getCpfCnpj(), p);
+            case Usuario u -> usuariosByCpf.put(u.getCpfCnpj(), u);
+            case Administrador a -> replace(administradoresByCpf.put(a.getCpfCnpj(), a), a);
+            case Gestor g -> replace(gestoresByCpf.put(g.getCpfCnpj(), g), g);
+            case Recrutador r -> replace(recrutadoresByCpf.put(r.getCpfCnpj(), r), r);
+            case Funcionario f -> replace(funcionariosByCpf.put(f.getCpfCnpj(), f), f);
+            case Candidato c -> candidatosByCpf.put(c.getCpfCnpj(), c);
+            case Vaga v -> {
+                deleteEntity(v);
+                vagasById.put(v.getId(), v);
+                index(v);
             }
+            case Candidatura c -> replace(candidaturas.put(c), c);
+            case Entrevista e -> replace(entrevistas.put(e), e);
+            case Contratacao c -> replace(contratacoes.put(c), c);
+            case PrestadorServico p -> prestadoresByCnpj.put(p.getCnpj(), p);
+            case ContratoServico c -> replace(contratosServico.put(c), c);
+            default -> throw new IllegalArgumentException("Tipo não suportado: " + entity.getClass().getName());
         }
     }
 
-    public void removeCandidatura(Candidatura c) {
-        candidaturas.remove(c);
+    private void replace(Object previous, Object entity) {
+        unindex(previous);
+        index(entity);
+    }
+
+    /**
+     * Stores an entity read from a snapshot.
+     */
+    synchronized void loadEntity(Object entity) {
+        putEntity(entity);
+    }
+
+    /**
+     * Removes the entity that has the same key as the given one.
+     */
+    synchronized void deleteEntity(Object entity) {
+        unindex(removeStored(entity));
+    }
+
+    /**
+     * Takes the entity with the same key as the given one out of its
+     * collection, without touching the indexes.
+     *
+     * @return The instance that was stored, or {@code null}.
+     */
+    private Object removeStored(Object entity) {
+        return switch (entity) {
+            case Pessoa p -> pessoasByCpf.remove(p.getCpfCnpj());
+            case Usuario u -> usuariosByCpf.remove(u.getCpfCnpj());
+            case Administrador a -> administradoresByCpf.remove(a.getCpfCnpj());
+            case Gestor g -> gestoresByCpf.remove(g.getCpfCnpj());
+            case Recrutador r -> recrutadoresByCpf.remove(r.getCpfCnpj());
+            case Funcionario f -> funcionariosByCpf.remove(f.getCpfCnpj());
+            case Candidato c -> candidatosByCpf.remove(c.getCpfCnpj());
+            case Vaga v -> vagasById.remove(v.getId());
+            case Candidatura c -> candidaturas.removeKey(CandidaturaKey.of(c));
+            case Entrevista e -> entrevistas.removeKey(e.getId());
+            case Contratacao c -> contratacoes.removeKey(c.getId());
+            case PrestadorServico p -> prestadoresByCnpj.remove(p.getCnpj());
+            case ContratoServico c -> contratosServico.removeKey(c.getId());
+            default -> throw new IllegalArgumentException("Tipo não suportado: " + entity.getClass().getName());
+        };
+    }
+
+    // --- Index maintenance ---
+    // Called with the stored instance, after it is added and before (or right
+    // after) it is removed from its collection. unindex ignores null so it can
+    // take the result of a removal directly.
+
+    private void index(Object entity) {
+        switch (entity) {
+            case Funcionario f -> {
+                funcionariosByCargo.add(f);
+                funcionariosByStatus.add(f);
+                funcionariosByDepartamento.add(f);
+            }
+            case Vaga v -> {
+                vagasByRecrutador.add(v);
+                vagasByStatus.add(v);
+            }
+            case Candidatura c -> {
+                candidaturasByCandidato.add(c);
+                candidaturasByVaga.add(c);
+                candidaturasByStatus.add(c);
+            }
+            case Entrevista e -> {
+                entrevistasByCandidato.add(e);
+                entrevistasByVaga.add(e);
+                entrevistasByAvaliador.add(e);
+            }
+            case Contratacao c -> {
+                contratacoesByCandidato.add(c);
+                contratacoesByVaga.add(c);
+                contratacoesByRecrutador.add(c);
+                contratacoesByStatus.add(c);
+            }
+            case ContratoServico c -> {
+                contratosServicoByPrestador.add(c);
+                contratosServicoByStatus.add(c);
+            }
+            default -> {
+            }
+        }
+    }
+
+    private void unindex(Object entity) {
+        if (entity == null) {
+            return;
+        }
+        switch (entity) {
+            case Funcionario f -> {
+                funcionariosByCargo.remove(f);
+                funcionariosByStatus.remove(f);
+                funcionariosByDepartamento.remove(f);
+            }
+            case Vaga v -> {
+                vagasByRecrutador.remove(v);
+                vagasByStatus.remove(v);
+            }
+            case Candidatura c -> {
+                candidaturasByCandidato.remove(c);
+                candidaturasByVaga.remove(c);
+                candidaturasByStatus.remove(c);
+            }
+            case Entrevista e -> {
+                entrevistasByCandidato.remove(e);
+                entrevistasByVaga.remove(e);
+                entrevistasByAvaliador.remove(e);
+            }
+            case Contratacao c -> {
+                contratacoesByCandidato.remove(c);
+                contratacoesByVaga.remove(c);
+                contratacoesByRecrutador.remove(c);
+                contratacoesByStatus.remove(c);
+            }
+            case ContratoServico c -> {
+                contratosServicoByPrestador.remove(c);
+                contratosServicoByStatus.remove(c);
+            }
+            default -> {
+            }
+        }
+    }
+
+    /**
+     * For an entity changed in place, e.g. a Candidatura with a new status.
+     */
+    private void reindex(Object entity) {
+        switch (entity) {
+            case Funcionario f -> {
+                funcionariosByCargo.update(f);
+                funcionariosByStatus.update(f);
+                funcionariosByDepartamento.update(f);
+            }
+            case Vaga v -> {
+                vagasByRecrutador.update(v);
+                vagasByStatus.update(v);
+            }
+            case Candidatura c -> {
+                candidaturasByCandidato.update(c);
+                candidaturasByVaga.update(c);
+                candidaturasByStatus.update(c);
+            }
+            case Entrevista e -> {
+                entrevistasByCandidato.update(e);
+                entrevistasByVaga.update(e);
+                entrevistasByAvaliador.update(e);
+            }
+            case Contratacao c -> {
+                contratacoesByCandidato.update(c);
+                contratacoesByVaga.update(c);
+                contratacoesByRecrutador.update(c);
+                contratacoesByStatus.update(c);
+            }
+            case ContratoServico c -> {
+                contratosServicoByPrestador.update(c);
+                contratosServicoByStatus.update(c);
+            }
+            default -> {
+            }
+        }
+    }
+
+    /**
+     * Natural key of a Candidatura, a candidate applies to a Vaga only once.
+     */
+    private record CandidaturaKey(String cpf, String vagaId) {
+        static CandidaturaKey of(Candidatura c) {
+            return new CandidaturaKey(c.getCpfCnpjCandidato(), c.getVagaId());
+        }
     }
-    // --- End Removers ---
 
     // --- Utils ---
 
     /**
-     * Retrieves a list of all Funcionarios in the system.
+     * Retrieves a list of all Funcionarios in the system. A copy taken under
+     * the lock, like the other list getters.
      */
-    public List<Funcionario> getAllFuncionarios() {
+    public synchronized List<Funcionario> getAllFuncionarios() {
         List<Funcionario> allUsers = new ArrayList<>();
 
         allUsers.addAll(administradoresByCpf.values());
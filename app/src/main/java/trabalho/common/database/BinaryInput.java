@@ -0,0 +1,193 @@
+package trabalho.common.database;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.Date;
+import java.util.List;
+
+/**
+ * Decodes one record written by a {@link BinaryOutput}.
+ *
+ * @author Gabriel M.S.O.
+ */
+class BinaryInput {
+    private byte[] buffer = new byte[256];
+    private int limit;
+    private int position;
+
+    private final List<String> stringTable;
+
+    BinaryInput(List<String> stringTable) {
+        this.stringTable = stringTable;
+    }
+
+    /**
+     * Reads the next {@code length} bytes of the stream as the current record.
+     */
+    void load(InputStream in, int length) throws IOException {
+        if (length > buffer.length) {
+            buffer = new byte[Math.max(length, buffer.length * 2)];
+        }
+        int read = in.readNBytes(buffer, 0, length);
+        if (read < length) {
+            throw new EOFException("Truncated record");
+        }
+        limit = length;
+        position = 0;
+    }
+
+    /**
+     * Copies {@code length} bytes of the buffer, starting at {@code position},
+     * as the current record.
+     */
+    void load(ByteBuffer source, int position, int length) throws IOException {
+        if (length < 0 || position + length > source.limit()) {
+            throw new EOFException("Record out of bounds");
+        }
+        if (length > buffer.length) {
+            buffer = new byte[Math.max(length, buffer.length * 2)];
+        }
+        source.get(position, buffer, 0, length);
+        limit = length;
+        this.position = 0;
+    }
+
+    /**
+     * A record may end with fields added by a newer version, they are
+     * ignored.
+     */
+    boolean hasRemaining() {
+        return position < limit;
+    }
+
+    int readByte() throws IOException {
+        if (position >= limit) {
+            throw new EOFException("Record ended early");
+        }
+        return buffer[position++] & 0xFF;
+    }
+
+    boolean readBoolean() throws IOException {
+        return readByte() != 0;
+    }
+
+    long readVarLong() throws IOException {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            int b = readByte();
+            value |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IOException("Malformed variable length number");
+    }
+
+    long readSignedVarLong() throws IOException {
+        long raw = readVarLong();
+        return (raw >>> 1) ^ -(raw & 1);
+    }
+
+    double readDouble() throws IOException {
+        long bits = 0;
+        for (int i = 0; i < 8; i++) {
+            bits = (bits << 8) | readByte();
+        }
+        return Double.longBitsToDouble(bits);
+    }
+
+    Double readNullableDouble() throws IOException {
+        return readBoolean() ? readDouble() : null;
+    }
+
+    String readString() throws IOException {
+        int length = (int) readVarLong() - 1;
+        if (length < 0) {
+            return null;
+        }
+        if (position + length > limit) {
+            throw new EOFException("Record ended early");
+        }
+        String value = new String(buffer, position, length, StandardCharsets.UTF_8);
+        position += length;
+        return value;
+    }
+
+    String readInterned() throws IOException {
+        int index = (int) readVarLong() - 1;
+        if (index < 0) {
+            return null;
+        }
+        if (index >= stringTable.size()) {
+            throw new IOException("Invalid string reference " + index);
+        }
+        return stringTable.get(index);
+    }
+
+    /**
+     * Unknown constants become {@code null}, like with the JSON format.
+     */
+    <E extends Enum<E>> E readEnum(Class<E> type) throws IOException {
+        String name = readInterned();
+        if (name == null) {
+            return null;
+        }
+        try {
+            return Enum.valueOf(type, name);
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    String readCpfCnpj() throws IOException {
+        int tag = readByte();
+        return switch (tag) {
+            case BinaryOutput.CPF_NULL -> null;
+            case BinaryOutput.CPF_11_DIGITS -> pad(readVarLong(), 11);
+            case BinaryOutput.CPF_14_DIGITS -> pad(readVarLong(), 14);
+            case BinaryOutput.CPF_TEXT -> readString();
+            default -> throw new IOException("Invalid CPF/CNPJ tag " + tag);
+        };
+    }
+
+    private static String pad(long digits, int length) {
+        String value = Long.toString(digits);
+        return value.length() >= length ? value : "0".repeat(length - value.length()) + value;
+    }
+
+    LocalDate readLocalDate() throws IOException {
+        return readBoolean() ? LocalDate.ofEpochDay(readSignedVarLong()) : null;
+    }
+
+    Date readDate() throws IOException {
+        return readBoolean() ? new Date(readSignedVarLong()) : null;
+    }
+
+    /**
+     * Reads an unsigned variable length number straight from a stream, used
+     * for the framing between records.
+     *
+     * @return The number, or -1 at the end of the stream.
+     */
+    static long readVarLong(InputStream in) throws IOException {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            int b = in.read();
+            if (b < 0) {
+                if (shift == 0) {
+                    return -1;
+                }
+                throw new EOFException("Truncated number");
+            }
+            value |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IOException("Malformed variable length number");
+    }
+}
@@ -0,0 +1,196 @@
+package trabalho.common.database;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.Map;
+
+/**
+ * Growable byte buffer with the primitive encodings of the binary snapshot.
+ * <p>
+ * Integers are written as variable length (LEB128), signed ones zig-zag
+ * encoded first, so small values take a single byte.
+ *
+ * @author Gabriel M.S.O.
+ * @see BinaryInput
+ */
+class BinaryOutput {
+    // Tags written before a CPF/CNPJ
+    static final int CPF_NULL = 0;
+    static final int CPF_11_DIGITS = 1;
+    static final int CPF_14_DIGITS = 2;
+    static final int CPF_TEXT = 3;
+
+    private byte[] buffer = new byte[256];
+    private int size;
+
+    private final Map<String, Integer> stringTable;
+    private final boolean collecting;
+
+    /**
+     * @param stringTable Index of every string written with
+     *                    {@link #writeInterned(String)}, may be {@code null}
+     *                    if that method is never used.
+     * @param collecting  If set, unknown interned strings are added to the
+     *                    table instead of failing. Used for a first pass that
+     *                    only builds the table, the bytes are thrown away.
+     */
+    BinaryOutput(Map<String, Integer> stringTable, boolean collecting) {
+        this.stringTable = stringTable;
+        this.collecting = collecting;
+    }
+
+    int size() {
+        return size;
+    }
+
+    void reset() {
+        size = 0;
+    }
+
+    void writeTo(OutputStream out) throws IOException {
+        out.write(buffer, 0, size);
+    }
+
+    void copyTo(ByteBuffer target, int position) {
+        target.put(position, buffer, 0, size);
+    }
+
+    private void ensureCapacity(int extra) {
+        if (size + extra > buffer.length) {
+            buffer = Arrays.copyOf(buffer, Math.max(buffer.length * 2, size + extra));
+        }
+    }
+
+    void writeByte(int value) {
+        ensureCapacity(1);
+        buffer[size++] = (byte) value;
+    }
+
+    void writeBytes(byte[] bytes, int offset, int length) {
+        ensureCapacity(length);
+        System.arraycopy(bytes, offset, buffer, size, length);
+        size += length;
+    }
+
+    void writeBoolean(boolean value) {
+        writeByte(value ? 1 : 0);
+    }
+
+    void writeVarLong(long value) {
+        ensureCapacity(10);
+        while ((value & ~0x7FL) != 0) {
+            buffer[size++] = (byte) ((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        buffer[size++] = (byte) value;
+    }
+
+    void writeSignedVarLong(long value) {
+        writeVarLong((value << 1) ^ (value >> 63));
+    }
+
+    void writeDouble(double value) {
+        long bits = Double.doubleToRawLongBits(value);
+        ensureCapacity(8);
+        for (int shift = 56; shift >= 0; shift -= 8) {
+            buffer[size++] = (byte) (bits >>> shift);
+        }
+    }
+
+    void writeNullableDouble(Double value) {
+        writeBoolean(value != null);
+        if (value != null) {
+            writeDouble(value);
+        }
+    }
+
+    /**
+     * Length prefixed UTF-8, the length is stored plus one so that 0 means
+     * {@code null}.
+     */
+    void writeString(String value) {
+        if (value == null || collecting) {
+            writeVarLong(0);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        writeVarLong(bytes.length + 1L);
+        writeBytes(bytes, 0, bytes.length);
+    }
+
+    /**
+     * Index in the string table plus one, 0 means {@code null}.
+     */
+    void writeInterned(String value) {
+        if (value == null) {
+            writeVarLong(0);
+            return;
+        }
+        Integer index = stringTable.get(value);
+        if (index == null && collecting) {
+            index = stringTable.size();
+            stringTable.put(value, index);
+        } else if (index == null) {
+            throw new IllegalStateException("String not in the table: " + value);
+        }
+        writeVarLong(index + 1L);
+    }
+
+    void writeEnum(Enum<?> value) {
+        writeInterned(value != null ? value.name() : null);
+    }
+
+    /**
+     * Normalized CPFs (11 digits) and CNPJs (14 digits) fit in a long,
+     * anything else is kept as text.
+     */
+    void writeCpfCnpj(String value) {
+        if (value == null) {
+            writeByte(CPF_NULL);
+            return;
+        }
+        int length = value.length();
+        if ((length == 11 || length == 14) && isDigits(value)) {
+            writeByte(length == 11 ? CPF_11_DIGITS : CPF_14_DIGITS);
+            writeVarLong(Long.parseLong(value));
+            return;
+        }
+        writeByte(CPF_TEXT);
+        writeString(value);
+    }
+
+    private static boolean isDigits(String value) {
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c < '0' || c > '9') {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Epoch day, {@code null} is a leading 0 flag.
+     */
+    void writeLocalDate(LocalDate value) {
+        writeBoolean(value != null);
+        if (value != null) {
+            writeSignedVarLong(value.toEpochDay());
+        }
+    }
+
+    /**
+     * Epoch millis, {@code null} is a leading 0 flag.
+     */
+    void writeDate(Date value) {
+        writeBoolean(value != null);
+        if (value != null) {
+            writeSignedVarLong(value.getTime());
+        }
+    }
+}
@@ -0,0 +1,533 @@
+package trabalho.common.database;
+
+import trabalho.admin.model.Administrador;
+import trabalho.admin.model.Gestor;
+import trabalho.admin.model.Usuario;
+import trabalho.candidatura.model.Candidato;
+import trabalho.candidatura.model.Candidatura;
+import trabalho.candidatura.model.Candidatura.StatusCandidatura;
+import trabalho.candidatura.model.Pessoa;
+import trabalho.financeiro.model.Funcionario;
+import trabalho.recrutamento.model.Contratacao;
+import trabalho.recrutamento.model.Contratacao.StatusContratacao;
+import trabalho.recrutamento.model.Entrevista;
+import trabalho.recrutamento.model.Recrutador;
+import trabalho.recrutamento.model.RegimeContratacao;
+import trabalho.recrutamento.model.Vaga;
+import trabalho.recrutamento.model.Vaga.StatusVaga;
+import trabalho.servico.model.ContratoServico;
+import trabalho.servico.model.ContratoServico.StatusContrato;
+import trabalho.servico.model.ContratoServico.TipoValor;
+import trabalho.servico.model.PrestadorServico;
+
+import java.io.BufferedInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Compact binary snapshot, several times smaller and faster than JSON.
+ * <p>
+ * Layout:
+ *
+ * <pre>
+ * "HRDB" version
+ * string count, strings...          (departamentos, cargos, enums, vaga ids)
+ * section tag, record count, (record length, record)...   (once per type)
+ * 0                                  (end marker)
+ * </pre>
+ *
+ * Every record is length prefixed, so a reader skips sections it does not
+ * know and fields appended to a record by a newer version. Repeated strings
+ * are stored once in the table and referenced by index, CPFs/CNPJs are stored
+ * as numbers, {@code LocalDate}s as epoch days and {@code Date}s as epoch
+ * millis. See {@link BinaryOutput} for the primitive encodings.
+ * <p>
+ * Older versions are still read, the snapshot is written back in the current
+ * one on the next save.
+ *
+ * @author Gabriel M.S.O.
+ */
+public class BinaryStorageFormat implements StorageFormat {
+    public static final BinaryStorageFormat INSTANCE = new BinaryStorageFormat();
+
+    private static final byte[] MAGIC = { 'H', 'R', 'D', 'B' };
+    // 1: Candidatura embedded its Vaga (by id or inline), 2: only the vaga id
+    private static final int VERSION = 2;
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final int PROGRESS_INTERVAL = 4096; // records
+
+    // Section tags, never reuse a number
+    private static final int END = 0;
+    private static final int PESSOAS = 1;
+    private static final int USUARIOS = 2;
+    private static final int FUNCIONARIOS = 3;
+    private static final int ADMINISTRADORES = 4;
+    private static final int GESTORES = 5;
+    private static final int RECRUTADORES = 6;
+    private static final int CANDIDATOS = 7;
+    private static final int VAGAS = 8; // Must come before CANDIDATURAS
+    private static final int CANDIDATURAS = 9;
+    private static final int ENTREVISTAS = 10;
+    private static final int CONTRATACOES = 11;
+    private static final int PRESTADORES = 12; // Must come before CONTRATOS_SERVICO
+    private static final int CONTRATOS_SERVICO = 13;
+
+    // How the Vaga of a Candidatura was stored in version 1
+    private static final int VAGA_NULL = 0;
+    private static final int VAGA_BY_ID = 1;
+    private static final int VAGA_INLINE = 2;
+
+    // Reused by the MappedEntityStore
+    static final MappedEntityStore.RecordCodec<Pessoa> PESSOA_CODEC = new MappedEntityStore.RecordCodec<>() {
+        @Override
+        public void write(BinaryOutput out, Pessoa value) {
+            writePessoa(out, value);
+        }
+
+        @Override
+        public Pessoa read(BinaryInput in) throws IOException {
+            return readPessoa(in);
+        }
+    };
+
+    static final MappedEntityStore.RecordCodec<Candidato> CANDIDATO_CODEC = new MappedEntityStore.RecordCodec<>() {
+        @Override
+        public void write(BinaryOutput out, Candidato value) {
+            writeCandidato(out, value);
+        }
+
+        @Override
+        public Candidato read(BinaryInput in) throws IOException {
+            return readCandidato(in);
+        }
+    };
+
+    @FunctionalInterface
+    private interface RecordWriter<T> {
+        void write(BinaryOutput out, T entity);
+    }
+
+    private BinaryStorageFormat() {
+    }
+
+    @Override
+    public String getName() {
+        return "binary";
+    }
+
+    @Override
+    public String getDefaultFileName() {
+        return "hr_data.bin";
+    }
+
+    /**
+     * Checks the first bytes of the stream, consuming them.
+     */
+    static boolean hasMagic(InputStream in) throws IOException {
+        return Arrays.equals(in.readNBytes(MAGIC.length), MAGIC);
+    }
+
+    // --- Writing ---
+
+    @Override
+    public void write(AppData data, OutputStream out) throws IOException {
+        Map<String, Integer> stringTable = new HashMap<>();
+        writeSections(data, new BinaryOutput(stringTable, true), null); // Only fills the table
+
+        BinaryOutput header = new BinaryOutput(null, false);
+        header.writeBytes(MAGIC, 0, MAGIC.length);
+        header.writeVarLong(VERSION);
+        String[] strings = new String[stringTable.size()];
+        stringTable.forEach((string, index) -> strings[index] = string);
+        header.writeVarLong(strings.length);
+        for (String string : strings) {
+            header.writeString(string);
+        }
+        header.writeTo(out);
+
+        writeSections(data, new BinaryOutput(stringTable, false), out);
+    }
+
+    /**
+     * @param out {@code null} to only run the encoders.
+     */
+    private void writeSections(AppData data, BinaryOutput record, OutputStream out) throws IOException {
+        BinaryOutput frame = new BinaryOutput(null, false);
+
+        writeSection(out, frame, record, PESSOAS, data.getPessoas().values(), BinaryStorageFormat::writePessoa);
+        writeSection(out, frame, record, USUARIOS, data.getUsuarios().values(), this::writeUsuario);
+        writeSection(out, frame, record, FUNCIONARIOS, data.getFuncionarios().values(), this::writeFuncionario);
+        writeSection(out, frame, record, ADMINISTRADORES, data.getAdministradores().values(),
+                this::writeFuncionario);
+        writeSection(out, frame, record, GESTORES, data.getGestores().values(), this::writeFuncionario);
+        writeSection(out, frame, record, RECRUTADORES, data.getRecrutadores().values(), this::writeFuncionario);
+        writeSection(out, frame, record, CANDIDATOS, data.getCandidatos().values(), BinaryStorageFormat::writeCandidato);
+        writeSection(out, frame, record, VAGAS, data.getVagasById().values(), this::writeVaga);
+        writeSection(out, frame, record, CANDIDATURAS, data.getCandidaturas(), this::writeCandidatura);
+        writeSection(out, frame, record, ENTREVISTAS, data.getEntrevistas(), this::writeEntrevista);
+        writeSection(out, frame, record, CONTRATACOES, data.getContratacoes(), this::writeContratacao);
+        writeSection(out, frame, record, PRESTADORES, data.getPrestadores().values(), this::writePrestador);
+        writeSection(out, frame, record, CONTRATOS_SERVICO, data.getContratosServico(),
+                this::writeContratoServico);
+
+        if (out != null) {
+            frame.reset();
+            frame.writeVarLong(END);
+            frame.writeTo(out);
+        }
+    }
+
+    private <T> void writeSection(OutputStream out, BinaryOutput frame, BinaryOutput record, int tag,
+            Collection<T> entities, RecordWriter<T> writer) throws IOException {
+        if (out != null) {
+            frame.reset();
+            frame.writeVarLong(tag);
+            frame.writeVarLong(entities.size());
+            frame.writeTo(out);
+        }
+        for (T entity : entities) {
+            record.reset();
+            writer.write(record, entity);
+            if (out != null) {
+                frame.reset();
+                frame.writeVarLong(record.size());
+                frame.writeTo(out);
+                record.writeTo(out);
+            }
+        }
+    }
+
+    static void writePessoa(BinaryOutput out, Pessoa p) {
+        out.writeCpfCnpj(p.getCpfCnpj());
+        out.writeString(p.getNome());
+        out.writeString(p.getEmail());
+        out.writeString(p.getEndereco());
+        out.writeSignedVarLong(p.getTelefone());
+    }
+
+    private void writeUsuario(BinaryOutput out, Usuario u) {
+        out.writeCpfCnpj(u.getCpfCnpj());
+        out.writeString(u.getPassHash());
+    }
+
+    private void writeFuncionario(BinaryOutput out, Funcionario f) {
+        out.writeCpfCnpj(f.getCpfCnpj());
+        out.writeInterned(f.getCargo());
+        out.writeInterned(f.getStatus());
+        out.writeInterned(f.getDepartamento());
+        out.writeDouble(f.getSalarioBase());
+    }
+
+    static void writeCandidato(BinaryOutput out, Candidato c) {
+        out.writeCpfCnpj(c.getCpfCnpj());
+        out.writeString(c.getFormacao());
+        out.writeString(c.getExperiencia());
+        out.writeDouble(c.getPretensaoSalarial());
+        out.writeString(c.getDisponibilidadeHorario());
+        out.writeString(c.getDocumentosAdicionais());
+        out.writeLocalDate(c.getDataCadastro());
+    }
+
+    private void writeVaga(BinaryOutput out, Vaga v) {
+        out.writeInterned(v.getId());
+        out.writeInterned(v.getCargo());
+        out.writeInterned(v.getDepartamento());
+        out.writeDouble(v.getSalarioBase());
+        out.writeString(v.getRequisitos());
+        out.writeEnum(v.getStatus());
+        out.writeEnum(v.getRegimeContratacao());
+        out.writeDate(v.getDataAbertura());
+        out.writeCpfCnpj(v.getGestorCriadorCpf());
+        out.writeCpfCnpj(v.getRecrutadorResponsavelCpf());
+    }
+
+    private void writeCandidatura(BinaryOutput out, Candidatura c) {
+        out.writeCpfCnpj(c.getCpfCnpjCandidato());
+        out.writeInterned(c.getVagaId());
+        out.writeDate(c.getDataCandidatura());
+        out.writeEnum(c.getStatusEnum());
+    }
+
+    private void writeEntrevista(BinaryOutput out, Entrevista e) {
+        out.writeString(e.getId());
+        out.writeLocalDate(e.getDataHora());
+        out.writeCpfCnpj(e.getAvaliadorCpf());
+        out.writeNullableDouble(e.getNota());
+        out.writeString(e.getParecer());
+        out.writeString(e.getObservacoes());
+        out.writeCpfCnpj(e.getCandidatoCpf());
+        out.writeInterned(e.getVagaId());
+    }
+
+    private void writeContratacao(BinaryOutput out, Contratacao c) {
+        out.writeString(c.getId());
+        out.writeLocalDate(c.getDataSolicitacao());
+        out.writeDate(c.getDataAutorizacao());
+        out.writeEnum(c.getRegime());
+        out.writeEnum(c.getStatus());
+        out.writeCpfCnpj(c.getCandidatoCpf());
+        out.writeInterned(c.getVagaId());
+        out.writeCpfCnpj(c.getRecrutadorSolicitanteCpf());
+        out.writeCpfCnpj(c.getGestorAutorizanteCpf());
+        out.writeEnum(c.getRegimeContratacao());
+        out.writeString(c.getObservacoes());
+    }
+
+    private void writePrestador(BinaryOutput out, PrestadorServico p) {
+        out.writeCpfCnpj(p.getCnpj());
+        out.writeString(p.getRazaoSocial());
+        out.writeString(p.getEmail());
+        out.writeString(p.getEndereco());
+        out.writeSignedVarLong(p.getTelefone());
+        out.writeLocalDate(p.getDataCadastro());
+    }
+
+    private void writeContratoServico(BinaryOutput out, ContratoServico c) {
+        out.writeString(c.getId());
+        out.writeCpfCnpj(c.getPrestadorCnpj());
+        out.writeString(c.getDescricao());
+        out.writeInterned(c.getDepartamento());
+        out.writeCpfCnpj(c.getGestorResponsavelCpf());
+        out.writeLocalDate(c.getDataInicio());
+        out.writeLocalDate(c.getDataFim());
+        out.writeEnum(c.getTipoValor());
+        out.writeDouble(c.getValor());
+        out.writeDouble(c.getHorasMensais());
+        out.writeDouble(c.getPercentualRetencao());
+        out.writeEnum(c.getStatus());
+    }
+
+    // --- Reading ---
+
+    @Override
+    public AppData read(Path file, AppData data, StreamingDataLoader.ProgressListener listener)
+            throws IOException {
+        long totalBytes = Files.size(file);
+
+        try (InputStream in = new BufferedInputStream(Files.newInputStream(file), BUFFER_SIZE)) {
+            if (!hasMagic(in)) {
+                throw new IOException("Not a binary snapshot: " + file.getFileName());
+            }
+            long version = BinaryInput.readVarLong(in);
+            if (version < 1 || version > VERSION) {
+                throw new IOException("Unsupported binary snapshot version " + version);
+            }
+
+            List<String> stringTable = readStringTable(in);
+            BinaryInput record = new BinaryInput(stringTable);
+            long bytesRead = 0;
+            long entitiesLoaded = 0;
+
+            long tag;
+            while ((tag = BinaryInput.readVarLong(in)) > END) {
+                long count = BinaryInput.readVarLong(in);
+                for (long i = 0; i < count; i++) {
+                    long length = BinaryInput.readVarLong(in);
+                    if (length < 0 || length > Integer.MAX_VALUE) {
+                        throw new EOFException("Truncated snapshot");
+                    }
+                    record.load(in, (int) length);
+                    bytesRead += length;
+
+                    Object entity = readRecord((int) tag, record, (int) version);
+                    if (entity != null) {
+                        data.loadEntity(entity);
+                    }
+                    if (++entitiesLoaded % PROGRESS_INTERVAL == 0 && listener != null) {
+                        listener.onProgress(bytesRead, totalBytes, entitiesLoaded);
+                    }
+                }
+            }
+            if (tag != END) {
+                throw new EOFException("Snapshot ended before the end marker");
+            }
+            if (listener != null) {
+                listener.onProgress(totalBytes, totalBytes, entitiesLoaded);
+            }
+        }
+        return data;
+    }
+
+    private static List<String> readStringTable(InputStream in) throws IOException {
+        long count = BinaryInput.readVarLong(in);
+        if (count < 0) {
+            throw new EOFException("Truncated snapshot");
+        }
+        List<String> strings = new ArrayList<>((int) Math.min(count, 1 << 16));
+        for (long i = 0; i < count; i++) {
+            long length = BinaryInput.readVarLong(in) - 1;
+            if (length < 0 || length > Integer.MAX_VALUE) {
+                throw new IOException("Invalid string table entry");
+            }
+            byte[] bytes = in.readNBytes((int) length);
+            if (bytes.length < length) {
+                throw new EOFException("Truncated snapshot");
+            }
+            strings.add(new String(bytes, StandardCharsets.UTF_8));
+        }
+        return strings;
+    }
+
+    /**
+     * @return The decoded entity, or {@code null} for a section this version
+     *         does not know.
+     */
+    private Object readRecord(int tag, BinaryInput in, int version) throws IOException {
+        return switch (tag) {
+            case PESSOAS -> readPessoa(in);
+            case USUARIOS -> readUsuario(in);
+            case FUNCIONARIOS -> readFuncionario(in, new Funcionario());
+            case ADMINISTRADORES -> readFuncionario(in, new Administrador());
+            case GESTORES -> readFuncionario(in, new Gestor());
+            case RECRUTADORES -> readFuncionario(in, new Recrutador());
+            case CANDIDATOS -> readCandidato(in);
+            case VAGAS -> readVaga(in);
+            case CANDIDATURAS -> readCandidatura(in, version);
+            case ENTREVISTAS -> readEntrevista(in);
+            case CONTRATACOES -> readContratacao(in);
+            case PRESTADORES -> readPrestador(in);
+            case CONTRATOS_SERVICO -> readContratoServico(in);
+            default -> null;
+        };
+    }
+
+    static Pessoa readPessoa(BinaryInput in) throws IOException {
+        Pessoa p = new Pessoa();
+        p.setCpfCnpj(in.readCpfCnpj());
+        p.setNome(in.readString());
+        p.setEmail(in.readString());
+        p.setEndereco(in.readString());
+        p.setTelefone(in.readSignedVarLong());
+        return p;
+    }
+
+    private Usuario readUsuario(BinaryInput in) throws IOException {
+        Usuario u = new Usuario();
+        u.setCpfCnpj(in.readCpfCnpj());
+        u.setPassHash(in.readString());
+        return u;
+    }
+
+    private Funcionario readFuncionario(BinaryInput in, Funcionario f) throws IOException {
+        f.setCpfCnpj(in.readCpfCnpj());
+        f.setCargo(in.readInterned());
+        f.setStatus(in.readInterned());
+        f.setDepartamento(in.readInterned());
+        f.setSalarioBase(in.readDouble());
+        return f;
+    }
+
+    static Candidato readCandidato(BinaryInput in) throws IOException {
+        Candidato c = new Candidato();
+        c.setCpfCnpj(in.readCpfCnpj());
+        c.setFormacao(in.readString());
+        c.setExperiencia(in.readString());
+        c.setPretensaoSalarial(in.readDouble());
+        c.setDisponibilidadeHorario(in.readString());
+        c.setDocumentosAdicionais(in.readString());
+        c.setDataCadastro(in.readLocalDate());
+        return c;
+    }
+
+    private Vaga readVaga(BinaryInput in) throws IOException {
+        Vaga v = new Vaga();
+        v.setId(in.readInterned());
+        v.setCargo(in.readInterned());
+        v.setDepartamento(in.readInterned());
+        v.setSalarioBase(in.readDouble());
+        v.setRequisitos(in.readString());
+        v.setStatus(in.readEnum(StatusVaga.class));
+        v.setRegimeContratacao(in.readEnum(RegimeContratacao.class));
+        v.setDataAbertura(in.readDate());
+        v.setGestorCriadorCpf(in.readCpfCnpj());
+        v.setRecrutadorResponsavelCpf(in.readCpfCnpj());
+        return v;
+    }
+
+    private Candidatura readCandidatura(BinaryInput in, int version) throws IOException {
+        Candidatura c = new Candidatura();
+        c.setCpfCnpjCandidato(in.readCpfCnpj());
+        c.setVagaId(version >= 2 ? in.readInterned() : readLegacyVagaId(in));
+        c.setDataCandidatura(in.readDate());
+        c.setStatus(in.readEnum(StatusCandidatura.class));
+        return c;
+    }
+
+    private String readLegacyVagaId(BinaryInput in) throws IOException {
+        int vagaKind = in.readByte();
+        return switch (vagaKind) {
+            case VAGA_NULL -> null;
+            case VAGA_BY_ID -> in.readInterned();
+            case VAGA_INLINE -> readVaga(in).getId();
+            default -> throw new IOException("Invalid vaga tag " + vagaKind);
+        };
+    }
+
+    private Entrevista readEntrevista(BinaryInput in) throws IOException {
+        Entrevista e = new Entrevista();
+        e.setId(in.readString());
+        e.setDataHora(in.readLocalDate());
+        e.setAvaliadorCpf(in.readCpfCnpj());
+        e.setNota(in.readNullableDouble());
+        e.setParecer(in.readString());
+        e.setObservacoes(in.readString());
+        e.setCandidaturaCpf(in.readCpfCnpj());
+        e.setVagaId(in.readInterned());
+        return e;
+    }
+
+    private Contratacao readContratacao(BinaryInput in) throws IOException {
+        Contratacao c = new Contratacao();
+        c.setId(in.readString());
+        c.setDataSolicitacao(in.readLocalDate());
+        c.setDataAutorizacao(in.readDate());
+        c.setRegime(in.readEnum(RegimeContratacao.class));
+        c.setStatus(in.readEnum(StatusContratacao.class));
+        c.setCandidatoCpf(in.readCpfCnpj());
+        c.setVagaId(in.readInterned());
+        c.setRecrutadorSolicitanteCpf(in.readCpfCnpj());
+        c.setGestorAutorizanteCpf(in.readCpfCnpj());
+        c.setRegimeContratacao(in.readEnum(RegimeContratacao.class));
+        c.setObservacoes(in.readString());
+        return c;
+    }
+
+    private PrestadorServico readPrestador(BinaryInput in) throws IOException {
+        PrestadorServico p = new PrestadorServico();
+        p.setCnpj(in.readCpfCnpj());
+        p.setRazaoSocial(in.readString());
+        p.setEmail(in.readString());
+        p.setEndereco(in.readString());
+        p.setTelefone(in.readSignedVarLong());
+        p.setDataCadastro(in.readLocalDate());
+        return p;
+    }
+
+    private ContratoServico readContratoServico(BinaryInput in) throws IOException {
+        ContratoServico c = new ContratoServico();
+        c.setId(in.readString());
+        c.setPrestadorCnpj(in.readCpfCnpj());
+        c.setDescricao(in.readString());
+        c.setDepartamento(in.readInterned());
+        c.setGestorResponsavelCpf(in.readCpfCnpj());
+        c.setDataInicio(in.readLocalDate());
+        c.setDataFim(in.readLocalDate());
+        c.setTipoValor(in.readEnum(TipoValor.class));
+        c.setValor(in.readDouble());
+        c.setHorasMensais(in.readDouble());
+        c.setPercentualRetencao(in.readDouble());
+        c.setStatus(in.readEnum(StatusContrato.class));
+        return c;
+    }
+}
@@ -0,0 +1,348 @@
+package trabalho.common.database;
+
+import java.util.AbstractCollection;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.ConcurrentModificationException;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Set;
+
+import trabalho.financeiro.utils.CpfCnpj;
+
+/**
+ * A {@code Map<String, V>} keyed by CPF/CNPJ, for the registries of
+ * {@link AppData}.
+ * <p>
+ * Numbers-only CPFs and CNPJs, i.e. every key written through
+ * {@link trabalho.financeiro.utils.CpfCnpjManager#toOnlyNumbers}, are kept as
+ * their {@link CpfCnpj} key: a {@link LongLongTable} gives the position of
+ * the value in two dense arrays, so a lookup reads the digits once and
+ * probes a {@code long[]}, with no String hash and no entry node per value.
+ * A removal moves the last value into the hole. Any other key goes to a
+ * regular map, so it behaves exactly like a HashMap of Strings, iteration
+ * order aside.
+ * <p>
+ * Callers that already have the key can skip the String with
+ * {@link #get(long)} and {@link #containsKey(long)}. Not thread safe, AppData
+ * guards it.
+ *
+ * @author Gabriel M.S.O.
+ */
+public class CpfCnpjMap<V> extends AbstractMap<String, V> {
+    private static final long EMPTY = CpfCnpj.NO_KEY;
+    private static final int INITIAL_CAPACITY = 16;
+
+    private final LongLongTable positions; // Key to index in the arrays below
+    private long[] packedKeys = new long[INITIAL_CAPACITY];
+    private Object[] values = new Object[INITIAL_CAPACITY];
+    private int packedSize;
+    private final Map<String, V> others = new HashMap<>();
+    private int modCount;
+
+    private Set<Entry<String, V>> entrySet;
+    private Collection<V> valuesView;
+
+    public CpfCnpjMap() {
+        this.positions = new LongLongTable();
+    }
+
+    private CpfCnpjMap(CpfCnpjMap<V> source) {
+        this.positions = source.positions.copy();
+        this.packedKeys = source.packedKeys.clone();
+        this.values = source.values.clone();
+        this.packedSize = source.packedSize;
+        this.others.putAll(source.others);
+    }
+
+    /**
+     * @return An independent copy holding the same values, a few array
+     *         clones instead of a put per entry.
+     */
+    public CpfCnpjMap<V> copy() {
+        return new CpfCnpjMap<>(this);
+    }
+
+    @Override
+    public int size() {
+        return packedSize + others.size();
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        if (!(key instanceof String cpf)) {
+            return false;
+        }
+        long packed = CpfCnpj.toKey(cpf);
+        return packed == EMPTY ? others.containsKey(cpf) : containsKey(packed);
+    }
+
+    public boolean containsKey(long key) {
+        return positions.containsKey(key);
+    }
+
+    @Override
+    public V get(Object key) {
+        if (!(key instanceof String cpf)) {
+            return null;
+        }
+        long packed = CpfCnpj.toKey(cpf);
+        return packed == EMPTY ? others.get(cpf) : get(packed);
+    }
+
+    @SuppressWarnings("unchecked")
+    public V get(long key) {
+        long position = positions.get(key);
+        return position == LongLongTable.MISSING ? null : (V) values[(int) position];
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public V put(String key, V value) {
+        long packed = CpfCnpj.toKey(key);
+        if (packed == EMPTY) {
+            modCount++;
+            return others.put(key, value);
+        }
+        long position = positions.get(packed);
+        if (position != LongLongTable.MISSING) {
+            V previous = (V) values[(int) position];
+            values[(int) position] = value;
+            return previous;
+        }
+        if (packedSize == values.length) {
+            packedKeys = Arrays.copyOf(packedKeys, packedSize * 2);
+            values = Arrays.copyOf(values, packedSize * 2);
+        }
+        packedKeys[packedSize] = packed;
+        values[packedSize] = value;
+        positions.put(packed, packedSize++);
+        modCount++;
+        return null;
+    }
+
+    @Override
+    public V remove(Object key) {
+        if (!(key instanceof String cpf)) {
+            return null;
+        }
+        long packed = CpfCnpj.toKey(cpf);
+        if (packed == EMPTY) {
+            modCount++;
+            return others.remove(cpf);
+        }
+        long position = positions.get(packed);
+        return position == LongLongTable.MISSING ? null : removeAt((int) position);
+    }
+
+    /**
+     * Removes the value at the position and moves the last one into it.
+     */
+    @SuppressWarnings("unchecked")
+    private V removeAt(int position) {
+        V removed = (V) values[position];
+        int last = packedSize - 1;
+        positions.remove(packedKeys[position]);
+        if (position != last) {
+            packedKeys[position] = packedKeys[last];
+            values[position] = values[last];
+            positions.put(packedKeys[position], position);
+        }
+        values[last] = null;
+        packedSize--;
+        modCount++;
+        return removed;
+    }
+
+    @Override
+    public void clear() {
+        positions.clear();
+        packedKeys = new long[INITIAL_CAPACITY];
+        values = new Object[INITIAL_CAPACITY];
+        packedSize = 0;
+        others.clear();
+        modCount++;
+    }
+
+    @Override
+    public Set<Entry<String, V>> entrySet() {
+        if (entrySet == null) {
+            entrySet = new AbstractSet<>() {
+                @Override
+                public Iterator<Entry<String, V>> iterator() {
+                    return new TableIterator<>() {
+                        @Override
+                        Entry<String, V> packed(int position) {
+                            return new TableEntry(packedKeys[position], position);
+                        }
+
+                        @Override
+                        Entry<String, V> other(Entry<String, V> entry) {
+                            return entry;
+                        }
+                    };
+                }
+
+                @Override
+                public int size() {
+                    return CpfCnpjMap.this.size();
+                }
+
+                @Override
+                public void clear() {
+                    CpfCnpjMap.this.clear();
+                }
+            };
+        }
+        return entrySet;
+    }
+
+    /**
+     * Reads the array directly, without making an entry or a key String per
+     * value.
+     */
+    @Override
+    public Collection<V> values() {
+        if (valuesView == null) {
+            valuesView = new AbstractCollection<>() {
+                @Override
+                public Iterator<V> iterator() {
+                    return new TableIterator<>() {
+                        @Override
+                        @SuppressWarnings("unchecked")
+                        V packed(int position) {
+                            return (V) values[position];
+                        }
+
+                        @Override
+                        V other(Entry<String, V> entry) {
+                            return entry.getValue();
+                        }
+                    };
+                }
+
+                @Override
+                public int size() {
+                    return CpfCnpjMap.this.size();
+                }
+
+                @Override
+                public void clear() {
+                    CpfCnpjMap.this.clear();
+                }
+            };
+        }
+        return valuesView;
+    }
+
+    /**
+     * Walks the dense arrays in order, then the other keys. Removing the
+     * current value moves the last one into its position, which is then
+     * visited next.
+     */
+    private abstract class TableIterator<T> implements Iterator<T> {
+        private int next;
+        private final Iterator<Entry<String, V>> othersIterator = others.entrySet().iterator();
+
+        // What next() returned, to remove it
+        private int lastPosition = -1;
+        private boolean lastWasOther;
+        private int expectedModCount = modCount;
+
+        abstract T packed(int position);
+
+        abstract T other(Entry<String, V> entry);
+
+        @Override
+        public boolean hasNext() {
+            return next < packedSize || othersIterator.hasNext();
+        }
+
+        @Override
+        public T next() {
+            if (modCount != expectedModCount) {
+                throw new ConcurrentModificationException();
+            }
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            lastWasOther = false;
+            if (next < packedSize) {
+                lastPosition = next++;
+                return packed(lastPosition);
+            }
+            lastPosition = -1;
+            lastWasOther = true;
+            return other(othersIterator.next());
+        }
+
+        @Override
+        public void remove() {
+            if (modCount != expectedModCount) {
+                throw new ConcurrentModificationException();
+            }
+            if (lastPosition >= 0) {
+                removeAt(lastPosition);
+                next = lastPosition; // The last value moved here, not visited yet
+                lastPosition = -1;
+            } else if (lastWasOther) {
+                othersIterator.remove();
+                modCount++;
+                lastWasOther = false;
+            } else {
+                throw new IllegalStateException();
+            }
+            expectedModCount = modCount;
+        }
+    }
+
+    private class TableEntry implements Entry<String, V> {
+        private final long key;
+        private final int position;
+
+        TableEntry(long key, int position) {
+            this.key = key;
+            this.position = position;
+        }
+
+        @Override
+        public String getKey() {
+            return CpfCnpj.toString(key);
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public V getValue() {
+            return (V) values[position];
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public V setValue(V newValue) {
+            V previous = (V) values[position];
+            values[position] = newValue;
+            return previous;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            return obj instanceof Entry<?, ?> other && getKey().equals(other.getKey())
+                    && Objects.equals(getValue(), other.getValue());
+        }
+
+        @Override
+        public int hashCode() {
+            return getKey().hashCode() ^ Objects.hashCode(getValue());
+        }
+
+        @Override
+        public String toString() {
+            return getKey() + "=" + getValue();
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package trabalho.common.database;
+
+import java.util.List;
+
+/**
+ * Receives a notification every time an entity is added to, removed from or
+ * updated inside {@link AppData}.
+ * <p>
+ * Listeners are not persisted, they must be registered again every time the
+ * data is loaded.
+ *
+ * @author Gabriel M.S.O.
+ */
+@FunctionalInterface
+public interface DataChangeListener {
+
+    enum ChangeType {
+        ADDED,
+        REMOVED,
+        UPDATED
+    }
+
+    /**
+     * One entry of a batch, see {@link #onBatch(List)}.
+     */
+    record Change(ChangeType type, Object entity) {
+    }
+
+    /**
+     * Called after the change has already been applied to {@link AppData}.
+     *
+     * @param type   What happened to the entity.
+     * @param entity The entity that was added, removed or updated.
+     */
+    void onChange(ChangeType type, Object entity);
+
+    /**
+     * Called instead of {@link #onChange} for changes that belong together,
+     * e.g. a Vaga and the Candidaturas removed with it. Listeners that persist
+     * the changes should record the batch as a whole.
+     *
+     * @param changes The changes, in the order they were applied.
+     */
+    default void onBatch(List<Change> changes) {
+        for (Change change : changes) {
+            onChange(change.type(), change.entity());
+        }
+    }
+}
@@ -0,0 +1,333 @@
+package trabalho.common.database;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParseException;
+import com.google.gson.JsonParser;
+
+import trabalho.admin.model.Administrador;
+import trabalho.admin.model.Gestor;
+import trabalho.admin.model.Usuario;
+import trabalho.candidatura.model.Candidato;
+import trabalho.candidatura.model.Candidatura;
+import trabalho.candidatura.model.Pessoa;
+import trabalho.financeiro.model.Funcionario;
+import trabalho.recrutamento.model.Contratacao;
+import trabalho.recrutamento.model.Entrevista;
+import trabalho.recrutamento.model.Recrutador;
+import trabalho.recrutamento.model.Vaga;
+import trabalho.servico.model.ContratoServico;
+import trabalho.servico.model.PrestadorServico;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.channels.SeekableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Append-only log of every change made to {@link AppData}.
+ * <p>
+ * Each change becomes one compact JSON line:
+ *
+ * <pre>
+ * {"op":"ADDED","type":"Candidatura","data":{...}}
+ * </pre>
+ *
+ * A batch (e.g. a Vaga removed together with its Candidaturas) is written as
+ * a single line, {@code {"op":"BATCH","changes":[...]}}, so it is replayed
+ * either completely or, if the line was cut short, not at all.
+ *
+ * Loading the data is then the last snapshot plus a replay of this file. Once
+ * the journal grows past {@link #getCompactionThreshold()} records the
+ * {@link JsonDataManager} {@link #rotate()}s it and writes a new snapshot.
+ *
+ * @author Gabriel M.S.O.
+ */
+public class DataJournal implements DataChangeListener {
+    private static final int DEFAULT_COMPACTION_THRESHOLD = 1000;
+    private static final String BATCH_OP = "BATCH";
+    private static final String ROTATED_SUFFIX = ".compacting";
+
+    // Every type that can be stored in AppData, by the name used in the journal.
+    private static final Map<String, Class<?>> ENTITY_TYPES = new HashMap<>();
+
+    static {
+        register(Pessoa.class);
+        register(Usuario.class);
+        register(Funcionario.class);
+        register(Administrador.class);
+        register(Gestor.class);
+        register(Recrutador.class);
+        register(Candidato.class);
+        register(Vaga.class);
+        register(Candidatura.class);
+        register(Entrevista.class);
+        register(Contratacao.class);
+        register(PrestadorServico.class);
+        register(ContratoServico.class);
+    }
+
+    private final Path journalFile;
+    private final Path rotatedFile; // Records set aside by rotate(), until their snapshot is written
+    private final Gson gson;
+    private final int compactionThreshold;
+
+    private Writer writer;
+    private int recordCount;
+
+    /**
+     * @param journalFile         Where the journal lives, usually next to the
+     *                            snapshot.
+     * @param gson                A compact (not pretty printing) Gson, one record
+     *                            must fit in a single line.
+     * @param compactionThreshold How many records before a snapshot is due.
+     */
+    public DataJournal(String journalFile, Gson gson, int compactionThreshold) {
+        this.journalFile = Paths.get(journalFile);
+        this.rotatedFile = Paths.get(journalFile + ROTATED_SUFFIX);
+        this.gson = gson;
+        this.compactionThreshold = compactionThreshold > 0 ? compactionThreshold : DEFAULT_COMPACTION_THRESHOLD;
+    }
+
+    private static void register(Class<?> type) {
+        ENTITY_TYPES.put(type.getSimpleName(), type);
+    }
+
+    public synchronized int getRecordCount() {
+        return recordCount;
+    }
+
+    public int getCompactionThreshold() {
+        return compactionThreshold;
+    }
+
+    public synchronized boolean needsCompaction() {
+        return recordCount >= compactionThreshold;
+    }
+
+    /**
+     * Re-applies every record in the journal on top of the given data,
+     * starting with the records of a {@link #rotate() rotation} whose snapshot
+     * was never written.
+     * <p>
+     * A line that cannot be parsed (usually the last one, cut short by a crash)
+     * is skipped.
+     *
+     * @return How many changes were applied, a batch counts each of its changes.
+     */
+    public synchronized int replay(AppData data) throws IOException {
+        recordCount = 0;
+        int applied = replay(data, rotatedFile) + replay(data, journalFile);
+        recordCount = applied;
+        return applied;
+    }
+
+    private int replay(AppData data, Path file) throws IOException {
+        if (!Files.exists(file)) {
+            return 0;
+        }
+
+        int applied = 0;
+        try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            String line;
+            int lineNumber = 0;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                if (line.isBlank()) {
+                    continue;
+                }
+                try {
+                    applied += apply(data, line);
+                } catch (JsonParseException | IllegalArgumentException | IllegalStateException e) {
+                    System.err.println("Skipping invalid journal record at " + file.getFileName() + ":"
+                            + lineNumber + ": " + e.getMessage());
+                }
+            }
+        }
+        return applied;
+    }
+
+    /**
+     * @return How many changes the line held.
+     */
+    private int apply(AppData data, String line) {
+        JsonObject record = JsonParser.parseString(line).getAsJsonObject();
+        if (!BATCH_OP.equals(record.get("op").getAsString())) {
+            apply(data, record);
+            return 1;
+        }
+        JsonArray changes = record.getAsJsonArray("changes");
+        for (JsonElement change : changes) {
+            apply(data, change.getAsJsonObject());
+        }
+        return changes.size();
+    }
+
+    private void apply(AppData data, JsonObject record) {
+        ChangeType op = ChangeType.valueOf(record.get("op").getAsString());
+        Class<?> type = ENTITY_TYPES.get(record.get("type").getAsString());
+        if (type == null) {
+            throw new IllegalArgumentException("Tipo desconhecido: " + record.get("type").getAsString());
+        }
+        Object entity = gson.fromJson(record.get("data"), type);
+
+        switch (op) {
+            case ADDED, UPDATED -> data.putEntity(entity);
+            case REMOVED -> data.deleteEntity(entity);
+        }
+    }
+
+    /**
+     * Appends the change to the journal. The record is buffered, call
+     * {@link #flush()} to make sure it reached the file.
+     */
+    @Override
+    public synchronized void onChange(ChangeType type, Object entity) {
+        JsonObject record = toRecord(type, entity);
+        if (record != null) {
+            append(record, 1);
+        }
+    }
+
+    /**
+     * Appends the whole batch as one record. Each change still counts towards
+     * the compaction threshold.
+     */
+    @Override
+    public synchronized void onBatch(List<Change> changes) {
+        JsonArray records = new JsonArray();
+        for (Change change : changes) {
+            JsonObject record = toRecord(change.type(), change.entity());
+            if (record != null) {
+                records.add(record);
+            }
+        }
+        if (records.isEmpty()) {
+            return;
+        }
+
+        JsonObject batch = new JsonObject();
+        batch.addProperty("op", BATCH_OP);
+        batch.add("changes", records);
+        append(batch, records.size());
+    }
+
+    private JsonObject toRecord(ChangeType type, Object entity) {
+        String typeName = entity.getClass().getSimpleName();
+        if (!ENTITY_TYPES.containsKey(typeName)) {
+            return null; // Not something we know how to replay
+        }
+
+        JsonObject record = new JsonObject();
+        record.addProperty("op", type.name());
+        record.addProperty("type", typeName);
+        record.add("data", gson.toJsonTree(entity));
+        return record;
+    }
+
+    private void append(JsonObject record, int changes) {
+        try {
+            if (writer == null) {
+                boolean torn = endsWithTornLine();
+                writer = new BufferedWriter(Files.newBufferedWriter(journalFile, StandardCharsets.UTF_8,
+                        StandardOpenOption.CREATE, StandardOpenOption.APPEND));
+                if (torn) {
+                    writer.write('\n'); // Or this record would be skipped along with it
+                }
+            }
+            writer.write(gson.toJson(record));
+            writer.write('\n');
+            recordCount += changes;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Error appending to journal " + journalFile, e);
+        }
+    }
+
+    /**
+     * Whether a crash cut the last line short, before its newline.
+     */
+    private boolean endsWithTornLine() throws IOException {
+        if (!Files.exists(journalFile) || Files.size(journalFile) == 0) {
+            return false;
+        }
+        try (SeekableByteChannel channel = Files.newByteChannel(journalFile)) {
+            ByteBuffer last = ByteBuffer.allocate(1);
+            channel.position(channel.size() - 1).read(last);
+            return last.get(0) != '\n';
+        }
+    }
+
+    public synchronized void flush() throws IOException {
+        if (writer != null) {
+            writer.flush();
+        }
+    }
+
+    /**
+     * Empties the journal. Only call this right after a snapshot containing
+     * every journaled change was written.
+     */
+    public synchronized void reset() throws IOException {
+        close();
+        Files.deleteIfExists(journalFile);
+        Files.deleteIfExists(rotatedFile);
+        recordCount = 0;
+    }
+
+    /**
+     * Sets the records written so far aside and starts an empty journal, so
+     * a snapshot holding them can be written while new changes keep being
+     * recorded. Call it together with the copy of the data that goes in that
+     * snapshot, and {@link #discardRotated()} once it is on disk.
+     * <p>
+     * If the snapshot of an earlier rotation was never written, its records
+     * are still set aside and these are appended after them. Replaying the
+     * same change twice leaves the same data, so a crash in between loses
+     * nothing.
+     */
+    public synchronized void rotate() throws IOException {
+        close();
+        if (Files.exists(journalFile)) {
+            if (Files.exists(rotatedFile)) {
+                try (OutputStream out = Files.newOutputStream(rotatedFile, StandardOpenOption.APPEND)) {
+                    out.write('\n'); // The last line may have been cut short
+                    Files.copy(journalFile, out);
+                }
+                Files.delete(journalFile);
+            } else {
+                Files.move(journalFile, rotatedFile, StandardCopyOption.REPLACE_EXISTING);
+            }
+        }
+        recordCount = 0;
+    }
+
+    /**
+     * Deletes the records set aside by {@link #rotate()}, once a snapshot
+     * holding them was written.
+     */
+    public synchronized void discardRotated() throws IOException {
+        Files.deleteIfExists(rotatedFile);
+    }
+
+    public synchronized void close() throws IOException {
+        if (writer != null) {
+            writer.close();
+            writer = null;
+        }
+    }
+}
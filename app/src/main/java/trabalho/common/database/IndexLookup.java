@@ -0,0 +1,27 @@
+package trabalho.common.database;
+
+import java.util.Collection;
+
+/**
+ * Read only access to one of the secondary indexes of an {@link AppData}, for
+ * query planners that need to know how many entities each index would return
+ * before reading any of them.
+ * <p>
+ * Nothing is copied, so it must only be used while holding the lock of the
+ * AppData it came from.
+ *
+ * @author Gabriel M.S.O.
+ */
+public interface IndexLookup<K, E> {
+
+    /**
+     * @return How many entities have the key, in O(1).
+     */
+    int count(K key);
+
+    /**
+     * @return A live, unmodifiable view of the entities with the key, in
+     *         insertion order. Empty for a {@code null} key.
+     */
+    Collection<E> lookup(K key);
+}
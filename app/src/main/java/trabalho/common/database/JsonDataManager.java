@@ -9,8 +9,12 @@ import trabalho.admin.model.Usuario;
 import trabalho.candidatura.model.Candidato;
 import trabalho.candidatura.model.Candidatura;
 import trabalho.candidatura.model.Pessoa;
+import trabalho.common.database.adapters.EntityAdapterFactory;
+import trabalho.common.database.search.PessoaTextIndex;
+import trabalho.common.database.search.SearchService;
 import trabalho.exceptions.DuplicateDataException;
 import trabalho.exceptions.MissingDataException;
+import trabalho.financeiro.analytics.WorkforceColumns;
 import trabalho.financeiro.model.Funcionario;
 import trabalho.financeiro.utils.CpfCnpjManager;
 import trabalho.financeiro.utils.LocalDateAdapter;
@@ -19,39 +23,88 @@ import trabalho.recrutamento.model.Contratacao;
 import trabalho.recrutamento.model.Recrutador;
 import trabalho.recrutamento.model.RegimeContratacao;
 import trabalho.recrutamento.model.Vaga;
+import trabalho.servico.vencimento.VencimentoIndex;
 
 import java.io.*;
 import java.nio.file.Files;
+import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.time.LocalDate;
 import java.util.Date;
+import java.util.List;
 
 /**
  * Manages data persistence using a single JSON file.
  * Configured to handle the polymorphic Pessoa hierarchy.
+ * <p>
+ * The snapshot can also be written in a compact binary encoding with
+ * {@code -Dtrabalho.storage.format=binary}, see {@link StorageFormat}.
+ * <p>
+ * When started with {@code -Dtrabalho.journal=true} every change to
+ * {@link AppData} is appended to a {@link DataJournal} instead, and the whole
+ * file is only rewritten once the journal is due for compaction.
  * 
  * @author Gabriel M.S.O.
  */
 public class JsonDataManager {
-    private static final String DEFAULT_JSON_FILE = "hr_data.json";
+    private static final String JOURNAL_SUFFIX = ".journal";
+    private static final String PESSOAS_STORE_SUFFIX = ".pessoas.map";
+    private static final String CANDIDATOS_STORE_SUFFIX = ".candidatos.map";
+
+    public static final String JOURNAL_PROPERTY = "trabalho.journal";
+    public static final String JOURNAL_COMPACTION_PROPERTY = "trabalho.journal.compactAfter";
+    public static final String GENERATIONS_PROPERTY = "trabalho.snapshot.generations";
+    public static final String SAVE_DEBOUNCE_PROPERTY = "trabalho.save.debounceMillis";
+    public static final String SAVE_MAX_DELAY_PROPERTY = "trabalho.save.maxDelayMillis";
+    public static final String MAPPED_STORE_PROPERTY = "trabalho.store.mapped";
+    private static final int DEFAULT_GENERATIONS = 3;
+    private static final long DEFAULT_SAVE_DEBOUNCE_MILLIS = 300;
+    private static final long DEFAULT_SAVE_MAX_DELAY_MILLIS = 3000;
+    private static final int PROGRESS_STEP_PERCENT = 10;
+
     private static JsonDataManager instance;
 
     private final String jsonFile;
     private AppData data;
-    private final Gson gson;
+    private final StorageFormat format;
+    private final Gson compactGson;
+    private final SnapshotWriter snapshotWriter;
+    private final SaveScheduler saveScheduler;
+    private DataJournal journal; // null unless journaling is enabled
+    // null unless the mapped store is enabled
+    private MappedEntityStore<Pessoa> pessoaStore;
+    private MappedEntityStore<Candidato> candidatoStore;
+    private PessoaTextIndex pessoaTextIndex; // Built on first use
+    private SearchService searchService;
+    private WorkforceColumns workforceColumns; // Built on first use
+    private VencimentoIndex vencimentoIndex; // Built on first use
 
     private JsonDataManager(String fileName) {
         this.jsonFile = fileName;
-        this.gson = new GsonBuilder()
-                .registerTypeAdapter(LocalDate.class, new LocalDateAdapter())
-                .setPrettyPrinting()
-                .create();
+        this.format = StorageFormat.fromConfiguration();
+        this.compactGson = baseGsonBuilder().create();
+        this.snapshotWriter = new SnapshotWriter(fileName,
+                Integer.getInteger(GENERATIONS_PROPERTY, DEFAULT_GENERATIONS));
+
+        if (Boolean.getBoolean(JOURNAL_PROPERTY)) {
+            this.journal = new DataJournal(fileName + JOURNAL_SUFFIX, compactGson,
+                    Integer.getInteger(JOURNAL_COMPACTION_PROPERTY, 0));
+        }
+        this.saveScheduler = new SaveScheduler(this::persist,
+                Long.getLong(SAVE_DEBOUNCE_PROPERTY, DEFAULT_SAVE_DEBOUNCE_MILLIS),
+                Long.getLong(SAVE_MAX_DELAY_PROPERTY, DEFAULT_SAVE_MAX_DELAY_MILLIS));
 
         loadData();
     }
 
+    static GsonBuilder baseGsonBuilder() {
+        return new GsonBuilder()
+                .registerTypeAdapter(LocalDate.class, new LocalDateAdapter())
+                .registerTypeAdapterFactory(new EntityAdapterFactory());
+    }
+
     public static synchronized JsonDataManager getInstance() {
-        return getInstance(DEFAULT_JSON_FILE);
+        return getInstance(StorageFormat.fromConfiguration().getDefaultFileName());
     }
 
     public static synchronized JsonDataManager getInstance(String filename) {
@@ -62,6 +115,9 @@ public class JsonDataManager {
     }
 
     public static synchronized void resetInstance() {
+        if (instance != null) {
+            instance.shutdown();
+        }
         instance = null;
     }
 
@@ -69,30 +125,194 @@ public class JsonDataManager {
         return data;
     }
 
+    /**
+     * The full-text index of the Pessoas, Candidatos and Funcionarios. Built
+     * the first time it is asked for, then kept current with the data.
+     */
+    public synchronized PessoaTextIndex getPessoaTextIndex() {
+        if (pessoaTextIndex == null) {
+            pessoaTextIndex = PessoaTextIndex.attach(data);
+        }
+        return pessoaTextIndex;
+    }
+
+    /**
+     * The salaries, departamentos, cargos and roles of the workforce as
+     * columns, for salary reports. Built the first time it is asked for, then
+     * kept current with the data.
+     */
+    public synchronized WorkforceColumns getWorkforceColumns() {
+        if (workforceColumns == null) {
+            workforceColumns = WorkforceColumns.attach(data);
+        }
+        return workforceColumns;
+    }
+
+    /**
+     * The active service contracts ordered by their end date. Built the first
+     * time it is asked for, then kept current with the data.
+     */
+    public synchronized VencimentoIndex getVencimentoIndex() {
+        if (vencimentoIndex == null) {
+            vencimentoIndex = VencimentoIndex.attach(data);
+        }
+        return vencimentoIndex;
+    }
+
+    /**
+     * Planned, paginated searches over the data, see {@link SearchService}.
+     */
+    public synchronized SearchService getSearchService() {
+        if (searchService == null) {
+            searchService = new SearchService(data);
+        }
+        return searchService;
+    }
+
     /**
      * Loads application data from the JSON file with a robust, clean flow.
      * It handles file not found, empty/invalid files, and parsing errors
      * gracefully.
+     * <p>
+     * If the current snapshot cannot be parsed, the previous generations kept
+     * by the {@link SnapshotWriter} are tried, newest first. Only when none of
+     * them can be read do we start with an empty data set, and in that case the
+     * unreadable files are left alone.
+     * <p>
+     * Each file is read in the format it was written in, whatever the
+     * configured one, and the progress is logged for large files. When there
+     * is no snapshot yet but one in another format exists next to it (e.g.
+     * {@code hr_data.json} after switching to binary), that one is loaded and
+     * converted.
      */
     private void loadData() {
-        if (Files.exists(Paths.get(this.jsonFile))) {
-            try (Reader reader = new FileReader(this.jsonFile)) {
-                AppData loadedData = gson.fromJson(reader, AppData.class);
+        List<Path> snapshots = snapshotWriter.existingSnapshots();
+        boolean converting = false;
+        if (snapshots.isEmpty()) {
+            snapshots = otherFormatSnapshots();
+            converting = !snapshots.isEmpty();
+        }
+
+        for (Path snapshot : snapshots) {
+            try {
+                AppData loadedData = StorageFormat.detect(snapshot).read(snapshot, newAppData(),
+                        progressLogger(snapshot));
 
                 if (loadedData != null) { // At least one ADM must exist
                     // Success!
                     this.data = loadedData;
-                    System.out.println("Data loaded successfully from " + this.jsonFile);
-                    return;
+                    System.out.println("Data loaded successfully from " + snapshot.getFileName());
+                    break;
                 }
             } catch (Exception e) {
-                System.err.println("Error reading/parsing JSON file. Starting fresh. Error: " + e.getMessage());
+                System.err.println("Error reading/parsing " + snapshot.getFileName() + ". Error: " + e.getMessage());
+            }
+        }
+
+        if (this.data == null) {
+            if (!snapshots.isEmpty()) {
+                System.err.println("No readable snapshot found, the existing files were kept untouched.");
+            }
+            System.out.println("Initializing a new, empty data set in memory.");
+            this.data = newAppData();
+        }
+
+        if (journal != null) {
+            replayJournal();
+            this.data.addChangeListener(journal);
+        } else if (snapshots.isEmpty() || converting) {
+            saveData();
+        }
+    }
+
+    /**
+     * Snapshots written in another format under that format's default name.
+     */
+    private List<Path> otherFormatSnapshots() {
+        Path target = snapshotWriter.getTarget();
+        if (!target.getFileName().toString().equals(format.getDefaultFileName())) {
+            return List.of(); // A custom file name, nothing to guess
+        }
+        for (StorageFormat other : StorageFormat.all()) {
+            Path candidate = target.resolveSibling(other.getDefaultFileName());
+            if (other != format && Files.exists(candidate)) {
+                System.out.println("Converting " + candidate.getFileName() + " to the " + format.getName()
+                        + " format.");
+                return List.of(candidate);
             }
         }
+        return List.of();
+    }
 
-        System.out.println("Initializing a new, empty data set in memory.");
-        this.data = new AppData();
-        saveData();
+    /**
+     * An empty AppData. With {@code -Dtrabalho.store.mapped=true} its Pessoas
+     * and Candidatos are kept in {@link MappedEntityStore}s next to the
+     * snapshot instead of the heap, for data sets with millions of
+     * applicants.
+     */
+    private AppData newAppData() {
+        AppData created = new AppData();
+        if (!Boolean.getBoolean(MAPPED_STORE_PROPERTY)) {
+            return created;
+        }
+
+        closeMappedStores(); // From a previous attempt that failed to load
+        try {
+            pessoaStore = new MappedEntityStore<>(Paths.get(jsonFile + PESSOAS_STORE_SUFFIX),
+                    BinaryStorageFormat.PESSOA_CODEC);
+            candidatoStore = new MappedEntityStore<>(Paths.get(jsonFile + CANDIDATOS_STORE_SUFFIX),
+                    BinaryStorageFormat.CANDIDATO_CODEC);
+            created.useStores(pessoaStore, candidatoStore);
+        } catch (IOException e) {
+            System.err.println("Error opening the mapped store, keeping everything in memory: " + e.getMessage());
+            closeMappedStores();
+        }
+        return created;
+    }
+
+    private void closeMappedStores() {
+        try {
+            if (pessoaStore != null) {
+                pessoaStore.close();
+            }
+            if (candidatoStore != null) {
+                candidatoStore.close();
+            }
+        } catch (IOException e) {
+            System.err.println("Error closing the mapped store: " + e.getMessage());
+        }
+        pessoaStore = null;
+        candidatoStore = null;
+    }
+
+    private static StreamingDataLoader.ProgressListener progressLogger(Path snapshot) {
+        int[] lastLogged = { 0 };
+        return (bytesRead, totalBytes, entitiesLoaded) -> {
+            int percent = totalBytes > 0 ? (int) Math.min(100, bytesRead * 100 / totalBytes) : 100;
+            if (percent >= lastLogged[0] + PROGRESS_STEP_PERCENT) {
+                lastLogged[0] = percent;
+                System.out.println("Loading " + snapshot.getFileName() + ": " + percent + "% ("
+                        + entitiesLoaded + " records)");
+            }
+        };
+    }
+
+    /**
+     * Applies the changes recorded since the last snapshot, and folds them into
+     * a new snapshot right away so the next start does not replay them again.
+     */
+    private void replayJournal() {
+        try {
+            int applied = journal.replay(this.data);
+            if (applied > 0) {
+                System.out.println("Replayed " + applied + " journal records.");
+            }
+            if (applied > 0 || !Files.exists(Paths.get(this.jsonFile))) {
+                compact();
+            }
+        } catch (IOException e) {
+            System.err.println("Error replaying journal: " + e.getMessage());
+        }
     }
     
     public void initializeDummyData() throws DuplicateDataException, MissingDataException {
@@ -132,18 +352,100 @@ public class JsonDataManager {
         this.data.addContratacao(contratacaoTest);
     }
 
+    /**
+     * Marks the data as changed. The actual write happens shortly after on a
+     * background thread, coalesced with any other change made in the meantime,
+     * so it is safe to call this from the JavaFX Application Thread.
+     */
     public void saveData() {
-        try (Writer writer = new FileWriter(this.jsonFile)) {
-            gson.toJson(this.data, writer);
-            System.out.println("Data saved to " + this.jsonFile);
+        saveScheduler.markDirty();
+    }
+
+    /**
+     * Writes every pending change and waits until it is on disk.
+     */
+    public void flush() {
+        saveScheduler.flush();
+    }
+
+    /**
+     * Flushes the pending changes and stops the background saver. Must be
+     * called when the application closes.
+     */
+    public void shutdown() {
+        saveScheduler.shutdown();
+        if (journal != null) {
+            try {
+                journal.close();
+            } catch (IOException e) {
+                System.err.println("Error closing journal: " + e.getMessage());
+            }
+        }
+        closeMappedStores();
+    }
+
+    public SaveScheduler.Metrics getSaveMetrics() {
+        return saveScheduler.getMetrics();
+    }
+
+    /**
+     * Persists every change made so far, called by the {@link SaveScheduler}.
+     * <p>
+     * Without the journal this rewrites the whole file. With it, only the
+     * pending journal records are flushed, and the file is rewritten once the
+     * journal is due for compaction.
+     */
+    private void persist() {
+        try {
+            if (journal == null) {
+                writeSnapshot();
+                return;
+            }
+
+            journal.flush();
+            if (journal.needsCompaction()) {
+                compact();
+            }
         } catch (IOException e) {
-            System.err.println("Error writing to JSON file: " + e.getMessage());
+            throw new UncheckedIOException("Error saving data: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Writes a full snapshot and empties the journal, so it always holds only
+     * the changes made after the snapshot.
+     */
+    public void compact() throws IOException {
+        writeSnapshot();
+    }
+
+    /**
+     * Only copying the collections happens under the lock of the AppData, the
+     * mutators called from the JavaFX thread do not wait for the encoding or
+     * for the disk. The journal is rotated at the same moment, so the records
+     * set aside are exactly the changes in the copy.
+     */
+    private void writeSnapshot() throws IOException {
+        // One snapshot at a time, so an older copy never overwrites a newer one
+        synchronized (snapshotWriter) {
+            AppData copy;
+            synchronized (this.data) {
+                copy = this.data.snapshotCopy();
+                if (journal != null) {
+                    journal.rotate();
+                }
+            }
+            snapshotWriter.write(out -> format.write(copy, out));
+            if (journal != null) {
+                journal.discardRotated();
+            }
         }
+        System.out.println("Data saved to " + this.jsonFile);
     }
 
     @SuppressWarnings("unused")
     private void initializeEmptyData() { 
-        this.data = new AppData();
+        this.data = newAppData();
         try {
             initializeDummyData();
             saveData();
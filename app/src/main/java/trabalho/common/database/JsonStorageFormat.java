@@ -0,0 +1,56 @@
+package trabalho.common.database;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonIOException;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+
+/**
+ * The original pretty printed JSON snapshot, read by a
+ * {@link StreamingDataLoader}.
+ *
+ * @author Gabriel M.S.O.
+ */
+public class JsonStorageFormat implements StorageFormat {
+    public static final JsonStorageFormat INSTANCE = new JsonStorageFormat();
+
+    private final Gson gson;
+
+    private JsonStorageFormat() {
+        this.gson = JsonDataManager.baseGsonBuilder()
+                .setPrettyPrinting()
+                .create();
+    }
+
+    @Override
+    public String getName() {
+        return "json";
+    }
+
+    @Override
+    public String getDefaultFileName() {
+        return "hr_data.json";
+    }
+
+    @Override
+    public AppData read(Path file, AppData data, StreamingDataLoader.ProgressListener listener)
+            throws IOException {
+        return new StreamingDataLoader(gson, listener).load(file, data);
+    }
+
+    @Override
+    public void write(AppData data, OutputStream out) throws IOException {
+        try {
+            Writer writer = new OutputStreamWriter(out, StandardCharsets.UTF_8);
+            gson.toJson(data, writer);
+            writer.flush();
+        } catch (JsonIOException e) {
+            throw new IOException(e.getMessage(), e);
+        }
+    }
+}
@@ -0,0 +1,113 @@
+package trabalho.common.database;
+
+import java.util.AbstractCollection;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * An insertion ordered collection that holds at most one entity per natural
+ * key (e.g. the id of an Entrevista), so duplicate checks, lookups and
+ * removals cost O(1) instead of a scan of a list.
+ * <p>
+ * It is a plain {@link java.util.Collection} to GSON, which writes it as a
+ * JSON array like the lists it replaces. The key fields of an entity must not
+ * change while it is stored here. Not thread safe, AppData guards it with its
+ * own lock.
+ *
+ * @author Gabriel M.S.O.
+ */
+class KeyedCollection<K, E> extends AbstractCollection<E> {
+    private final Function<E, K> keyOf;
+    private final Map<K, E> byKey = new LinkedHashMap<>();
+
+    KeyedCollection(Function<E, K> keyOf) {
+        this.keyOf = keyOf;
+    }
+
+    /**
+     * Adds the entity unless one with the same key is already stored.
+     *
+     * @return {@code true} if it was added.
+     */
+    @Override
+    public boolean add(E entity) {
+        return byKey.putIfAbsent(keyOf.apply(entity), entity) == null;
+    }
+
+    /**
+     * Stores the entity, replacing the one with the same key in its position.
+     *
+     * @return The replaced entity, or {@code null}.
+     */
+    E put(E entity) {
+        return byKey.put(keyOf.apply(entity), entity);
+    }
+
+    E get(K key) {
+        return byKey.get(key);
+    }
+
+    E removeKey(K key) {
+        return byKey.remove(key);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public boolean contains(Object o) {
+        try {
+            return byKey.containsKey(keyOf.apply((E) o));
+        } catch (ClassCastException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Removes the entity stored under the same key as the given one.
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public boolean remove(Object o) {
+        try {
+            return byKey.remove(keyOf.apply((E) o)) != null;
+        } catch (ClassCastException e) {
+            return false;
+        }
+    }
+
+    /**
+     * @return An independent collection holding the same entities, in the
+     *         same order.
+     */
+    KeyedCollection<K, E> copy() {
+        KeyedCollection<K, E> copy = new KeyedCollection<>(keyOf);
+        copy.byKey.putAll(byKey);
+        return copy;
+    }
+
+    /**
+     * @return A read only copy of the entities, in insertion order.
+     */
+    List<E> toList() {
+        return Collections.unmodifiableList(new ArrayList<>(byKey.values()));
+    }
+
+    @Override
+    public Iterator<E> iterator() {
+        return byKey.values().iterator();
+    }
+
+    @Override
+    public int size() {
+        return byKey.size();
+    }
+
+    @Override
+    public void clear() {
+        byKey.clear();
+    }
+}
@@ -0,0 +1,188 @@
+package trabalho.common.database;
+
+import java.util.Arrays;
+
+import trabalho.financeiro.utils.CpfCnpj;
+
+/**
+ * An open addressing table from a packed CPF/CNPJ key (see {@link CpfCnpj})
+ * to a non-negative long, e.g. a record offset or a position in an array.
+ * Shared by {@link CpfCnpjMap} and {@link MappedEntityStore}, so the probing
+ * and the deletion live in one place.
+ * <p>
+ * Linear probing over two parallel {@code long[]}, about 27 bytes per entry
+ * at the maximum load, with no object per entry. Deletion shifts the
+ * following entries back, so there are no tombstones and lookups never slow
+ * down after many removals. Not thread safe.
+ *
+ * @author Gabriel M.S.O.
+ */
+final class LongLongTable {
+    /**
+     * Returned for a key that is not in the table. Never a valid value.
+     */
+    static final long MISSING = -1L;
+
+    private static final long EMPTY = CpfCnpj.NO_KEY;
+    private static final int INITIAL_CAPACITY = 16;
+    private static final float MAX_LOAD = 0.6f;
+
+    /**
+     * Receives every entry, see {@link #forEach}.
+     */
+    @FunctionalInterface
+    interface EntryVisitor {
+        void visit(long key, long value);
+    }
+
+    private long[] keys;
+    private long[] values;
+    private int size;
+
+    LongLongTable() {
+        clear();
+    }
+
+    private LongLongTable(LongLongTable other) {
+        this.keys = other.keys.clone();
+        this.values = other.values.clone();
+        this.size = other.size;
+    }
+
+    int size() {
+        return size;
+    }
+
+    void clear() {
+        keys = new long[INITIAL_CAPACITY];
+        Arrays.fill(keys, EMPTY);
+        values = new long[INITIAL_CAPACITY];
+        size = 0;
+    }
+
+    /**
+     * @return An independent copy, two array clones.
+     */
+    LongLongTable copy() {
+        return new LongLongTable(this);
+    }
+
+    /**
+     * @return The value, or {@link #MISSING}.
+     */
+    long get(long key) {
+        if (key == EMPTY) {
+            return MISSING;
+        }
+        int slot = find(key);
+        return keys[slot] == EMPTY ? MISSING : values[slot];
+    }
+
+    boolean containsKey(long key) {
+        return key != EMPTY && keys[find(key)] != EMPTY;
+    }
+
+    /**
+     * @param key   Not {@link CpfCnpj#NO_KEY}.
+     * @param value Not negative.
+     * @return The previous value, or {@link #MISSING}.
+     */
+    long put(long key, long value) {
+        if (key == EMPTY || value < 0) {
+            throw new IllegalArgumentException("Invalid entry " + key + " -> " + value);
+        }
+        int slot = find(key);
+        long previous = MISSING;
+        if (keys[slot] == EMPTY) {
+            keys[slot] = key;
+            size++;
+        } else {
+            previous = values[slot];
+        }
+        values[slot] = value;
+        if (size > keys.length * MAX_LOAD) {
+            resize(keys.length * 2);
+        }
+        return previous;
+    }
+
+    /**
+     * @return The value removed, or {@link #MISSING}.
+     */
+    long remove(long key) {
+        if (key == EMPTY) {
+            return MISSING;
+        }
+        int slot = find(key);
+        if (keys[slot] == EMPTY) {
+            return MISSING;
+        }
+        long removed = values[slot];
+        deleteSlot(slot);
+        return removed;
+    }
+
+    /**
+     * Visits the entries in no particular order. The table must not change
+     * meanwhile.
+     */
+    void forEach(EntryVisitor visitor) {
+        for (int slot = 0; slot < keys.length; slot++) {
+            if (keys[slot] != EMPTY) {
+                visitor.visit(keys[slot], values[slot]);
+            }
+        }
+    }
+
+    private int find(long key) {
+        int mask = keys.length - 1;
+        int slot = hash(key) & mask;
+        while (keys[slot] != EMPTY && keys[slot] != key) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    /**
+     * Backward shift deletion, keeps every probe chain unbroken without
+     * tombstones.
+     */
+    private void deleteSlot(int slot) {
+        int mask = keys.length - 1;
+        int hole = slot;
+        int next = (hole + 1) & mask;
+        while (keys[next] != EMPTY) {
+            int home = hash(keys[next]) & mask;
+            // Move it back if its home is not between the hole and it
+            boolean movable = hole <= next ? (home <= hole || home > next) : (home <= hole && home > next);
+            if (movable) {
+                keys[hole] = keys[next];
+                values[hole] = values[next];
+                hole = next;
+            }
+            next = (next + 1) & mask;
+        }
+        keys[hole] = EMPTY;
+        size--;
+    }
+
+    private void resize(int capacity) {
+        long[] oldKeys = keys;
+        long[] oldValues = values;
+        keys = new long[capacity];
+        Arrays.fill(keys, EMPTY);
+        values = new long[capacity];
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] != EMPTY) {
+                int slot = find(oldKeys[i]);
+                keys[slot] = oldKeys[i];
+                values[slot] = oldValues[i];
+            }
+        }
+    }
+
+    private static int hash(long key) {
+        long h = key * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32));
+    }
+}
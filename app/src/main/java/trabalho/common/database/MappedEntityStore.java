@@ -0,0 +1,484 @@
+package trabalho.common.database;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.ArrayList;
+import java.util.ConcurrentModificationException;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+import trabalho.financeiro.utils.CpfCnpj;
+
+/**
+ * A {@code Map<String, V>} keyed by CPF/CNPJ whose values live in a
+ * memory-mapped file instead of the heap.
+ * <p>
+ * Each {@link #put} encodes the value (see {@link BinaryOutput}) and appends
+ * it to the file, the heap only keeps a compact index from the key to the
+ * record offset. {@link #get} decodes a record the first time and returns
+ * that same instance for as long as it is still referenced somewhere, so two
+ * screens that look up the same Pessoa edit one object. The instances are
+ * only weakly held: one nobody uses any more is collected and decoded again
+ * on the next {@code get}, so the values still do not pile up on the heap.
+ * <p>
+ * A value changed in place reaches the file only when it is {@code put} again
+ * (AppData does that in {@link AppData#markUpdated(Object)}); until then a
+ * {@link #frozenCopy()} or a snapshot still shows the record as it was.
+ * <p>
+ * The file is scratch space, not a snapshot: it is truncated when the store is
+ * opened and deleted when it is closed. Replaced and removed records are not
+ * reclaimed until then.
+ *
+ * @author Gabriel M.S.O.
+ */
+public class MappedEntityStore<V> extends AbstractMap<String, V> implements Closeable {
+    private static final int SEGMENT_BITS = 26; // 64 MiB per mapping
+    private static final long SEGMENT_SIZE = 1L << SEGMENT_BITS;
+    private static final int RECORD_HEADER = Integer.BYTES;
+
+    /**
+     * Turns a value into a record and back.
+     */
+    interface RecordCodec<V> {
+        void write(BinaryOutput out, V value);
+
+        V read(BinaryInput in) throws IOException;
+    }
+
+    private final Path file;
+    private final FileChannel channel;
+    private final RecordCodec<V> codec;
+    private final List<MappedByteBuffer> segments = new ArrayList<>();
+    private final CpfOffsetIndex index = new CpfOffsetIndex();
+    private int generation; // Bumped by clear and close, which invalidate every offset
+    // The instances handed out, see get
+    private final Map<String, Handed<V>> handed = new HashMap<>();
+    private final ReferenceQueue<V> collected = new ReferenceQueue<>();
+
+    private final BinaryOutput encoder = new BinaryOutput(null, false);
+    private final BinaryInput decoder = new BinaryInput(List.of());
+    private long writePosition;
+
+    /**
+     * Opens the store, discarding whatever the file held.
+     */
+    MappedEntityStore(Path file, RecordCodec<V> codec) throws IOException {
+        this.file = file;
+        this.codec = codec;
+        this.channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+    }
+
+    @Override
+    public synchronized int size() {
+        return index.size();
+    }
+
+    @Override
+    public synchronized boolean containsKey(Object key) {
+        return key instanceof String cpf && index.get(cpf) >= 0;
+    }
+
+    @Override
+    public synchronized V get(Object key) {
+        if (!(key instanceof String cpf)) {
+            return null;
+        }
+        long offset = index.get(cpf);
+        if (offset < 0) {
+            return null;
+        }
+        V value = handedOut(cpf);
+        if (value == null) {
+            value = read(offset);
+            handOut(cpf, value);
+        }
+        return value;
+    }
+
+    /**
+     * Writes the value and makes it the instance {@link #get} returns.
+     */
+    @Override
+    public synchronized V put(String key, V value) {
+        if (key == null || value == null) {
+            throw new NullPointerException("MappedEntityStore does not accept null keys or values");
+        }
+        long previous = index.get(key);
+        V previousValue = previous >= 0 ? current(key, previous) : null;
+        index.put(key, append(value));
+        handOut(key, value);
+        return previousValue;
+    }
+
+    @Override
+    public synchronized V remove(Object key) {
+        if (!(key instanceof String cpf)) {
+            return null;
+        }
+        long offset = index.get(cpf);
+        if (offset < 0) {
+            return null;
+        }
+        V value = current(cpf, offset);
+        index.remove(cpf);
+        handed.remove(cpf);
+        return value;
+    }
+
+    @Override
+    public synchronized void clear() {
+        index.clear();
+        handed.clear();
+        writePosition = 0;
+        generation++;
+    }
+
+    /**
+     * A read only view of the values stored right now, for writing a snapshot
+     * without holding the lock of the AppData. Costs a copy of the index, not
+     * of the records: records are only appended, so the offsets it holds stay
+     * valid whatever is put or removed later. Reading through it after the
+     * store was cleared or closed throws a ConcurrentModificationException.
+     */
+    synchronized Map<String, V> frozenCopy() {
+        return new FrozenView(index.copy(), generation);
+    }
+
+    @Override
+    public Set<Entry<String, V>> entrySet() {
+        return new AbstractSet<>() {
+            @Override
+            public Iterator<Entry<String, V>> iterator() {
+                List<String> keys;
+                synchronized (MappedEntityStore.this) {
+                    keys = index.keys(); // A copy, so the store may change while iterating
+                }
+                return new EntryIterator(keys);
+            }
+
+            @Override
+            public int size() {
+                return MappedEntityStore.this.size();
+            }
+        };
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        index.clear();
+        handed.clear();
+        generation++;
+        segments.clear(); // The mappings go away once collected
+        channel.close();
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            // Some platforms refuse while a mapping is still alive, it is
+            // truncated on the next open anyway.
+        }
+    }
+
+    // --- Instances handed out ---
+
+    /**
+     * Remembers its key, so the entry can be dropped once it is collected.
+     */
+    private static final class Handed<V> extends WeakReference<V> {
+        final String key;
+
+        Handed(String key, V value, ReferenceQueue<V> queue) {
+            super(value, queue);
+            this.key = key;
+        }
+    }
+
+    /**
+     * @return The instance of the key still in use, or {@code null}.
+     */
+    private V handedOut(String key) {
+        expunge();
+        Handed<V> ref = handed.get(key);
+        return ref != null ? ref.get() : null;
+    }
+
+    private void handOut(String key, V value) {
+        expunge();
+        handed.put(key, new Handed<>(key, value, collected));
+    }
+
+    /**
+     * The instance in use if there is one, with any change made in place,
+     * else the record.
+     */
+    private V current(String key, long offset) {
+        V value = handedOut(key);
+        return value != null ? value : read(offset);
+    }
+
+    private void expunge() {
+        for (Object ref; (ref = collected.poll()) != null;) {
+            Handed<?> stale = (Handed<?>) ref;
+            handed.remove(stale.key, stale); // Unless already replaced
+        }
+    }
+
+    // --- Records ---
+
+    private long append(V value) {
+        encoder.reset();
+        codec.write(encoder, value);
+        int length = encoder.size();
+        if (length + RECORD_HEADER > SEGMENT_SIZE) {
+            throw new IllegalArgumentException("Record too large for a mapped store: " + length + " bytes");
+        }
+
+        // Records never straddle two mappings
+        long remaining = SEGMENT_SIZE - (writePosition & (SEGMENT_SIZE - 1));
+        if (length + RECORD_HEADER > remaining) {
+            writePosition += remaining;
+        }
+
+        long offset = writePosition;
+        MappedByteBuffer segment = segment(offset);
+        int position = (int) (offset & (SEGMENT_SIZE - 1));
+        segment.putInt(position, length);
+        encoder.copyTo(segment, position + RECORD_HEADER);
+        writePosition += RECORD_HEADER + length;
+        return offset;
+    }
+
+    private V read(long offset) {
+        MappedByteBuffer segment = segment(offset);
+        int position = (int) (offset & (SEGMENT_SIZE - 1));
+        int length = segment.getInt(position);
+        try {
+            decoder.load(segment, position + RECORD_HEADER, length);
+            return codec.read(decoder);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Corrupted record in " + file.getFileName() + " at " + offset, e);
+        }
+    }
+
+    private MappedByteBuffer segment(long offset) {
+        int segmentIndex = (int) (offset >>> SEGMENT_BITS);
+        try {
+            while (segments.size() <= segmentIndex) {
+                long start = (long) segments.size() << SEGMENT_BITS;
+                segments.add(channel.map(FileChannel.MapMode.READ_WRITE, start, SEGMENT_SIZE));
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Error mapping " + file.getFileName(), e);
+        }
+        return segments.get(segmentIndex);
+    }
+
+    private synchronized V readFrozen(long offset, int expectedGeneration) {
+        if (generation != expectedGeneration) {
+            throw new ConcurrentModificationException(file.getFileName() + " was cleared while being read");
+        }
+        return read(offset);
+    }
+
+    private class FrozenView extends AbstractMap<String, V> {
+        private final CpfOffsetIndex offsets;
+        private final int generation;
+
+        FrozenView(CpfOffsetIndex offsets, int generation) {
+            this.offsets = offsets;
+            this.generation = generation;
+        }
+
+        @Override
+        public int size() {
+            return offsets.size();
+        }
+
+        @Override
+        public boolean containsKey(Object key) {
+            return key instanceof String cpf && offsets.get(cpf) >= 0;
+        }
+
+        @Override
+        public V get(Object key) {
+            if (!(key instanceof String cpf)) {
+                return null;
+            }
+            long offset = offsets.get(cpf);
+            return offset >= 0 ? readFrozen(offset, generation) : null;
+        }
+
+        @Override
+        public Set<Entry<String, V>> entrySet() {
+            return new AbstractSet<>() {
+                @Override
+                public Iterator<Entry<String, V>> iterator() {
+                    Iterator<String> keys = offsets.keys().iterator();
+                    return new Iterator<>() {
+                        @Override
+                        public boolean hasNext() {
+                            return keys.hasNext();
+                        }
+
+                        @Override
+                        public Entry<String, V> next() {
+                            String key = keys.next();
+                            return new SimpleImmutableEntry<>(key, get(key));
+                        }
+                    };
+                }
+
+                @Override
+                public int size() {
+                    return offsets.size();
+                }
+            };
+        }
+    }
+
+    private class EntryIterator implements Iterator<Entry<String, V>> {
+        private final List<String> keys;
+        private int next;
+        private String current;
+
+        EntryIterator(List<String> keys) {
+            this.keys = keys;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return next < keys.size();
+        }
+
+        @Override
+        public Entry<String, V> next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            current = keys.get(next++);
+            return new LazyEntry(current);
+        }
+
+        @Override
+        public void remove() {
+            if (current == null) {
+                throw new IllegalStateException();
+            }
+            MappedEntityStore.this.remove(current);
+            current = null;
+        }
+    }
+
+    /**
+     * Only decodes the value when asked for, so iterating the keys is cheap.
+     */
+    private class LazyEntry implements Entry<String, V> {
+        private final String key;
+
+        LazyEntry(String key) {
+            this.key = key;
+        }
+
+        @Override
+        public String getKey() {
+            return key;
+        }
+
+        @Override
+        public V getValue() {
+            return get(key);
+        }
+
+        @Override
+        public V setValue(V value) {
+            return put(key, value);
+        }
+    }
+
+    /**
+     * CPF/CNPJ to record offset. Normalized CPFs (11 digits) and CNPJs (14
+     * digits) are packed in a long, see {@link CpfCnpj}, and kept in a
+     * {@link LongLongTable}, about 27 bytes per entry instead of a String, a
+     * boxed Long and a HashMap node. Any other key goes to a regular map.
+     */
+    private static class CpfOffsetIndex {
+        private final LongLongTable packed;
+        private final Map<String, Long> others;
+
+        CpfOffsetIndex() {
+            this(new LongLongTable(), new HashMap<>());
+        }
+
+        private CpfOffsetIndex(LongLongTable packed, Map<String, Long> others) {
+            this.packed = packed;
+            this.others = others;
+        }
+
+        CpfOffsetIndex copy() {
+            return new CpfOffsetIndex(packed.copy(), new HashMap<>(others));
+        }
+
+        int size() {
+            return packed.size() + others.size();
+        }
+
+        void clear() {
+            packed.clear();
+            others.clear();
+        }
+
+        /**
+         * @return The offset, or -1.
+         */
+        long get(String cpf) {
+            long key = CpfCnpj.toKey(cpf);
+            if (key == CpfCnpj.NO_KEY) {
+                Long offset = others.get(cpf);
+                return offset != null ? offset : -1;
+            }
+            return packed.get(key);
+        }
+
+        void put(String cpf, long offset) {
+            long key = CpfCnpj.toKey(cpf);
+            if (key == CpfCnpj.NO_KEY) {
+                others.put(cpf, offset);
+            } else {
+                packed.put(key, offset);
+            }
+        }
+
+        /**
+         * @return The offset removed, or -1.
+         */
+        long remove(String cpf) {
+            long key = CpfCnpj.toKey(cpf);
+            if (key == CpfCnpj.NO_KEY) {
+                Long offset = others.remove(cpf);
+                return offset != null ? offset : -1;
+            }
+            return packed.remove(key);
+        }
+
+        List<String> keys() {
+            List<String> result = new ArrayList<>(size());
+            packed.forEach((key, offset) -> result.add(CpfCnpj.toString(key)));
+            result.addAll(others.keySet());
+            return result;
+        }
+    }
+}
@@ -0,0 +1,241 @@
+package trabalho.common.database;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.YearMonth;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.Consumer;
+import java.util.function.ToDoubleFunction;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonParseException;
+
+/**
+ * The files of a monthly batch such as the payroll or the invoices: one file
+ * per month, {@code <prefixo><yyyy-MM>.jsonl}, with one record per line as
+ * JSON.
+ * <p>
+ * A month is computed in parallel with fork/join, each slice of rows writing
+ * its records as soon as they are computed, so at most a few slices of
+ * records are in memory at a time. The lines are in no particular order. The
+ * file is written next to its final name and moved in place at the end, so
+ * running a month again replaces it and a failed run leaves the previous one
+ * alone.
+ * <p>
+ * The batch supplies only the record of each row and which of its values are
+ * the gross amount, the deductions and the net amount to total.
+ *
+ * @param <T> The record of a line.
+ * @author Gabriel M.S.O.
+ */
+public final class MonthlyJsonLines<T> {
+    private static final String FILE_SUFFIX = ".jsonl";
+    // Rows computed by one fork/join task, and written in one go
+    private static final int SLICE_SIZE = 256;
+
+    private static final Gson GSON = new Gson();
+
+    private final Path diretorio;
+    private final String prefixo;
+    private final Class<T> tipo;
+    private final ToDoubleFunction<T> bruto;
+    private final ToDoubleFunction<T> descontos;
+    private final ToDoubleFunction<T> liquido;
+
+    /**
+     * Computes the record of one row, on the fork/join threads.
+     */
+    @FunctionalInterface
+    public interface Linha<T> {
+        /**
+         * @return {@code null} to write nothing for the row.
+         */
+        T calcular(int indice);
+    }
+
+    /**
+     * The records written and the sums of their values, added up in centavos
+     * so the order of the slices does not change them.
+     */
+    public record Totais(int registros, double bruto, double descontos, double liquido) {
+    }
+
+    public MonthlyJsonLines(Path diretorio, String prefixo, Class<T> tipo, ToDoubleFunction<T> bruto,
+            ToDoubleFunction<T> descontos, ToDoubleFunction<T> liquido) {
+        this.diretorio = diretorio;
+        this.prefixo = prefixo;
+        this.tipo = tipo;
+        this.bruto = bruto;
+        this.descontos = descontos;
+        this.liquido = liquido;
+    }
+
+    public Path getDiretorio() {
+        return diretorio;
+    }
+
+    public Path arquivo(YearMonth competencia) {
+        return diretorio.resolve(prefixo + competencia + FILE_SUFFIX);
+    }
+
+    /**
+     * Writes the records of rows {@code 0} to {@code linhas - 1} as the file
+     * of the month, replacing it.
+     */
+    public Totais escrever(YearMonth competencia, int linhas, Linha<T> linha, ForkJoinPool pool)
+            throws IOException {
+        Files.createDirectories(diretorio);
+        Path arquivo = arquivo(competencia);
+        Path temp = Files.createTempFile(diretorio, prefixo + competencia, ".tmp");
+        Soma soma;
+        try {
+            try (Writer writer = Files.newBufferedWriter(temp, StandardCharsets.UTF_8)) {
+                soma = pool.invoke(new Slice(linha, writer, 0, linhas));
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+            try {
+                Files.move(temp, arquivo, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temp, arquivo, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+        return new Totais(soma.registros, soma.bruto / 100.0, soma.descontos / 100.0, soma.liquido / 100.0);
+    }
+
+    /**
+     * Appends records to the file of the month, creating it if needed.
+     */
+    public void acrescentar(YearMonth competencia, List<T> registros) throws IOException {
+        StringBuilder lines = new StringBuilder();
+        for (T registro : registros) {
+            GSON.toJson(registro, lines);
+            lines.append('\n');
+        }
+        Files.createDirectories(diretorio);
+        Files.writeString(arquivo(competencia), lines, StandardCharsets.UTF_8, StandardOpenOption.CREATE,
+                StandardOpenOption.APPEND);
+    }
+
+    /**
+     * Reads the records whose string field has the value, from every month in
+     * the directory, each file in the order its lines were written. Other
+     * lines are skipped without being parsed. An unreadable file is reported
+     * and skipped.
+     *
+     * @param campo The name of the field in the JSON, e.g. {@code cpfCnpj}.
+     */
+    public void ler(String campo, String valor, Consumer<T> destino) {
+        if (valor == null || !Files.isDirectory(diretorio)) {
+            return;
+        }
+        String marker = GSON.toJson(campo) + ":" + GSON.toJson(valor);
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(diretorio, prefixo + "*" + FILE_SUFFIX)) {
+            for (Path file : files) {
+                try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+                    String line;
+                    while ((line = reader.readLine()) != null) {
+                        if (line.contains(marker)) {
+                            destino.accept(GSON.fromJson(line, tipo));
+                        }
+                    }
+                } catch (IOException | JsonParseException e) {
+                    System.err.println("Erro ao ler " + file + ": " + e.getMessage());
+                }
+            }
+        } catch (IOException e) {
+            System.err.println("Erro ao listar " + prefixo + "*" + FILE_SUFFIX + " em " + diretorio + ": "
+                    + e.getMessage());
+        }
+    }
+
+    /**
+     * @return The value in whole centavos, rounded half up.
+     */
+    public static long centavos(double reais) {
+        return Math.round(reais * 100);
+    }
+
+    /**
+     * @return The value rounded to centavos.
+     */
+    public static double arredondar(double reais) {
+        return centavos(reais) / 100.0;
+    }
+
+    private static final class Soma {
+        int registros;
+        long bruto;
+        long descontos;
+        long liquido;
+
+        Soma add(Soma other) {
+            registros += other.registros;
+            bruto += other.bruto;
+            descontos += other.descontos;
+            liquido += other.liquido;
+            return this;
+        }
+    }
+
+    private final class Slice extends RecursiveTask<Soma> {
+        private final Linha<T> linha;
+        private final Writer writer;
+        private final int from;
+        private final int to;
+
+        Slice(Linha<T> linha, Writer writer, int from, int to) {
+            this.linha = linha;
+            this.writer = writer;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected Soma compute() {
+            if (to - from > SLICE_SIZE) {
+                int mid = (from + to) >>> 1;
+                Slice left = new Slice(linha, writer, from, mid);
+                left.fork();
+                Soma right = new Slice(linha, writer, mid, to).compute();
+                return right.add(left.join());
+            }
+
+            Soma soma = new Soma();
+            StringBuilder lines = new StringBuilder();
+            for (int i = from; i < to; i++) {
+                T registro = linha.calcular(i);
+                if (registro == null) {
+                    continue;
+                }
+                GSON.toJson(registro, lines);
+                lines.append('\n');
+                soma.registros++;
+                soma.bruto += centavos(bruto.applyAsDouble(registro));
+                soma.descontos += centavos(descontos.applyAsDouble(registro));
+                soma.liquido += centavos(liquido.applyAsDouble(registro));
+            }
+            try {
+                synchronized (writer) {
+                    writer.append(lines);
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            return soma;
+        }
+    }
+}
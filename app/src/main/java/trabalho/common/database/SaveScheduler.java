@@ -0,0 +1,173 @@
+package trabalho.common.database;
+
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs saves on a dedicated background thread so the JavaFX Application
+ * Thread never waits for serialization.
+ * <p>
+ * Every {@link #markDirty()} (re)starts a short debounce timer, so a burst of
+ * mutations ends up as a single write. The write is never delayed more than
+ * {@code maxDelayMillis} after the first pending mutation, even if mutations
+ * keep coming.
+ *
+ * @author Gabriel M.S.O.
+ */
+public class SaveScheduler {
+
+    /**
+     * A point-in-time view of the scheduler, for diagnostics.
+     *
+     * @param pendingMutations      Mutations marked but not written yet.
+     * @param lastSaveLatencyMillis How long the last write took.
+     * @param lastSaveEpochMillis   When the last write finished, 0 if never.
+     * @param savesCompleted        How many writes ran so far.
+     * @param mutationsSaved        How many mutations those writes covered.
+     */
+    public record Metrics(
+            int pendingMutations,
+            long lastSaveLatencyMillis,
+            long lastSaveEpochMillis,
+            long savesCompleted,
+            long mutationsSaved) {
+    }
+
+    private final Runnable saveAction;
+    private final long debounceNanos;
+    private final long maxDelayNanos;
+    private final ScheduledExecutorService executor;
+
+    // Guarded by this
+    private int pendingMutations;
+    private long firstDirtyNanos;
+    private ScheduledFuture<?> scheduled;
+
+    // Only written by the saver thread
+    private volatile long lastSaveLatencyNanos;
+    private volatile long lastSaveEpochMillis;
+    private volatile long savesCompleted;
+    private volatile long mutationsSaved;
+
+    /**
+     * @param saveAction     The actual (blocking) write. Always called from the
+     *                       scheduler thread, never concurrently.
+     * @param debounceMillis Quiet period to wait for more mutations.
+     * @param maxDelayMillis Upper bound between the first pending mutation and
+     *                       its write.
+     */
+    public SaveScheduler(Runnable saveAction, long debounceMillis, long maxDelayMillis) {
+        this.saveAction = saveAction;
+        this.debounceNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(0, debounceMillis));
+        this.maxDelayNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(debounceMillis, maxDelayMillis));
+        this.executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "hr-data-saver");
+            thread.setDaemon(true); // flush() on shutdown is what guarantees the last write
+            return thread;
+        });
+    }
+
+    /**
+     * Records one mutation and makes sure a write is scheduled for it.
+     */
+    public synchronized void markDirty() {
+        if (executor.isShutdown()) {
+            // Too late for the background thread, write right away
+            saveAction.run();
+            return;
+        }
+
+        pendingMutations++;
+        long now = System.nanoTime();
+        if (firstDirtyNanos == 0) {
+            firstDirtyNanos = now;
+        }
+
+        long runAt = Math.min(now + debounceNanos, firstDirtyNanos + maxDelayNanos);
+        if (scheduled != null) {
+            scheduled.cancel(false); // If it already started, the next one just finds nothing to do
+        }
+        scheduled = executor.schedule(this::runSave, Math.max(0, runAt - now), TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Writes every pending mutation now and waits until it is done.
+     */
+    public void flush() {
+        if (executor.isShutdown()) {
+            runSave();
+            return;
+        }
+        try {
+            executor.submit(this::runSave).get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException e) {
+            System.err.println("Error flushing pending data: " + e.getCause().getMessage());
+        }
+    }
+
+    /**
+     * Flushes and stops the background thread. Later calls to
+     * {@link #markDirty()} write synchronously.
+     */
+    public void shutdown() {
+        flush();
+        executor.shutdown();
+        try {
+            executor.awaitTermination(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    public Metrics getMetrics() {
+        synchronized (this) {
+            return new Metrics(
+                    pendingMutations,
+                    TimeUnit.NANOSECONDS.toMillis(lastSaveLatencyNanos),
+                    lastSaveEpochMillis,
+                    savesCompleted,
+                    mutationsSaved);
+        }
+    }
+
+    private void runSave() {
+        int batch;
+        synchronized (this) {
+            batch = pendingMutations;
+            pendingMutations = 0;
+            firstDirtyNanos = 0;
+            scheduled = null;
+        }
+        if (batch == 0) {
+            return;
+        }
+
+        long start = System.nanoTime();
+        try {
+            saveAction.run();
+        } catch (RuntimeException e) {
+            System.err.println("Save failed, retrying later: " + e.getMessage());
+            synchronized (this) {
+                // Put them back so the next markDirty/flush covers them
+                pendingMutations += batch;
+                if (firstDirtyNanos == 0) {
+                    firstDirtyNanos = System.nanoTime();
+                }
+                if (!executor.isShutdown()) {
+                    scheduled = executor.schedule(this::runSave, maxDelayNanos, TimeUnit.NANOSECONDS);
+                }
+            }
+            return;
+        }
+
+        lastSaveLatencyNanos = System.nanoTime() - start;
+        lastSaveEpochMillis = System.currentTimeMillis();
+        savesCompleted++;
+        mutationsSaved += batch;
+    }
+}
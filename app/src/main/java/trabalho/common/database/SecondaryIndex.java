@@ -0,0 +1,108 @@
+package trabalho.common.database;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * Groups the entities of an {@link AppData} collection by a key taken from
+ * each entity (e.g. the candidate CPF of a Candidatura), so lookups by that
+ * key cost O(result) instead of a scan of the whole collection.
+ * <p>
+ * The key each entity was indexed under is remembered, so an entity changed
+ * in place (e.g. a new status) can be moved with {@link #update(Object)}.
+ * Entities with a {@code null} key are tracked but not returned by any
+ * lookup. Not thread safe, AppData guards it with its own lock.
+ *
+ * @author Gabriel M.S.O.
+ */
+class SecondaryIndex<K, E> implements IndexLookup<K, E> {
+    private final Function<E, K> keyOf;
+    private final Map<K, Set<E>> buckets = new HashMap<>();
+    private final Map<E, K> indexedKeys = new IdentityHashMap<>();
+
+    SecondaryIndex(Function<E, K> keyOf) {
+        this.keyOf = keyOf;
+    }
+
+    void add(E entity) {
+        K key = keyOf.apply(entity);
+        indexedKeys.put(entity, key);
+        addToBucket(key, entity);
+    }
+
+    void remove(E entity) {
+        if (!indexedKeys.containsKey(entity)) {
+            return;
+        }
+        removeFromBucket(indexedKeys.remove(entity), entity);
+    }
+
+    /**
+     * Moves the entity if its key changed since it was indexed.
+     */
+    void update(E entity) {
+        if (!indexedKeys.containsKey(entity)) {
+            return;
+        }
+        K previous = indexedKeys.get(entity);
+        K current = keyOf.apply(entity);
+        if (!Objects.equals(previous, current)) {
+            removeFromBucket(previous, entity);
+            indexedKeys.put(entity, current);
+            addToBucket(current, entity);
+        }
+    }
+
+    /**
+     * @return A copy of the entities with the key, in insertion order.
+     */
+    List<E> get(K key) {
+        Set<E> bucket = key != null ? buckets.get(key) : null;
+        return bucket != null ? new ArrayList<>(bucket) : new ArrayList<>();
+    }
+
+    @Override
+    public int count(K key) {
+        Set<E> bucket = key != null ? buckets.get(key) : null;
+        return bucket != null ? bucket.size() : 0;
+    }
+
+    @Override
+    public Collection<E> lookup(K key) {
+        Set<E> bucket = key != null ? buckets.get(key) : null;
+        return bucket != null ? Collections.unmodifiableSet(bucket) : Collections.emptySet();
+    }
+
+    void clear() {
+        buckets.clear();
+        indexedKeys.clear();
+    }
+
+    private void addToBucket(K key, E entity) {
+        if (key != null) {
+            buckets.computeIfAbsent(key, k -> new LinkedHashSet<>()).add(entity);
+        }
+    }
+
+    private void removeFromBucket(K key, E entity) {
+        if (key == null) {
+            return;
+        }
+        Set<E> bucket = buckets.get(key);
+        if (bucket != null) {
+            bucket.remove(entity);
+            if (bucket.isEmpty()) {
+                buckets.remove(key);
+            }
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package trabalho.common.database;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+/**
+ * Converts a snapshot between the storage formats, e.g.
+ *
+ * <pre>
+ * java trabalho.common.database.SnapshotConverter hr_data.json hr_data.bin binary
+ * </pre>
+ *
+ * The input format is detected from the file. The output format is the third
+ * argument, or guessed from the output file name.
+ *
+ * @author Gabriel M.S.O.
+ */
+public class SnapshotConverter {
+
+    private SnapshotConverter() {
+    }
+
+    /**
+     * Reads {@code input} in whatever format it is and writes it to
+     * {@code output} in {@code target}, atomically.
+     *
+     * @return The data converted.
+     */
+    public static AppData convert(Path input, Path output, StorageFormat target) throws IOException {
+        AppData data = StorageFormat.detect(input).read(input, new AppData(), null);
+        if (data == null) {
+            throw new IOException("No data in " + input);
+        }
+        new SnapshotWriter(output.toString(), 0).write(out -> target.write(data, out));
+        return data;
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2 || args.length > 3) {
+            System.err.println("Usage: SnapshotConverter <input> <output> [json|binary]");
+            System.exit(2);
+        }
+        Path input = Paths.get(args[0]);
+        Path output = Paths.get(args[1]);
+
+        StorageFormat target = args.length == 3 ? StorageFormat.byName(args[2]) : guessFormat(output);
+        if (target == null) {
+            System.err.println("Unknown storage format: " + args[2]);
+            System.exit(2);
+        }
+
+        convert(input, output, target);
+        System.out.println("Converted " + input + " (" + Files.size(input) + " bytes) to " + output + " ("
+                + Files.size(output) + " bytes, " + target.getName() + ")");
+    }
+
+    private static StorageFormat guessFormat(Path output) {
+        String name = output.getFileName().toString();
+        for (StorageFormat format : StorageFormat.all()) {
+            String defaultName = format.getDefaultFileName();
+            if (name.endsWith(defaultName.substring(defaultName.lastIndexOf('.')))) {
+                return format;
+            }
+        }
+        return JsonStorageFormat.INSTANCE;
+    }
+}
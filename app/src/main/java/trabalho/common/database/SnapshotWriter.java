@@ -0,0 +1,153 @@
+package trabalho.common.database;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.FileSystemException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Writes snapshot files so that a crash never leaves us without a readable
+ * copy of the data.
+ * <p>
+ * The new content is streamed to a temporary file next to the target, forced
+ * to disk and only then renamed over the target. The previous snapshots are
+ * kept as {@code hr_data.json.1}, {@code hr_data.json.2}, ... (newest first),
+ * so the loader can fall back to them if the current one cannot be parsed.
+ *
+ * @author Gabriel M.S.O.
+ */
+public class SnapshotWriter {
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final String TEMP_SUFFIX = ".tmp";
+
+    /**
+     * Writes the snapshot body, the stream is buffered and closed by the
+     * caller.
+     */
+    @FunctionalInterface
+    public interface SnapshotContent {
+        void writeTo(OutputStream out) throws IOException;
+    }
+
+    private final Path target;
+    private final int generations;
+
+    /**
+     * @param target      The snapshot file.
+     * @param generations How many previous snapshots to keep besides the
+     *                    current one (0 keeps none).
+     */
+    public SnapshotWriter(String target, int generations) {
+        this.target = Paths.get(target).toAbsolutePath();
+        this.generations = Math.max(0, generations);
+    }
+
+    public Path getTarget() {
+        return target;
+    }
+
+    /**
+     * The snapshot files that exist, newest first. Loading should try them in
+     * this order.
+     */
+    public List<Path> existingSnapshots() {
+        List<Path> snapshots = new ArrayList<>();
+        if (Files.exists(target)) {
+            snapshots.add(target);
+        }
+        for (int i = 1; i <= generations; i++) {
+            Path generation = generation(i);
+            if (Files.exists(generation)) {
+                snapshots.add(generation);
+            }
+        }
+        return snapshots;
+    }
+
+    /**
+     * Atomically replaces the snapshot with the given content.
+     * If anything fails the current snapshot is left untouched.
+     */
+    public void write(SnapshotContent content) throws IOException {
+        Path temp = target.resolveSibling(target.getFileName() + TEMP_SUFFIX);
+
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            OutputStream out = new BufferedOutputStream(Channels.newOutputStream(channel), BUFFER_SIZE);
+            content.writeTo(out);
+            out.flush();
+            channel.force(true);
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(temp);
+            throw e;
+        }
+
+        rotateGenerations();
+        moveIntoPlace(temp);
+        syncDirectory();
+    }
+
+    private Path generation(int n) {
+        return target.resolveSibling(target.getFileName() + "." + n);
+    }
+
+    /**
+     * Shifts {@code .1 -> .2 -> ...} and keeps the current snapshot as
+     * {@code .1}. The current file is linked (or copied), not moved, so there
+     * is never a moment where the target does not exist.
+     */
+    private void rotateGenerations() throws IOException {
+        if (generations == 0 || !Files.exists(target)) {
+            return;
+        }
+
+        Files.deleteIfExists(generation(generations));
+        for (int i = generations - 1; i >= 1; i--) {
+            Path from = generation(i);
+            if (Files.exists(from)) {
+                Files.move(from, generation(i + 1), StandardCopyOption.REPLACE_EXISTING);
+            }
+        }
+
+        Path newest = generation(1);
+        try {
+            Files.createLink(newest, target);
+        } catch (UnsupportedOperationException | FileSystemException e) {
+            Files.copy(target, newest, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    private void moveIntoPlace(Path temp) throws IOException {
+        try {
+            Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    /**
+     * Makes the rename itself durable. Not every platform allows opening a
+     * directory (e.g. Windows), in that case we rely on the file system.
+     */
+    private void syncDirectory() {
+        Path directory = target.getParent();
+        if (directory == null) {
+            return;
+        }
+        try (FileChannel channel = FileChannel.open(directory, StandardOpenOption.READ)) {
+            channel.force(true);
+        } catch (IOException | UnsupportedOperationException e) {
+            // Best effort only
+        }
+    }
+}
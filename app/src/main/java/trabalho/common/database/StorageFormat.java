@@ -0,0 +1,84 @@
+package trabalho.common.database;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+/**
+ * How a snapshot of {@link AppData} is encoded on disk.
+ * <p>
+ * The format used for saving is chosen with
+ * {@code -Dtrabalho.storage.format=json|binary} (JSON by default). Loading
+ * always looks at the file itself, so a snapshot written in either format can
+ * be read whatever the configuration.
+ *
+ * @author Gabriel M.S.O.
+ */
+public interface StorageFormat {
+    String PROPERTY = "trabalho.storage.format";
+
+    /**
+     * The name used in the configuration, e.g. {@code json}.
+     */
+    String getName();
+
+    /**
+     * The file used when none is given, e.g. {@code hr_data.json}.
+     */
+    String getDefaultFileName();
+
+    /**
+     * @param data     An empty AppData to fill, so the caller decides how it
+     *                 stores its entities (see {@link MappedEntityStore}).
+     * @param listener May be {@code null}.
+     * @return {@code data}, or {@code null} if the file holds no data.
+     */
+    AppData read(Path file, AppData data, StreamingDataLoader.ProgressListener listener) throws IOException;
+
+    /**
+     * Writes every entity in {@code data}. The stream is already buffered and
+     * is closed by the caller.
+     */
+    void write(AppData data, OutputStream out) throws IOException;
+
+    static List<StorageFormat> all() {
+        return List.of(JsonStorageFormat.INSTANCE, BinaryStorageFormat.INSTANCE);
+    }
+
+    /**
+     * @return The format with the given name, or {@code null} if there is none.
+     */
+    static StorageFormat byName(String name) {
+        for (StorageFormat format : all()) {
+            if (format.getName().equalsIgnoreCase(name)) {
+                return format;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * The format chosen with {@link #PROPERTY}, JSON if unset or unknown.
+     */
+    static StorageFormat fromConfiguration() {
+        String name = System.getProperty(PROPERTY, JsonStorageFormat.INSTANCE.getName());
+        StorageFormat format = byName(name);
+        if (format == null) {
+            System.err.println("Unknown storage format '" + name + "', using JSON.");
+            return JsonStorageFormat.INSTANCE;
+        }
+        return format;
+    }
+
+    /**
+     * Tells the format of an existing file by its first bytes.
+     */
+    static StorageFormat detect(Path file) throws IOException {
+        try (InputStream in = Files.newInputStream(file)) {
+            return BinaryStorageFormat.hasMagic(in) ? BinaryStorageFormat.INSTANCE : JsonStorageFormat.INSTANCE;
+        }
+    }
+}
@@ -0,0 +1,198 @@
+package trabalho.common.database;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonParseException;
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+
+import trabalho.admin.model.Administrador;
+import trabalho.admin.model.Gestor;
+import trabalho.admin.model.Usuario;
+import trabalho.candidatura.model.Candidato;
+import trabalho.candidatura.model.Candidatura;
+import trabalho.candidatura.model.Pessoa;
+import trabalho.financeiro.model.Funcionario;
+import trabalho.recrutamento.model.Contratacao;
+import trabalho.recrutamento.model.Entrevista;
+import trabalho.recrutamento.model.Recrutador;
+import trabalho.recrutamento.model.Vaga;
+import trabalho.servico.model.ContratoServico;
+import trabalho.servico.model.PrestadorServico;
+
+import java.io.BufferedInputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Reads a JSON snapshot into {@link AppData} one entity at a time.
+ * <p>
+ * Instead of binding the whole file reflectively, the top level object is
+ * walked with a {@link JsonReader} and each entity is decoded by its adapter
+ * (see {@code trabalho.common.database.adapters}) and stored right away.
+ *
+ * @author Gabriel M.S.O.
+ */
+public class StreamingDataLoader {
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final int PROGRESS_INTERVAL = 4096; // entities
+
+    /**
+     * Notified every few thousand entities, and once at the end.
+     */
+    @FunctionalInterface
+    public interface ProgressListener {
+        void onProgress(long bytesRead, long totalBytes, long entitiesLoaded);
+    }
+
+    private final Gson gson;
+    private final ProgressListener listener;
+
+    private AppData data;
+    private CountingInputStream counter;
+    private long totalBytes;
+    private long entitiesLoaded;
+
+    /**
+     * @param gson     Must have the entity adapters registered, it is also used
+     *                 for the types without a handwritten adapter.
+     * @param listener May be {@code null}.
+     */
+    public StreamingDataLoader(Gson gson, ProgressListener listener) {
+        this.gson = gson;
+        this.listener = listener;
+    }
+
+    /**
+     * @param target An empty AppData to fill.
+     * @return {@code target}, or {@code null} if the file is empty.
+     * @throws JsonParseException If the file is not a valid snapshot.
+     */
+    public synchronized AppData load(Path file, AppData target) throws IOException {
+        this.data = target;
+        this.totalBytes = Files.size(file);
+        this.entitiesLoaded = 0;
+
+        try (InputStream in = Files.newInputStream(file)) {
+            this.counter = new CountingInputStream(new BufferedInputStream(in, BUFFER_SIZE));
+            JsonReader reader = new JsonReader(new InputStreamReader(counter, StandardCharsets.UTF_8));
+            reader.setLenient(true); // Same as Gson.fromJson
+
+            if (reader.peek() == JsonToken.END_DOCUMENT) {
+                return null;
+            }
+            readAppData(reader);
+        } catch (IllegalStateException | NumberFormatException e) {
+            throw new JsonParseException(e.getMessage(), e);
+        }
+
+        reportProgress();
+        AppData loaded = this.data;
+        this.data = null;
+        this.counter = null;
+        return loaded;
+    }
+
+    private void readAppData(JsonReader in) throws IOException {
+        in.beginObject();
+        while (in.hasNext()) {
+            String field = in.nextName();
+            if (in.peek() == JsonToken.NULL) {
+                in.nextNull();
+                continue;
+            }
+            switch (field) {
+                case "pessoasByCpf" -> readMap(in, gson.getAdapter(Pessoa.class));
+                case "usuariosByCpf" -> readMap(in, gson.getAdapter(Usuario.class));
+                case "funcionariosByCpf" -> readMap(in, gson.getAdapter(Funcionario.class));
+                case "administradoresByCpf" -> readMap(in, gson.getAdapter(Administrador.class));
+                case "gestoresByCpf" -> readMap(in, gson.getAdapter(Gestor.class));
+                case "recrutadoresByCpf" -> readMap(in, gson.getAdapter(Recrutador.class));
+                case "candidatosByCpf" -> readMap(in, gson.getAdapter(Candidato.class));
+                case "vagasById" -> readMap(in, gson.getAdapter(Vaga.class));
+                case "candidaturas" -> readList(in, gson.getAdapter(Candidatura.class));
+                case "entrevistas" -> readList(in, gson.getAdapter(Entrevista.class));
+                case "contratacoes" -> readList(in, gson.getAdapter(Contratacao.class));
+                case "prestadoresByCnpj" -> readMap(in, gson.getAdapter(PrestadorServico.class));
+                case "contratosServico" -> readList(in, gson.getAdapter(ContratoServico.class));
+                default -> in.skipValue();
+            }
+        }
+        in.endObject();
+    }
+
+    private <T> void readMap(JsonReader in, TypeAdapter<T> adapter) throws IOException {
+        in.beginObject();
+        while (in.hasNext()) {
+            in.nextName(); // The key is also a field of the entity
+            store(adapter.read(in));
+        }
+        in.endObject();
+    }
+
+    private <T> void readList(JsonReader in, TypeAdapter<T> adapter) throws IOException {
+        in.beginArray();
+        while (in.hasNext()) {
+            store(adapter.read(in));
+        }
+        in.endArray();
+    }
+
+    private void store(Object entity) {
+        if (entity == null) {
+            return;
+        }
+        data.loadEntity(entity);
+        if (++entitiesLoaded % PROGRESS_INTERVAL == 0) {
+            reportProgress();
+        }
+    }
+
+    private void reportProgress() {
+        if (listener != null) {
+            listener.onProgress(counter.count, totalBytes, entitiesLoaded);
+        }
+    }
+
+    /**
+     * Counts the bytes handed to the decoder, good enough for a progress
+     * estimate (the reader buffers a little ahead).
+     */
+    private static class CountingInputStream extends FilterInputStream {
+        private long count;
+
+        CountingInputStream(InputStream in) {
+            super(in);
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = super.read();
+            if (b >= 0) {
+                count++;
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            int n = super.read(b, off, len);
+            if (n > 0) {
+                count += n;
+            }
+            return n;
+        }
+
+        @Override
+        public long skip(long n) throws IOException {
+            long skipped = super.skip(n);
+            count += skipped;
+            return skipped;
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package trabalho.common.database.adapters;
+
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+
+import trabalho.candidatura.model.Candidatura;
+import trabalho.candidatura.model.Candidatura.StatusCandidatura;
+
+import java.io.IOException;
+import java.util.Date;
+
+/**
+ * Handwritten adapter for {@link Candidatura}, same JSON as the reflective
+ * one.
+ * <p>
+ * Older files embed a full copy of the Vaga in every Candidatura
+ * ({@code "vaga": {...}}), only its id is kept when reading them. They are
+ * written back with just {@code "vagaId"}.
+ *
+ * @author Gabriel M.S.O.
+ */
+public class CandidaturaAdapter extends TypeAdapter<Candidatura> {
+    private final TypeAdapter<Date> dateAdapter;
+
+    public CandidaturaAdapter(TypeAdapter<Date> dateAdapter) {
+        this.dateAdapter = dateAdapter;
+    }
+
+    @Override
+    public void write(JsonWriter out, Candidatura candidatura) throws IOException {
+        out.beginObject();
+        out.name("cpfCnpjCandidato").value(candidatura.getCpfCnpjCandidato());
+        out.name("vagaId").value(candidatura.getVagaId());
+        out.name("dataCandidatura");
+        dateAdapter.write(out, candidatura.getDataCandidatura());
+        out.name("status").value(JsonValues.enumName(candidatura.getStatusEnum()));
+        out.endObject();
+    }
+
+    @Override
+    public Candidatura read(JsonReader in) throws IOException {
+        Candidatura candidatura = new Candidatura();
+        in.beginObject();
+        while (in.hasNext()) {
+            switch (in.nextName()) {
+                case "cpfCnpjCandidato" -> candidatura.setCpfCnpjCandidato(JsonValues.nextString(in));
+                case "vagaId" -> candidatura.setVagaId(JsonValues.nextString(in));
+                case "vaga" -> candidatura.setVagaId(readLegacyVagaId(in));
+                case "dataCandidatura" -> candidatura.setDataCandidatura(dateAdapter.read(in));
+                case "status" -> candidatura.setStatus(JsonValues.nextEnum(in, StatusCandidatura.class));
+                default -> in.skipValue();
+            }
+        }
+        in.endObject();
+        return candidatura;
+    }
+
+    /**
+     * Takes the id out of an embedded Vaga and skips the rest.
+     */
+    private static String readLegacyVagaId(JsonReader in) throws IOException {
+        if (in.peek() == JsonToken.NULL) {
+            in.nextNull();
+            return null;
+        }
+        String id = null;
+        in.beginObject();
+        while (in.hasNext()) {
+            if (in.nextName().equals("id")) {
+                id = JsonValues.nextString(in);
+            } else {
+                in.skipValue();
+            }
+        }
+        in.endObject();
+        return id;
+    }
+}
@@ -0,0 +1,73 @@
+package trabalho.common.database.adapters;
+
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonWriter;
+
+import trabalho.recrutamento.model.Contratacao;
+import trabalho.recrutamento.model.Contratacao.StatusContratacao;
+import trabalho.recrutamento.model.RegimeContratacao;
+
+import java.io.IOException;
+import java.time.LocalDate;
+import java.util.Date;
+
+/**
+ * Handwritten adapter for {@link Contratacao}, same JSON as the reflective
+ * one.
+ *
+ * @author Gabriel M.S.O.
+ */
+public class ContratacaoAdapter extends TypeAdapter<Contratacao> {
+    private final TypeAdapter<Date> dateAdapter;
+    private final TypeAdapter<LocalDate> localDateAdapter;
+
+    public ContratacaoAdapter(TypeAdapter<Date> dateAdapter, TypeAdapter<LocalDate> localDateAdapter) {
+        this.dateAdapter = dateAdapter;
+        this.localDateAdapter = localDateAdapter;
+    }
+
+    @Override
+    public void write(JsonWriter out, Contratacao contratacao) throws IOException {
+        out.beginObject();
+        out.name("id").value(contratacao.getId());
+        out.name("dataSolicitacao");
+        localDateAdapter.write(out, contratacao.getDataSolicitacao());
+        out.name("dataAutorizacao");
+        dateAdapter.write(out, contratacao.getDataAutorizacao());
+        out.name("regime").value(JsonValues.enumName(contratacao.getRegime()));
+        out.name("status").value(JsonValues.enumName(contratacao.getStatus()));
+        out.name("candidatoCpf").value(contratacao.getCandidatoCpf());
+        out.name("vagaId").value(contratacao.getVagaId());
+        out.name("recrutadorSolicitanteCpf").value(contratacao.getRecrutadorSolicitanteCpf());
+        out.name("gestorAutorizanteCpf").value(contratacao.getGestorAutorizanteCpf());
+        out.name("regimeContratacao").value(JsonValues.enumName(contratacao.getRegimeContratacao()));
+        out.name("observacoes").value(contratacao.getObservacoes());
+        out.endObject();
+    }
+
+    @Override
+    public Contratacao read(JsonReader in) throws IOException {
+        Contratacao contratacao = new Contratacao(); // Defaults stay for fields missing in the file
+        in.beginObject();
+        while (in.hasNext()) {
+            switch (in.nextName()) {
+                case "id" -> contratacao.setId(JsonValues.nextString(in));
+                case "dataSolicitacao" -> contratacao.setDataSolicitacao(localDateAdapter.read(in));
+                case "dataAutorizacao" -> contratacao.setDataAutorizacao(dateAdapter.read(in));
+                case "regime" -> contratacao.setRegime(JsonValues.nextEnum(in, RegimeContratacao.class));
+                case "status" -> contratacao.setStatus(JsonValues.nextEnum(in, StatusContratacao.class));
+                case "candidatoCpf" -> contratacao.setCandidatoCpf(JsonValues.nextString(in));
+                case "vagaId" -> contratacao.setVagaId(JsonValues.nextString(in));
+                case "recrutadorSolicitanteCpf" -> contratacao.setRecrutadorSolicitanteCpf(JsonValues.nextString(in));
+                case "gestorAutorizanteCpf" -> contratacao.setGestorAutorizanteCpf(JsonValues.nextString(in));
+                case "regimeContratacao" ->
+                    contratacao.setRegimeContratacao(JsonValues.nextEnum(in, RegimeContratacao.class));
+                case "observacoes" -> contratacao.setObservacoes(JsonValues.nextString(in));
+                default -> in.skipValue();
+            }
+        }
+        in.endObject();
+        return contratacao;
+    }
+}
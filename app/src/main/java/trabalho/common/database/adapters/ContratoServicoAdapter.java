@@ -0,0 +1,75 @@
+package trabalho.common.database.adapters;
+
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonWriter;
+
+import trabalho.servico.model.ContratoServico;
+import trabalho.servico.model.ContratoServico.StatusContrato;
+import trabalho.servico.model.ContratoServico.TipoValor;
+
+import java.io.IOException;
+import java.time.LocalDate;
+import java.util.UUID;
+
+/**
+ * Handwritten adapter for {@link ContratoServico}, same JSON as the
+ * reflective one.
+ *
+ * @author Gabriel M.S.O.
+ */
+public class ContratoServicoAdapter extends TypeAdapter<ContratoServico> {
+    private final TypeAdapter<LocalDate> localDateAdapter;
+
+    public ContratoServicoAdapter(TypeAdapter<LocalDate> localDateAdapter) {
+        this.localDateAdapter = localDateAdapter;
+    }
+
+    @Override
+    public void write(JsonWriter out, ContratoServico contrato) throws IOException {
+        out.beginObject();
+        out.name("id").value(contrato.getId());
+        out.name("prestadorCnpj").value(contrato.getPrestadorCnpj());
+        out.name("descricao").value(contrato.getDescricao());
+        out.name("departamento").value(contrato.getDepartamento());
+        out.name("gestorResponsavelCpf").value(contrato.getGestorResponsavelCpf());
+        out.name("dataInicio");
+        localDateAdapter.write(out, contrato.getDataInicio());
+        out.name("dataFim");
+        localDateAdapter.write(out, contrato.getDataFim());
+        out.name("tipoValor").value(JsonValues.enumName(contrato.getTipoValor()));
+        out.name("valor").value(contrato.getValor());
+        out.name("horasMensais").value(contrato.getHorasMensais());
+        out.name("percentualRetencao").value(contrato.getPercentualRetencao());
+        out.name("status").value(JsonValues.enumName(contrato.getStatus()));
+        out.endObject();
+    }
+
+    @Override
+    public ContratoServico read(JsonReader in) throws IOException {
+        ContratoServico contrato = new ContratoServico(); // Defaults stay for fields missing in the file
+        in.beginObject();
+        while (in.hasNext()) {
+            switch (in.nextName()) {
+                case "id" -> contrato.setId(JsonValues.nextString(in));
+                case "prestadorCnpj" -> contrato.setPrestadorCnpj(JsonValues.nextString(in));
+                case "descricao" -> contrato.setDescricao(JsonValues.nextString(in));
+                case "departamento" -> contrato.setDepartamento(JsonValues.nextString(in));
+                case "gestorResponsavelCpf" -> contrato.setGestorResponsavelCpf(JsonValues.nextString(in));
+                case "dataInicio" -> contrato.setDataInicio(localDateAdapter.read(in));
+                case "dataFim" -> contrato.setDataFim(localDateAdapter.read(in));
+                case "tipoValor" -> contrato.setTipoValor(JsonValues.nextEnum(in, TipoValor.class));
+                case "valor" -> contrato.setValor(JsonValues.nextPrimitiveDouble(in));
+                case "horasMensais" -> contrato.setHorasMensais(JsonValues.nextPrimitiveDouble(in));
+                case "percentualRetencao" -> contrato.setPercentualRetencao(JsonValues.nextPrimitiveDouble(in));
+                case "status" -> contrato.setStatus(JsonValues.nextEnum(in, StatusContrato.class));
+                default -> in.skipValue();
+            }
+        }
+        in.endObject();
+        if (contrato.getId() == null) {
+            contrato.setId(UUID.randomUUID().toString()); // A record with no id still needs a key
+        }
+        return contrato;
+    }
+}
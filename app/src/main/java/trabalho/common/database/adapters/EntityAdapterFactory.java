@@ -0,0 +1,52 @@
+package trabalho.common.database.adapters;
+
+import com.google.gson.Gson;
+import com.google.gson.TypeAdapter;
+import com.google.gson.TypeAdapterFactory;
+import com.google.gson.reflect.TypeToken;
+
+import trabalho.candidatura.model.Candidatura;
+import trabalho.candidatura.model.Pessoa;
+import trabalho.recrutamento.model.Contratacao;
+import trabalho.recrutamento.model.Entrevista;
+import trabalho.recrutamento.model.Vaga;
+import trabalho.servico.model.ContratoServico;
+
+import java.time.LocalDate;
+import java.util.Date;
+
+/**
+ * Registers the handwritten adapters in a {@link Gson}, so both the snapshot
+ * and the journal skip reflection for the bulky entity types.
+ * <p>
+ * Only the exact classes are handled, anything else falls back to Gson's
+ * reflective adapters.
+ *
+ * @author Gabriel M.S.O.
+ */
+public class EntityAdapterFactory implements TypeAdapterFactory {
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> TypeAdapter<T> create(Gson gson, TypeToken<T> type) {
+        Class<? super T> raw = type.getRawType();
+        TypeAdapter<?> adapter;
+
+        if (raw == Pessoa.class) {
+            adapter = new PessoaAdapter();
+        } else if (raw == Vaga.class) {
+            adapter = new VagaAdapter(gson.getAdapter(Date.class));
+        } else if (raw == Candidatura.class) {
+            adapter = new CandidaturaAdapter(gson.getAdapter(Date.class));
+        } else if (raw == Entrevista.class) {
+            adapter = new EntrevistaAdapter(gson.getAdapter(LocalDate.class));
+        } else if (raw == Contratacao.class) {
+            adapter = new ContratacaoAdapter(gson.getAdapter(Date.class), gson.getAdapter(LocalDate.class));
+        } else if (raw == ContratoServico.class) {
+            adapter = new ContratoServicoAdapter(gson.getAdapter(LocalDate.class));
+        } else {
+            return null;
+        }
+        return (TypeAdapter<T>) adapter.nullSafe();
+    }
+}
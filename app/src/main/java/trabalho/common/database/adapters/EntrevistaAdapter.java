@@ -0,0 +1,59 @@
+package trabalho.common.database.adapters;
+
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonWriter;
+
+import trabalho.recrutamento.model.Entrevista;
+
+import java.io.IOException;
+import java.time.LocalDate;
+
+/**
+ * Handwritten adapter for {@link Entrevista}, same JSON as the reflective one.
+ *
+ * @author Gabriel M.S.O.
+ */
+public class EntrevistaAdapter extends TypeAdapter<Entrevista> {
+    private final TypeAdapter<LocalDate> localDateAdapter;
+
+    public EntrevistaAdapter(TypeAdapter<LocalDate> localDateAdapter) {
+        this.localDateAdapter = localDateAdapter;
+    }
+
+    @Override
+    public void write(JsonWriter out, Entrevista entrevista) throws IOException {
+        out.beginObject();
+        out.name("id").value(entrevista.getId());
+        out.name("dataHora");
+        localDateAdapter.write(out, entrevista.getDataHora());
+        out.name("avaliadorCpf").value(entrevista.getAvaliadorCpf());
+        out.name("nota").value(entrevista.getNota());
+        out.name("parecer").value(entrevista.getParecer());
+        out.name("observacoes").value(entrevista.getObservacoes());
+        out.name("candidatoCpf").value(entrevista.getCandidatoCpf());
+        out.name("vagaId").value(entrevista.getVagaId());
+        out.endObject();
+    }
+
+    @Override
+    public Entrevista read(JsonReader in) throws IOException {
+        Entrevista entrevista = new Entrevista();
+        in.beginObject();
+        while (in.hasNext()) {
+            switch (in.nextName()) {
+                case "id" -> entrevista.setId(JsonValues.nextString(in));
+                case "dataHora" -> entrevista.setDataHora(localDateAdapter.read(in));
+                case "avaliadorCpf" -> entrevista.setAvaliadorCpf(JsonValues.nextString(in));
+                case "nota" -> entrevista.setNota(JsonValues.nextDouble(in));
+                case "parecer" -> entrevista.setParecer(JsonValues.nextString(in));
+                case "observacoes" -> entrevista.setObservacoes(JsonValues.nextString(in));
+                case "candidatoCpf" -> entrevista.setCandidaturaCpf(JsonValues.nextString(in));
+                case "vagaId" -> entrevista.setVagaId(JsonValues.nextString(in));
+                default -> in.skipValue();
+            }
+        }
+        in.endObject();
+        return entrevista;
+    }
+}
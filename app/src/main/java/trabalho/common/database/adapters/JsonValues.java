@@ -0,0 +1,66 @@
+package trabalho.common.database.adapters;
+
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+
+import java.io.IOException;
+
+/**
+ * Small helpers shared by the handwritten adapters, mirroring what Gson's
+ * reflective adapters do with {@code null} and unknown enum constants.
+ *
+ * @author Gabriel M.S.O.
+ */
+final class JsonValues {
+
+    private JsonValues() {
+    }
+
+    static String nextString(JsonReader in) throws IOException {
+        if (in.peek() == JsonToken.NULL) {
+            in.nextNull();
+            return null;
+        }
+        return in.nextString();
+    }
+
+    static Double nextDouble(JsonReader in) throws IOException {
+        if (in.peek() == JsonToken.NULL) {
+            in.nextNull();
+            return null;
+        }
+        return in.nextDouble();
+    }
+
+    static double nextPrimitiveDouble(JsonReader in) throws IOException {
+        Double value = nextDouble(in);
+        return value != null ? value : 0.0;
+    }
+
+    static long nextPrimitiveLong(JsonReader in) throws IOException {
+        if (in.peek() == JsonToken.NULL) {
+            in.nextNull();
+            return 0L;
+        }
+        return in.nextLong();
+    }
+
+    /**
+     * Unknown constants become {@code null}, like Gson does.
+     */
+    static <E extends Enum<E>> E nextEnum(JsonReader in, Class<E> type) throws IOException {
+        String name = nextString(in);
+        if (name == null) {
+            return null;
+        }
+        try {
+            return Enum.valueOf(type, name);
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    static String enumName(Enum<?> value) {
+        return value != null ? value.name() : null;
+    }
+}
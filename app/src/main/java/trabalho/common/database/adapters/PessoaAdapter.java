@@ -0,0 +1,46 @@
+package trabalho.common.database.adapters;
+
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonWriter;
+
+import trabalho.candidatura.model.Pessoa;
+
+import java.io.IOException;
+
+/**
+ * Handwritten adapter for {@link Pessoa}, same JSON as the reflective one.
+ *
+ * @author Gabriel M.S.O.
+ */
+public class PessoaAdapter extends TypeAdapter<Pessoa> {
+
+    @Override
+    public void write(JsonWriter out, Pessoa pessoa) throws IOException {
+        out.beginObject();
+        out.name("cpfCnpj").value(pessoa.getCpfCnpj());
+        out.name("nome").value(pessoa.getNome());
+        out.name("email").value(pessoa.getEmail());
+        out.name("endereco").value(pessoa.getEndereco());
+        out.name("telefone").value(pessoa.getTelefone());
+        out.endObject();
+    }
+
+    @Override
+    public Pessoa read(JsonReader in) throws IOException {
+        Pessoa pessoa = new Pessoa();
+        in.beginObject();
+        while (in.hasNext()) {
+            switch (in.nextName()) {
+                case "cpfCnpj" -> pessoa.setCpfCnpj(JsonValues.nextString(in));
+                case "nome" -> pessoa.setNome(JsonValues.nextString(in));
+                case "email" -> pessoa.setEmail(JsonValues.nextString(in));
+                case "endereco" -> pessoa.setEndereco(JsonValues.nextString(in));
+                case "telefone" -> pessoa.setTelefone(JsonValues.nextPrimitiveLong(in));
+                default -> in.skipValue();
+            }
+        }
+        in.endObject();
+        return pessoa;
+    }
+}
@@ -0,0 +1,70 @@
+package trabalho.common.database.adapters;
+
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonWriter;
+
+import trabalho.recrutamento.model.RegimeContratacao;
+import trabalho.recrutamento.model.Vaga;
+import trabalho.recrutamento.model.Vaga.StatusVaga;
+
+import java.io.IOException;
+import java.util.Date;
+
+/**
+ * Handwritten adapter for {@link Vaga}, same JSON as the reflective one.
+ *
+ * @author Gabriel M.S.O.
+ */
+public class VagaAdapter extends TypeAdapter<Vaga> {
+    private final TypeAdapter<Date> dateAdapter;
+
+    /**
+     * @param dateAdapter Gson's own {@link Date} adapter, so dates keep the
+     *                    format already used in the files.
+     */
+    public VagaAdapter(TypeAdapter<Date> dateAdapter) {
+        this.dateAdapter = dateAdapter;
+    }
+
+    @Override
+    public void write(JsonWriter out, Vaga vaga) throws IOException {
+        out.beginObject();
+        out.name("id").value(vaga.getId());
+        out.name("cargo").value(vaga.getCargo());
+        out.name("departamento").value(vaga.getDepartamento());
+        out.name("salarioBase").value(vaga.getSalarioBase());
+        out.name("requisitos").value(vaga.getRequisitos());
+        out.name("status").value(JsonValues.enumName(vaga.getStatus()));
+        out.name("regimeContratacao").value(JsonValues.enumName(vaga.getRegimeContratacao()));
+        out.name("dataAbertura");
+        dateAdapter.write(out, vaga.getDataAbertura());
+        out.name("gestorCriadorCpf").value(vaga.getGestorCriadorCpf());
+        out.name("recrutadorResponsavelCpf").value(vaga.getRecrutadorResponsavelCpf());
+        out.endObject();
+    }
+
+    @Override
+    public Vaga read(JsonReader in) throws IOException {
+        Vaga vaga = new Vaga();
+        in.beginObject();
+        while (in.hasNext()) {
+            switch (in.nextName()) {
+                case "id" -> vaga.setId(JsonValues.nextString(in));
+                case "cargo" -> vaga.setCargo(JsonValues.nextString(in));
+                case "departamento" -> vaga.setDepartamento(JsonValues.nextString(in));
+                case "salarioBase" -> vaga.setSalarioBase(JsonValues.nextPrimitiveDouble(in));
+                case "requisitos" -> vaga.setRequisitos(JsonValues.nextString(in));
+                case "status" -> vaga.setStatus(JsonValues.nextEnum(in, StatusVaga.class));
+                case "regimeContratacao" ->
+                    vaga.setRegimeContratacao(JsonValues.nextEnum(in, RegimeContratacao.class));
+                case "dataAbertura" -> vaga.setDataAbertura(dateAdapter.read(in));
+                case "gestorCriadorCpf" -> vaga.setGestorCriadorCpf(JsonValues.nextString(in));
+                case "recrutadorResponsavelCpf" -> vaga.setRecrutadorResponsavelCpf(JsonValues.nextString(in));
+                default -> in.skipValue();
+            }
+        }
+        in.endObject();
+        return vaga;
+    }
+}
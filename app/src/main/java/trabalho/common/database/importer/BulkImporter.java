@@ -0,0 +1,334 @@
+package trabalho.common.database.importer;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import trabalho.candidatura.model.Candidato;
+import trabalho.candidatura.model.Candidatura;
+import trabalho.candidatura.model.Pessoa;
+import trabalho.common.database.AppData;
+import trabalho.common.database.AppData.Rejection;
+import trabalho.common.database.JsonDataManager;
+
+/**
+ * Imports candidates and their applications from a file, in bulk.
+ * <p>
+ * A {@code .jsonl} or {@code .ndjson} file has one JSON object per line, any
+ * other file is read as CSV with a header line, see {@link RowParser} for the
+ * fields. Each line brings a Candidato, its Pessoa if new, and optionally a
+ * Candidatura to an existing Vaga.
+ * <p>
+ * Lines are parsed and validated on a pool of threads, in chunks, while the
+ * calling thread applies the chunks in file order: a chunk is added under one
+ * lock of the data with {@link AppData#addAll}, so the screens refresh once
+ * per chunk instead of once per row, and the snapshot is saved once at the
+ * end. A line is either fully imported or rejected, with its reason, in the
+ * rejection report; a bad line never stops the import.
+ *
+ * @author Gabriel M.S.O.
+ */
+public class BulkImporter {
+    public static final String THREADS_PROPERTY = "trabalho.import.threads";
+
+    private static final int CHUNK_SIZE = 2000;
+    private static final AtomicInteger POOL_COUNT = new AtomicInteger();
+
+    private final JsonDataManager dataManager;
+    private final int threads;
+
+    /**
+     * Receives the running totals after each chunk, on the importing thread.
+     */
+    @FunctionalInterface
+    public interface ProgressListener {
+        void onProgress(long rowsRead, long rowsImported, long rowsRejected);
+    }
+
+    public BulkImporter(JsonDataManager dataManager) {
+        this(dataManager, Integer.getInteger(THREADS_PROPERTY,
+                Math.max(1, Runtime.getRuntime().availableProcessors() - 1)));
+    }
+
+    public BulkImporter(JsonDataManager dataManager, int threads) {
+        this.dataManager = dataManager;
+        this.threads = Math.max(1, threads);
+    }
+
+    /**
+     * Blocks until the whole file is imported.
+     *
+     * @param rejectionReport Where to write the rejected lines, as CSV with
+     *                        {@code linha,cpf,motivo}. Can be {@code null}.
+     * @param listener        Can be {@code null}.
+     * @throws IOException If the input cannot be read or the report written.
+     *                     The chunks applied before stay imported.
+     */
+    public ImportReport importFile(Path input, Path rejectionReport, ProgressListener listener) throws IOException {
+        long start = System.nanoTime();
+        Totals totals = new Totals();
+        ExecutorService pool = Executors.newFixedThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, "hr-import-" + POOL_COUNT.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        try (BufferedReader reader = Files.newBufferedReader(input, StandardCharsets.UTF_8);
+                BufferedWriter report = rejectionReport == null ? null
+                        : Files.newBufferedWriter(rejectionReport, StandardCharsets.UTF_8)) {
+            if (report != null) {
+                report.write("linha,cpf,motivo");
+                report.newLine();
+            }
+
+            long lineNumber = 0;
+            RowParser parser;
+            if (isJsonLines(input)) {
+                parser = RowParser.jsonLines();
+            } else {
+                String header = reader.readLine();
+                if (header == null) {
+                    return totals.toReport(start, rejectionReport);
+                }
+                lineNumber++;
+                parser = RowParser.csv(header);
+            }
+
+            // Chunks being parsed, oldest first. Bounded so a large file is
+            // never held in memory at once.
+            Deque<Future<List<Parsed>>> parsing = new ArrayDeque<>();
+            List<String> lines = new ArrayList<>(CHUNK_SIZE);
+            long firstLine = lineNumber + 1;
+            String line;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                if (lines.isEmpty()) {
+                    firstLine = lineNumber;
+                }
+                lines.add(line);
+                if (lines.size() == CHUNK_SIZE) {
+                    parsing.add(submit(pool, parser, firstLine, lines));
+                    lines = new ArrayList<>(CHUNK_SIZE);
+                    if (parsing.size() >= 2 * threads) {
+                        apply(await(parsing.poll()), totals, report, listener);
+                    }
+                }
+            }
+            if (!lines.isEmpty()) {
+                parsing.add(submit(pool, parser, firstLine, lines));
+            }
+            while (!parsing.isEmpty()) {
+                apply(await(parsing.poll()), totals, report, listener);
+            }
+            return totals.toReport(start, rejectionReport);
+        } finally {
+            pool.shutdownNow();
+            if (totals.rowsImported > 0) {
+                dataManager.saveData();
+            }
+        }
+    }
+
+    private static boolean isJsonLines(Path input) {
+        String name = input.getFileName().toString().toLowerCase(Locale.ROOT);
+        return name.endsWith(".jsonl") || name.endsWith(".ndjson");
+    }
+
+    private static Future<List<Parsed>> submit(ExecutorService pool, RowParser parser, long firstLine,
+            List<String> lines) {
+        return pool.submit(() -> {
+            List<Parsed> parsed = new ArrayList<>(lines.size());
+            long lineNumber = firstLine;
+            for (String line : lines) {
+                if (!line.isBlank()) {
+                    parsed.add(parse(parser, lineNumber, line));
+                }
+                lineNumber++;
+            }
+            return parsed;
+        });
+    }
+
+    private static Parsed parse(RowParser parser, long lineNumber, String line) {
+        try {
+            return new Parsed(lineNumber, parser.parse(lineNumber, line), null);
+        } catch (IllegalArgumentException e) {
+            return new Parsed(lineNumber, null, e.getMessage());
+        } catch (RuntimeException e) {
+            return new Parsed(lineNumber, null, "Linha inválida: " + e);
+        }
+    }
+
+    private static List<Parsed> await(Future<List<Parsed>> chunk) throws IOException {
+        try {
+            return chunk.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Importação interrompida.");
+        } catch (ExecutionException e) {
+            // parse() catches what a line can throw, anything else is a bug
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    /**
+     * Adds the valid rows of a chunk, checking each one against the data and
+     * the rows before it, so a row is rejected as a whole instead of leaving
+     * e.g. a Candidatura without its Candidato.
+     */
+    private void apply(List<Parsed> chunk, Totals totals, BufferedWriter report, ProgressListener listener)
+            throws IOException {
+        AppData data = dataManager.getData();
+        Map<Long, Rejected> rejections = new TreeMap<>();
+        Map<Object, Parsed> origin = new IdentityHashMap<>();
+        List<Object> entities = new ArrayList<>();
+        List<Rejection> failed;
+
+        synchronized (data) {
+            Set<String> newPessoas = new HashSet<>();
+            Set<String> newCandidatos = new HashSet<>();
+            Set<Candidatura> newCandidaturas = new HashSet<>();
+            Map<String, Pessoa> pessoas = data.getPessoas();
+            Map<String, Candidato> candidatos = data.getCandidatos();
+
+            for (Parsed parsed : chunk) {
+                ImportRow row = parsed.row();
+                if (row == null) {
+                    rejections.put(parsed.lineNumber(), new Rejected("", parsed.reason()));
+                    continue;
+                }
+                String cpf = row.cpf();
+                Candidatura candidatura = row.candidatura();
+                boolean hasPessoa = pessoas.containsKey(cpf) || newPessoas.contains(cpf);
+                boolean hasCandidato = candidatos.containsKey(cpf) || newCandidatos.contains(cpf);
+
+                String reason = null;
+                if (!hasPessoa && row.pessoa() == null) {
+                    reason = "Pessoa não cadastrada e linha sem nome.";
+                } else if (hasCandidato && candidatura == null) {
+                    reason = "Candidato com CPF/CNPJ " + cpf + " já existe.";
+                } else if (candidatura != null && !data.getVagasById().containsKey(candidatura.getVagaId())) {
+                    reason = "Vaga " + candidatura.getVagaId() + " não existe.";
+                } else if (candidatura != null && (newCandidaturas.contains(candidatura)
+                        || data.findCandidatura(cpf, candidatura.getVagaId()) != null)) {
+                    reason = "Candidatura já existe.";
+                }
+                if (reason != null) {
+                    rejections.put(parsed.lineNumber(), new Rejected(cpf, reason));
+                    continue;
+                }
+
+                if (!hasPessoa) {
+                    newPessoas.add(cpf);
+                    entities.add(row.pessoa());
+                    origin.put(row.pessoa(), parsed);
+                }
+                if (!hasCandidato) {
+                    newCandidatos.add(cpf);
+                    entities.add(row.candidato());
+                    origin.put(row.candidato(), parsed);
+                }
+                if (candidatura != null) {
+                    newCandidaturas.add(candidatura);
+                    entities.add(candidatura);
+                    origin.put(candidatura, parsed);
+                }
+            }
+
+            failed = data.addAll(entities);
+        }
+
+        // Not expected after the checks above, but reported rather than lost
+        Set<Object> notAdded = Collections.newSetFromMap(new IdentityHashMap<>());
+        for (Rejection rejection : failed) {
+            notAdded.add(rejection.entity());
+            Parsed parsed = origin.get(rejection.entity());
+            rejections.putIfAbsent(parsed.lineNumber(), new Rejected(parsed.row().cpf(), rejection.reason()));
+        }
+        Set<Long> importedLines = new HashSet<>();
+        for (Object entity : entities) {
+            if (notAdded.contains(entity)) {
+                continue;
+            }
+            switch (entity) {
+                case Pessoa p -> totals.pessoasAdded++;
+                case Candidato c -> totals.candidatosAdded++;
+                case Candidatura c -> totals.candidaturasAdded++;
+                default -> throw new IllegalStateException();
+            }
+            importedLines.add(origin.get(entity).lineNumber());
+        }
+        importedLines.removeAll(rejections.keySet());
+
+        totals.rowsRead += chunk.size();
+        totals.rowsImported += importedLines.size();
+        totals.rowsRejected += rejections.size();
+
+        if (report != null) {
+            for (Map.Entry<Long, Rejected> rejection : rejections.entrySet()) {
+                report.write(rejection.getKey() + "," + rejection.getValue().cpf() + ","
+                        + quote(rejection.getValue().reason()));
+                report.newLine();
+            }
+        }
+        if (listener != null) {
+            listener.onProgress(totals.rowsRead, totals.rowsImported, totals.rowsRejected);
+        }
+    }
+
+    private static String quote(String value) {
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0) {
+            return value;
+        }
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+
+    /**
+     * A line after parsing: its row, or why it was rejected.
+     */
+    private record Parsed(long lineNumber, ImportRow row, String reason) {
+    }
+
+    /**
+     * A line of the rejection report, the CPF/CNPJ is empty if the line had
+     * no valid one.
+     */
+    private record Rejected(String cpf, String reason) {
+    }
+
+    // Only touched by the importing thread
+    private static final class Totals {
+        long rowsRead;
+        long rowsImported;
+        long rowsRejected;
+        long pessoasAdded;
+        long candidatosAdded;
+        long candidaturasAdded;
+
+        ImportReport toReport(long start, Path rejectionReport) {
+            return new ImportReport(rowsRead, pessoasAdded, candidatosAdded, candidaturasAdded, rowsRejected,
+                    Duration.ofNanos(System.nanoTime() - start), rejectionReport);
+        }
+    }
+}
@@ -0,0 +1,31 @@
+package trabalho.common.database.importer;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+/**
+ * What an import did.
+ *
+ * @param rowsRead         Data lines of the file, the CSV header aside.
+ * @param rowsRejected     Lines that added nothing, each one is listed in the
+ *                         rejection report.
+ * @param rejectionReport  CSV with the line, CPF/CNPJ and reason of every
+ *                         rejected row.
+ * @author Gabriel M.S.O.
+ */
+public record ImportReport(
+        long rowsRead,
+        long pessoasAdded,
+        long candidatosAdded,
+        long candidaturasAdded,
+        long rowsRejected,
+        Duration elapsed,
+        Path rejectionReport) {
+
+    @Override
+    public String toString() {
+        return rowsRead + " linhas lidas: " + pessoasAdded + " pessoas, " + candidatosAdded + " candidatos e "
+                + candidaturasAdded + " candidaturas adicionados, " + rowsRejected + " rejeitadas em "
+                + elapsed.toMillis() + " ms.";
+    }
+}
@@ -0,0 +1,18 @@
+package trabalho.common.database.importer;
+
+import trabalho.candidatura.model.Candidato;
+import trabalho.candidatura.model.Candidatura;
+import trabalho.candidatura.model.Pessoa;
+
+/**
+ * One parsed line of an import file.
+ *
+ * @param cpf          Validated and numbers-only.
+ * @param pessoa       {@code null} if the line has no name, the Pessoa must
+ *                     then exist already.
+ * @param candidato    Only added if the candidate does not exist yet.
+ * @param candidatura  {@code null} if the line names no Vaga.
+ * @author Gabriel M.S.O.
+ */
+record ImportRow(long lineNumber, String cpf, Pessoa pessoa, Candidato candidato, Candidatura candidatura) {
+}
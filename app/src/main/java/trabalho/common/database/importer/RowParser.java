@@ -0,0 +1,243 @@
+package trabalho.common.database.importer;
+
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.time.format.ResolverStyle;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParseException;
+import com.google.gson.JsonParser;
+
+import trabalho.candidatura.model.Candidato;
+import trabalho.candidatura.model.Candidatura;
+import trabalho.candidatura.model.Candidatura.StatusCandidatura;
+import trabalho.candidatura.model.Pessoa;
+import trabalho.financeiro.utils.CpfCnpjManager;
+
+/**
+ * Turns one line of an import file into an {@link ImportRow}. Holds no state
+ * besides the CSV header, so the lines of a file can be parsed on several
+ * threads at once.
+ * <p>
+ * The fields are named as in the models, in any case: {@code cpf} (or
+ * {@code cpfCnpj}), {@code nome}, {@code email}, {@code endereco},
+ * {@code telefone}, {@code formacao}, {@code experiencia},
+ * {@code pretensaoSalarial}, {@code disponibilidadeHorario},
+ * {@code documentosAdicionais}, {@code dataCadastro}, {@code vagaId},
+ * {@code dataCandidatura} and {@code status}. Only {@code cpf} is required.
+ *
+ * @author Gabriel M.S.O.
+ */
+abstract class RowParser {
+    // Strict like the ISO format, so 31/02 is rejected instead of becoming 29/02
+    private static final DateTimeFormatter BRAZILIAN_DATE = DateTimeFormatter.ofPattern("dd/MM/uuuu")
+            .withResolverStyle(ResolverStyle.STRICT);
+
+    /**
+     * @throws IllegalArgumentException With the reason the row is rejected.
+     */
+    abstract ImportRow parse(long lineNumber, String line);
+
+    /**
+     * @param header The first line of the file, which names the columns. The
+     *               separator is {@code ;} if the header has one and no comma,
+     *               otherwise {@code ,}.
+     */
+    static RowParser csv(String header) {
+        if (!header.isEmpty() && header.charAt(0) == '\uFEFF') {
+            header = header.substring(1); // Byte order mark of spreadsheet exports
+        }
+        char separator = header.indexOf(';') >= 0 && header.indexOf(',') < 0 ? ';' : ',';
+        List<String> columns = new ArrayList<>();
+        for (String column : split(header, separator)) {
+            columns.add(column.trim().toLowerCase(Locale.ROOT));
+        }
+        return new RowParser() {
+            @Override
+            ImportRow parse(long lineNumber, String line) {
+                List<String> values = split(line, separator);
+                Map<String, String> fields = new HashMap<>();
+                for (int i = 0; i < columns.size() && i < values.size(); i++) {
+                    fields.put(columns.get(i), values.get(i));
+                }
+                return toRow(lineNumber, fields);
+            }
+        };
+    }
+
+    /**
+     * One JSON object per line.
+     */
+    static RowParser jsonLines() {
+        return new RowParser() {
+            @Override
+            ImportRow parse(long lineNumber, String line) {
+                JsonObject object;
+                try {
+                    object = JsonParser.parseString(line).getAsJsonObject();
+                } catch (JsonParseException | IllegalStateException e) {
+                    throw new IllegalArgumentException("JSON inválido.");
+                }
+                Map<String, String> fields = new HashMap<>();
+                for (Map.Entry<String, JsonElement> entry : object.entrySet()) {
+                    JsonElement value = entry.getValue();
+                    if (value.isJsonPrimitive()) {
+                        fields.put(entry.getKey().toLowerCase(Locale.ROOT), value.getAsString());
+                    }
+                }
+                return toRow(lineNumber, fields);
+            }
+        };
+    }
+
+    /**
+     * Splits a CSV line, with RFC 4180 quoting ({@code "a, b"} and
+     * {@code ""} for a quote). A quoted field cannot span lines.
+     */
+    static List<String> split(String line, char separator) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    field.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    field.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == separator) {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+        }
+        fields.add(field.toString());
+        return fields;
+    }
+
+    private static ImportRow toRow(long lineNumber, Map<String, String> fields) {
+        String rawCpf = text(fields, "cpf");
+        if (rawCpf == null) {
+            rawCpf = text(fields, "cpfcnpj");
+        }
+        String cpf = CpfCnpjManager.normalize(rawCpf);
+        if (cpf == null) {
+            throw new IllegalArgumentException("CPF/CNPJ inválido.");
+        }
+
+        String nome = text(fields, "nome");
+        Pessoa pessoa = nome == null ? null
+                : new Pessoa(cpf, nome, text(fields, "email"), text(fields, "endereco"), telefone(fields));
+
+        LocalDate dataCadastro = date(fields, "datacadastro");
+        Candidato candidato = new Candidato(
+                cpf,
+                text(fields, "formacao"),
+                text(fields, "experiencia"),
+                salario(fields),
+                text(fields, "disponibilidadehorario"),
+                text(fields, "documentosadicionais"),
+                dataCadastro != null ? dataCadastro : LocalDate.now());
+
+        Candidatura candidatura = null;
+        String vagaId = text(fields, "vagaid");
+        if (vagaId != null) {
+            candidatura = new Candidatura();
+            candidatura.setCpfCnpjCandidato(cpf);
+            candidatura.setVagaId(vagaId);
+            LocalDate dataCandidatura = date(fields, "datacandidatura");
+            candidatura.setDataCandidatura(dataCandidatura != null
+                    ? Date.from(dataCandidatura.atStartOfDay(ZoneId.systemDefault()).toInstant())
+                    : new Date());
+            candidatura.setStatus(status(fields));
+        }
+
+        return new ImportRow(lineNumber, cpf, pessoa, candidato, candidatura);
+    }
+
+    /**
+     * @return The trimmed value, or {@code null} if missing or blank.
+     */
+    private static String text(Map<String, String> fields, String name) {
+        String value = fields.get(name);
+        if (value == null || value.isBlank()) {
+            return null;
+        }
+        return value.trim();
+    }
+
+    private static long telefone(Map<String, String> fields) {
+        String value = text(fields, "telefone");
+        if (value == null) {
+            return 0;
+        }
+        String digits = CpfCnpjManager.toOnlyNumbers(value);
+        try {
+            return digits.isEmpty() ? 0 : Long.parseLong(digits);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Telefone inválido.");
+        }
+    }
+
+    /**
+     * Accepts {@code 3500.50} as well as {@code R$ 3.500,50}.
+     */
+    private static double salario(Map<String, String> fields) {
+        String value = text(fields, "pretensaosalarial");
+        if (value == null) {
+            return 0;
+        }
+        value = value.replace("R$", "").trim();
+        if (value.indexOf(',') >= 0) {
+            value = value.replace(".", "").replace(',', '.');
+        }
+        try {
+            return Double.parseDouble(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Pretensão salarial inválida.");
+        }
+    }
+
+    /**
+     * Accepts {@code 2024-03-31} and {@code 31/03/2024}.
+     */
+    private static LocalDate date(Map<String, String> fields, String name) {
+        String value = text(fields, name);
+        if (value == null) {
+            return null;
+        }
+        try {
+            return value.indexOf('/') >= 0 ? LocalDate.parse(value, BRAZILIAN_DATE) : LocalDate.parse(value);
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("Data inválida: " + value + ".");
+        }
+    }
+
+    private static StatusCandidatura status(Map<String, String> fields) {
+        String value = text(fields, "status");
+        if (value == null) {
+            return StatusCandidatura.PENDENTE;
+        }
+        try {
+            return StatusCandidatura.valueOf(value.toUpperCase(Locale.ROOT).replace(' ', '_'));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Status inválido: " + value + ".");
+        }
+    }
+}
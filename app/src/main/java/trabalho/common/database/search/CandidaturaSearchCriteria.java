@@ -0,0 +1,17 @@
+package trabalho.common.database.search;
+
+import trabalho.candidatura.model.Candidatura.StatusCandidatura;
+
+/**
+ * Holds optional criteria for searching Candidaturas.
+ * Fields left null or empty will be ignored during the search.
+ *
+ * @author Gabriel M.S.O.
+ */
+public record CandidaturaSearchCriteria(
+    String candidatoCpfExact,
+    String vagaIdExact,
+    StatusCandidatura statusExact,
+    String recrutadorCpfExact,    // Matches the recrutador responsible for the Vaga
+    String vagaIdPartial          // Matches if the Vaga id contains this string
+) {}
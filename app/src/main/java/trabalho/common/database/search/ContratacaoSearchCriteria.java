@@ -0,0 +1,24 @@
+package trabalho.common.database.search;
+
+import java.time.LocalDate;
+
+import trabalho.recrutamento.model.Contratacao.StatusContratacao;
+import trabalho.recrutamento.model.RegimeContratacao;
+
+/**
+ * Holds optional criteria for searching Contratacoes.
+ * Fields left null or empty will be ignored during the search.
+ *
+ * @author Gabriel M.S.O.
+ */
+public record ContratacaoSearchCriteria(
+    String candidatoCpfExact,
+    String vagaIdExact,
+    String recrutadorCpfExact,    // Matches the recrutador who requested it
+    StatusContratacao statusExact,
+    RegimeContratacao regimeExact,
+    String vagaIdPartial,         // Matches if the Vaga id contains this string
+    String candidatoCpfPartial,   // Matches if the candidate CPF contains this string
+    String recrutadorCpfPartial,  // Matches if the requesting recrutador's CPF contains this string
+    LocalDate dataSolicitacao     // Matches the day it was requested
+) {}
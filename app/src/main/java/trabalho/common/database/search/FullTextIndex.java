@@ -0,0 +1,363 @@
+package trabalho.common.database.search;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+
+/**
+ * In-memory inverted index over documents with a few text fields, identified
+ * by a key (e.g. a CPF).
+ * <p>
+ * The text goes through {@link TextNormalizer}, so matching ignores case and
+ * accents. Every word is indexed by its trigrams and its first one and two
+ * letters. A query word of three letters or more matches any word that
+ * contains it, a shorter one any word that starts with it. Every word of a
+ * query must match (AND) and results are ranked: a whole word scores more
+ * than a prefix, a prefix more than a match in the middle of a word.
+ * <p>
+ * A query reads a single posting list, the smallest one among its grams, and
+ * checks each candidate against the words stored for the document, so its
+ * cost depends on how rare the query is, not on the number of documents.
+ * Updates leave the old postings behind, marked stale by the document
+ * version, and a posting is compacted once half of it is stale. The id of a
+ * removed document goes to the next one added; the version keeps counting
+ * in that slot, so the postings left by the removed one stay stale.
+ * <p>
+ * Thread safe.
+ *
+ * @param <F> The fields of a document, at most {@value #MAX_FIELDS}.
+ * @author Gabriel M.S.O.
+ */
+public class FullTextIndex<F extends Enum<F>> {
+    private static final int MAX_FIELDS = 8;
+    private static final int FIELD_MASK = (1 << MAX_FIELDS) - 1;
+    private static final int GRAM_LENGTH = 3;
+    private static final char PREFIX_MARK = '^'; // Never part of a word, see TextNormalizer
+
+    private static final double WHOLE_WORD_SCORE = 3;
+    private static final double PREFIX_SCORE = 2;
+    private static final double INFIX_SCORE = 1;
+
+    /**
+     * A matching document and how well it matched, higher is better.
+     */
+    public record Hit(String key, double score) {
+    }
+
+    /**
+     * @param key {@code null} once removed, the slot then only keeps the
+     *            version.
+     */
+    private record Document(String key, int version, String[][] words) {
+
+        boolean holds(int versionAndFields) {
+            return key != null && version == versionAndFields >>> MAX_FIELDS;
+        }
+    }
+
+    private record Term(String text, int fieldMask) {
+    }
+
+    private record Ranked(int docId, double score, int seen) {
+    }
+
+    /**
+     * The documents that hold a gram: their id plus, packed in one int, the
+     * document version they were added for and the fields holding the gram.
+     */
+    private static final class Posting {
+        int[] docIds = new int[2];
+        int[] versionAndFields = new int[2];
+        int size;
+        int stale;
+
+        void add(int docId, int version, int fields) {
+            if (size == docIds.length) {
+                docIds = Arrays.copyOf(docIds, size * 2);
+                versionAndFields = Arrays.copyOf(versionAndFields, size * 2);
+            }
+            docIds[size] = docId;
+            versionAndFields[size] = version << MAX_FIELDS | fields;
+            size++;
+        }
+    }
+
+    private final int fieldCount;
+    private final Map<String, Integer> docIdsByKey = new HashMap<>();
+    private final List<Document> documents = new ArrayList<>(); // By id
+    private final Deque<Integer> freeDocIds = new ArrayDeque<>();
+    private final Map<String, Posting> postings = new HashMap<>();
+
+    public FullTextIndex(Class<F> fields) {
+        this.fieldCount = fields.getEnumConstants().length;
+        if (fieldCount > MAX_FIELDS) {
+            throw new IllegalArgumentException("At most " + MAX_FIELDS + " fields are supported.");
+        }
+    }
+
+    /**
+     * Adds the document, or replaces the one with the same key.
+     *
+     * @param values The text of each field, missing fields are empty.
+     */
+    public synchronized void put(String key, Map<F, String> values) {
+        String[][] words = new String[fieldCount][];
+        for (int field = 0; field < fieldCount; field++) {
+            words[field] = new String[0];
+        }
+        for (Map.Entry<F, String> value : values.entrySet()) {
+            words[value.getKey().ordinal()] = TextNormalizer.tokenize(value.getValue()).toArray(String[]::new);
+        }
+
+        Integer docId = docIdsByKey.get(key);
+        if (docId == null) {
+            docId = freeDocIds.poll();
+            if (docId == null) {
+                docId = documents.size();
+                documents.add(null);
+            }
+            docIdsByKey.put(key, docId);
+        }
+
+        Document previous = documents.get(docId);
+        int version = previous != null ? previous.version() + 1 : 0;
+        documents.set(docId, new Document(key, version, words));
+        if (previous != null && previous.key() != null) {
+            markStale(previous);
+        }
+        for (Map.Entry<String, Integer> gram : gramsOf(words).entrySet()) {
+            postings.computeIfAbsent(gram.getKey(), k -> new Posting()).add(docId, version, gram.getValue());
+        }
+    }
+
+    public synchronized void remove(String key) {
+        Integer docId = docIdsByKey.remove(key);
+        if (docId != null) {
+            Document removed = documents.get(docId);
+            documents.set(docId, new Document(null, removed.version(), null));
+            freeDocIds.push(docId);
+            markStale(removed);
+        }
+    }
+
+    public synchronized int size() {
+        return docIdsByKey.size();
+    }
+
+    /**
+     * How many document ids were ever handed out, removed ones included.
+     */
+    synchronized int slots() {
+        return documents.size();
+    }
+
+    /**
+     * How many entries the posting lists hold, stale ones included.
+     */
+    synchronized int postingEntries() {
+        int entries = 0;
+        for (Posting posting : postings.values()) {
+            entries += posting.size;
+        }
+        return entries;
+    }
+
+    /**
+     * Searches every field.
+     *
+     * @param limit How many hits at most, 0 for all of them.
+     * @return The hits, best first.
+     */
+    public List<Hit> search(String text, int limit) {
+        List<Term> terms = new ArrayList<>();
+        for (String word : TextNormalizer.tokenize(text)) {
+            terms.add(new Term(word, FIELD_MASK));
+        }
+        return run(terms, limit);
+    }
+
+    /**
+     * Searches each text in its own field, a document must match all of them.
+     *
+     * @param limit How many hits at most, 0 for all of them.
+     * @return The hits, best first.
+     */
+    public List<Hit> search(Map<F, String> query, int limit) {
+        List<Term> terms = new ArrayList<>();
+        for (Map.Entry<F, String> entry : query.entrySet()) {
+            for (String word : TextNormalizer.tokenize(entry.getValue())) {
+                terms.add(new Term(word, 1 << entry.getKey().ordinal()));
+            }
+        }
+        return run(terms, limit);
+    }
+
+    private synchronized List<Hit> run(List<Term> terms, int limit) {
+        if (terms.isEmpty()) {
+            return List.of();
+        }
+
+        // The rarest gram of any term bounds the candidates
+        Posting candidates = null;
+        int candidateFields = 0;
+        for (Term term : terms) {
+            for (String gram : queryGramsOf(term.text())) {
+                Posting posting = postings.get(gram);
+                if (posting == null) {
+                    return List.of(); // Some term matches nothing
+                }
+                if (candidates == null || posting.size < candidates.size) {
+                    candidates = posting;
+                    candidateFields = term.fieldMask();
+                }
+            }
+        }
+
+        // Ties go to the candidate seen first, so once the top hits all have
+        // the highest possible score the rest cannot change the result
+        Comparator<Ranked> worstFirst = Comparator.comparingDouble(Ranked::score)
+                .thenComparing(Ranked::seen, Comparator.reverseOrder());
+        PriorityQueue<Ranked> best = new PriorityQueue<>(worstFirst);
+        double maxScore = WHOLE_WORD_SCORE * terms.size();
+        for (int i = 0; i < candidates.size; i++) {
+            if (limit > 0 && best.size() == limit && best.peek().score() >= maxScore) {
+                break;
+            }
+            int versionAndFields = candidates.versionAndFields[i];
+            if ((versionAndFields & candidateFields) == 0) {
+                continue; // The gram is in other fields
+            }
+            Document doc = documents.get(candidates.docIds[i]);
+            if (!doc.holds(versionAndFields)) {
+                continue; // Stale
+            }
+            double score = score(doc, terms);
+            if (score > 0) {
+                best.add(new Ranked(candidates.docIds[i], score, i));
+                if (limit > 0 && best.size() > limit) {
+                    best.poll();
+                }
+            }
+        }
+
+        Hit[] hits = new Hit[best.size()];
+        for (int i = hits.length - 1; i >= 0; i--) {
+            Ranked ranked = best.poll();
+            hits[i] = new Hit(documents.get(ranked.docId()).key(), ranked.score());
+        }
+        return Arrays.asList(hits);
+    }
+
+    /**
+     * @return The sum of the best match of every term, 0 if a term does not
+     *         match.
+     */
+    private static double score(Document doc, List<Term> terms) {
+        double total = 0;
+        for (Term term : terms) {
+            double best = 0;
+            for (int field = 0; field < doc.words().length; field++) {
+                if ((term.fieldMask() & 1 << field) == 0) {
+                    continue;
+                }
+                for (String word : doc.words()[field]) {
+                    best = Math.max(best, matchScore(word, term.text()));
+                }
+            }
+            if (best == 0) {
+                return 0;
+            }
+            total += best;
+        }
+        return total;
+    }
+
+    private static double matchScore(String word, String term) {
+        if (word.equals(term)) {
+            return WHOLE_WORD_SCORE;
+        }
+        if (word.startsWith(term)) {
+            return PREFIX_SCORE;
+        }
+        if (term.length() >= GRAM_LENGTH && word.contains(term)) {
+            return INFIX_SCORE;
+        }
+        return 0;
+    }
+
+    /**
+     * @return Every gram of the words and the fields holding each.
+     */
+    private static Map<String, Integer> gramsOf(String[][] words) {
+        Map<String, Integer> grams = new HashMap<>();
+        for (int field = 0; field < words.length; field++) {
+            for (String word : words[field]) {
+                for (String gram : indexGramsOf(word)) {
+                    grams.merge(gram, 1 << field, (a, b) -> a | b);
+                }
+            }
+        }
+        return grams;
+    }
+
+    private static List<String> indexGramsOf(String word) {
+        List<String> grams = new ArrayList<>();
+        grams.add(PREFIX_MARK + word.substring(0, 1));
+        if (word.length() >= 2) {
+            grams.add(PREFIX_MARK + word.substring(0, 2));
+        }
+        for (int i = 0; i + GRAM_LENGTH <= word.length(); i++) {
+            grams.add(word.substring(i, i + GRAM_LENGTH));
+        }
+        return grams;
+    }
+
+    private static List<String> queryGramsOf(String term) {
+        if (term.length() < GRAM_LENGTH) {
+            return List.of(PREFIX_MARK + term);
+        }
+        List<String> grams = new ArrayList<>();
+        for (int i = 0; i + GRAM_LENGTH <= term.length(); i++) {
+            grams.add(term.substring(i, i + GRAM_LENGTH));
+        }
+        return grams;
+    }
+
+    /**
+     * Counts the postings of a document that was just replaced or removed as
+     * stale.
+     */
+    private void markStale(Document doc) {
+        for (String gram : gramsOf(doc.words()).keySet()) {
+            Posting posting = postings.get(gram);
+            if (posting != null && ++posting.stale * 2 > posting.size) {
+                compact(gram, posting);
+            }
+        }
+    }
+
+    /**
+     * Drops the entries of removed documents and of older versions.
+     */
+    private void compact(String gram, Posting posting) {
+        int kept = 0;
+        for (int i = 0; i < posting.size; i++) {
+            if (documents.get(posting.docIds[i]).holds(posting.versionAndFields[i])) {
+                posting.docIds[kept] = posting.docIds[i];
+                posting.versionAndFields[kept] = posting.versionAndFields[i];
+                kept++;
+            }
+        }
+        posting.size = kept;
+        posting.stale = 0;
+        if (kept == 0) {
+            postings.remove(gram);
+        }
+    }
+}
@@ -0,0 +1,22 @@
+package trabalho.common.database.search;
+
+import java.util.List;
+
+/**
+ * One slice of the results of a search.
+ *
+ * @param items  The results in the slice, at most the requested limit.
+ * @param offset The position of the first item among all the results.
+ * @param total  How many results the search has in all.
+ * @author Gabriel M.S.O.
+ */
+public record Page<T>(List<T> items, int offset, int total) {
+
+    public Page {
+        items = List.copyOf(items);
+    }
+
+    public boolean hasNext() {
+        return offset + items.size() < total;
+    }
+}
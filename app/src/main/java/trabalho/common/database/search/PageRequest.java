@@ -0,0 +1,36 @@
+package trabalho.common.database.search;
+
+import java.util.Comparator;
+
+/**
+ * Which slice of the results a search should return, and in which order.
+ *
+ * @param offset How many results to skip.
+ * @param limit  How many results at most, 0 for all of them.
+ * @param order  The order of the results, {@code null} to keep the order of
+ *               the data (insertion order).
+ * @author Gabriel M.S.O.
+ */
+public record PageRequest<T>(int offset, int limit, Comparator<? super T> order) {
+
+    public PageRequest {
+        if (offset < 0 || limit < 0) {
+            throw new IllegalArgumentException("offset e limit não podem ser negativos.");
+        }
+    }
+
+    /**
+     * Every result, in the order of the data.
+     */
+    public static <T> PageRequest<T> all() {
+        return new PageRequest<>(0, 0, null);
+    }
+
+    public static <T> PageRequest<T> of(int offset, int limit) {
+        return new PageRequest<>(offset, limit, null);
+    }
+
+    public PageRequest<T> sortedBy(Comparator<? super T> order) {
+        return new PageRequest<>(offset, limit, order);
+    }
+}
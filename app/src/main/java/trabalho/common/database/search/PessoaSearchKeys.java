@@ -0,0 +1,48 @@
+package trabalho.common.database.search;
+
+import java.util.Locale;
+
+import trabalho.candidatura.model.Pessoa;
+import trabalho.financeiro.utils.CpfCnpjManager;
+
+/**
+ * The searchable fields of a {@link Pessoa}, already normalized: text in lower
+ * case, CPF/CNPJ and telefone as digits. Built once per Pessoa, so matching a
+ * filter is a plain {@link String#contains} with no allocation.
+ * <p>
+ * Missing fields become empty strings.
+ *
+ * @author Gabriel M.S.O.
+ */
+public record PessoaSearchKeys(
+        String cpfCnpj,
+        String nome,
+        String email,
+        String endereco,
+        String telefone) {
+
+    public static final PessoaSearchKeys EMPTY = new PessoaSearchKeys("", "", "", "", "");
+
+    /**
+     * @param pessoa May be {@code null}, e.g. a Funcionario whose Pessoa was
+     *               removed.
+     */
+    public static PessoaSearchKeys of(Pessoa pessoa) {
+        if (pessoa == null) {
+            return EMPTY;
+        }
+        return new PessoaSearchKeys(
+                CpfCnpjManager.toOnlyNumbers(pessoa.getCpfCnpj()),
+                normalize(pessoa.getNome()),
+                normalize(pessoa.getEmail()),
+                normalize(pessoa.getEndereco()),
+                String.valueOf(pessoa.getTelefone()));
+    }
+
+    /**
+     * The same normalization applied to the keys, use it on the user input.
+     */
+    public static String normalize(String text) {
+        return text != null ? text.trim().toLowerCase(Locale.ROOT) : "";
+    }
+}
@@ -0,0 +1,140 @@
+package trabalho.common.database.search;
+
+import java.util.EnumMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import trabalho.candidatura.model.Candidato;
+import trabalho.candidatura.model.Pessoa;
+import trabalho.common.database.AppData;
+import trabalho.common.database.DataChangeListener;
+import trabalho.common.database.search.FullTextIndex.Hit;
+import trabalho.financeiro.model.Funcionario;
+
+/**
+ * Full-text index of the people in an {@link AppData}, one document per
+ * CPF/CNPJ with the text of its Pessoa, Candidato and Funcionario.
+ * <p>
+ * It listens to the AppData, so it stays current as long as every change goes
+ * through AppData (in place edits must call {@link AppData#markUpdated}).
+ *
+ * @author Gabriel M.S.O.
+ */
+public class PessoaTextIndex implements DataChangeListener {
+
+    public enum Campo {
+        NOME,
+        EMAIL,
+        ENDERECO,
+        FORMACAO,
+        EXPERIENCIA,
+        CARGO,
+        DEPARTAMENTO
+    }
+
+    private final AppData data;
+    private final FullTextIndex<Campo> index = new FullTextIndex<>(Campo.class);
+
+    private PessoaTextIndex(AppData data) {
+        this.data = data;
+    }
+
+    /**
+     * Indexes everyone already in the data and follows its changes from now
+     * on.
+     */
+    public static PessoaTextIndex attach(AppData data) {
+        PessoaTextIndex textIndex = new PessoaTextIndex(data);
+        synchronized (data) {
+            Set<String> cpfs = new LinkedHashSet<>(data.getPessoas().keySet());
+            cpfs.addAll(data.getCandidatos().keySet());
+            for (Funcionario f : data.getAllFuncionarios()) {
+                cpfs.add(f.getCpfCnpj());
+            }
+            for (String cpf : cpfs) {
+                textIndex.refresh(cpf);
+            }
+            data.addChangeListener(textIndex);
+        }
+        return textIndex;
+    }
+
+    /**
+     * @see FullTextIndex#search(String, int)
+     */
+    public List<Hit> search(String text, int limit) {
+        return index.search(text, limit);
+    }
+
+    /**
+     * @see FullTextIndex#search(Map, int)
+     */
+    public List<Hit> search(Map<Campo, String> query, int limit) {
+        return index.search(query, limit);
+    }
+
+    public int size() {
+        return index.size();
+    }
+
+    @Override
+    public void onChange(ChangeType type, Object entity) {
+        String cpf = null;
+        if (entity instanceof Pessoa p) {
+            cpf = p.getCpfCnpj();
+        } else if (entity instanceof Candidato c) {
+            cpf = c.getCpfCnpj();
+        } else if (entity instanceof Funcionario f) {
+            cpf = f.getCpfCnpj();
+        }
+        if (cpf != null) {
+            refresh(cpf);
+        }
+    }
+
+    /**
+     * Re-reads everything known about the CPF, so it does not matter which of
+     * the entities changed.
+     */
+    private void refresh(String cpf) {
+        Pessoa pessoa = data.getPessoas().get(cpf);
+        Candidato candidato = data.getCandidatos().get(cpf);
+        Funcionario funcionario = findFuncionario(cpf);
+        if (pessoa == null && candidato == null && funcionario == null) {
+            index.remove(cpf);
+            return;
+        }
+
+        Map<Campo, String> fields = new EnumMap<>(Campo.class);
+        if (pessoa != null) {
+            fields.put(Campo.NOME, pessoa.getNome());
+            fields.put(Campo.EMAIL, pessoa.getEmail());
+            fields.put(Campo.ENDERECO, pessoa.getEndereco());
+        }
+        if (candidato != null) {
+            fields.put(Campo.FORMACAO, candidato.getFormacao());
+            fields.put(Campo.EXPERIENCIA, candidato.getExperiencia());
+        }
+        if (funcionario != null) {
+            fields.put(Campo.CARGO, funcionario.getCargo());
+            fields.put(Campo.DEPARTAMENTO, funcionario.getDepartamento());
+        }
+        index.put(cpf, fields);
+    }
+
+    private Funcionario findFuncionario(String cpf) {
+        Funcionario f = data.getAdministradores().get(cpf);
+        if (f == null) {
+            f = data.getGestores().get(cpf);
+        }
+        if (f == null) {
+            f = data.getRecrutadores().get(cpf);
+        }
+        if (f == null) {
+            f = data.getFuncionarios().get(cpf);
+        }
+        return f;
+    }
+}
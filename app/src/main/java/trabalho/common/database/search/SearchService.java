@@ -0,0 +1,374 @@
+package trabalho.common.database.search;
+
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.function.Predicate;
+
+import trabalho.candidatura.model.Candidatura;
+import trabalho.candidatura.model.Pessoa;
+import trabalho.common.database.AppData;
+import trabalho.common.database.IndexLookup;
+import trabalho.financeiro.model.Funcionario;
+import trabalho.financeiro.utils.CpfCnpjManager;
+import trabalho.recrutamento.model.Contratacao;
+import trabalho.recrutamento.model.Vaga;
+
+/**
+ * Answers the *SearchCriteria records against an {@link AppData}.
+ * <p>
+ * Every search is planned first: among the criteria that have an index (or a
+ * primary key) behind them, the one that matches the fewest entities is used
+ * to read the candidates, and every criterion is then checked on each of
+ * them. Only a search with no indexed criterion reads the whole collection.
+ * <p>
+ * Results come a {@link Page} at a time. Without an order only the requested
+ * slice is kept, with one the first {@code offset + limit} results are kept
+ * in a bounded heap, so a page never costs a copy and a sort of everything
+ * that matched.
+ * <p>
+ * Each search holds the AppData lock while it runs, so it sees a consistent
+ * state. Thread safe.
+ *
+ * @author Gabriel M.S.O.
+ */
+public class SearchService {
+
+    /**
+     * How the candidates of a search are read.
+     *
+     * @param description For debugging, e.g. "status=ABERTA".
+     * @param estimate    How many candidates it reads.
+     */
+    record AccessPath<E>(String description, int estimate, Iterable<? extends E> rows) {
+    }
+
+    private record Ranked<T>(T row, int seen) {
+    }
+
+    private final AppData data;
+
+    public SearchService(AppData data) {
+        this.data = data;
+    }
+
+    // --- Start Searches ---
+
+    public Page<Funcionario> searchFuncionarios(FuncionarioSearchCriteria criteria, PageRequest<Funcionario> page) {
+        synchronized (data) {
+            return paginate(planFuncionarios(criteria), f -> matches(f, criteria), page);
+        }
+    }
+
+    public Page<Vaga> searchVagas(VagaSearchCriteria criteria, PageRequest<Vaga> page) {
+        synchronized (data) {
+            return paginate(planVagas(criteria), v -> matches(v, criteria), page);
+        }
+    }
+
+    public Page<Candidatura> searchCandidaturas(CandidaturaSearchCriteria criteria, PageRequest<Candidatura> page) {
+        synchronized (data) {
+            return paginate(planCandidaturas(criteria), c -> matches(c, criteria), page);
+        }
+    }
+
+    public Page<Contratacao> searchContratacoes(ContratacaoSearchCriteria criteria, PageRequest<Contratacao> page) {
+        synchronized (data) {
+            return paginate(planContratacoes(criteria), c -> matches(c, criteria), page);
+        }
+    }
+
+    // --- End Searches ---
+
+    // --- Start Planning ---
+    // The paths are listed from the most to the least specific, the first
+    // one wins a tie. The full scan is always last.
+
+    AccessPath<Funcionario> planFuncionarios(FuncionarioSearchCriteria criteria) {
+        List<AccessPath<Funcionario>> paths = new ArrayList<>();
+        if (isSet(criteria.cpfExact())) {
+            List<Funcionario> byCpf = funcionariosWithCpf(CpfCnpjManager.toOnlyNumbers(criteria.cpfExact()));
+            paths.add(new AccessPath<>("cpf", byCpf.size(), byCpf));
+        }
+        addIndexed(paths, "cargo", data.funcionariosByCargo(), blankToNull(criteria.cargoExact()));
+        addIndexed(paths, "status", data.funcionariosByStatus(), blankToNull(criteria.statusExact()));
+        addIndexed(paths, "departamento", data.funcionariosByDepartamento(),
+                blankToNull(criteria.departamentoExact()));
+
+        List<Collection<? extends Funcionario>> all = List.of(
+                data.getAdministradores().values(),
+                data.getGestores().values(),
+                data.getRecrutadores().values(),
+                data.getFuncionarios().values());
+        paths.add(new AccessPath<>("scan", sizeOf(all), concat(all)));
+        return cheapest(paths);
+    }
+
+    AccessPath<Vaga> planVagas(VagaSearchCriteria criteria) {
+        List<AccessPath<Vaga>> paths = new ArrayList<>();
+        addIndexed(paths, "recrutador", data.vagasByRecrutador(), blankToNull(criteria.recrutadorCpfExact()));
+        addIndexed(paths, "status", data.vagasByStatus(), criteria.statusExact());
+
+        Collection<Vaga> all = data.getVagasById().values();
+        paths.add(new AccessPath<>("scan", all.size(), all));
+        return cheapest(paths);
+    }
+
+    AccessPath<Candidatura> planCandidaturas(CandidaturaSearchCriteria criteria) {
+        List<AccessPath<Candidatura>> paths = new ArrayList<>();
+        if (isSet(criteria.candidatoCpfExact()) && isSet(criteria.vagaIdExact())) {
+            Candidatura c = data.findCandidatura(criteria.candidatoCpfExact(), criteria.vagaIdExact());
+            List<Candidatura> byKey = c != null ? List.of(c) : List.of();
+            paths.add(new AccessPath<>("candidato+vaga", byKey.size(), byKey));
+        }
+        addIndexed(paths, "candidato", data.candidaturasByCandidato(), blankToNull(criteria.candidatoCpfExact()));
+        addIndexed(paths, "vaga", data.candidaturasByVaga(), blankToNull(criteria.vagaIdExact()));
+        addIndexed(paths, "status", data.candidaturasByStatus(), criteria.statusExact());
+        if (isSet(criteria.recrutadorCpfExact())) {
+            // The Candidaturas of each Vaga of the recrutador
+            List<Collection<? extends Candidatura>> byVaga = new ArrayList<>();
+            for (Vaga vaga : data.vagasByRecrutador().lookup(criteria.recrutadorCpfExact())) {
+                byVaga.add(data.candidaturasByVaga().lookup(vaga.getId()));
+            }
+            paths.add(new AccessPath<>("recrutador", sizeOf(byVaga), concat(byVaga)));
+        }
+
+        Collection<Candidatura> all = data.candidaturasView();
+        paths.add(new AccessPath<>("scan", all.size(), all));
+        return cheapest(paths);
+    }
+
+    AccessPath<Contratacao> planContratacoes(ContratacaoSearchCriteria criteria) {
+        List<AccessPath<Contratacao>> paths = new ArrayList<>();
+        addIndexed(paths, "candidato", data.contratacoesByCandidato(), blankToNull(criteria.candidatoCpfExact()));
+        addIndexed(paths, "vaga", data.contratacoesByVaga(), blankToNull(criteria.vagaIdExact()));
+        addIndexed(paths, "recrutador", data.contratacoesByRecrutador(), blankToNull(criteria.recrutadorCpfExact()));
+        addIndexed(paths, "status", data.contratacoesByStatus(), criteria.statusExact());
+
+        Collection<Contratacao> all = data.contratacoesView();
+        paths.add(new AccessPath<>("scan", all.size(), all));
+        return cheapest(paths);
+    }
+
+    private static <K, E> void addIndexed(List<AccessPath<E>> paths, String name, IndexLookup<K, E> index, K key) {
+        if (key != null) {
+            paths.add(new AccessPath<>(name + "=" + key, index.count(key), index.lookup(key)));
+        }
+    }
+
+    private static <E> AccessPath<E> cheapest(List<AccessPath<E>> paths) {
+        AccessPath<E> best = paths.get(0);
+        for (AccessPath<E> path : paths) {
+            if (path.estimate() < best.estimate()) {
+                best = path;
+            }
+        }
+        return best;
+    }
+
+    // --- End Planning ---
+
+    // --- Start Residual Predicates ---
+    // Every criterion is checked, including the one the path already covers,
+    // it costs a comparison and keeps the paths interchangeable.
+
+    private boolean matches(Funcionario f, FuncionarioSearchCriteria criteria) {
+        if (isSet(criteria.cpfExact())
+                && !CpfCnpjManager.toOnlyNumbers(criteria.cpfExact()).equals(f.getCpfCnpj())) {
+            return false;
+        }
+        if (isSet(criteria.cargoExact()) && !criteria.cargoExact().equals(f.getCargo())) {
+            return false;
+        }
+        if (isSet(criteria.statusExact()) && !criteria.statusExact().equals(f.getStatus())) {
+            return false;
+        }
+        if (isSet(criteria.departamentoExact()) && !criteria.departamentoExact().equals(f.getDepartamento())) {
+            return false;
+        }
+        if (isSet(criteria.nomePartial())) {
+            // Last, it is the only one that has to read the Pessoa
+            Pessoa pessoa = data.getPessoas().get(f.getCpfCnpj());
+            return pessoa != null && contains(pessoa.getNome(), criteria.nomePartial());
+        }
+        return true;
+    }
+
+    private boolean matches(Vaga v, VagaSearchCriteria criteria) {
+        boolean ok = (!isSet(criteria.recrutadorCpfExact())
+                        || criteria.recrutadorCpfExact().equals(v.getRecrutadorResponsavelCpf()))
+                && (!isSet(criteria.gestorCpfExact()) || criteria.gestorCpfExact().equals(v.getGestorCriadorCpf()))
+                && (criteria.statusExact() == null || criteria.statusExact() == v.getStatus())
+                && (criteria.regimeExact() == null || criteria.regimeExact() == v.getRegimeContratacao())
+                && (!isSet(criteria.idPartial()) || containsExactly(v.getId(), criteria.idPartial()))
+                && (!isSet(criteria.cargoPartial()) || contains(v.getCargo(), criteria.cargoPartial()))
+                && (!isSet(criteria.departamentoPartial())
+                        || contains(v.getDepartamento(), criteria.departamentoPartial()))
+                && (!isSet(criteria.salarioPartial())
+                        || containsExactly(String.valueOf(v.getSalarioBase()), criteria.salarioPartial()))
+                && (criteria.dataAbertura() == null || criteria.dataAbertura().equals(toLocalDate(v.getDataAbertura())));
+        if (ok && isSet(criteria.recrutadorNomePartial())) {
+            Pessoa recrutador = v.getRecrutadorResponsavelCpf() != null
+                    ? data.getPessoas().get(v.getRecrutadorResponsavelCpf())
+                    : null;
+            return recrutador != null && contains(recrutador.getNome(), criteria.recrutadorNomePartial());
+        }
+        return ok;
+    }
+
+    private boolean matches(Candidatura c, CandidaturaSearchCriteria criteria) {
+        if (isSet(criteria.candidatoCpfExact()) && !criteria.candidatoCpfExact().equals(c.getCpfCnpjCandidato())) {
+            return false;
+        }
+        if (isSet(criteria.vagaIdExact()) && !criteria.vagaIdExact().equals(c.getVagaId())) {
+            return false;
+        }
+        if (criteria.statusExact() != null && criteria.statusExact() != c.getStatusEnum()) {
+            return false;
+        }
+        if (isSet(criteria.vagaIdPartial()) && !containsExactly(c.getVagaId(), criteria.vagaIdPartial())) {
+            return false;
+        }
+        if (isSet(criteria.recrutadorCpfExact())) {
+            Vaga vaga = data.getVagasById().get(c.getVagaId());
+            return vaga != null && criteria.recrutadorCpfExact().equals(vaga.getRecrutadorResponsavelCpf());
+        }
+        return true;
+    }
+
+    private static boolean matches(Contratacao c, ContratacaoSearchCriteria criteria) {
+        // Older records only have regimeContratacao
+        Object regime = c.getRegime() != null ? c.getRegime() : c.getRegimeContratacao();
+        return (!isSet(criteria.candidatoCpfExact()) || criteria.candidatoCpfExact().equals(c.getCandidatoCpf()))
+                && (!isSet(criteria.vagaIdExact()) || criteria.vagaIdExact().equals(c.getVagaId()))
+                && (!isSet(criteria.recrutadorCpfExact())
+                        || criteria.recrutadorCpfExact().equals(c.getRecrutadorSolicitanteCpf()))
+                && (criteria.statusExact() == null || criteria.statusExact() == c.getStatus())
+                && (criteria.regimeExact() == null || criteria.regimeExact() == regime)
+                && (!isSet(criteria.vagaIdPartial()) || containsExactly(c.getVagaId(), criteria.vagaIdPartial()))
+                && (!isSet(criteria.candidatoCpfPartial())
+                        || containsExactly(c.getCandidatoCpf(), criteria.candidatoCpfPartial()))
+                && (!isSet(criteria.recrutadorCpfPartial())
+                        || containsExactly(c.getRecrutadorSolicitanteCpf(), criteria.recrutadorCpfPartial()))
+                && (criteria.dataSolicitacao() == null || criteria.dataSolicitacao().equals(c.getDataSolicitacao()));
+    }
+
+    // --- End Residual Predicates ---
+
+    /**
+     * Reads the path, keeping only the matches inside the requested page.
+     */
+    private static <T> Page<T> paginate(AccessPath<T> path, Predicate<? super T> residual, PageRequest<T> page) {
+        long end = page.limit() > 0 ? (long) page.offset() + page.limit() : Long.MAX_VALUE;
+        int total = 0;
+
+        if (page.order() == null) {
+            List<T> items = new ArrayList<>();
+            for (T row : path.rows()) {
+                if (residual.test(row)) {
+                    if (total >= page.offset() && total < end) {
+                        items.add(row);
+                    }
+                    total++;
+                }
+            }
+            return new Page<>(items, page.offset(), total);
+        }
+
+        // Ties keep the order of the data, so paging through equal keys
+        // neither repeats nor skips results
+        Comparator<Ranked<T>> order = Comparator.<Ranked<T>, T>comparing(Ranked::row, page.order())
+                .thenComparingInt(Ranked::seen);
+        List<Ranked<T>> sorted;
+        if (end == Long.MAX_VALUE) {
+            sorted = new ArrayList<>();
+            for (T row : path.rows()) {
+                if (residual.test(row)) {
+                    sorted.add(new Ranked<>(row, total++));
+                }
+            }
+            sorted.sort(order);
+        } else {
+            PriorityQueue<Ranked<T>> best = new PriorityQueue<>(order.reversed()); // Worst on top
+            for (T row : path.rows()) {
+                if (!residual.test(row)) {
+                    continue;
+                }
+                Ranked<T> ranked = new Ranked<>(row, total++);
+                if (best.size() < end) {
+                    best.add(ranked);
+                } else if (order.compare(ranked, best.peek()) < 0) {
+                    best.poll();
+                    best.add(ranked);
+                }
+            }
+            sorted = new ArrayList<>(best);
+            sorted.sort(order);
+        }
+
+        List<T> items = new ArrayList<>();
+        for (int i = page.offset(); i < sorted.size(); i++) {
+            items.add(sorted.get(i).row());
+        }
+        return new Page<>(items, page.offset(), total);
+    }
+
+    // --- Utils ---
+
+    private List<Funcionario> funcionariosWithCpf(String cpf) {
+        List<Funcionario> result = new ArrayList<>();
+        for (Funcionario f : new Funcionario[] {
+                data.getAdministradores().get(cpf),
+                data.getGestores().get(cpf),
+                data.getRecrutadores().get(cpf),
+                data.getFuncionarios().get(cpf) }) {
+            if (f != null) {
+                result.add(f);
+            }
+        }
+        return result;
+    }
+
+    private static <E> Iterable<E> concat(List<? extends Collection<? extends E>> parts) {
+        return () -> parts.stream().flatMap(part -> part.stream().<E>map(e -> e)).iterator();
+    }
+
+    private static int sizeOf(List<? extends Collection<?>> parts) {
+        int size = 0;
+        for (Collection<?> part : parts) {
+            size += part.size();
+        }
+        return size;
+    }
+
+    /**
+     * Case and accent insensitive, see {@link TextNormalizer#fold(String)}.
+     */
+    private static boolean contains(String text, String part) {
+        return TextNormalizer.fold(text).contains(TextNormalizer.fold(part.trim()));
+    }
+
+    /**
+     * For ids and numbers, matched as they are written.
+     */
+    private static boolean containsExactly(String text, String part) {
+        return text != null && text.contains(part.trim());
+    }
+
+    private static LocalDate toLocalDate(Date date) {
+        return date != null ? date.toInstant().atZone(ZoneId.systemDefault()).toLocalDate() : null;
+    }
+
+    private static boolean isSet(String value) {
+        return value != null && !value.isBlank();
+    }
+
+    private static String blankToNull(String value) {
+        return isSet(value) ? value : null;
+    }
+}
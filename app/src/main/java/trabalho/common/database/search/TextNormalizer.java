@@ -0,0 +1,59 @@
+package trabalho.common.database.search;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.regex.Pattern;
+
+/**
+ * Turns free text into the terms stored in a {@link FullTextIndex}: lower
+ * case, without accents (so "João" and "joao" are the same term) and split on
+ * anything that is not a letter or a digit.
+ *
+ * @author Gabriel M.S.O.
+ */
+public final class TextNormalizer {
+    private static final Pattern COMBINING_MARKS = Pattern.compile("\\p{M}+");
+
+    private TextNormalizer() {
+    }
+
+    /**
+     * @return The text in lower case with the accents removed, empty for
+     *         {@code null}.
+     */
+    public static String fold(String text) {
+        if (text == null || text.isEmpty()) {
+            return "";
+        }
+        String lower = text.toLowerCase(Locale.ROOT);
+        for (int i = 0; i < lower.length(); i++) {
+            if (lower.charAt(i) >= 0x80) {
+                // "ç" becomes "c" + a combining cedilla, and so on
+                String decomposed = Normalizer.normalize(lower, Normalizer.Form.NFD);
+                return COMBINING_MARKS.matcher(decomposed).replaceAll("");
+            }
+        }
+        return lower; // Plain ASCII, nothing to fold
+    }
+
+    /**
+     * @return The folded words of the text, in order.
+     */
+    public static List<String> tokenize(String text) {
+        String folded = fold(text);
+        List<String> tokens = new ArrayList<>();
+        int start = -1;
+        for (int i = 0; i <= folded.length(); i++) {
+            boolean inWord = i < folded.length() && Character.isLetterOrDigit(folded.charAt(i));
+            if (inWord && start < 0) {
+                start = i;
+            } else if (!inWord && start >= 0) {
+                tokens.add(folded.substring(start, i));
+                start = -1;
+            }
+        }
+        return tokens;
+    }
+}
@@ -0,0 +1,25 @@
+package trabalho.common.database.search;
+
+import java.time.LocalDate;
+
+import trabalho.recrutamento.model.RegimeContratacao;
+import trabalho.recrutamento.model.Vaga.StatusVaga;
+
+/**
+ * Holds optional criteria for searching Vagas.
+ * Fields left null or empty will be ignored during the search.
+ *
+ * @author Gabriel M.S.O.
+ */
+public record VagaSearchCriteria(
+    String cargoPartial,          // Matches if cargo contains this string
+    String departamentoPartial,   // Matches if departamento contains this string
+    StatusVaga statusExact,
+    RegimeContratacao regimeExact,
+    String recrutadorCpfExact,    // Matches the responsible recrutador
+    String gestorCpfExact,        // Matches the gestor who created it
+    String idPartial,             // Matches if the id contains this string
+    String recrutadorNomePartial, // Matches if the responsible recrutador's name contains this string
+    String salarioPartial,        // Matches if the salary, as text, contains this string
+    LocalDate dataAbertura        // Matches the day it was opened
+) {}
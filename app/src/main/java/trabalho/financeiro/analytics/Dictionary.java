@@ -0,0 +1,59 @@
+package trabalho.financeiro.analytics;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Gives each distinct String of a column a small int code, so the column can
+ * be an {@code int[]} and grouping by it an array index.
+ * <p>
+ * Code {@link #REMOVED} is reserved for the free rows of the store, codes are
+ * never reused. {@code null} is a value like any other. Not thread safe,
+ * {@link WorkforceColumns} guards it.
+ *
+ * @author Gabriel M.S.O.
+ */
+final class Dictionary {
+    static final int REMOVED = 0;
+
+    private final Map<String, Integer> codes = new HashMap<>();
+    private final List<String> values = new ArrayList<>();
+
+    Dictionary() {
+        values.add(null); // REMOVED
+    }
+
+    /**
+     * @return The code of the value, given a new code the first time.
+     */
+    int encode(String value) {
+        Integer code = codes.get(value);
+        if (code == null) {
+            code = values.size();
+            codes.put(value, code);
+            values.add(value);
+        }
+        return code;
+    }
+
+    /**
+     * @return The code of the value, or -1 if it was never encoded.
+     */
+    int find(String value) {
+        Integer code = codes.get(value);
+        return code != null ? code : -1;
+    }
+
+    String decode(int code) {
+        return values.get(code);
+    }
+
+    /**
+     * @return One more than the highest code.
+     */
+    int size() {
+        return values.size();
+    }
+}
@@ -0,0 +1,384 @@
+package trabalho.financeiro.analytics;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import trabalho.common.database.AppData;
+import trabalho.common.database.CpfCnpjMap;
+import trabalho.common.database.DataChangeListener;
+import trabalho.financeiro.model.Funcionario;
+
+/**
+ * The salary data of the workforce, column by column, for reports that sum or
+ * group many Funcionarios at once.
+ * <p>
+ * Each person with at least one role is a row: {@code salarioBase} is a
+ * {@code double[]}, departamento, cargo and status are {@code int[]} of
+ * dictionary codes, and each role is a {@link BitSet} of rows. A person with
+ * several roles is counted once, with the values of the first role in the
+ * order of {@link AppData#getAllFuncionarios()}. A report is then a loop over
+ * primitive arrays instead of a walk over four maps: no object per row to
+ * follow, and the values it reads lie next to each other in memory. The gain
+ * comes from that layout alone: the grouped sums add into an array indexed by
+ * code, which the JIT does not vectorize.
+ * <p>
+ * It listens to the AppData and updates just the row of the person that
+ * changed. A freed row keeps code {@link Dictionary#REMOVED} and a zero
+ * salary until it is reused, so the loops need not skip it: it sums to
+ * nothing and lands in a group that is never reported.
+ * <p>
+ * Changes come in under the lock of the AppData; the reports only take a
+ * read lock of this store, so they never hold up the data.
+ *
+ * @author Gabriel M.S.O.
+ */
+public class WorkforceColumns implements DataChangeListener {
+
+    public enum Papel {
+        ADMINISTRADOR,
+        GESTOR,
+        RECRUTADOR,
+        FUNCIONARIO
+    }
+
+    public enum Coluna {
+        DEPARTAMENTO,
+        CARGO,
+        STATUS
+    }
+
+    /**
+     * The salaries of the rows that share a value of a column.
+     *
+     * @param valor The value, can be {@code null} for rows without one.
+     */
+    public record Grupo(String valor, int funcionarios, double total, double minimo, double maximo) {
+
+        public double media() {
+            return funcionarios == 0 ? 0 : total / funcionarios;
+        }
+    }
+
+    private static final int INITIAL_CAPACITY = 64;
+
+    private final AppData data;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    // Guarded by lock
+    private final CpfCnpjMap<Integer> rowByCpf = new CpfCnpjMap<>();
+    private String[] cpfs = new String[INITIAL_CAPACITY];
+    private double[] salarioBase = new double[INITIAL_CAPACITY];
+    private final int[][] codes = new int[Coluna.values().length][INITIAL_CAPACITY];
+    private final Dictionary[] dictionaries = new Dictionary[Coluna.values().length];
+    private final BitSet[] papeis = new BitSet[Papel.values().length];
+    private int rows; // Rows ever used, live or free
+    private int[] freeRows = new int[INITIAL_CAPACITY];
+    private int freeCount;
+
+    private WorkforceColumns(AppData data) {
+        this.data = data;
+        for (int i = 0; i < dictionaries.length; i++) {
+            dictionaries[i] = new Dictionary();
+        }
+        for (int i = 0; i < papeis.length; i++) {
+            papeis[i] = new BitSet();
+        }
+    }
+
+    /**
+     * Loads every Funcionario already in the data and follows its changes
+     * from now on.
+     */
+    public static WorkforceColumns attach(AppData data) {
+        WorkforceColumns columns = new WorkforceColumns(data);
+        synchronized (data) {
+            columns.lock.writeLock().lock();
+            try {
+                // Straight from the maps, the most specific role first as refresh() does
+                columns.load(data.getAdministradores().keySet());
+                columns.load(data.getGestores().keySet());
+                columns.load(data.getRecrutadores().keySet());
+                columns.load(data.getFuncionarios().keySet());
+            } finally {
+                columns.lock.writeLock().unlock();
+            }
+            data.addChangeListener(columns);
+        }
+        return columns;
+    }
+
+    private void load(Iterable<String> cpfs) {
+        for (String cpf : cpfs) {
+            if (!rowByCpf.containsKey(cpf)) {
+                refresh(cpf);
+            }
+        }
+    }
+
+    @Override
+    public void onChange(ChangeType type, Object entity) {
+        if (entity instanceof Funcionario f) {
+            lock.writeLock().lock();
+            try {
+                refresh(f.getCpfCnpj());
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+    }
+
+    /**
+     * Re-reads the roles of the CPF, so an edit, a new role or a removal are
+     * all the same update. Must hold the write lock and the lock of the data.
+     */
+    private void refresh(String cpf) {
+        Funcionario[] roles = {
+                data.getAdministradores().get(cpf),
+                data.getGestores().get(cpf),
+                data.getRecrutadores().get(cpf),
+                data.getFuncionarios().get(cpf)
+        };
+        Funcionario primary = null;
+        for (Funcionario role : roles) {
+            if (role != null) {
+                primary = role;
+                break;
+            }
+        }
+
+        Integer existing = rowByCpf.get(cpf);
+        if (primary == null) {
+            if (existing != null) {
+                free(existing);
+                rowByCpf.remove(cpf);
+            }
+            return;
+        }
+
+        int row = existing != null ? existing : allocate(cpf);
+        salarioBase[row] = primary.getSalarioBase();
+        codes[Coluna.DEPARTAMENTO.ordinal()][row] = dictionaries[Coluna.DEPARTAMENTO.ordinal()]
+                .encode(primary.getDepartamento());
+        codes[Coluna.CARGO.ordinal()][row] = dictionaries[Coluna.CARGO.ordinal()].encode(primary.getCargo());
+        codes[Coluna.STATUS.ordinal()][row] = dictionaries[Coluna.STATUS.ordinal()].encode(primary.getStatus());
+        for (Papel papel : Papel.values()) {
+            papeis[papel.ordinal()].set(row, roles[papel.ordinal()] != null);
+        }
+    }
+
+    private int allocate(String cpf) {
+        int row;
+        if (freeCount > 0) {
+            row = freeRows[--freeCount];
+        } else {
+            if (rows == salarioBase.length) {
+                grow(rows * 2);
+            }
+            row = rows++;
+        }
+        cpfs[row] = cpf;
+        rowByCpf.put(cpf, row);
+        return row;
+    }
+
+    private void free(int row) {
+        cpfs[row] = null;
+        salarioBase[row] = 0;
+        for (int[] column : codes) {
+            column[row] = Dictionary.REMOVED;
+        }
+        for (BitSet papel : papeis) {
+            papel.clear(row);
+        }
+        if (freeCount == freeRows.length) {
+            freeRows = Arrays.copyOf(freeRows, freeCount * 2);
+        }
+        freeRows[freeCount++] = row;
+    }
+
+    private void grow(int capacity) {
+        cpfs = Arrays.copyOf(cpfs, capacity);
+        salarioBase = Arrays.copyOf(salarioBase, capacity);
+        for (int i = 0; i < codes.length; i++) {
+            codes[i] = Arrays.copyOf(codes[i], capacity);
+        }
+    }
+
+    // --- Reports ---
+
+    /**
+     * @return How many people have at least one role.
+     */
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return rows - freeCount;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * @return How many people have the role.
+     */
+    public int contar(Papel papel) {
+        lock.readLock().lock();
+        try {
+            return papeis[papel.ordinal()].cardinality();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * @return The sum of the base salaries of everyone, i.e. the base cost of
+     *         the payroll.
+     */
+    public double totalSalarioBase() {
+        lock.readLock().lock();
+        try {
+            double[] salarios = salarioBase;
+            double total = 0;
+            for (int i = 0; i < rows; i++) {
+                total += salarios[i]; // Free rows are zero
+            }
+            return total;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * The salaries grouped by the values of a column, e.g. the total and
+     * average per departamento.
+     *
+     * @return One group per value that has someone, in the order the values
+     *         were first seen.
+     */
+    public List<Grupo> agrupar(Coluna por) {
+        lock.readLock().lock();
+        try {
+            Totals totals = new Totals(dictionaries[por.ordinal()].size());
+            int[] grupos = codes[por.ordinal()];
+            double[] salarios = salarioBase;
+            for (int i = 0; i < rows; i++) {
+                totals.add(grupos[i], salarios[i], 1);
+            }
+            return totals.toGroups(dictionaries[por.ordinal()]);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Like {@link #agrupar(Coluna)}, only for the rows with a value in another
+     * column, e.g. the departamentos of those whose status is {@code Ativo}.
+     */
+    public List<Grupo> agrupar(Coluna por, Coluna filtro, String valor) {
+        lock.readLock().lock();
+        try {
+            Totals totals = new Totals(dictionaries[por.ordinal()].size());
+            int code = dictionaries[filtro.ordinal()].find(valor);
+            if (code < 0) {
+                return List.of();
+            }
+            int[] grupos = codes[por.ordinal()];
+            int[] filtrados = codes[filtro.ordinal()];
+            double[] salarios = salarioBase;
+            for (int i = 0; i < rows; i++) {
+                // A row that does not match is added with no weight, to the
+                // group of free rows, instead of skipped
+                int peso = filtrados[i] == code ? 1 : 0;
+                totals.add(grupos[i] * peso, salarios[i] * peso, peso);
+            }
+            return totals.toGroups(dictionaries[por.ordinal()]);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Like {@link #agrupar(Coluna)}, only for those who have the role.
+     */
+    public List<Grupo> agrupar(Coluna por, Papel papel) {
+        lock.readLock().lock();
+        try {
+            Totals totals = new Totals(dictionaries[por.ordinal()].size());
+            int[] grupos = codes[por.ordinal()];
+            double[] salarios = salarioBase;
+            BitSet rowsWithRole = papeis[papel.ordinal()];
+            for (int i = rowsWithRole.nextSetBit(0); i >= 0; i = rowsWithRole.nextSetBit(i + 1)) {
+                totals.add(grupos[i], salarios[i], 1);
+            }
+            return totals.toGroups(dictionaries[por.ordinal()]);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * @return The CPFs of the rows with the value, e.g. everyone in a
+     *         departamento, for a report that needs the people behind a group.
+     */
+    public List<String> cpfs(Coluna coluna, String valor) {
+        lock.readLock().lock();
+        try {
+            List<String> result = new ArrayList<>();
+            int code = dictionaries[coluna.ordinal()].find(valor);
+            if (code < 0) {
+                return result;
+            }
+            int[] column = codes[coluna.ordinal()];
+            for (int i = 0; i < rows; i++) {
+                if (column[i] == code) {
+                    result.add(cpfs[i]);
+                }
+            }
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Per group accumulators, indexed by dictionary code. Group
+     * {@link Dictionary#REMOVED} collects the free rows and the rows filtered
+     * out, and is dropped.
+     */
+    private static final class Totals {
+        final int[] count;
+        final double[] sum;
+        final double[] min;
+        final double[] max;
+
+        Totals(int groups) {
+            count = new int[groups];
+            sum = new double[groups];
+            min = new double[groups];
+            max = new double[groups];
+            Arrays.fill(min, Double.POSITIVE_INFINITY);
+            Arrays.fill(max, Double.NEGATIVE_INFINITY);
+        }
+
+        void add(int group, double salario, int peso) {
+            count[group] += peso;
+            sum[group] += salario;
+            min[group] = Math.min(min[group], salario);
+            max[group] = Math.max(max[group], salario);
+        }
+
+        List<Grupo> toGroups(Dictionary dictionary) {
+            List<Grupo> groups = new ArrayList<>();
+            for (int code = Dictionary.REMOVED + 1; code < count.length; code++) {
+                if (count[code] > 0) {
+                    groups.add(new Grupo(dictionary.decode(code), count[code], sum[code], min[code], max[code]));
+                }
+            }
+            return groups;
+        }
+    }
+}
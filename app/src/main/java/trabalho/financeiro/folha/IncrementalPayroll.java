@@ -0,0 +1,431 @@
+package trabalho.financeiro.folha;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import trabalho.candidatura.model.Pessoa;
+import trabalho.common.database.AppData;
+import trabalho.common.database.DataChangeListener;
+import trabalho.common.database.MonthlyJsonLines;
+import trabalho.financeiro.model.Contracheque;
+import trabalho.financeiro.model.FolhaPagamento;
+import trabalho.financeiro.model.Funcionario;
+import trabalho.financeiro.model.RegraSalario;
+import trabalho.recrutamento.model.Contratacao;
+
+/**
+ * The payroll of one month, kept current as the data and the rules change,
+ * recomputing only the payslips a change can affect.
+ * <p>
+ * Each payslip remembers what it was computed from and what it depended on:
+ * the fields of the Funcionario it shows or that a rule of its regime filters
+ * on (see {@link PayrollPlan#camposLidos}), and the rules that applied to it.
+ * The data is watched as a {@link DataChangeListener}: a change to a
+ * Funcionario, its Pessoa or its Contratacoes only marks the payslip as
+ * pending. {@link #recalcular()} then recomputes the pending payslips whose
+ * fields actually changed, and those a changed rule applied to or now applies
+ * to; a password change or a new address, for instance, costs nothing.
+ * <p>
+ * Recomputed payslips are appended to the month's file, where they replace
+ * the earlier ones when read back. A Funcionario who is removed leaves the
+ * totals, and an empty payslip is appended in their place so the file agrees
+ * with {@link #getFolha()}.
+ *
+ * @author Gabriel M.S.O.
+ */
+public class IncrementalPayroll implements DataChangeListener {
+    // Below this, recomputing on the calling thread beats splitting the work
+    private static final int PARALLEL_THRESHOLD = 256;
+
+    private final PayrollEngine engine;
+    private final AppData data;
+    private final YearMonth competencia;
+    private final Object recalculoLock = new Object();
+
+    // Guarded by this
+    private final List<RegraSalario> regras;
+    private PayrollPlan plan;
+    private final Map<String, Slot> slots = new HashMap<>();
+    private final Set<Slot> pendentes = new LinkedHashSet<>();
+    private long brutoCentavos;
+    private long descontosCentavos;
+    private long liquidoCentavos;
+    private int calculados;
+    private Duration ultimaDuracao = Duration.ZERO;
+
+    /**
+     * What a {@link #recalcular()} did.
+     *
+     * @param recalculados The CPFs of the payslips recomputed.
+     * @param removidos    The CPFs that are no longer Funcionarios.
+     * @param ignorados    Pending payslips that turned out not to depend on
+     *                     what changed.
+     */
+    public record Recalculo(List<String> recalculados, List<String> removidos, int ignorados, Duration duracao,
+            FolhaPagamento folha) {
+
+        @Override
+        public String toString() {
+            return recalculados.size() + " contracheques recalculados, " + removidos.size() + " removidos e "
+                    + ignorados + " inalterados em " + duracao.toMillis() + " ms";
+        }
+    }
+
+    /**
+     * What is known of the payslip of one person.
+     */
+    private static final class Slot {
+        final String cpfCnpj;
+        // What the payslip in the file was computed from, null if there is none
+        PayrollInput calculado;
+        // The latest state, null if no longer a Funcionario
+        PayrollInput atual;
+        BitSet regras = new BitSet();
+        int campos;
+        boolean regraAlterada;
+        // Whether the values below are in the totals
+        boolean contado;
+        long bruto;
+        long descontos;
+        long liquido;
+
+        Slot(String cpfCnpj) {
+            this.cpfCnpj = cpfCnpj;
+        }
+    }
+
+    private IncrementalPayroll(PayrollEngine engine, List<RegraSalario> regras, YearMonth competencia) {
+        this.engine = engine;
+        this.data = engine.getData();
+        this.competencia = competencia;
+        this.regras = new ArrayList<>(regras);
+        this.plan = PayrollPlan.compile(this.regras);
+    }
+
+    /**
+     * Computes and writes the whole payroll of the month, then starts
+     * watching the data. Call {@link #fechar()} once the month is closed.
+     *
+     * @throws IllegalArgumentException If the rules do not compile.
+     */
+    public static IncrementalPayroll iniciar(PayrollEngine engine, List<RegraSalario> regras, YearMonth competencia)
+            throws IOException {
+        IncrementalPayroll folha = new IncrementalPayroll(engine, regras, competencia);
+        folha.calcularTudo();
+        return folha;
+    }
+
+    private void calcularTudo() throws IOException {
+        PayrollInput[] entradas;
+        // Registered with the snapshot under the same lock, so no change falls
+        // between the two
+        synchronized (data) {
+            entradas = engine.snapshot();
+            synchronized (this) {
+                for (PayrollInput entrada : entradas) {
+                    Slot slot = new Slot(entrada.cpfCnpj());
+                    slot.calculado = entrada;
+                    slot.atual = entrada;
+                    slots.put(entrada.cpfCnpj(), slot);
+                }
+            }
+            data.addChangeListener(this);
+        }
+
+        PayrollPlan plano;
+        synchronized (this) {
+            plano = plan;
+        }
+        Contracheque[] contracheques = new Contracheque[entradas.length];
+        BitSet[] aplicadas = new BitSet[entradas.length];
+        FolhaPagamento folha;
+        try {
+            folha = engine.processarFolha(plano, competencia, entradas, (i, contracheque, regrasAplicadas) -> {
+                contracheques[i] = contracheque;
+                aplicadas[i] = regrasAplicadas;
+            });
+        } catch (IOException | RuntimeException e) {
+            fechar();
+            throw e;
+        }
+
+        synchronized (this) {
+            for (int i = 0; i < entradas.length; i++) {
+                Slot slot = slots.get(entradas[i].cpfCnpj());
+                aplicar(slot, entradas[i], contracheques[i], aplicadas[i], plano);
+            }
+            ultimaDuracao = folha.getDuracao();
+        }
+    }
+
+    /**
+     * Stops watching the data. The payroll file stays as it is.
+     */
+    public void fechar() {
+        data.removeChangeListener(this);
+    }
+
+    public YearMonth getCompetencia() {
+        return competencia;
+    }
+
+    /**
+     * @return The totals as of the last computation. Pending changes are not
+     *         in them until {@link #recalcular()}.
+     */
+    public synchronized FolhaPagamento getFolha() {
+        return new FolhaPagamento(competencia, PayrollEngine.arquivo(engine.getDiretorio(), competencia),
+                calculados, brutoCentavos / 100.0, descontosCentavos / 100.0, liquidoCentavos / 100.0,
+                ultimaDuracao);
+    }
+
+    /**
+     * @return How many payslips are waiting for {@link #recalcular()}, some
+     *         may turn out unchanged.
+     */
+    public synchronized int getPendentes() {
+        return pendentes.size();
+    }
+
+    public synchronized List<RegraSalario> getRegras() {
+        return Collections.unmodifiableList(new ArrayList<>(regras));
+    }
+
+    // --- Rules ---
+    // A rule is identified by its position, which never changes: a removed
+    // rule leaves a null behind. Replace a rule instead of modifying it in
+    // place, or the change goes unnoticed.
+
+    /**
+     * @return The position of the new rule.
+     * @throws IllegalArgumentException If the rule does not compile.
+     */
+    public synchronized int adicionarRegra(RegraSalario regra) {
+        regras.add(null);
+        try {
+            alterarRegra(regras.size() - 1, regra);
+        } catch (IllegalArgumentException e) {
+            regras.remove(regras.size() - 1);
+            throw e;
+        }
+        return regras.size() - 1;
+    }
+
+    public synchronized void removerRegra(int indice) {
+        alterarRegra(indice, null);
+    }
+
+    /**
+     * Marks as pending the payslips the rule applied to, before or after the
+     * change.
+     *
+     * @param regra {@code null} to remove it.
+     * @throws IllegalArgumentException If the rule does not compile, nothing
+     *                                  is changed then.
+     */
+    public synchronized void alterarRegra(int indice, RegraSalario regra) {
+        List<RegraSalario> novas = new ArrayList<>(regras);
+        novas.set(indice, regra);
+        PayrollPlan novoPlano = PayrollPlan.compile(novas);
+
+        for (Slot slot : slots.values()) {
+            PayrollInput entrada = slot.atual;
+            if (entrada == null) {
+                continue; // Pending removal already
+            }
+            if (slot.regras.get(indice) || (regra != null
+                    && regra.aplicaA(entrada.regime(), entrada.cargo(), entrada.departamento(), entrada.status()))) {
+                slot.regraAlterada = true;
+                pendentes.add(slot);
+            }
+        }
+        regras.set(indice, regra);
+        plan = novoPlano;
+    }
+
+    // --- Data changes, called under the lock of the data ---
+
+    @Override
+    public void onChange(ChangeType type, Object entity) {
+        switch (entity) {
+            case Funcionario f -> marcar(f.getCpfCnpj(), true);
+            case Pessoa p -> marcar(p.getCpfCnpj(), false);
+            case Contratacao c -> marcar(c.getCandidatoCpf(), false);
+            default -> {
+                // Nothing else is on a payslip
+            }
+        }
+    }
+
+    /**
+     * @param novo Whether the person may have just become a Funcionario.
+     */
+    private synchronized void marcar(String cpfCnpj, boolean novo) {
+        Slot slot = slots.get(cpfCnpj);
+        if (slot == null) {
+            if (!novo) {
+                return;
+            }
+            slot = new Slot(cpfCnpj);
+            slots.put(cpfCnpj, slot);
+        }
+        Funcionario f = funcionario(cpfCnpj);
+        slot.atual = f != null ? PayrollInput.of(data, f) : null;
+        pendentes.add(slot);
+    }
+
+    /**
+     * The role the payroll uses for the person, in the order of
+     * {@link AppData#getAllFuncionarios()}.
+     */
+    private Funcionario funcionario(String cpfCnpj) {
+        Funcionario f = data.getAdministradores().get(cpfCnpj);
+        if (f == null) {
+            f = data.getGestores().get(cpfCnpj);
+        }
+        if (f == null) {
+            f = data.getRecrutadores().get(cpfCnpj);
+        }
+        if (f == null) {
+            f = data.getFuncionarios().get(cpfCnpj);
+        }
+        return f;
+    }
+
+    // --- Recomputing ---
+
+    /**
+     * Recomputes the pending payslips that depend on what changed, and
+     * appends them to the month's file.
+     */
+    public Recalculo recalcular() throws IOException {
+        synchronized (recalculoLock) { // Keeps the appends in order
+            long start = System.nanoTime();
+            List<Slot> alvos = new ArrayList<>();
+            List<PayrollInput> entradas = new ArrayList<>();
+            List<String> removidos = new ArrayList<>();
+            int ignorados = 0;
+            PayrollPlan plano;
+
+            synchronized (this) {
+                plano = plan;
+                for (Slot slot : pendentes) {
+                    PayrollInput atual = slot.atual;
+                    if (atual == null) {
+                        if (slot.contado) {
+                            remover(slot);
+                            removidos.add(slot.cpfCnpj);
+                        }
+                        slots.remove(slot.cpfCnpj);
+                    } else if (slot.calculado == null || slot.regraAlterada
+                            || (PayrollInput.diferencas(slot.calculado, atual) & campos(plano, slot)) != 0) {
+                        alvos.add(slot);
+                        entradas.add(atual);
+                    } else {
+                        slot.calculado = atual; // What changed is not on the payslip
+                        ignorados++;
+                    }
+                    slot.regraAlterada = false;
+                }
+                pendentes.clear();
+            }
+
+            Resultado[] resultados = calcular(plano, entradas);
+
+            List<Contracheque> contracheques = new ArrayList<>(resultados.length);
+            List<String> recalculados = new ArrayList<>(resultados.length);
+            for (Resultado resultado : resultados) {
+                contracheques.add(resultado.contracheque());
+                recalculados.add(resultado.contracheque().cpfCnpj());
+            }
+            for (String cpfCnpj : removidos) {
+                contracheques.add(PayrollEngine.removido(cpfCnpj, competencia));
+            }
+            if (!contracheques.isEmpty()) {
+                engine.acrescentar(competencia, contracheques);
+            }
+
+            synchronized (this) {
+                for (int i = 0; i < resultados.length; i++) {
+                    aplicar(alvos.get(i), entradas.get(i), resultados[i].contracheque(), resultados[i].aplicadas(),
+                            plano);
+                }
+                ultimaDuracao = Duration.ofNanos(System.nanoTime() - start);
+                return new Recalculo(recalculados, removidos, ignorados, ultimaDuracao, getFolha());
+            }
+        }
+    }
+
+    /**
+     * The fields the payslip depended on, and those the current rules read: a
+     * rule added since may filter on a field the payslip did not need.
+     */
+    private static int campos(PayrollPlan plano, Slot slot) {
+        return slot.campos | plano.camposLidos(slot.calculado.regime());
+    }
+
+    private record Resultado(Contracheque contracheque, BitSet aplicadas) {
+    }
+
+    private Resultado[] calcular(PayrollPlan plano, List<PayrollInput> entradas) {
+        if (entradas.size() < PARALLEL_THRESHOLD) {
+            Resultado[] resultados = new Resultado[entradas.size()];
+            for (int i = 0; i < resultados.length; i++) {
+                resultados[i] = calcular(plano, entradas.get(i));
+            }
+            return resultados;
+        }
+        return engine.getPool()
+                .submit(() -> entradas.parallelStream().map(entrada -> calcular(plano, entrada))
+                        .toArray(Resultado[]::new))
+                .join();
+    }
+
+    private Resultado calcular(PayrollPlan plano, PayrollInput entrada) {
+        BitSet aplicadas = new BitSet();
+        return new Resultado(plano.calcular(entrada, competencia, aplicadas), aplicadas);
+    }
+
+    /**
+     * Replaces the payslip of a slot in the totals. Must hold this.
+     */
+    private void aplicar(Slot slot, PayrollInput entrada, Contracheque contracheque, BitSet aplicadas,
+            PayrollPlan plano) {
+        if (slot.contado) {
+            remover(slot);
+        }
+        slot.calculado = entrada;
+        slot.regras = aplicadas;
+        slot.campos = plano.camposLidos(entrada.regime());
+        slot.bruto = MonthlyJsonLines.centavos(contracheque.bruto());
+        slot.descontos = MonthlyJsonLines.centavos(contracheque.descontos());
+        slot.liquido = MonthlyJsonLines.centavos(contracheque.liquido());
+        brutoCentavos += slot.bruto;
+        descontosCentavos += slot.descontos;
+        liquidoCentavos += slot.liquido;
+        calculados++;
+        slot.contado = true;
+    }
+
+    private void remover(Slot slot) {
+        brutoCentavos -= slot.bruto;
+        descontosCentavos -= slot.descontos;
+        liquidoCentavos -= slot.liquido;
+        calculados--;
+        slot.contado = false;
+        slot.calculado = null;
+        slot.bruto = 0;
+        slot.descontos = 0;
+        slot.liquido = 0;
+        slot.regras = new BitSet();
+    }
+}
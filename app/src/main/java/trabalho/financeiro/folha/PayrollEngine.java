@@ -0,0 +1,198 @@
+package trabalho.financeiro.folha;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+
+import trabalho.common.database.AppData;
+import trabalho.common.database.JsonDataManager;
+import trabalho.common.database.MonthlyJsonLines;
+import trabalho.financeiro.model.Contracheque;
+import trabalho.financeiro.model.FolhaPagamento;
+import trabalho.financeiro.model.Funcionario;
+import trabalho.financeiro.model.RegraSalario;
+
+/**
+ * Runs the monthly payroll of every Funcionario, Administrador, Gestor and
+ * Recrutador.
+ * <p>
+ * The rules are compiled once into a {@link PayrollPlan}. The Funcionarios are
+ * copied under the lock of the data, so the screens can keep editing while
+ * the payslips are computed, in parallel, straight into the month's file: one
+ * {@link Contracheque} per line, see {@link MonthlyJsonLines}. A failed run
+ * never leaves half a payroll behind.
+ *
+ * @author Gabriel M.S.O.
+ */
+public class PayrollEngine {
+    public static final String DIRECTORY_PROPERTY = "trabalho.folha.dir";
+
+    private static final String DEFAULT_DIRECTORY = "folhas";
+    private static final String FILE_PREFIX = "folha-";
+
+    private final JsonDataManager dataManager;
+    private final PayrollPlan plan;
+    private final MonthlyJsonLines<Contracheque> folhas;
+    private final ForkJoinPool pool;
+
+    public PayrollEngine(JsonDataManager dataManager) {
+        this(dataManager, RegraSalario.padrao(), diretorioPadrao(), ForkJoinPool.commonPool());
+    }
+
+    /**
+     * @throws IllegalArgumentException If the rules do not compile, see
+     *                                  {@link PayrollPlan#compile}.
+     */
+    public PayrollEngine(JsonDataManager dataManager, List<RegraSalario> regras, Path diretorio, ForkJoinPool pool) {
+        this.dataManager = dataManager;
+        this.plan = PayrollPlan.compile(regras);
+        this.folhas = folhas(diretorio);
+        this.pool = pool;
+    }
+
+    /**
+     * The directory of {@link #DIRECTORY_PROPERTY}, {@code folhas} by default.
+     */
+    public static Path diretorioPadrao() {
+        return Path.of(System.getProperty(DIRECTORY_PROPERTY, DEFAULT_DIRECTORY));
+    }
+
+    public static Path arquivo(Path diretorio, YearMonth competencia) {
+        return folhas(diretorio).arquivo(competencia);
+    }
+
+    private static MonthlyJsonLines<Contracheque> folhas(Path diretorio) {
+        return new MonthlyJsonLines<>(diretorio, FILE_PREFIX, Contracheque.class, Contracheque::bruto,
+                Contracheque::descontos, Contracheque::liquido);
+    }
+
+    public PayrollPlan getPlan() {
+        return plan;
+    }
+
+    /**
+     * Computes and writes the payroll of a month, replacing any earlier run
+     * of the same month.
+     */
+    public FolhaPagamento processarFolha(YearMonth competencia) throws IOException {
+        return processarFolha(plan, competencia, snapshot(), null);
+    }
+
+    /**
+     * Receives each payslip as soon as it is computed, on the fork/join
+     * threads.
+     */
+    @FunctionalInterface
+    interface Observer {
+        /**
+         * @param indice    The position of the Funcionario in the snapshot.
+         * @param aplicadas The rules that applied, see {@link PayrollPlan#calcular}.
+         */
+        void calculado(int indice, Contracheque contracheque, BitSet aplicadas);
+    }
+
+    FolhaPagamento processarFolha(PayrollPlan plan, YearMonth competencia, PayrollInput[] entradas,
+            Observer observer) throws IOException {
+        long start = System.nanoTime();
+        MonthlyJsonLines.Totais totais = folhas.escrever(competencia, entradas.length, i -> {
+            BitSet aplicadas = observer != null ? new BitSet() : null;
+            Contracheque contracheque = plan.calcular(entradas[i], competencia, aplicadas);
+            if (observer != null) {
+                observer.calculado(i, contracheque, aplicadas);
+            }
+            return contracheque;
+        }, pool);
+        return new FolhaPagamento(competencia, folhas.arquivo(competencia), totais.registros(), totais.bruto(),
+                totais.descontos(), totais.liquido(), Duration.ofNanos(System.nanoTime() - start));
+    }
+
+    /**
+     * Appends payslips recomputed after the payroll was written. They replace
+     * the earlier lines of the same Funcionario when read back, a
+     * {@link #removido} one removes them.
+     */
+    void acrescentar(YearMonth competencia, List<Contracheque> contracheques) throws IOException {
+        folhas.acrescentar(competencia, contracheques);
+    }
+
+    /**
+     * The line appended for a Funcionario who left after the payroll was
+     * written: no items and nothing to pay. Every real payslip has at least
+     * its base salary.
+     */
+    static Contracheque removido(String cpfCnpj, YearMonth competencia) {
+        return new Contracheque(cpfCnpj, null, null, null, null, competencia.toString(), List.of(), 0, 0, 0);
+    }
+
+    private static boolean isRemovido(Contracheque contracheque) {
+        return contracheque.itens() == null || contracheque.itens().isEmpty();
+    }
+
+    /**
+     * The payslips of one Funcionario in {@link #diretorioPadrao()}, see
+     * {@link #lerContracheques(Path, String)}. Reads files, call it off the
+     * JavaFX thread.
+     */
+    public static List<Contracheque> lerContracheques(String cpfCnpj) {
+        return lerContracheques(diretorioPadrao(), cpfCnpj);
+    }
+
+    /**
+     * Reads back the payslips of one Funcionario, from every payroll in the
+     * directory, oldest first. If a month has more than one, e.g. after it
+     * was recomputed, the last one written is the one returned, and none if
+     * that one is {@link #removido}.
+     * <p>
+     * Lines of other Funcionarios are skipped without being parsed. An
+     * unreadable file is reported and skipped.
+     */
+    public static List<Contracheque> lerContracheques(Path diretorio, String cpfCnpj) {
+        Map<String, Contracheque> porCompetencia = new LinkedHashMap<>();
+        folhas(diretorio).ler("cpfCnpj", cpfCnpj, contracheque -> {
+            if (isRemovido(contracheque)) {
+                porCompetencia.remove(contracheque.competencia());
+            } else {
+                porCompetencia.put(contracheque.competencia(), contracheque);
+            }
+        });
+        List<Contracheque> contracheques = new ArrayList<>(porCompetencia.values());
+        contracheques.sort(Comparator.comparing(Contracheque::competencia));
+        return contracheques;
+    }
+
+    /**
+     * Copies every Funcionario, taking the lock of the data. A person with
+     * more than one role, e.g. Gestor and Funcionario, gets one payslip, from
+     * the first role as {@link AppData#getAllFuncionarios()} lists them.
+     */
+    PayrollInput[] snapshot() {
+        AppData data = dataManager.getData();
+        synchronized (data) {
+            Map<String, PayrollInput> entradas = new LinkedHashMap<>();
+            for (Funcionario f : data.getAllFuncionarios()) {
+                entradas.putIfAbsent(f.getCpfCnpj(), PayrollInput.of(data, f));
+            }
+            return entradas.values().toArray(new PayrollInput[0]);
+        }
+    }
+
+    Path getDiretorio() {
+        return folhas.getDiretorio();
+    }
+
+    AppData getData() {
+        return dataManager.getData();
+    }
+
+    ForkJoinPool getPool() {
+        return pool;
+    }
+}
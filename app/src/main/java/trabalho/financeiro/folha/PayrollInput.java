@@ -0,0 +1,96 @@
+package trabalho.financeiro.folha;
+
+import java.util.Objects;
+
+import trabalho.candidatura.model.Pessoa;
+import trabalho.common.database.AppData;
+import trabalho.financeiro.model.Funcionario;
+import trabalho.recrutamento.model.Contratacao;
+import trabalho.recrutamento.model.Contratacao.StatusContratacao;
+import trabalho.recrutamento.model.RegimeContratacao;
+
+/**
+ * What the payslip of a Funcionario is computed from, copied out of the data
+ * under its lock so the computation never sees a half edited Funcionario.
+ *
+ * @author Gabriel M.S.O.
+ */
+public record PayrollInput(
+        String cpfCnpj,
+        String nome,
+        String cargo,
+        String departamento,
+        String status,
+        double salarioBase,
+        RegimeContratacao regime) {
+
+    /**
+     * The fields a payslip can depend on, see {@link #diferencas}.
+     */
+    public enum Campo {
+        SALARIO_BASE,
+        CARGO,
+        DEPARTAMENTO,
+        STATUS,
+        NOME,
+        REGIME;
+
+        public int bit() {
+            return 1 << ordinal();
+        }
+    }
+
+    /**
+     * Must be called holding the lock of the data.
+     */
+    public static PayrollInput of(AppData data, Funcionario f) {
+        Pessoa pessoa = f.getPessoa(data);
+        return new PayrollInput(f.getCpfCnpj(), pessoa != null ? pessoa.getNome() : null, f.getCargo(),
+                f.getDepartamento(), f.getStatus(), f.getSalarioBase(), regime(data, f.getCpfCnpj()));
+    }
+
+    /**
+     * The regime of the latest authorized hiring of the person, CLT if there
+     * is none, e.g. for staff registered directly as Funcionarios.
+     */
+    static RegimeContratacao regime(AppData data, String cpfCnpj) {
+        RegimeContratacao regime = RegimeContratacao.CLT;
+        for (Contratacao contratacao : data.contratacoesByCandidato().lookup(cpfCnpj)) {
+            StatusContratacao status = contratacao.getStatus();
+            if (status == StatusContratacao.AUTORIZADA || status == StatusContratacao.EFETIVADA) {
+                RegimeContratacao r = contratacao.getRegime() != null ? contratacao.getRegime()
+                        : contratacao.getRegimeContratacao();
+                if (r != null) {
+                    regime = r; // Insertion order, the last one wins
+                }
+            }
+        }
+        return regime;
+    }
+
+    /**
+     * @return The {@link Campo#bit() bits} of the fields that differ.
+     */
+    public static int diferencas(PayrollInput a, PayrollInput b) {
+        int campos = 0;
+        if (Double.compare(a.salarioBase, b.salarioBase) != 0) {
+            campos |= Campo.SALARIO_BASE.bit();
+        }
+        if (!Objects.equals(a.cargo, b.cargo)) {
+            campos |= Campo.CARGO.bit();
+        }
+        if (!Objects.equals(a.departamento, b.departamento)) {
+            campos |= Campo.DEPARTAMENTO.bit();
+        }
+        if (!Objects.equals(a.status, b.status)) {
+            campos |= Campo.STATUS.bit();
+        }
+        if (!Objects.equals(a.nome, b.nome)) {
+            campos |= Campo.NOME.bit();
+        }
+        if (a.regime != b.regime) {
+            campos |= Campo.REGIME.bit();
+        }
+        return campos;
+    }
+}
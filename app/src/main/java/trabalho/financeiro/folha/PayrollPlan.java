@@ -0,0 +1,292 @@
+package trabalho.financeiro.folha;
+
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.List;
+
+import trabalho.common.database.MonthlyJsonLines;
+import trabalho.financeiro.folha.PayrollInput.Campo;
+import trabalho.financeiro.model.Contracheque;
+import trabalho.financeiro.model.RegraSalario;
+import trabalho.financeiro.model.RegraSalario.Faixa;
+import trabalho.recrutamento.model.RegimeContratacao;
+
+/**
+ * The payroll rules compiled once for a run, so computing a payslip is a walk
+ * over a few arrays.
+ * <p>
+ * Compiling checks the rules, sorts them in the order of
+ * {@link RegraSalario.Tipo}, drops those that never apply to a regime, and
+ * turns the tax tables into arrays: a bracket is found by binary search, and
+ * the INSS of the brackets below it is precomputed. A plan is immutable and
+ * safe to share between threads.
+ * <p>
+ * A rule keeps its position in the list it was compiled from, so a payslip
+ * can tell which rules it was computed with, see {@link #calcular}.
+ *
+ * @author Gabriel M.S.O.
+ */
+public final class PayrollPlan {
+    // Fields every payslip shows, so a change to them always changes it
+    private static final int CAMPOS_EXIBIDOS = Campo.SALARIO_BASE.bit() | Campo.NOME.bit() | Campo.CARGO.bit()
+            | Campo.DEPARTAMENTO.bit() | Campo.REGIME.bit();
+
+    private final Step[][] stepsByRegime;
+    private final int[] camposByRegime;
+
+    private PayrollPlan(Step[][] stepsByRegime, int[] camposByRegime) {
+        this.stepsByRegime = stepsByRegime;
+        this.camposByRegime = camposByRegime;
+    }
+
+    /**
+     * @param regras {@code null} entries are skipped, e.g. removed rules, so
+     *               the others keep their positions.
+     * @throws IllegalArgumentException If a rule has no type, or a table no
+     *                                  brackets or brackets out of order.
+     */
+    public static PayrollPlan compile(List<RegraSalario> regras) {
+        List<Step> compiled = new ArrayList<>();
+        for (int i = 0; i < regras.size(); i++) {
+            RegraSalario regra = regras.get(i);
+            if (regra == null) {
+                continue;
+            }
+            if (regra.getTipo() == null) {
+                throw new IllegalArgumentException("Regra sem tipo: " + regra.getDescricao());
+            }
+            compiled.add(compile(i, regra));
+        }
+        compiled.sort(Comparator.comparing(step -> step.regra.getTipo())); // Stable, keeps the list order within a type
+
+        RegimeContratacao[] regimes = RegimeContratacao.values();
+        Step[][] stepsByRegime = new Step[regimes.length][];
+        int[] camposByRegime = new int[regimes.length];
+        for (RegimeContratacao regime : regimes) {
+            List<Step> steps = new ArrayList<>();
+            int campos = CAMPOS_EXIBIDOS;
+            for (Step step : compiled) {
+                if (step.regra.getRegimes().isEmpty() || step.regra.getRegimes().contains(regime)) {
+                    steps.add(step);
+                    campos |= step.camposFiltrados();
+                }
+            }
+            stepsByRegime[regime.ordinal()] = steps.toArray(new Step[0]);
+            camposByRegime[regime.ordinal()] = campos;
+        }
+        return new PayrollPlan(stepsByRegime, camposByRegime);
+    }
+
+    private static Step compile(int indice, RegraSalario regra) {
+        String descricao = regra.getDescricao() != null ? regra.getDescricao() : regra.getTipo().toString();
+        double valor = regra.getValor();
+        return switch (regra.getTipo()) {
+            case ADICIONAL_FIXO -> new Step(indice, regra, descricao, false) {
+                @Override
+                double valor(double base, double bruto, double inss) {
+                    return valor;
+                }
+            };
+            case ADICIONAL_PERCENTUAL -> new Step(indice, regra, descricao, false) {
+                @Override
+                double valor(double base, double bruto, double inss) {
+                    return base * valor / 100;
+                }
+            };
+            case INSS -> new InssStep(indice, regra, descricao);
+            case IRRF -> new IrrfStep(indice, regra, descricao);
+            case DESCONTO_FIXO -> new Step(indice, regra, descricao, true) {
+                @Override
+                double valor(double base, double bruto, double inss) {
+                    return valor;
+                }
+            };
+            case DESCONTO_PERCENTUAL -> new Step(indice, regra, descricao, true) {
+                @Override
+                double valor(double base, double bruto, double inss) {
+                    return bruto * valor / 100;
+                }
+            };
+        };
+    }
+
+    /**
+     * The {@link Campo#bit() bits} of the fields a payslip of this regime can
+     * depend on: those it shows, and those the rules of the regime filter on.
+     * A change to any other field cannot change the payslip.
+     */
+    public int camposLidos(RegimeContratacao regime) {
+        return camposByRegime[regime.ordinal()];
+    }
+
+    /**
+     * Computes one payslip. Items that come to zero, e.g. an exempt IRRF, are
+     * left out.
+     *
+     * @param aplicadas If not {@code null}, receives the positions of the
+     *                  rules that applied to this Funcionario.
+     */
+    public Contracheque calcular(PayrollInput entrada, YearMonth competencia, BitSet aplicadas) {
+        String cargo = entrada.cargo();
+        String departamento = entrada.departamento();
+        String status = entrada.status();
+        List<Contracheque.Item> itens = new ArrayList<>();
+        double base = MonthlyJsonLines.arredondar(entrada.salarioBase());
+        itens.add(new Contracheque.Item("Salário base", base, false));
+
+        double bruto = base;
+        double inss = 0;
+        double descontos = 0;
+        for (Step step : stepsByRegime[entrada.regime().ordinal()]) {
+            if (!step.aplicaA(cargo, departamento, status)) {
+                continue;
+            }
+            if (aplicadas != null) {
+                aplicadas.set(step.indice);
+            }
+            double valor = MonthlyJsonLines.arredondar(step.valor(base, bruto, inss));
+            if (valor <= 0) {
+                continue;
+            }
+            itens.add(new Contracheque.Item(step.descricao, valor, step.desconto));
+            if (!step.desconto) {
+                bruto += valor;
+            } else {
+                descontos += valor;
+                if (step instanceof InssStep) {
+                    inss += valor;
+                }
+            }
+        }
+        bruto = MonthlyJsonLines.arredondar(bruto);
+        descontos = MonthlyJsonLines.arredondar(descontos);
+        return new Contracheque(entrada.cpfCnpj(), entrada.nome(), cargo, departamento, entrada.regime(),
+                competencia.toString(), itens, bruto, descontos, MonthlyJsonLines.arredondar(bruto - descontos));
+    }
+
+    /**
+     * A compiled rule. The cargo, departamento and status filters are the
+     * only part still checked per Funcionario.
+     */
+    private abstract static class Step {
+        final int indice;
+        final RegraSalario regra;
+        final String descricao;
+        final boolean desconto;
+        private final String cargo;
+        private final String departamento;
+        private final String status;
+
+        Step(int indice, RegraSalario regra, String descricao, boolean desconto) {
+            this.indice = indice;
+            this.regra = regra;
+            this.descricao = descricao;
+            this.desconto = desconto;
+            this.cargo = regra.getCargo();
+            this.departamento = regra.getDepartamento();
+            this.status = regra.getStatus();
+        }
+
+        boolean aplicaA(String cargo, String departamento, String status) {
+            return (this.cargo == null || this.cargo.equalsIgnoreCase(cargo))
+                    && (this.departamento == null || this.departamento.equalsIgnoreCase(departamento))
+                    && (this.status == null || this.status.equalsIgnoreCase(status));
+        }
+
+        int camposFiltrados() {
+            return (cargo != null ? Campo.CARGO.bit() : 0) | (departamento != null ? Campo.DEPARTAMENTO.bit() : 0)
+                    | (status != null ? Campo.STATUS.bit() : 0);
+        }
+
+        /**
+         * @param bruto The gross salary so far, final once the discounts start.
+         * @param inss  The INSS withheld so far.
+         */
+        abstract double valor(double base, double bruto, double inss);
+    }
+
+    private static double[] limites(RegraSalario regra) {
+        List<Faixa> faixas = regra.getFaixas();
+        if (faixas == null || faixas.isEmpty()) {
+            throw new IllegalArgumentException("Tabela sem faixas: " + regra.getDescricao());
+        }
+        double[] limites = new double[faixas.size()];
+        for (int i = 0; i < limites.length; i++) {
+            limites[i] = faixas.get(i).limite();
+            if (i > 0 && limites[i] <= limites[i - 1]) {
+                throw new IllegalArgumentException("Faixas fora de ordem: " + regra.getDescricao());
+            }
+        }
+        return limites;
+    }
+
+    private static double[] aliquotas(RegraSalario regra) {
+        return regra.getFaixas().stream().mapToDouble(faixa -> faixa.aliquota() / 100).toArray();
+    }
+
+    /**
+     * @return The first bracket whose limit is at least the value, or the
+     *         number of brackets if it is above all of them.
+     */
+    private static int faixa(double[] limites, double valor) {
+        int low = 0;
+        int high = limites.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (limites[mid] < valor) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    private static final class InssStep extends Step {
+        private final double[] limites;
+        private final double[] aliquotas;
+        private final double[] acumulado; // INSS of all brackets up to and including i
+
+        InssStep(int indice, RegraSalario regra, String descricao) {
+            super(indice, regra, descricao, true);
+            limites = limites(regra);
+            aliquotas = aliquotas(regra);
+            acumulado = new double[limites.length];
+            double anterior = 0;
+            for (int i = 0; i < limites.length; i++) {
+                acumulado[i] = (i > 0 ? acumulado[i - 1] : 0) + (limites[i] - anterior) * aliquotas[i];
+                anterior = limites[i];
+            }
+        }
+
+        @Override
+        double valor(double base, double bruto, double inss) {
+            double tributavel = Math.min(bruto, limites[limites.length - 1]); // Ceiling
+            int i = faixa(limites, tributavel);
+            double abaixo = i > 0 ? limites[i - 1] : 0;
+            return (i > 0 ? acumulado[i - 1] : 0) + (tributavel - abaixo) * aliquotas[i];
+        }
+    }
+
+    private static final class IrrfStep extends Step {
+        private final double[] limites;
+        private final double[] aliquotas;
+        private final double[] deducoes;
+
+        IrrfStep(int indice, RegraSalario regra, String descricao) {
+            super(indice, regra, descricao, true);
+            limites = limites(regra);
+            aliquotas = aliquotas(regra);
+            deducoes = regra.getFaixas().stream().mapToDouble(Faixa::deducao).toArray();
+        }
+
+        @Override
+        double valor(double base, double bruto, double inss) {
+            double tributavel = bruto - inss;
+            int i = Math.min(faixa(limites, tributavel), limites.length - 1);
+            return Math.max(0, tributavel * aliquotas[i] - deducoes[i]);
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package trabalho.financeiro.model;
+
+import java.util.List;
+
+import trabalho.recrutamento.model.RegimeContratacao;
+
+/**
+ * The payslip of one Funcionario for one month, as written by the payroll.
+ *
+ * @param competencia The month, e.g. {@code 2024-03}.
+ * @param itens       The base salary first, then each rule that applied.
+ * @param bruto       The base salary plus the additions.
+ * @param descontos   Taxes and discounts.
+ * @author Gabriel M.S.O.
+ */
+public record Contracheque(
+        String cpfCnpj,
+        String nome,
+        String cargo,
+        String departamento,
+        RegimeContratacao regime,
+        String competencia,
+        List<Item> itens,
+        double bruto,
+        double descontos,
+        double liquido) {
+
+    /**
+     * A line of the payslip, {@code valor} is always positive.
+     */
+    public record Item(String descricao, double valor, boolean desconto) {
+    }
+}
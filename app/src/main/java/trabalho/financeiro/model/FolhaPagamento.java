@@ -1,5 +1,74 @@
 package trabalho.financeiro.model;
 
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.YearMonth;
+
+/**
+ * The payroll of one month: where its payslips were written and their totals.
+ * The payslips themselves are not kept in memory, see
+ * {@link trabalho.financeiro.folha.PayrollEngine#lerContracheques(String)} to
+ * read them back.
+ *
+ * @author Gabriel M.S.O.
+ */
 public class FolhaPagamento {
-    
+    private final YearMonth competencia;
+    private final Path arquivo;
+    private final int funcionarios;
+    private final double totalBruto;
+    private final double totalDescontos;
+    private final double totalLiquido;
+    private final Duration duracao;
+
+    public FolhaPagamento(YearMonth competencia, Path arquivo, int funcionarios, double totalBruto,
+            double totalDescontos, double totalLiquido, Duration duracao) {
+        this.competencia = competencia;
+        this.arquivo = arquivo;
+        this.funcionarios = funcionarios;
+        this.totalBruto = totalBruto;
+        this.totalDescontos = totalDescontos;
+        this.totalLiquido = totalLiquido;
+        this.duracao = duracao;
+    }
+
+    public YearMonth getCompetencia() {
+        return competencia;
+    }
+
+    /**
+     * @return The JSON lines file with one {@link Contracheque} per line.
+     */
+    public Path getArquivo() {
+        return arquivo;
+    }
+
+    public int getFuncionarios() {
+        return funcionarios;
+    }
+
+    public double getTotalBruto() {
+        return totalBruto;
+    }
+
+    public double getTotalDescontos() {
+        return totalDescontos;
+    }
+
+    public double getTotalLiquido() {
+        return totalLiquido;
+    }
+
+    /**
+     * @return How long computing and writing the payslips took.
+     */
+    public Duration getDuracao() {
+        return duracao;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("Folha %s: %d funcionários, bruto %.2f, descontos %.2f, líquido %.2f em %d ms",
+                competencia, funcionarios, totalBruto, totalDescontos, totalLiquido, duracao.toMillis());
+    }
 }
@@ -122,8 +122,4 @@ public class Funcionario {
     public void setCargo(String cargo) {
         this.cargo = cargo;
     }
-
-    public void consultarContracheques() {
-        throw new UnsupportedOperationException("Not Implemented");
-    }
 }
@@ -1,5 +1,201 @@
 package trabalho.financeiro.model;
 
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+
+import trabalho.recrutamento.model.RegimeContratacao;
+
+/**
+ * One rule of the payroll: an addition to the base salary, a discount, or a
+ * tax computed from a table of brackets.
+ * <p>
+ * A rule applies to the regimes in {@link #getRegimes()} (all of them if
+ * empty), and only to the cargo, departamento and status it names, if any.
+ * The rules are not evaluated one by one, see
+ * {@link trabalho.financeiro.folha.PayrollPlan}, which orders them as
+ * {@link Tipo} does.
+ *
+ * @author Gabriel M.S.O.
+ */
 public class RegraSalario {
-    
+
+    /**
+     * The kinds of rules, in the order they are computed: additions make the
+     * gross salary, on which INSS is withheld, then IRRF on what is left.
+     */
+    public enum Tipo {
+        /** A fixed amount added to the salary. */
+        ADICIONAL_FIXO,
+        /** {@code valor} percent of the base salary, added. */
+        ADICIONAL_PERCENTUAL,
+        /** Progressive table: each bracket taxes the part of the gross salary within it. */
+        INSS,
+        /** Table of the whole bracket minus its deduction, on the gross salary after INSS. */
+        IRRF,
+        /** A fixed amount discounted. */
+        DESCONTO_FIXO,
+        /** {@code valor} percent of the gross salary, discounted. */
+        DESCONTO_PERCENTUAL
+    }
+
+    /**
+     * A bracket of a tax table, up to {@code limite} inclusive.
+     *
+     * @param aliquota Percent, e.g. {@code 7.5}.
+     * @param deducao  Only used by {@link Tipo#IRRF}.
+     */
+    public record Faixa(double limite, double aliquota, double deducao) {
+    }
+
+    private String descricao;
+    private Tipo tipo;
+    private double valor;
+    private Set<RegimeContratacao> regimes = EnumSet.noneOf(RegimeContratacao.class);
+    private String cargo;
+    private String departamento;
+    private String status;
+    private List<Faixa> faixas = new ArrayList<>();
+
+    /**
+     * No-argument constructor required for libraries like GSON.
+     */
+    public RegraSalario() {
+
+    }
+
+    /**
+     * @param regimes The regimes it applies to, none for all of them.
+     */
+    public RegraSalario(String descricao, Tipo tipo, double valor, RegimeContratacao... regimes) {
+        this.descricao = descricao;
+        this.tipo = tipo;
+        this.valor = valor;
+        this.regimes = regimes.length == 0 ? EnumSet.noneOf(RegimeContratacao.class) : EnumSet.of(regimes[0], regimes);
+    }
+
+    /**
+     * A rule of type {@link Tipo#INSS} or {@link Tipo#IRRF}.
+     *
+     * @param faixas In increasing order of limit. Above the last limit, INSS
+     *               stops growing (the ceiling) and IRRF keeps the last
+     *               bracket.
+     */
+    public static RegraSalario tabela(String descricao, Tipo tipo, List<Faixa> faixas, RegimeContratacao... regimes) {
+        if (tipo != Tipo.INSS && tipo != Tipo.IRRF) {
+            throw new IllegalArgumentException("Apenas INSS e IRRF usam faixas: " + tipo);
+        }
+        RegraSalario regra = new RegraSalario(descricao, tipo, 0, regimes);
+        regra.faixas = new ArrayList<>(faixas);
+        return regra;
+    }
+
+    /**
+     * The rules used when none are configured: the 2024 INSS and IRRF tables,
+     * withheld from CLT employees; interns only have IRRF withheld, and PJ
+     * contractors have nothing withheld.
+     */
+    public static List<RegraSalario> padrao() {
+        List<RegraSalario> regras = new ArrayList<>();
+        regras.add(tabela("INSS", Tipo.INSS, List.of(
+                new Faixa(1412.00, 7.5, 0),
+                new Faixa(2666.68, 9, 0),
+                new Faixa(4000.03, 12, 0),
+                new Faixa(7786.02, 14, 0)),
+                RegimeContratacao.CLT));
+        regras.add(tabela("IRRF", Tipo.IRRF, List.of(
+                new Faixa(2259.20, 0, 0),
+                new Faixa(2826.65, 7.5, 169.44),
+                new Faixa(3751.05, 15, 381.44),
+                new Faixa(4664.68, 22.5, 662.77),
+                new Faixa(Double.MAX_VALUE, 27.5, 896.00)),
+                RegimeContratacao.CLT, RegimeContratacao.ESTAGIO));
+        return regras;
+    }
+
+    /**
+     * @return Whether it applies to a Funcionario of this regime, cargo,
+     *         departamento and status.
+     */
+    public boolean aplicaA(RegimeContratacao regime, String cargo, String departamento, String status) {
+        return (regimes.isEmpty() || regimes.contains(regime))
+                && (this.cargo == null || this.cargo.equalsIgnoreCase(cargo))
+                && (this.departamento == null || this.departamento.equalsIgnoreCase(departamento))
+                && (this.status == null || this.status.equalsIgnoreCase(status));
+    }
+
+    public String getDescricao() {
+        return descricao;
+    }
+
+    public void setDescricao(String descricao) {
+        this.descricao = descricao;
+    }
+
+    public Tipo getTipo() {
+        return tipo;
+    }
+
+    public void setTipo(Tipo tipo) {
+        this.tipo = tipo;
+    }
+
+    public double getValor() {
+        return valor;
+    }
+
+    public void setValor(double valor) {
+        this.valor = valor;
+    }
+
+    public Set<RegimeContratacao> getRegimes() {
+        return regimes;
+    }
+
+    public void setRegimes(Set<RegimeContratacao> regimes) {
+        this.regimes = regimes.isEmpty() ? EnumSet.noneOf(RegimeContratacao.class) : EnumSet.copyOf(regimes);
+    }
+
+    /**
+     * @return The only cargo it applies to, {@code null} for any.
+     */
+    public String getCargo() {
+        return cargo;
+    }
+
+    public void setCargo(String cargo) {
+        this.cargo = cargo;
+    }
+
+    /**
+     * @return The only departamento it applies to, {@code null} for any.
+     */
+    public String getDepartamento() {
+        return departamento;
+    }
+
+    public void setDepartamento(String departamento) {
+        this.departamento = departamento;
+    }
+
+    /**
+     * @return The only status it applies to, e.g. {@code Ativo}, {@code null}
+     *         for any.
+     */
+    public String getStatus() {
+        return status;
+    }
+
+    public void setStatus(String status) {
+        this.status = status;
+    }
+
+    public List<Faixa> getFaixas() {
+        return faixas;
+    }
+
+    public void setFaixas(List<Faixa> faixas) {
+        this.faixas = new ArrayList<>(faixas);
+    }
 }
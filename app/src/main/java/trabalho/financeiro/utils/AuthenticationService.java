@@ -0,0 +1,313 @@
+package trabalho.financeiro.utils;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import trabalho.admin.model.Usuario;
+import trabalho.common.database.AppData;
+import trabalho.common.database.JsonDataManager;
+
+/**
+ * Runs the BCrypt work of {@link PasswordManager} off the calling thread, so a
+ * login or a password change does not freeze the screen for the quarter of a
+ * second each hash takes.
+ * <p>
+ * The work goes to a small pool of its own, half of the cores by default, with
+ * a bounded queue: a burst of logins waits its turn instead of taking every
+ * core, and once the queue is full new attempts are turned away as
+ * {@link Outcome#BUSY}. Both can be set with {@value #THREADS_PROPERTY} and
+ * {@value #QUEUE_PROPERTY}.
+ * <p>
+ * Logins are also throttled by CPF/CNPJ. Only one attempt per login runs at a
+ * time and, after {@value #FREE_ATTEMPTS} wrong passwords in a row, the login
+ * is locked for a time that doubles with every further failure. A successful
+ * login clears it.
+ * <p>
+ * A successful login with a hash made before the work factor was raised gets
+ * its password hashed again, in the background, see
+ * {@link PasswordManager#needsRehash}.
+ * <p>
+ * A login with no user is checked against a hash of no one's password, made
+ * with the current work factor, so it takes as long to turn down as a wrong
+ * password and the timing does not tell which CPFs have an account.
+ *
+ * @author Gabriel M.S.O.
+ */
+public final class AuthenticationService {
+    public static final String THREADS_PROPERTY = "trabalho.auth.threads";
+    public static final String QUEUE_PROPERTY = "trabalho.auth.queue";
+
+    private static final int DEFAULT_QUEUE = 32;
+    private static final int FREE_ATTEMPTS = 3;
+    private static final long FIRST_LOCKOUT_NANOS = Duration.ofSeconds(2).toNanos();
+    private static final long MAX_LOCKOUT_NANOS = Duration.ofMinutes(5).toNanos();
+    // Failures older than this no longer count towards a lockout
+    private static final long FAILURE_WINDOW_NANOS = Duration.ofMinutes(15).toNanos();
+    private static final int PRUNE_THRESHOLD = 1024;
+
+    public enum Outcome {
+        SUCCESS,
+        INVALID,
+        /** Too many wrong passwords, or an attempt for the login is running. */
+        THROTTLED,
+        /** The queue is full, nothing was checked. */
+        BUSY
+    }
+
+    /**
+     * @param usuario    The user, only on {@link Outcome#SUCCESS}.
+     * @param retryAfter How long the login is locked from now on, zero if it
+     *                   is not.
+     */
+    public record Result(Outcome outcome, Usuario usuario, Duration retryAfter) {
+        static Result of(Outcome outcome) {
+            return new Result(outcome, null, Duration.ZERO);
+        }
+    }
+
+    /**
+     * The recent failures of one login. Only changed inside the
+     * {@code compute} calls of the map, which lock the entry.
+     */
+    private static final class Attempts {
+        int failures;
+        long lastFailure;
+        long lockedUntil;
+        boolean running;
+
+        boolean isLocked(long now) {
+            return failures > FREE_ATTEMPTS && lockedUntil - now > 0;
+        }
+    }
+
+    private static AuthenticationService instance;
+
+    private final ThreadPoolExecutor workers;
+    private final Map<String, Attempts> attempts = new ConcurrentHashMap<>();
+    // Checked when the login has no user, see dummyHash()
+    private volatile String dummyHash;
+
+    AuthenticationService(int threads, int queue) {
+        workers = new ThreadPoolExecutor(threads, threads, 30, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(queue), new DaemonThreadFactory());
+        workers.allowCoreThreadTimeOut(true); // No threads kept once the login rush is over
+    }
+
+    public static synchronized AuthenticationService getInstance() {
+        if (instance == null) {
+            int threads = Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+            instance = new AuthenticationService(
+                    Math.max(1, Integer.getInteger(THREADS_PROPERTY, threads)),
+                    Math.max(1, Integer.getInteger(QUEUE_PROPERTY, DEFAULT_QUEUE)));
+        }
+        return instance;
+    }
+
+    /**
+     * Checks the password of a login.
+     *
+     * @param login As typed, formatted or not.
+     * @return Never completes exceptionally.
+     */
+    public CompletableFuture<Result> authenticate(JsonDataManager dataManager, String login, String plainPassword) {
+        AppData data = dataManager.getData();
+        String cpfCnpj = CpfCnpjManager.toOnlyNumbers(login);
+        long now = System.nanoTime();
+
+        long[] lockedFor = { 0 };
+        boolean[] alreadyRunning = { false };
+        attempts.compute(cpfCnpj, (key, entry) -> {
+            Attempts current = entry != null ? entry : new Attempts();
+            if (current.running) {
+                alreadyRunning[0] = true;
+            } else if (current.isLocked(now)) {
+                lockedFor[0] = current.lockedUntil - now;
+            } else {
+                current.running = true;
+            }
+            return current;
+        });
+        if (alreadyRunning[0]) {
+            return CompletableFuture.completedFuture(Result.of(Outcome.THROTTLED));
+        }
+        if (lockedFor[0] > 0) {
+            return CompletableFuture.completedFuture(
+                    new Result(Outcome.THROTTLED, null, Duration.ofNanos(lockedFor[0])));
+        }
+
+        Usuario usuario;
+        synchronized (data) {
+            usuario = data.getUsuarios().get(cpfCnpj);
+        }
+        String passHash = usuario != null ? usuario.getPassHash() : null;
+
+        CompletableFuture<Boolean> check;
+        try {
+            check = CompletableFuture.supplyAsync(() -> {
+                if (passHash == null) {
+                    // The same work as a wrong password
+                    PasswordManager.verifyPassword(plainPassword, dummyHash());
+                    return false;
+                }
+                return PasswordManager.verifyPassword(plainPassword, passHash);
+            }, workers);
+        } catch (RejectedExecutionException e) {
+            attempts.computeIfPresent(cpfCnpj, (key, entry) -> {
+                entry.running = false;
+                return entry.failures > 0 ? entry : null;
+            });
+            return CompletableFuture.completedFuture(Result.of(Outcome.BUSY));
+        }
+
+        return check.handle((valid, error) -> {
+            if (error != null) {
+                // A malformed stored hash, same as a wrong password
+                System.err.println("Error verifying password of " + cpfCnpj + ": " + error.getMessage());
+            }
+            boolean success = error == null && valid;
+            Duration lockout = finish(cpfCnpj, success);
+            if (success) {
+                if (PasswordManager.needsRehash(passHash)) {
+                    rehash(dataManager, usuario, passHash, plainPassword);
+                }
+                return new Result(Outcome.SUCCESS, usuario, Duration.ZERO);
+            }
+            return lockout.isZero() ? Result.of(Outcome.INVALID)
+                    : new Result(Outcome.INVALID, null, lockout);
+        });
+    }
+
+    /**
+     * Sets the work factor of new hashes for this host on the pool, see
+     * {@link PasswordManager#configure()}.
+     */
+    public CompletableFuture<Integer> configureWorkFactor() {
+        return CompletableFuture.supplyAsync(() -> {
+            int factor = PasswordManager.configure();
+            dummyHash(); // Made now, not during the first login with no user
+            return factor;
+        }, workers);
+    }
+
+    /**
+     * A hash of a random password with the current work factor, made again
+     * when the factor changes. Runs on the pool.
+     */
+    String dummyHash() {
+        String hash = dummyHash;
+        if (PasswordManager.getWorkFactor(hash) != PasswordManager.getWorkFactor()) {
+            hash = PasswordManager.hashPassword(UUID.randomUUID().toString());
+            dummyHash = hash;
+        }
+        return hash;
+    }
+
+    /**
+     * Hashes a new password on the pool, e.g. before saving a user. Fails with
+     * a {@link RejectedExecutionException} when the queue is full.
+     */
+    public CompletableFuture<String> hash(String plainPassword) {
+        try {
+            return CompletableFuture.supplyAsync(() -> PasswordManager.hashPassword(plainPassword), workers);
+        } catch (RejectedExecutionException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    /**
+     * Checks a password against a hash on the pool, with no throttling. Fails
+     * with a {@link RejectedExecutionException} when the queue is full.
+     */
+    public CompletableFuture<Boolean> verify(String plainPassword, String passHash) {
+        try {
+            return CompletableFuture.supplyAsync(() -> PasswordManager.verifyPassword(plainPassword, passHash),
+                    workers);
+        } catch (RejectedExecutionException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    /**
+     * Replaces an outdated hash with one of the current work factor, unless the
+     * password was changed in the meantime. A full queue just leaves it for the
+     * next login.
+     */
+    private void rehash(JsonDataManager dataManager, Usuario usuario, String oldHash, String plainPassword) {
+        hash(plainPassword).whenComplete((newHash, error) -> {
+            if (error != null) {
+                return;
+            }
+            AppData data = dataManager.getData();
+            synchronized (data) {
+                if (!oldHash.equals(usuario.getPassHash())) {
+                    return;
+                }
+                usuario.setPassHash(newHash);
+                data.markUpdated(usuario);
+            }
+            dataManager.saveData();
+        });
+    }
+
+    /**
+     * Records the end of an attempt.
+     *
+     * @return How long the login is now locked, zero if it is not.
+     */
+    private Duration finish(String cpfCnpj, boolean success) {
+        long now = System.nanoTime();
+        long[] lockout = { 0 };
+        attempts.compute(cpfCnpj, (key, entry) -> {
+            if (success || entry == null) {
+                return null;
+            }
+            if (entry.failures > 0 && now - entry.lastFailure > FAILURE_WINDOW_NANOS) {
+                entry.failures = 0;
+            }
+            entry.failures++;
+            entry.lastFailure = now;
+            entry.running = false;
+            if (entry.failures > FREE_ATTEMPTS) {
+                int doublings = Math.min(entry.failures - FREE_ATTEMPTS - 1, 20);
+                lockout[0] = Math.min(FIRST_LOCKOUT_NANOS << doublings, MAX_LOCKOUT_NANOS);
+                entry.lockedUntil = now + lockout[0];
+            }
+            return entry;
+        });
+        if (attempts.size() > PRUNE_THRESHOLD) {
+            prune(now);
+        }
+        return Duration.ofNanos(lockout[0]);
+    }
+
+    /**
+     * Forgets the logins that are neither locked nor running and whose
+     * failures are too old to count.
+     */
+    private void prune(long now) {
+        for (String key : attempts.keySet()) {
+            attempts.computeIfPresent(key, (k, entry) -> !entry.running && !entry.isLocked(now)
+                    && now - entry.lastFailure > FAILURE_WINDOW_NANOS ? null : entry);
+        }
+    }
+
+    private static final class DaemonThreadFactory implements ThreadFactory {
+        private final AtomicInteger count = new AtomicInteger();
+
+        @Override
+        public Thread newThread(Runnable runnable) {
+            Thread thread = new Thread(runnable, "hr-auth-" + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+}
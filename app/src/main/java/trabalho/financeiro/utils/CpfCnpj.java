@@ -0,0 +1,147 @@
+package trabalho.financeiro.utils;
+
+/**
+ * A CPF or CNPJ held in a single long instead of a String.
+ * <p>
+ * A CPF has 11 digits and a CNPJ 14, both fit in 47 bits. The key is the
+ * number itself, with {@link #CNPJ_FLAG} set for a CNPJ so that a CNPJ with
+ * leading zeros never equals a CPF with the same digits. The key is what the
+ * maps of the data hold, see {@link #toKey(String)}; this class is for code
+ * that wants to keep a document around without its String.
+ * <p>
+ * The check digits are not verified here, see {@link #isValid()}: stored
+ * documents are not guaranteed to have valid ones.
+ *
+ * @author Gabriel M.S.O.
+ */
+public final class CpfCnpj implements Comparable<CpfCnpj> {
+    /**
+     * What {@link #toKey(String)} returns for a String that is not a
+     * numbers-only CPF or CNPJ. No document has it as a key.
+     */
+    public static final long NO_KEY = -1L;
+
+    private static final long CNPJ_FLAG = 1L << 62;
+    private static final int CPF_LENGTH = 11;
+    private static final int CNPJ_LENGTH = 14;
+
+    private final long key;
+
+    private CpfCnpj(long key) {
+        this.key = key;
+    }
+
+    /**
+     * @param doc A CPF or CNPJ, can be formatted or numbers-only.
+     * @throws IllegalArgumentException If it does not have 11 or 14 digits.
+     */
+    public static CpfCnpj of(String doc) {
+        long key = toKey(CpfCnpjManager.toOnlyNumbers(doc));
+        if (key == NO_KEY) {
+            throw new IllegalArgumentException("CPF/CNPJ inválido: " + doc);
+        }
+        return new CpfCnpj(key);
+    }
+
+    /**
+     * @throws IllegalArgumentException If it is not the key of a CPF or CNPJ.
+     */
+    public static CpfCnpj fromKey(long key) {
+        if (key < 0 || (key & ~CNPJ_FLAG) >= (isCnpjKey(key) ? 100_000_000_000_000L : 100_000_000_000L)) {
+            throw new IllegalArgumentException("Not a CPF/CNPJ key: " + key);
+        }
+        return new CpfCnpj(key);
+    }
+
+    /**
+     * The key of a numbers-only CPF or CNPJ, as returned by
+     * {@link CpfCnpjManager#toOnlyNumbers}. Allocates nothing.
+     *
+     * @return The key, or {@link #NO_KEY} if the String is {@code null} or not
+     *         made of exactly 11 or 14 digits.
+     */
+    public static long toKey(String digits) {
+        if (digits == null) {
+            return NO_KEY;
+        }
+        int length = digits.length();
+        if (length != CPF_LENGTH && length != CNPJ_LENGTH) {
+            return NO_KEY;
+        }
+        long number = 0;
+        for (int i = 0; i < length; i++) {
+            char c = digits.charAt(i);
+            if (c < '0' || c > '9') {
+                return NO_KEY;
+            }
+            number = number * 10 + (c - '0');
+        }
+        return length == CNPJ_LENGTH ? number | CNPJ_FLAG : number;
+    }
+
+    /**
+     * The numbers-only String of a key, with its leading zeros.
+     */
+    public static String toString(long key) {
+        int length = isCnpjKey(key) ? CNPJ_LENGTH : CPF_LENGTH;
+        char[] digits = new char[length];
+        long number = key & ~CNPJ_FLAG;
+        for (int i = length - 1; i >= 0; i--) {
+            digits[i] = (char) ('0' + number % 10);
+            number /= 10;
+        }
+        return new String(digits);
+    }
+
+    private static boolean isCnpjKey(long key) {
+        return (key & CNPJ_FLAG) != 0;
+    }
+
+    public long getKey() {
+        return key;
+    }
+
+    public boolean isCnpj() {
+        return isCnpjKey(key);
+    }
+
+    /**
+     * Whether the check digits are right, see {@link CpfCnpjManager#isValid}.
+     */
+    public boolean isValid() {
+        return CpfCnpjManager.isValid(toString());
+    }
+
+    /**
+     * @return The document in its display format, e.g. {@code ###.###.###-##}.
+     */
+    public String format() {
+        return CpfCnpjManager.format(toString());
+    }
+
+    /**
+     * @return The numbers-only document, as stored.
+     */
+    @Override
+    public String toString() {
+        return toString(key);
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        return obj instanceof CpfCnpj other && other.key == key;
+    }
+
+    @Override
+    public int hashCode() {
+        return Long.hashCode(key);
+    }
+
+    /**
+     * CPFs first, then CNPJs, each in numeric order.
+     */
+    @Override
+    public int compareTo(CpfCnpj other) {
+        return Long.compare(key, other.key);
+    }
+}
@@ -1,7 +1,5 @@
 package trabalho.financeiro.utils;
 
-import java.util.InputMismatchException;
-
 public final class CpfCnpjManager {
 
     // Private constructor to prevent instantiation of this utility class
@@ -11,8 +9,12 @@ public final class CpfCnpjManager {
     private static final int CPF_LENGTH = 11;
     private static final int CNPJ_LENGTH = 14;
 
-    // Regex to find any character that is not a digit
-    private static final String NOT_A_DIGIT = "\\D";
+    private static final String CPF_PATTERN = "###.###.###-##";
+    private static final String CNPJ_PATTERN = "##.###.###/####-##";
+
+    // Weights of the digits in the check digits of a CNPJ, from the first digit
+    private static final int[] CNPJ_WEIGHTS_1 = { 5, 4, 3, 2, 9, 8, 7, 6, 5, 4, 3, 2 };
+    private static final int[] CNPJ_WEIGHTS_2 = { 6, 5, 4, 3, 2, 9, 8, 7, 6, 5, 4, 3, 2 };
 
     /**
      * Removes all non-digit characters from a string.
@@ -20,35 +22,59 @@ public final class CpfCnpjManager {
      *
      * @param doc The CPF or CNPJ string.
      * @return A string containing only the numbers from the input. Returns an empty
-     *         string if input is null.
+     *         string if input is null. Returns the input itself if it has only
+     *         numbers already.
      */
     public static String toOnlyNumbers(String doc) {
         if (doc == null) {
             return ""; // Or return null, depending on your preference
         }
-        return doc.replaceAll(NOT_A_DIGIT, "");
+        int length = doc.length();
+        int firstOther = 0;
+        while (firstOther < length && isDigit(doc.charAt(firstOther))) {
+            firstOther++;
+        }
+        if (firstOther == length) {
+            return doc; // Already clean, e.g. a key read back from the data
+        }
+
+        char[] digits = new char[length - 1];
+        doc.getChars(0, firstOther, digits, 0);
+        int count = firstOther;
+        for (int i = firstOther + 1; i < length; i++) {
+            char c = doc.charAt(i);
+            if (isDigit(c)) {
+                digits[count++] = c;
+            }
+        }
+        return new String(digits, 0, count);
     }
 
     /**
-     * Validates if the given string is a valid CPF or CNPJ.
+     * Validates if the given string is a valid CPF or CNPJ. Allocates nothing.
      *
      * @param doc The CPF or CNPJ to validate, can be formatted or numbers-only.
      * @return true if the document is a valid CPF or CNPJ, false otherwise.
      */
     public static boolean isValid(String doc) {
-        String cleanDoc = toOnlyNumbers(doc);
-
-        if (cleanDoc.isEmpty()) {
-            return false;
-        }
+        return scan(doc, null) > 0;
+    }
 
-        if (cleanDoc.length() == CPF_LENGTH) {
-            return isValidCPF(cleanDoc);
-        } else if (cleanDoc.length() == CNPJ_LENGTH) {
-            return isValidCNPJ(cleanDoc);
+    /**
+     * Validates and cleans a CPF or CNPJ in a single pass, the same as
+     * {@link #isValid} followed by {@link #toOnlyNumbers}.
+     *
+     * @param doc The CPF or CNPJ, can be formatted or numbers-only.
+     * @return The numbers of the document, the input itself if it has only
+     *         numbers already, or {@code null} if it is not a valid CPF or CNPJ.
+     */
+    public static String normalize(String doc) {
+        char[] digits = new char[CNPJ_LENGTH];
+        int count = scan(doc, digits);
+        if (count < 0) {
+            return null;
         }
-
-        return false;
+        return count == doc.length() ? doc : new String(digits, 0, count);
     }
 
     /**
@@ -62,114 +88,130 @@ public final class CpfCnpjManager {
      *         length.
      */
     public static String format(String doc) {
-        String cleanDoc = toOnlyNumbers(doc);
-
-        if (cleanDoc.length() == CPF_LENGTH) {
-            return cleanDoc.replaceFirst("(\\d{3})(\\d{3})(\\d{3})(\\d{2})", "$1.$2.$3-$4");
-        } else if (cleanDoc.length() == CNPJ_LENGTH) {
-            return cleanDoc.replaceFirst("(\\d{2})(\\d{3})(\\d{3})(\\d{4})(\\d{2})", "$1.$2.$3/$4-$5");
+        int count = 0;
+        for (int i = 0; doc != null && i < doc.length(); i++) {
+            if (isDigit(doc.charAt(i))) {
+                count++;
+            }
         }
 
-        // Return the cleaned (or original if no numbers) string if it has an invalid
-        // length
-        return doc;
-    }
-
-    private static boolean isValidCPF(String cpf) {
-        // Check for sequences of same digits (e.g., 11111111111), which are invalid
-        if (cpf.matches("(\\d)\\1{10}")) {
-            return false;
+        String pattern;
+        if (count == CPF_LENGTH) {
+            pattern = CPF_PATTERN;
+        } else if (count == CNPJ_LENGTH) {
+            pattern = CNPJ_PATTERN;
+        } else {
+            // Return the original string if it has an invalid length
+            return doc;
         }
 
-        char dig10, dig11;
-        int sm, i, r, num, peso;
-
-        try {
-            // Calculation of the 1st Check Digit
-            sm = 0;
-            peso = 10;
-            for (i = 0; i < 9; i++) {
-                num = (cpf.charAt(i) - '0');
-                sm = sm + (num * peso);
-                peso = peso - 1;
+        char[] formatted = new char[pattern.length()];
+        int position = 0;
+        for (int i = 0; i < doc.length(); i++) {
+            char c = doc.charAt(i);
+            if (!isDigit(c)) {
+                continue;
             }
-
-            r = 11 - (sm % 11);
-            if ((r == 10) || (r == 11))
-                dig10 = '0';
-            else
-                dig10 = (char) (r + '0');
-
-            // Calculation of the 2nd Check Digit
-            sm = 0;
-            peso = 11;
-            for (i = 0; i < 10; i++) {
-                num = (cpf.charAt(i) - '0');
-                sm = sm + (num * peso);
-                peso = peso - 1;
+            while (pattern.charAt(position) != '#') {
+                formatted[position] = pattern.charAt(position);
+                position++;
             }
-
-            r = 11 - (sm % 11);
-            if ((r == 10) || (r == 11))
-                dig11 = '0';
-            else
-                dig11 = (char) (r + '0');
-
-            // Check if the calculated digits match the given digits
-            return (dig10 == cpf.charAt(9)) && (dig11 == cpf.charAt(10));
-        } catch (InputMismatchException erro) {
-            return false;
+            formatted[position++] = c;
         }
+        return new String(formatted);
     }
 
-    private static boolean isValidCNPJ(String cnpj) {
-        // Check for sequences of same digits (e.g., 11111111111111), which are invalid
-        if (cnpj.matches("(\\d)\\1{13}")) {
-            return false;
+    /**
+     * Reads the digits of a document once, skipping anything else, and checks
+     * them as a CPF and as a CNPJ at the same time, since the weight of a digit
+     * only depends on its position from the start.
+     *
+     * @param digits Receives the digits, if not {@code null}. Must fit a CNPJ.
+     * @return How many digits the document has if they are a valid CPF or CNPJ,
+     *         -1 otherwise.
+     */
+    private static int scan(String doc, char[] digits) {
+        if (doc == null) {
+            return -1;
         }
 
-        char dig13, dig14;
-        int sm, i, r, num, peso;
-
-        try {
-            // Calculation of the 1st Check Digit
-            sm = 0;
-            peso = 2;
-            for (i = 11; i >= 0; i--) {
-                num = (cnpj.charAt(i) - '0');
-                sm = sm + (num * peso);
-                peso = peso + 1;
-                if (peso == 10)
-                    peso = 2;
+        int count = 0;
+        int first = -1;
+        boolean allSame = true;
+        int cpfSum1 = 0;
+        int cpfSum2 = 0;
+        int cnpjSum1 = 0;
+        int cnpjSum2 = 0;
+        int cpfDigit10 = 0;
+        int cpfDigit11 = 0;
+        int cnpjDigit13 = 0;
+        int cnpjDigit14 = 0;
+
+        for (int i = 0; i < doc.length(); i++) {
+            char c = doc.charAt(i);
+            if (!isDigit(c)) {
+                continue;
             }
-
-            r = sm % 11;
-            if ((r == 0) || (r == 1))
-                dig13 = '0';
-            else
-                dig13 = (char) ((11 - r) + '0');
-
-            // Calculation of the 2nd Check Digit
-            sm = 0;
-            peso = 2;
-            for (i = 12; i >= 0; i--) {
-                num = (cnpj.charAt(i) - '0');
-                sm = sm + (num * peso);
-                peso = peso + 1;
-                if (peso == 10)
-                    peso = 2;
+            if (count == CNPJ_LENGTH) {
+                return -1; // Too long for either
+            }
+            int digit = c - '0';
+            if (digits != null) {
+                digits[count] = c;
+            }
+            if (count == 0) {
+                first = digit;
+            } else if (digit != first) {
+                allSame = false;
             }
 
-            r = sm % 11;
-            if ((r == 0) || (r == 1))
-                dig14 = '0';
-            else
-                dig14 = (char) ((11 - r) + '0');
+            if (count < 9) {
+                cpfSum1 += digit * (10 - count);
+            }
+            if (count < 10) {
+                cpfSum2 += digit * (11 - count);
+            }
+            if (count < 12) {
+                cnpjSum1 += digit * CNPJ_WEIGHTS_1[count];
+            }
+            if (count < 13) {
+                cnpjSum2 += digit * CNPJ_WEIGHTS_2[count];
+            }
+            switch (count) {
+                case 9 -> cpfDigit10 = digit;
+                case 10 -> cpfDigit11 = digit;
+                case 12 -> cnpjDigit13 = digit;
+                case 13 -> cnpjDigit14 = digit;
+                default -> {
+                }
+            }
+            count++;
+        }
 
-            // Check if the calculated digits match the given digits
-            return (dig13 == cnpj.charAt(12)) && (dig14 == cnpj.charAt(13));
-        } catch (InputMismatchException erro) {
-            return false;
+        // Sequences of same digits (e.g., 11111111111) pass the checks but are
+        // invalid
+        if (allSame) {
+            return -1;
+        }
+        if (count == CPF_LENGTH) {
+            return checkDigit(cpfSum1) == cpfDigit10 && checkDigit(cpfSum2) == cpfDigit11 ? count : -1;
         }
+        if (count == CNPJ_LENGTH) {
+            return checkDigit(cnpjSum1) == cnpjDigit13 && checkDigit(cnpjSum2) == cnpjDigit14 ? count : -1;
+        }
+        return -1;
+    }
+
+    /**
+     * The check digit of a weighted sum, the same rule for CPF and CNPJ.
+     */
+    private static int checkDigit(int sum) {
+        int remainder = sum % 11;
+        return remainder < 2 ? 0 : 11 - remainder;
+    }
+
+    // Only ASCII digits, like \D in a regex
+    private static boolean isDigit(char c) {
+        return c >= '0' && c <= '9';
     }
-}
\ No newline at end of file
+}
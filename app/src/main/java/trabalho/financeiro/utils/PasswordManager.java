@@ -1,5 +1,6 @@
 package trabalho.financeiro.utils;
 
+import java.time.Duration;
 import java.util.EnumSet;
 import java.util.Set;
 import java.util.stream.Collectors;
@@ -9,6 +10,12 @@ import org.mindrot.jbcrypt.BCrypt;
 /**
  * A utility class for handling password-related operations like hashing,
  * verification, and strength validation.
+ * <p>
+ * New hashes use the current work factor, {@value #DEFAULT_WORK_FACTOR} until
+ * {@link #configure()} sets it for the host: either fixed with
+ * {@value #WORK_FACTOR_PROPERTY} or measured so that a verification takes
+ * about {@value #TARGET_MILLIS_PROPERTY} milliseconds (250 by default).
+ * Hashes made with a lower factor still verify, see {@link #needsRehash}.
  * 
  * @author Gabriel M.S.O.
  */
@@ -18,7 +25,20 @@ public final class PasswordManager {
         // Prevent instantiation
     }
 
-    private static final int WORK_FACTOR = 12;
+    public static final String WORK_FACTOR_PROPERTY = "trabalho.password.workFactor";
+    public static final String TARGET_MILLIS_PROPERTY = "trabalho.password.targetMillis";
+
+    private static final int DEFAULT_WORK_FACTOR = 12;
+    private static final long DEFAULT_TARGET_MILLIS = 250;
+    // Never below the default, however slow the host, nor above what a login
+    // can wait for
+    private static final int MIN_WORK_FACTOR = 12;
+    private static final int MAX_WORK_FACTOR = 16;
+    // Cheap enough to measure in a few milliseconds, each factor above doubles it
+    private static final int CALIBRATION_WORK_FACTOR = 8;
+    private static final int CALIBRATION_RUNS = 3;
+
+    private static volatile int workFactor = DEFAULT_WORK_FACTOR;
 
     public enum PasswordViolations {
         TOO_SHORT("Senha precisa ter ao menos 8 caracteres."),
@@ -43,7 +63,14 @@ public final class PasswordManager {
      * Hashes a plain text password using BCrypt.
      */
     public static String hashPassword(String plainPassword) {
-        return BCrypt.hashpw(plainPassword, BCrypt.gensalt(WORK_FACTOR));
+        return hashPassword(plainPassword, workFactor);
+    }
+
+    /**
+     * Hashes a plain text password using BCrypt with the given work factor.
+     */
+    public static String hashPassword(String plainPassword, int workFactor) {
+        return BCrypt.hashpw(plainPassword, BCrypt.gensalt(workFactor));
     }
 
     /**
@@ -53,6 +80,85 @@ public final class PasswordManager {
         return BCrypt.checkpw(plainPassword, hashedPassword);
     }
 
+    /**
+     * @return The work factor of new hashes.
+     */
+    public static int getWorkFactor() {
+        return workFactor;
+    }
+
+    /**
+     * @return The work factor a hash was made with, or -1 if it is not a
+     *         BCrypt hash.
+     */
+    public static int getWorkFactor(String hashedPassword) {
+        // $2a$12$...
+        if (hashedPassword == null || hashedPassword.length() < 7 || hashedPassword.charAt(0) != '$'
+                || hashedPassword.charAt(3) != '$' || hashedPassword.charAt(6) != '$') {
+            return -1;
+        }
+        char tens = hashedPassword.charAt(4);
+        char units = hashedPassword.charAt(5);
+        if (tens < '0' || tens > '9' || units < '0' || units > '9') {
+            return -1;
+        }
+        return (tens - '0') * 10 + (units - '0');
+    }
+
+    /**
+     * Whether a stored hash was made with a lower work factor than the current
+     * one, and should be replaced the next time its password is known, i.e.
+     * on login.
+     */
+    public static boolean needsRehash(String hashedPassword) {
+        int factor = getWorkFactor(hashedPassword);
+        return factor >= 0 && factor < workFactor;
+    }
+
+    /**
+     * Sets the work factor from the system properties, measuring this host if
+     * none is fixed. Takes a few tens of milliseconds, so it is best run in the
+     * background on startup.
+     *
+     * @return The new work factor.
+     */
+    public static int configure() {
+        Integer fixed = Integer.getInteger(WORK_FACTOR_PROPERTY);
+        if (fixed != null) {
+            // The limits of BCrypt itself, a fixed factor is taken as is
+            workFactor = Math.max(4, Math.min(31, fixed));
+            return workFactor;
+        }
+        return calibrate(Duration.ofMillis(Long.getLong(TARGET_MILLIS_PROPERTY, DEFAULT_TARGET_MILLIS)));
+    }
+
+    /**
+     * Times a cheap hash on this host and sets the work factor to the highest
+     * one whose hash should not take longer than the target, within
+     * {@value #MIN_WORK_FACTOR} to {@value #MAX_WORK_FACTOR}.
+     *
+     * @return The new work factor.
+     */
+    public static int calibrate(Duration target) {
+        hashPassword("calibration", CALIBRATION_WORK_FACTOR); // Warm up
+        long best = Long.MAX_VALUE;
+        for (int i = 0; i < CALIBRATION_RUNS; i++) {
+            long start = System.nanoTime();
+            hashPassword("calibration", CALIBRATION_WORK_FACTOR);
+            best = Math.min(best, System.nanoTime() - start);
+        }
+
+        int factor = MIN_WORK_FACTOR;
+        while (factor < MAX_WORK_FACTOR
+                && best << (factor + 1 - CALIBRATION_WORK_FACTOR) <= target.toNanos()) {
+            factor++;
+        }
+        workFactor = factor;
+        System.out.println("BCrypt work factor set to " + factor + " (about "
+                + (best << (factor - CALIBRATION_WORK_FACTOR)) / 1_000_000 + " ms per hash).");
+        return factor;
+    }
+
     /**
      * Validates a password against all defined strength rules, and returns a set of
      * violations.
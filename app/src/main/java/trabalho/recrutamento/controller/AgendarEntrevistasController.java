@@ -9,14 +9,17 @@ import javafx.scene.control.*;
 import javafx.stage.Stage;
 import trabalho.admin.model.Usuario;
 import trabalho.candidatura.model.Candidatura;
+import trabalho.common.controller.LiveEntityList;
 import trabalho.common.database.AppData;
 import trabalho.common.database.JsonDataManager;
 import trabalho.recrutamento.model.Entrevista;
+import trabalho.recrutamento.model.Vaga;
 
 import java.io.IOException;
 import java.time.LocalDateTime;
 import java.time.LocalTime;
 import java.util.List;
+import java.util.function.Predicate;
 import java.util.stream.Collectors;
 
 /**
@@ -37,6 +40,7 @@ public class AgendarEntrevistasController {
     @FXML private Button backButton;
 
     private Usuario currentUser;
+    private LiveEntityList<Candidatura> candidaturas;
 
     /**
      * Inicializa o controller, populando os campos e configurando eventos
@@ -118,7 +122,8 @@ public class AgendarEntrevistasController {
 
     /**
      * Carrega apenas as candidaturas das vagas atribuídas ao recrutador logado
-     * e implementa a filtro por recrutadorResponsavelCpf
+     * e implementa a filtro por recrutadorResponsavelCpf. A lista acompanha as
+     * alterações dos dados, não precisa ser recarregada.
      */
     private void carregarCandidaturasDoRecrutador() {
         if (currentUser == null) {
@@ -134,17 +139,20 @@ public class AgendarEntrevistasController {
         
         //Status EM_ANALISE (candidaturas que ainda não têm entrevista)
         //Vaga tem recrutadorResponsavelCpf igual ao CPF do recrutador logado
-        List<Candidatura> candidaturasFiltradas = appData.getCandidaturas().stream()
-            .filter(c -> "EM_ANALISE".equals(c.getStatus()))
-            .filter(c -> c.getVaga() != null)
-            .filter(c -> cpfRecrutador.equals(c.getVaga().getRecrutadorResponsavelCpf()))
-            .collect(Collectors.toList());
-        
-        comboCandidatura.getItems().clear();
-        comboCandidatura.getItems().addAll(candidaturasFiltradas);
+        Predicate<Candidatura> disponivel = c -> {
+            Vaga vaga = appData.getVagasById().get(c.getVagaId());
+            return "EM_ANALISE".equals(c.getStatus())
+                    && vaga != null && cpfRecrutador.equals(vaga.getRecrutadorResponsavelCpf());
+        };
+        candidaturas = new LiveEntityList<>(Candidatura.class, disponivel)
+                .recheckOn(Vaga.class, vaga -> appData.getCandidaturasByVaga(vaga.getId()))
+                .open(appData, () -> appData.getCandidaturasByRecrutador(cpfRecrutador).stream()
+                        .filter(disponivel)
+                        .collect(Collectors.toList()));
+        candidaturas.bind(comboCandidatura);
         
         //Verificar se há candidaturas disponíveis
-        if (candidaturasFiltradas.isEmpty()) {
+        if (candidaturas.getItems().isEmpty()) {
             mostrarAlerta(Alert.AlertType.INFORMATION, "Aviso", 
                 "Não há candidaturas disponíveis para agendamento.");
         }
@@ -201,7 +209,7 @@ public class AgendarEntrevistasController {
             Entrevista entrevista = new Entrevista();
             entrevista.setId("ENT" + System.currentTimeMillis());
             entrevista.setCandidaturaCpf(candidatura.getCpfCnpjCandidato());
-            entrevista.setVagaId(candidatura.getVaga().getId());
+            entrevista.setVagaId(candidatura.getVagaId());
             entrevista.setDataHora(dataHora);
             entrevista.setAvaliadorCpf(txtAvaliador.getText());
             entrevista.setObservacoes(txtObservacoes.getText() != null ? 
@@ -216,9 +224,8 @@ public class AgendarEntrevistasController {
                 "Candidato: " + candidatura.getCandidato().getPessoa().getNome() + "\n" +
                 "Data/Hora: " + dataHora.format(java.time.format.DateTimeFormatter.ofPattern("dd/MM/yyyy HH:mm")));
             
-            // Limpar formulário e recarregar lista
+            // Limpar formulário
             limpar();
-            carregarCandidaturasDoRecrutador();
             
         } catch (Exception e) {
             e.printStackTrace();
@@ -14,10 +14,10 @@ import trabalho.candidatura.model.Candidatura;
 import trabalho.common.database.AppData;
 import trabalho.common.database.JsonDataManager;
 import trabalho.recrutamento.model.Contratacao;
+import trabalho.recrutamento.model.Contratacao.StatusContratacao;
 
 import java.io.IOException;
 import java.util.List;
-import java.util.stream.Collectors;
 
 /**
  * Controller para gestor autorizar ou rejeitar contratações
@@ -95,6 +95,7 @@ public class AutorizarContratacoesController {
                     c.autorizar("GESTOR_CPF");
                     
                     JsonDataManager dataManager = JsonDataManager.getInstance();
+                    dataManager.getData().markUpdated(c);
                     dataManager.saveData();
                     
                     mostrarAlerta(Alert.AlertType.INFORMATION, "Sucesso", 
@@ -120,6 +121,7 @@ public class AutorizarContratacoesController {
                     c.recusar("GESTOR_CPF");
                     
                     JsonDataManager dataManager = JsonDataManager.getInstance();
+                    dataManager.getData().markUpdated(c);
                     dataManager.saveData();
                     
                     mostrarAlerta(Alert.AlertType.INFORMATION, "Rejeitado", 
@@ -138,16 +140,13 @@ public class AutorizarContratacoesController {
     private List<Contratacao> getContratacoesPendentes() {
         JsonDataManager dataManager = JsonDataManager.getInstance();
         AppData appData = dataManager.getData();
-        return appData.getContratacoes().stream()
-            .filter(Contratacao::isPendente)
-            .collect(Collectors.toList());
+        return appData.getContratacoesByStatus(StatusContratacao.PENDENTE_AUTORIZACAO);
     }
 
     private Candidatura getCandidatura(String cpf) {
         JsonDataManager dataManager = JsonDataManager.getInstance();
         AppData appData = dataManager.getData();
-        return appData.getCandidaturas().stream()
-            .filter(c -> c.getCpfCnpjCandidato().equals(cpf))
+        return appData.getCandidaturasByCandidato(cpf).stream()
             .findFirst()
             .orElse(null);
     }
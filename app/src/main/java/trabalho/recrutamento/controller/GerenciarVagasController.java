@@ -12,6 +12,8 @@ import javafx.stage.Stage;
 import trabalho.admin.model.Usuario;
 import trabalho.common.database.AppData;
 import trabalho.common.database.JsonDataManager;
+import trabalho.common.database.search.PageRequest;
+import trabalho.common.database.search.VagaSearchCriteria;
 import trabalho.recrutamento.model.RegimeContratacao;
 import trabalho.recrutamento.model.Vaga;
 
@@ -19,7 +21,6 @@ import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Date;
 import java.util.List;
-import java.util.stream.Collectors;
 
 /**
  * Controller para gerenciar vagas
@@ -131,8 +132,10 @@ public class GerenciarVagasController {
             vaga.setStatus(Vaga.StatusVaga.valueOf(status));
 
             if (vagaEditando == null) {
-                appData.addVaga(vaga);
                 vaga.setRecrutadorResponsavelCpf(currentUser.getCpfCnpj());
+                appData.addVaga(vaga);
+            } else {
+                appData.markUpdated(vaga);
             }
 
             dataManager.saveData();
@@ -157,39 +160,20 @@ public class GerenciarVagasController {
 
     private void pesquisar() {
         JsonDataManager dataManager = JsonDataManager.getInstance();
-        AppData appData = dataManager.getData();
-
-        List<Vaga> filtradas = appData.getVagasById().values().stream()
-                .filter(v -> {
-                    boolean ok = true;
-
-                    if (v.getRecrutadorResponsavelCpf() == null || !v.getRecrutadorResponsavelCpf().equals(currentUser.getCpfCnpj())) {
-                        return false; 
-                    }
-
-                    if (checkCargo.isSelected() && txtFiltroCargo.getText() != null
-                            && !txtFiltroCargo.getText().isEmpty()) {
-                        ok &= v.getCargo().toLowerCase().contains(txtFiltroCargo.getText().toLowerCase());
-                    }
-
-                    if (checkDepartamento.isSelected() && txtFiltroDepartamento.getText() != null
-                            && !txtFiltroDepartamento.getText().isEmpty()) {
-                        ok &= v.getDepartamento().toLowerCase().contains(txtFiltroDepartamento.getText().toLowerCase());
-                    }
-
-                    if (checkStatus.isSelected() && choiceStatus.getValue() != null) {
-                        ok &= v.getStatus().name().equals(choiceStatus.getValue());
-                    }
-
-                    if (checkRegime.isSelected() && choiceRegime.getValue() != null) {
-                        ok &= v.getRegimeContratacao().name().equals(choiceRegime.getValue());
-                    }
-
-                    return ok;
-                })
-                .collect(Collectors.toList());
 
-        atualizarResultados(filtradas);
+        VagaSearchCriteria criteria = new VagaSearchCriteria(
+                checkCargo.isSelected() ? txtFiltroCargo.getText() : null,
+                checkDepartamento.isSelected() ? txtFiltroDepartamento.getText() : null,
+                checkStatus.isSelected() && choiceStatus.getValue() != null
+                        ? Vaga.StatusVaga.valueOf(choiceStatus.getValue())
+                        : null,
+                checkRegime.isSelected() && choiceRegime.getValue() != null
+                        ? RegimeContratacao.valueOf(choiceRegime.getValue())
+                        : null,
+                currentUser.getCpfCnpj(),
+                null, null, null, null, null);
+
+        atualizarResultados(dataManager.getSearchService().searchVagas(criteria, PageRequest.all()).items());
     }
 
     private void limparFiltros() {
@@ -254,9 +238,12 @@ public class GerenciarVagasController {
                 try {
                     JsonDataManager dataManager = JsonDataManager.getInstance();
                     AppData appData = dataManager.getData();
-                    appData.removeVaga(v);
+                    // Candidaturas, entrevistas e contratações da vaga vão junto
+                    int vinculados = appData.removeVaga(v).size() - 1;
                     dataManager.saveData();
-                    mostrarAlerta(Alert.AlertType.INFORMATION, "Sucesso", "Vaga excluída!");
+                    mostrarAlerta(Alert.AlertType.INFORMATION, "Sucesso", vinculados > 0
+                            ? "Vaga excluída, junto com " + vinculados + " registro(s) vinculado(s)!"
+                            : "Vaga excluída!");
                     atualizarResultados(getListaVagas());
                 } catch (Exception e) {
                     mostrarAlerta(Alert.AlertType.ERROR, "Erro", "Erro ao excluir: " + e.getMessage());
@@ -269,10 +256,7 @@ public class GerenciarVagasController {
         JsonDataManager dataManager = JsonDataManager.getInstance();
         AppData appData = dataManager.getData();
         if (this.currentUser == null) return new ArrayList<>();
-        return appData.getVagasById().values().stream()
-        .filter(vagas -> vagas.getRecrutadorResponsavelCpf() != null && 
-                        vagas.getRecrutadorResponsavelCpf().equals(this.currentUser.getCpfCnpj()))
-        .collect(Collectors.toList());
+        return appData.getVagasByRecrutador(this.currentUser.getCpfCnpj());
     }
 
     private void mostrarAlerta(Alert.AlertType tipo, String titulo, String mensagem) {
@@ -9,14 +9,14 @@ import javafx.scene.control.*;
 import javafx.stage.Stage;
 import trabalho.admin.model.Usuario;
 import trabalho.candidatura.model.Candidatura;
+import trabalho.common.controller.LiveEntityList;
 import trabalho.common.database.AppData;
 import trabalho.common.database.JsonDataManager;
 import trabalho.recrutamento.model.Entrevista;
 
 import java.io.IOException;
 import java.time.format.DateTimeFormatter;
-import java.util.List;
-import java.util.stream.Collectors;
+import java.util.function.Predicate;
 
 public class RealizarEntrevistaController {
 
@@ -30,6 +30,7 @@ public class RealizarEntrevistaController {
     @FXML private Button backButton;
 
     private Usuario currentUser;
+    private LiveEntityList<Entrevista> entrevistas;
 
 
     @FXML
@@ -98,7 +99,9 @@ public class RealizarEntrevistaController {
 
     /**
      * Carrega apenas as entrevistas agendadas pelo recrutador logado
-     * Filtra por avaliadorCpf e entrevistas ainda não realizadas (nota == null)
+     * Filtra por avaliadorCpf e entrevistas ainda não realizadas (nota == null).
+     * A lista acompanha as alterações dos dados, uma entrevista realizada sai
+     * dela sozinha.
      */
     private void carregarEntrevistasDoRecrutador() {
         if (currentUser == null) {
@@ -115,16 +118,16 @@ public class RealizarEntrevistaController {
         // Filtrar entrevistas:
         // 1. Avaliador é o recrutador logado
         // 2. Ainda não foi realizada (nota == null ou nota == 0)
-        List<Entrevista> entrevistasFiltradas = appData.getEntrevistas().stream()
-            .filter(e -> cpfRecrutador.equals(e.getAvaliadorCpf()))
-            .filter(e -> e.getNota() == null || e.getNota() == 0.0)
-            .collect(Collectors.toList());
-        
-        comboEntrevista.getItems().clear();
-        comboEntrevista.getItems().addAll(entrevistasFiltradas);
+        Predicate<Entrevista> pendente = e -> cpfRecrutador.equals(e.getAvaliadorCpf())
+                && (e.getNota() == null || e.getNota() == 0.0);
+        entrevistas = new LiveEntityList<>(Entrevista.class, pendente)
+                .open(appData, () -> appData.getEntrevistasByAvaliador(cpfRecrutador).stream()
+                        .filter(pendente)
+                        .toList());
+        entrevistas.bind(comboEntrevista);
         
         // Verificar se há entrevistas disponíveis
-        if (entrevistasFiltradas.isEmpty()) {
+        if (entrevistas.getItems().isEmpty()) {
             mostrarAlerta(Alert.AlertType.INFORMATION, "Aviso", 
                 "Não há entrevistas agendadas para você.\n" +
                 "Verifique se há entrevistas pendentes de realização.");
@@ -197,6 +200,8 @@ public class RealizarEntrevistaController {
             
             // Atualizar status da candidatura baseado no resultado
             candidatura.setStatus(Candidatura.StatusCandidatura.valueOf(resultado));
+            appData.markUpdated(entrevista);
+            appData.markUpdated(candidatura);
             
             // Salvar alterações
             dataManager.saveData();
@@ -212,9 +217,8 @@ public class RealizarEntrevistaController {
                 "Nota: " + nota + "\n" +
                 "Resultado: " + resultado);
             
-            // Limpar formulário e recarregar lista
+            // Limpar formulário
             limpar();
-            carregarEntrevistasDoRecrutador();
             
         } catch (Exception e) {
             e.printStackTrace();
@@ -298,11 +302,7 @@ public class RealizarEntrevistaController {
         JsonDataManager dataManager = JsonDataManager.getInstance();
         AppData appData = dataManager.getData();
         
-        return appData.getCandidaturas().stream()
-            .filter(c -> c.getCpfCnpjCandidato().equals(cpfCandidato))
-            .filter(c -> c.getVaga() != null && c.getVaga().getId().equals(vagaId))
-            .findFirst()
-            .orElse(null);
+        return appData.findCandidatura(cpfCandidato, vagaId);
     }
 
     /**
@@ -104,6 +104,7 @@ public class SolicitarContratacoesController {
             contratacao.setId("CTR" + System.currentTimeMillis());
             contratacao.setCandidatoCpf(entrevista.getCandidatoCpf());
             contratacao.setVagaId(entrevista.getVagaId());
+            contratacao.setRecrutadorSolicitanteCpf(this.currentUser.getCpfCnpj());
             contratacao.setRegimeContratacao(RegimeContratacao.valueOf(regime));
             contratacao.setDataSolicitacao(LocalDate.now());
             contratacao.setStatus(Contratacao.StatusContratacao.PENDENTE_AUTORIZACAO);
@@ -156,20 +157,16 @@ public class SolicitarContratacoesController {
             return List.of(); // Retorna lista vazia
         }
 
-        return appData.getEntrevistas().stream()
-                // Filtro 1: Nota maior ou igual a 7 (aprovado)
+        // Entrevistas avaliadas pelo usuário logado com nota maior ou igual a 7 (aprovado)
+        return appData.getEntrevistasByAvaliador(this.currentUser.getCpfCnpj()).stream()
                 .filter(e -> e.getNota() != null && e.getNota() >= 7.0)
-                // Filtro 2: O avaliador deve ser o usuário logado
-                .filter(e -> e.getAvaliadorCpf() != null &&
-                        e.getAvaliadorCpf().equals(this.currentUser.getCpfCnpj()))
                 .collect(Collectors.toList());
     }
 
     private Candidatura getCandidatura(String cpf) {
         JsonDataManager dataManager = JsonDataManager.getInstance();
         AppData appData = dataManager.getData();
-        return appData.getCandidaturas().stream()
-                .filter(c -> c.getCpfCnpjCandidato().equals(cpf))
+        return appData.getCandidaturasByCandidato(cpf).stream()
                 .findFirst()
                 .orElse(null);
     }
@@ -3,6 +3,7 @@ package trabalho.recrutamento.model;
 import java.time.LocalDate;
 import java.time.ZoneId;
 import java.util.Date;
+import java.util.Objects;
 import java.util.UUID;
 
 /**
@@ -45,7 +46,7 @@ public class Contratacao {
 
     // Construtor para bibliotecas de serialização
     public Contratacao() {
-        this.id = new Date().toString();
+        this.id = UUID.randomUUID().toString();
         this.dataSolicitacao = LocalDate.now();
         this.status = StatusContratacao.PENDENTE_AUTORIZACAO;
     }
@@ -88,6 +89,10 @@ public class Contratacao {
         this.regime = regime;
     }
     
+    public RegimeContratacao getRegimeContratacao() {
+        return regimeContratacao;
+    }
+
     public void setRegimeContratacao(RegimeContratacao regime) {
         this.regimeContratacao = regime;
     }
@@ -116,6 +121,10 @@ public class Contratacao {
         this.vagaId = vagaId;
     }
 
+    public String getObservacoes() {
+        return observacoes;
+    }
+
     public void setObservacoes(String observacoes) {
         this.observacoes = observacoes;
     }
@@ -124,6 +133,10 @@ public class Contratacao {
         return recrutadorSolicitanteCpf;
     }
 
+    public void setRecrutadorSolicitanteCpf(String recrutadorSolicitanteCpf) {
+        this.recrutadorSolicitanteCpf = recrutadorSolicitanteCpf;
+    }
+
     public String getGestorAutorizanteCpf() {
         return gestorAutorizanteCpf;
     }
@@ -145,4 +158,19 @@ public class Contratacao {
     public boolean isPendente() {
         return this.status == StatusContratacao.PENDENTE_AUTORIZACAO;
     }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o)
+            return true;
+        if (o == null || getClass() != o.getClass())
+            return false;
+        Contratacao that = (Contratacao) o;
+        return Objects.equals(id, that.id);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(id);
+    }
 }
\ No newline at end of file
@@ -2,6 +2,7 @@ package trabalho.recrutamento.model;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.Objects;
 import java.util.UUID;
 
 //Uma Entrevista agendada para uma Candidatura
@@ -105,6 +106,21 @@ public class Entrevista {
         this.parecer = parecer;
     }
 
+    @Override
+    public boolean equals(Object o) {
+        if (this == o)
+            return true;
+        if (o == null || getClass() != o.getClass())
+            return false;
+        Entrevista that = (Entrevista) o;
+        return Objects.equals(id, that.id);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(id);
+    }
+
     @Override
     public String toString() {
         return "Entrevista{" +
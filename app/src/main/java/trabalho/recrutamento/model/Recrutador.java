@@ -2,7 +2,6 @@ package trabalho.recrutamento.model;
 
 import java.time.LocalDate;
 import java.util.List;
-import java.util.stream.Collectors;
 
 import trabalho.common.database.AppData;
 import trabalho.common.database.JsonDataManager;
@@ -57,7 +56,7 @@ public class Recrutador extends Funcionario {
         candidatura.atualizarStatus(novoStatus);
 
         // Salva a mudança no banco de dados JSON
-        JsonDataManager.getInstance().getData().addCandidatura(candidatura);
+        JsonDataManager.getInstance().getData().markUpdated(candidatura);
         JsonDataManager.getInstance().saveData();
     }
 
@@ -71,7 +70,7 @@ public class Recrutador extends Funcionario {
                 dataHora,
                 cpfCnpj, // Sempre usar o cpf do recrutador logado
                 candidatura.getCandidato().getCpfCnpj(),
-                candidatura.getVaga().getId());
+                candidatura.getVagaId());
 
         // Salva a nova entrevista no banco de dados
         JsonDataManager.getInstance().getData().addEntrevista(entrevista);
@@ -93,9 +92,9 @@ public class Recrutador extends Funcionario {
         }
 
         // Regra de Negócio: Deve ter ao menos uma entrevista (CÓDIGO AGORA VÁLIDO)
-        long countEntrevistas = JsonDataManager.getInstance().getData().getEntrevistas().stream()
-                .filter(e -> e.getCandidatoCpf().equals(candidatura.getCandidato().getCpfCnpj()) &&
-                        e.getVagaId().equals(candidatura.getVaga().getId()))
+        long countEntrevistas = JsonDataManager.getInstance().getData()
+                .getEntrevistasByCandidato(candidatura.getCandidato().getCpfCnpj()).stream()
+                .filter(e -> candidatura.getVagaId().equals(e.getVagaId()))
                 .count();
 
         if (countEntrevistas == 0) {
@@ -104,7 +103,7 @@ public class Recrutador extends Funcionario {
 
         Contratacao contratacao = new Contratacao(
                 candidatura.getCandidato().getCpfCnpj(),
-                candidatura.getVaga().getId(),
+                candidatura.getVagaId(),
                 regime,
                 this.getCpfCnpj() // O solicitante é o recrutador logado
         );
@@ -118,12 +117,7 @@ public class Recrutador extends Funcionario {
     // Consulta as candidaturas APENAS das vagas pelas quais este recrutador é
     // responsável
     public List<Candidatura> consultarMinhasCandidaturas() {
-        List<Candidatura> todasCandidaturas = JsonDataManager.getInstance().getData().getCandidaturas();
-
-        return todasCandidaturas.stream()
-                .filter(c -> c.getVaga() != null &&
-                        this.cpfCnpj.equals(c.getVaga().getRecrutadorResponsavelCpf()))
-                .collect(Collectors.toList());
+        return JsonDataManager.getInstance().getData().getCandidaturasByRecrutador(this.cpfCnpj);
     }
 
     // Metodo auxiliar para checar se o recrutador logado é responsavel pela vaga
@@ -2,6 +2,7 @@ package trabalho.recrutamento.model;
 
 import java.util.Date;
 import java.util.List;
+import java.util.Objects;
 import java.util.UUID;
 
 import trabalho.admin.model.Gestor;
@@ -192,7 +193,12 @@ public class Vaga {
         if (o == null || getClass() != o.getClass())
             return false;
         Vaga vaga = (Vaga) o;
-        return id == vaga.id;
+        return Objects.equals(id, vaga.id);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hashCode(id);
     }
 
     public void setId(String id) {
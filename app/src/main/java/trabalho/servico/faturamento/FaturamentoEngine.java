@@ -0,0 +1,145 @@
+package trabalho.servico.faturamento;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+import trabalho.common.database.AppData;
+import trabalho.common.database.JsonDataManager;
+import trabalho.common.database.MonthlyJsonLines;
+import trabalho.servico.model.ContratoServico;
+import trabalho.servico.model.ContratoServico.TipoValor;
+import trabalho.servico.model.LoteFaturamento;
+import trabalho.servico.model.NotaServico;
+import trabalho.servico.model.PrestadorServico;
+
+/**
+ * Invoices every {@link ContratoServico} in force during a month.
+ * <p>
+ * The contracts to invoice are copied under the lock of the data, then the
+ * invoices are computed in parallel straight into the month's file: one
+ * {@link NotaServico} per line, see {@link MonthlyJsonLines}. The value of a
+ * contract is prorated by the days of the month it was in force, so a
+ * contract that starts or ends mid-month is invoiced for just those days.
+ *
+ * @author Gabriel M.S.O.
+ */
+public class FaturamentoEngine {
+    public static final String DIRECTORY_PROPERTY = "trabalho.notas.dir";
+
+    private static final String DEFAULT_DIRECTORY = "notas";
+    private static final String FILE_PREFIX = "notas-";
+
+    private final JsonDataManager dataManager;
+    private final MonthlyJsonLines<NotaServico> notas;
+    private final ForkJoinPool pool;
+
+    public FaturamentoEngine(JsonDataManager dataManager) {
+        this(dataManager, diretorioPadrao(), ForkJoinPool.commonPool());
+    }
+
+    public FaturamentoEngine(JsonDataManager dataManager, Path diretorio, ForkJoinPool pool) {
+        this.dataManager = dataManager;
+        this.notas = notas(diretorio);
+        this.pool = pool;
+    }
+
+    /**
+     * The directory of {@link #DIRECTORY_PROPERTY}, {@code notas} by default.
+     */
+    public static Path diretorioPadrao() {
+        return Path.of(System.getProperty(DIRECTORY_PROPERTY, DEFAULT_DIRECTORY));
+    }
+
+    public static Path arquivo(Path diretorio, YearMonth competencia) {
+        return notas(diretorio).arquivo(competencia);
+    }
+
+    private static MonthlyJsonLines<NotaServico> notas(Path diretorio) {
+        return new MonthlyJsonLines<>(diretorio, FILE_PREFIX, NotaServico.class, NotaServico::valorBruto,
+                NotaServico::retencao, NotaServico::valorLiquido);
+    }
+
+    /**
+     * Computes and writes the invoices of a month, replacing any earlier run
+     * of the same month.
+     */
+    public LoteFaturamento faturar(YearMonth competencia) throws IOException {
+        long start = System.nanoTime();
+        Entrada[] entradas = snapshot(competencia);
+        MonthlyJsonLines.Totais totais = notas.escrever(competencia, entradas.length,
+                i -> calcular(entradas[i], competencia), pool);
+        return new LoteFaturamento(competencia, notas.arquivo(competencia), totais.registros(), totais.bruto(),
+                totais.descontos(), totais.liquido(), Duration.ofNanos(System.nanoTime() - start));
+    }
+
+    /**
+     * Reads back the invoices of one PrestadorServico, from every month in
+     * the directory, oldest first. Lines of other prestadores are skipped
+     * without being parsed. An unreadable file is reported and skipped.
+     */
+    public static List<NotaServico> lerNotas(Path diretorio, String cnpj) {
+        List<NotaServico> lidas = new ArrayList<>();
+        notas(diretorio).ler("prestadorCnpj", cnpj, lidas::add);
+        lidas.sort(Comparator.comparing(NotaServico::competencia));
+        return lidas;
+    }
+
+    /**
+     * Computes the invoice of one contract, {@code null} if it was not in
+     * force during the month.
+     */
+    static NotaServico calcular(Entrada entrada, YearMonth competencia) {
+        if (entrada.dias() <= 0) {
+            return null;
+        }
+        double mensal = entrada.tipoValor() == TipoValor.POR_HORA
+                ? entrada.valor() * entrada.horasMensais()
+                : entrada.valor();
+        double bruto = MonthlyJsonLines.arredondar(mensal * entrada.dias() / competencia.lengthOfMonth());
+        double retencao = MonthlyJsonLines.arredondar(bruto * entrada.percentualRetencao() / 100);
+        return new NotaServico(entrada.contratoId(), entrada.prestadorCnpj(), entrada.razaoSocial(),
+                entrada.descricao(), entrada.departamento(), competencia.toString(), entrada.dias(), bruto,
+                retencao, MonthlyJsonLines.arredondar(bruto - retencao));
+    }
+
+    /**
+     * Copies the contracts in force during the month, taking the lock of the
+     * data.
+     */
+    private Entrada[] snapshot(YearMonth competencia) {
+        AppData data = dataManager.getData();
+        synchronized (data) {
+            List<Entrada> entradas = new ArrayList<>();
+            for (ContratoServico contrato : data.contratosServicoView()) {
+                int dias = contrato.diasFaturaveis(competencia);
+                if (dias > 0) {
+                    entradas.add(Entrada.of(data, contrato, dias));
+                }
+            }
+            return entradas.toArray(new Entrada[0]);
+        }
+    }
+
+    /**
+     * What the invoice of a contract needs, copied so it can be computed
+     * without the lock of the data.
+     */
+    record Entrada(String contratoId, String prestadorCnpj, String razaoSocial, String descricao,
+            String departamento, int dias, TipoValor tipoValor, double valor, double horasMensais,
+            double percentualRetencao) {
+
+        static Entrada of(AppData data, ContratoServico contrato, int dias) {
+            PrestadorServico prestador = data.getPrestadores().get(contrato.getPrestadorCnpj());
+            return new Entrada(contrato.getId(), contrato.getPrestadorCnpj(),
+                    prestador != null ? prestador.getRazaoSocial() : null, contrato.getDescricao(),
+                    contrato.getDepartamento(), dias, contrato.getTipoValor(), contrato.getValor(),
+                    contrato.getHorasMensais(), contrato.getPercentualRetencao());
+        }
+    }
+}
@@ -1,5 +1,223 @@
 package trabalho.servico.model;
 
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.Objects;
+import java.util.UUID;
+
+import trabalho.financeiro.utils.CpfCnpjManager;
+
+/**
+ * A service contract with a {@link PrestadorServico}, invoiced once a month
+ * while it is in force.
+ * <p>
+ * It is in force from {@code dataInicio} to {@code dataFim}, both inclusive,
+ * or with no end if {@code dataFim} is {@code null}, unless it is suspended
+ * or closed.
+ *
+ * @author Gabriel M.S.O.
+ */
 public class ContratoServico {
-    
+
+    public enum StatusContrato {
+        ATIVO,
+        SUSPENSO, // Not invoiced until it is active again
+        ENCERRADO
+    }
+
+    public enum TipoValor {
+        MENSAL, // valor per month
+        POR_HORA // valor per hour, horasMensais hours a month
+    }
+
+    private String id;
+    private String prestadorCnpj;
+    private String descricao;
+    private String departamento;
+    private String gestorResponsavelCpf;
+    private LocalDate dataInicio;
+    private LocalDate dataFim;
+    private TipoValor tipoValor;
+    private double valor;
+    private double horasMensais;
+    private double percentualRetencao; // Taxes withheld from each invoice, e.g. 11.0
+    private StatusContrato status;
+
+    /**
+     * No-argument constructor required for libraries like GSON. Leaves the id
+     * to the reader, a new contract gets one from the other constructor.
+     */
+    public ContratoServico() {
+        this.status = StatusContrato.ATIVO;
+        this.tipoValor = TipoValor.MENSAL;
+    }
+
+    /**
+     * A contract paid {@code valor} a month.
+     *
+     * @param dataFim {@code null} for a contract with no end.
+     */
+    public ContratoServico(String prestadorCnpj, String descricao, LocalDate dataInicio, LocalDate dataFim,
+            double valor) {
+        this();
+        this.id = UUID.randomUUID().toString();
+        this.prestadorCnpj = CpfCnpjManager.toOnlyNumbers(prestadorCnpj);
+        this.descricao = descricao;
+        this.dataInicio = dataInicio;
+        this.dataFim = dataFim;
+        this.valor = valor;
+    }
+
+    /**
+     * @return Whether the contract is active and the day is within its
+     *         validity.
+     */
+    public boolean isVigente(LocalDate dia) {
+        return status == StatusContrato.ATIVO && dataInicio != null && !dia.isBefore(dataInicio)
+                && (dataFim == null || !dia.isAfter(dataFim));
+    }
+
+    /**
+     * How many days of the month the contract was in force, what its invoice
+     * is prorated by. A closed contract still counts the days up to its end,
+     * a suspended one counts none.
+     */
+    public int diasFaturaveis(YearMonth competencia) {
+        if (status == StatusContrato.SUSPENSO || dataInicio == null) {
+            return 0;
+        }
+        LocalDate inicio = competencia.atDay(1);
+        LocalDate fim = competencia.atEndOfMonth();
+        if (dataInicio.isAfter(inicio)) {
+            inicio = dataInicio;
+        }
+        if (dataFim != null && dataFim.isBefore(fim)) {
+            fim = dataFim;
+        }
+        return inicio.isAfter(fim) ? 0 : fim.getDayOfMonth() - inicio.getDayOfMonth() + 1;
+    }
+
+    /**
+     * Closes the contract on the day, which becomes its end if it was to end
+     * later.
+     */
+    public void encerrar(LocalDate dia) {
+        this.status = StatusContrato.ENCERRADO;
+        if (dataFim == null || dia.isBefore(dataFim)) {
+            this.dataFim = dia;
+        }
+    }
+
+    // --- Getters e Setters ---
+
+    public String getId() {
+        return id;
+    }
+
+    public void setId(String id) {
+        this.id = id;
+    }
+
+    public String getPrestadorCnpj() {
+        return prestadorCnpj;
+    }
+
+    public void setPrestadorCnpj(String prestadorCnpj) {
+        this.prestadorCnpj = CpfCnpjManager.toOnlyNumbers(prestadorCnpj);
+    }
+
+    public String getDescricao() {
+        return descricao;
+    }
+
+    public void setDescricao(String descricao) {
+        this.descricao = descricao;
+    }
+
+    public String getDepartamento() {
+        return departamento;
+    }
+
+    public void setDepartamento(String departamento) {
+        this.departamento = departamento;
+    }
+
+    public String getGestorResponsavelCpf() {
+        return gestorResponsavelCpf;
+    }
+
+    public void setGestorResponsavelCpf(String gestorResponsavelCpf) {
+        this.gestorResponsavelCpf = gestorResponsavelCpf;
+    }
+
+    public LocalDate getDataInicio() {
+        return dataInicio;
+    }
+
+    public void setDataInicio(LocalDate dataInicio) {
+        this.dataInicio = dataInicio;
+    }
+
+    public LocalDate getDataFim() {
+        return dataFim;
+    }
+
+    public void setDataFim(LocalDate dataFim) {
+        this.dataFim = dataFim;
+    }
+
+    public TipoValor getTipoValor() {
+        return tipoValor;
+    }
+
+    public void setTipoValor(TipoValor tipoValor) {
+        this.tipoValor = tipoValor;
+    }
+
+    public double getValor() {
+        return valor;
+    }
+
+    public void setValor(double valor) {
+        this.valor = valor;
+    }
+
+    public double getHorasMensais() {
+        return horasMensais;
+    }
+
+    public void setHorasMensais(double horasMensais) {
+        this.horasMensais = horasMensais;
+    }
+
+    public double getPercentualRetencao() {
+        return percentualRetencao;
+    }
+
+    public void setPercentualRetencao(double percentualRetencao) {
+        this.percentualRetencao = percentualRetencao;
+    }
+
+    public StatusContrato getStatus() {
+        return status;
+    }
+
+    public void setStatus(StatusContrato status) {
+        this.status = status;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o)
+            return true;
+        if (o == null || getClass() != o.getClass())
+            return false;
+        ContratoServico that = (ContratoServico) o;
+        return Objects.equals(id, that.id);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(id);
+    }
 }
@@ -0,0 +1,72 @@
+package trabalho.servico.model;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.YearMonth;
+
+/**
+ * The invoices of one month: where they were written and their totals. The
+ * invoices themselves are not kept in memory.
+ *
+ * @author Gabriel M.S.O.
+ */
+public class LoteFaturamento {
+    private final YearMonth competencia;
+    private final Path arquivo;
+    private final int notas;
+    private final double totalBruto;
+    private final double totalRetencoes;
+    private final double totalLiquido;
+    private final Duration duracao;
+
+    public LoteFaturamento(YearMonth competencia, Path arquivo, int notas, double totalBruto,
+            double totalRetencoes, double totalLiquido, Duration duracao) {
+        this.competencia = competencia;
+        this.arquivo = arquivo;
+        this.notas = notas;
+        this.totalBruto = totalBruto;
+        this.totalRetencoes = totalRetencoes;
+        this.totalLiquido = totalLiquido;
+        this.duracao = duracao;
+    }
+
+    public YearMonth getCompetencia() {
+        return competencia;
+    }
+
+    /**
+     * @return The JSON lines file with one {@link NotaServico} per line.
+     */
+    public Path getArquivo() {
+        return arquivo;
+    }
+
+    public int getNotas() {
+        return notas;
+    }
+
+    public double getTotalBruto() {
+        return totalBruto;
+    }
+
+    public double getTotalRetencoes() {
+        return totalRetencoes;
+    }
+
+    public double getTotalLiquido() {
+        return totalLiquido;
+    }
+
+    /**
+     * @return How long computing and writing the invoices took.
+     */
+    public Duration getDuracao() {
+        return duracao;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("Faturamento %s: %d notas, bruto %.2f, retenções %.2f, líquido %.2f em %d ms",
+                competencia, notas, totalBruto, totalRetencoes, totalLiquido, duracao.toMillis());
+    }
+}
@@ -0,0 +1,25 @@
+package trabalho.servico.model;
+
+/**
+ * The invoice of one {@link ContratoServico} for one month, as written by the
+ * invoicing batch.
+ *
+ * @param competencia    The month, e.g. {@code 2024-03}.
+ * @param diasFaturados  The days of the month the contract was in force.
+ * @param valorBruto     The value of the contract for those days.
+ * @param retencao       Taxes withheld, see
+ *                       {@link ContratoServico#getPercentualRetencao()}.
+ * @author Gabriel M.S.O.
+ */
+public record NotaServico(
+        String contratoId,
+        String prestadorCnpj,
+        String razaoSocial,
+        String descricao,
+        String departamento,
+        String competencia,
+        int diasFaturados,
+        double valorBruto,
+        double retencao,
+        double valorLiquido) {
+}
@@ -1,5 +1,105 @@
 package trabalho.servico.model;
 
+import java.time.LocalDate;
+import java.util.Objects;
+
+import trabalho.financeiro.utils.CpfCnpjManager;
+
+/**
+ * A company that provides services under a {@link ContratoServico}, usually a
+ * PJ contractor. Identified by its CNPJ, stored with numbers only.
+ *
+ * @author Gabriel M.S.O.
+ */
 public class PrestadorServico {
-    
+    private String cnpj;
+    private String razaoSocial;
+    private String email;
+    private String endereco;
+    private long telefone;
+    private LocalDate dataCadastro;
+
+    /**
+     * No-argument constructor required for libraries like GSON.
+     */
+    public PrestadorServico() {
+    }
+
+    /**
+     * @param cnpj Formatted or numbers only.
+     * @throws IllegalArgumentException If {@code cnpj} is not a valid CNPJ.
+     */
+    public PrestadorServico(String cnpj, String razaoSocial, String email) {
+        String numbers = CpfCnpjManager.normalize(cnpj);
+        if (numbers == null || numbers.length() != 14) {
+            throw new IllegalArgumentException("CNPJ inválido: " + cnpj);
+        }
+        this.cnpj = numbers;
+        this.razaoSocial = razaoSocial;
+        this.email = email;
+        this.dataCadastro = LocalDate.now();
+    }
+
+    public String getCnpj() {
+        return cnpj;
+    }
+
+    public void setCnpj(String cnpj) {
+        this.cnpj = CpfCnpjManager.toOnlyNumbers(cnpj);
+    }
+
+    public String getRazaoSocial() {
+        return razaoSocial;
+    }
+
+    public void setRazaoSocial(String razaoSocial) {
+        this.razaoSocial = razaoSocial;
+    }
+
+    public String getEmail() {
+        return email;
+    }
+
+    public void setEmail(String email) {
+        this.email = email;
+    }
+
+    public String getEndereco() {
+        return endereco;
+    }
+
+    public void setEndereco(String endereco) {
+        this.endereco = endereco;
+    }
+
+    public long getTelefone() {
+        return telefone;
+    }
+
+    public void setTelefone(long telefone) {
+        this.telefone = telefone;
+    }
+
+    public LocalDate getDataCadastro() {
+        return dataCadastro;
+    }
+
+    public void setDataCadastro(LocalDate dataCadastro) {
+        this.dataCadastro = dataCadastro;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o)
+            return true;
+        if (o == null || getClass() != o.getClass())
+            return false;
+        PrestadorServico that = (PrestadorServico) o;
+        return Objects.equals(cnpj, that.cnpj);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(cnpj);
+    }
 }
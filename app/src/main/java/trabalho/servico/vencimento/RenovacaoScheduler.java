@@ -0,0 +1,151 @@
+package trabalho.servico.vencimento;
+
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import trabalho.common.database.AppData;
+import trabalho.common.database.JsonDataManager;
+import trabalho.servico.model.ContratoServico;
+import trabalho.servico.model.ContratoServico.StatusContrato;
+import trabalho.servico.vencimento.VencimentoIndex.Vencimento;
+
+/**
+ * Checks the {@link VencimentoIndex} on a background thread: closes the
+ * contracts whose last day has passed and announces the ones that end within
+ * {@link #AVISO_DIAS_PROPERTY} days, so they can be renewed in time.
+ * <p>
+ * Each check only reads the contracts it acts on, however many there are.
+ * The contracts closed in one check are saved as a single batch. Alerts are
+ * kept in memory, so after a restart the contracts near their end are
+ * announced once more.
+ *
+ * @author Gabriel M.S.O.
+ */
+public class RenovacaoScheduler {
+    public static final String AVISO_DIAS_PROPERTY = "trabalho.servico.avisoDias";
+    public static final String INTERVALO_PROPERTY = "trabalho.servico.intervaloMinutos";
+
+    private static final int DEFAULT_AVISO_DIAS = 30;
+    private static final long DEFAULT_INTERVALO_MINUTOS = 60;
+
+    /**
+     * A contract that ends soon.
+     */
+    public record AlertaRenovacao(String contratoId, String prestadorCnpj, LocalDate dataFim, long diasRestantes) {
+    }
+
+    /**
+     * What one check did.
+     *
+     * @param encerrados The contracts closed, now {@link StatusContrato#ENCERRADO}.
+     * @param alertas    The contracts announced for the first time.
+     */
+    public record Verificacao(List<ContratoServico> encerrados, List<AlertaRenovacao> alertas) {
+    }
+
+    /**
+     * Receives the result of every check that found something, on the
+     * scheduler thread.
+     */
+    @FunctionalInterface
+    public interface Observer {
+        void verificado(Verificacao verificacao);
+    }
+
+    private final JsonDataManager dataManager;
+    private final VencimentoIndex index;
+    private final int avisoDias;
+    private final Observer observer;
+    private final ScheduledExecutorService executor;
+
+    /**
+     * Uses the index of the data manager and the days of
+     * {@link #AVISO_DIAS_PROPERTY}.
+     */
+    public RenovacaoScheduler(JsonDataManager dataManager, Observer observer) {
+        this(dataManager, dataManager.getVencimentoIndex(), Integer.getInteger(AVISO_DIAS_PROPERTY,
+                DEFAULT_AVISO_DIAS), observer);
+    }
+
+    public RenovacaoScheduler(JsonDataManager dataManager, VencimentoIndex index, int avisoDias,
+            Observer observer) {
+        this.dataManager = dataManager;
+        this.index = index;
+        this.avisoDias = avisoDias;
+        this.observer = observer;
+        this.executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "hr-contract-expiry");
+            thread.setDaemon(true); // A check cut short is simply done again on the next start
+            return thread;
+        });
+    }
+
+    /**
+     * Checks right away, then every {@link #INTERVALO_PROPERTY} minutes.
+     */
+    public void start() {
+        long minutos = Math.max(1, Long.getLong(INTERVALO_PROPERTY, DEFAULT_INTERVALO_MINUTOS));
+        executor.scheduleWithFixedDelay(this::verificarAgora, 0, minutos, TimeUnit.MINUTES);
+    }
+
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private void verificarAgora() {
+        // An exception would cancel every later run
+        try {
+            Verificacao verificacao = verificar(LocalDate.now());
+            if (observer != null && (!verificacao.encerrados().isEmpty() || !verificacao.alertas().isEmpty())) {
+                observer.verificado(verificacao);
+            }
+        } catch (RuntimeException e) {
+            System.err.println("Erro ao verificar os vencimentos dos contratos: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Closes the contracts that ended before {@code hoje} and finds the ones
+     * to announce. Called by the scheduler, public so a check can be run on
+     * demand or for a given day.
+     */
+    public Verificacao verificar(LocalDate hoje) {
+        List<ContratoServico> encerrados = encerrarVencidos(hoje);
+        List<AlertaRenovacao> alertas = new ArrayList<>();
+        for (Vencimento vencimento : index.novosAlertas(hoje, avisoDias)) {
+            alertas.add(new AlertaRenovacao(vencimento.contratoId(), vencimento.prestadorCnpj(),
+                    vencimento.dataFim(), ChronoUnit.DAYS.between(hoje, vencimento.dataFim())));
+        }
+        return new Verificacao(encerrados, alertas);
+    }
+
+    private List<ContratoServico> encerrarVencidos(LocalDate hoje) {
+        List<Vencimento> vencidos = index.vencidos(hoje);
+        List<ContratoServico> encerrados = new ArrayList<>(vencidos.size());
+        if (vencidos.isEmpty()) {
+            return encerrados;
+        }
+        AppData data = dataManager.getData();
+        synchronized (data) {
+            for (Vencimento vencimento : vencidos) {
+                // It may have been renewed or closed since the index was read
+                ContratoServico contrato = data.findContratoServico(vencimento.contratoId());
+                if (contrato != null && contrato.getStatus() == StatusContrato.ATIVO
+                        && contrato.getDataFim() != null && contrato.getDataFim().isBefore(hoje)) {
+                    contrato.encerrar(contrato.getDataFim());
+                    encerrados.add(contrato);
+                }
+            }
+            data.markAllUpdated(encerrados);
+        }
+        if (!encerrados.isEmpty()) {
+            dataManager.saveData();
+        }
+        return encerrados;
+    }
+}
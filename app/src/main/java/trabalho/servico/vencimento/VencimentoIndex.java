@@ -0,0 +1,193 @@
+package trabalho.servico.vencimento;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.TreeSet;
+
+import trabalho.common.database.AppData;
+import trabalho.common.database.DataChangeListener;
+import trabalho.servico.model.ContratoServico;
+import trabalho.servico.model.ContratoServico.StatusContrato;
+
+/**
+ * The active {@link ContratoServico}s that have an end date, ordered by that
+ * date, so the contracts that expire in the next days are a range of a tree
+ * instead of a scan of every contract.
+ * <p>
+ * It listens to the AppData: a contract added, renewed, closed or removed is
+ * one removal and at most one insertion in the tree, O(log n) however many
+ * contracts there are. A query costs O(log n) plus the contracts it returns.
+ * Contracts with no end, suspended or closed are not in it.
+ * <p>
+ * Changes come in under the lock of the AppData, queries only take the lock
+ * of this index.
+ *
+ * @author Gabriel M.S.O.
+ */
+public class VencimentoIndex implements DataChangeListener {
+
+    /**
+     * An active contract and the last day it is in force.
+     */
+    public record Vencimento(String contratoId, String prestadorCnpj, LocalDate dataFim) {
+    }
+
+    private static final Comparator<Entry> BY_DAY = Comparator.<Entry>comparingLong(e -> e.dia)
+            .thenComparing(e -> e.contratoId);
+
+    // Guarded by this
+    private final NavigableSet<Entry> porDia = new TreeSet<>(BY_DAY);
+    private final Map<String, Entry> porId = new HashMap<>();
+
+    private VencimentoIndex() {
+    }
+
+    /**
+     * Loads every active contract already in the data and follows its changes
+     * from now on.
+     */
+    public static VencimentoIndex attach(AppData data) {
+        VencimentoIndex index = new VencimentoIndex();
+        synchronized (data) {
+            for (ContratoServico contrato : data.getContratosServicoByStatus(StatusContrato.ATIVO)) {
+                index.refresh(contrato);
+            }
+            data.addChangeListener(index);
+        }
+        return index;
+    }
+
+    @Override
+    public void onChange(ChangeType type, Object entity) {
+        if (entity instanceof ContratoServico contrato) {
+            if (type == ChangeType.REMOVED) {
+                remove(contrato.getId());
+            } else {
+                refresh(contrato);
+            }
+        }
+    }
+
+    private synchronized void refresh(ContratoServico contrato) {
+        if (contrato.getStatus() != StatusContrato.ATIVO || contrato.getDataFim() == null) {
+            remove(contrato.getId());
+            return;
+        }
+        long dia = contrato.getDataFim().toEpochDay();
+        Entry existing = porId.get(contrato.getId());
+        if (existing != null && existing.dia == dia) {
+            return; // Some other field changed, it keeps its place and its alert
+        }
+        if (existing != null) {
+            porDia.remove(existing);
+        }
+        Entry entry = new Entry(dia, contrato.getId(), contrato.getPrestadorCnpj());
+        porDia.add(entry);
+        porId.put(entry.contratoId, entry);
+    }
+
+    private synchronized void remove(String contratoId) {
+        Entry existing = porId.remove(contratoId);
+        if (existing != null) {
+            porDia.remove(existing);
+        }
+    }
+
+    // --- Queries ---
+
+    /**
+     * @return How many active contracts have an end date.
+     */
+    public synchronized int size() {
+        return porId.size();
+    }
+
+    /**
+     * @return The contract that ends first, or {@code null}.
+     */
+    public synchronized Vencimento proximo() {
+        return porDia.isEmpty() ? null : porDia.first().toVencimento();
+    }
+
+    /**
+     * @return The contracts that end between the two days, both inclusive,
+     *         the earliest first.
+     */
+    public synchronized List<Vencimento> vencendoEntre(LocalDate de, LocalDate ate) {
+        List<Vencimento> result = new ArrayList<>();
+        for (Entry entry : range(de.toEpochDay(), ate.toEpochDay())) {
+            result.add(entry.toVencimento());
+        }
+        return result;
+    }
+
+    /**
+     * @return The contracts that end from today up to {@code dias} days from
+     *         now, the earliest first.
+     */
+    public List<Vencimento> vencendoNosProximos(LocalDate hoje, int dias) {
+        return vencendoEntre(hoje, hoje.plusDays(dias));
+    }
+
+    /**
+     * @return The contracts still active whose last day is before today,
+     *         i.e. the ones to close.
+     */
+    public synchronized List<Vencimento> vencidos(LocalDate hoje) {
+        List<Vencimento> result = new ArrayList<>();
+        for (Entry entry : porDia.headSet(new Entry(hoje.toEpochDay(), "", null), false)) {
+            result.add(entry.toVencimento());
+        }
+        return result;
+    }
+
+    /**
+     * Like {@link #vencendoNosProximos}, only the contracts not returned by an
+     * earlier call, so each renewal is announced once. A contract whose end
+     * date changes is announced again when its new date comes near.
+     */
+    synchronized List<Vencimento> novosAlertas(LocalDate hoje, int dias) {
+        List<Vencimento> result = new ArrayList<>();
+        for (Entry entry : range(hoje.toEpochDay(), hoje.plusDays(dias).toEpochDay())) {
+            if (!entry.alertado) {
+                entry.alertado = true;
+                result.add(entry.toVencimento());
+            }
+        }
+        return result;
+    }
+
+    private NavigableSet<Entry> range(long de, long ate) {
+        if (de > ate) {
+            return new TreeSet<>(BY_DAY);
+        }
+        // "" sorts before every id, so these bound whole days
+        return porDia.subSet(new Entry(de, "", null), true, new Entry(ate + 1, "", null), false);
+    }
+
+    /**
+     * The key fields never change while the entry is in the tree, a new end
+     * date is a new entry.
+     */
+    private static final class Entry {
+        final long dia; // Epoch day of dataFim
+        final String contratoId;
+        final String prestadorCnpj;
+        boolean alertado;
+
+        Entry(long dia, String contratoId, String prestadorCnpj) {
+            this.dia = dia;
+            this.contratoId = contratoId;
+            this.prestadorCnpj = prestadorCnpj;
+        }
+
+        Vencimento toVencimento() {
+            return new Vencimento(contratoId, prestadorCnpj, LocalDate.ofEpochDay(dia));
+        }
+    }
+}
@@ -0,0 +1,137 @@
+package trabalho.common.controller;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.Date;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Predicate;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import trabalho.candidatura.model.Candidatura;
+import trabalho.candidatura.model.Candidatura.StatusCandidatura;
+import trabalho.common.database.AppData;
+import trabalho.recrutamento.model.Vaga;
+
+class LiveEntityListTest {
+    private static final String RECRUTADOR = "52998224725";
+    private static final String OUTRO = "11144477735";
+
+    private AppData data;
+    private Vaga vaga;
+    private Vaga outraVaga;
+    private LiveEntityList<Candidatura> list;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        data = new AppData();
+        vaga = vaga(RECRUTADOR);
+        outraVaga = vaga(OUTRO);
+        candidatura("1", vaga);
+        candidatura("2", outraVaga);
+
+        // The Candidaturas in analysis of the Vagas of the recrutador
+        Predicate<Candidatura> scope = c -> {
+            Vaga v = data.getVagasById().get(c.getVagaId());
+            return c.getStatusEnum() == StatusCandidatura.PENDENTE
+                    && v != null && RECRUTADOR.equals(v.getRecrutadorResponsavelCpf());
+        };
+        // Applied right away, there is no JavaFX Application Thread here
+        list = new LiveEntityList<>(Candidatura.class, scope)
+                .recheckOn(Vaga.class, v -> data.getCandidaturasByVaga(v.getId()))
+                .deliverWith(Runnable::run)
+                .open(data, () -> data.getCandidaturasByRecrutador(RECRUTADOR));
+    }
+
+    private Vaga vaga(String recrutador) throws Exception {
+        Vaga v = new Vaga("Analista", "TI", 5000, "", null, null);
+        v.setRecrutadorResponsavelCpf(recrutador);
+        data.addVaga(v);
+        return v;
+    }
+
+    private Candidatura candidatura(String cpf, Vaga v) throws Exception {
+        Candidatura c = new Candidatura(cpf, v, new Date());
+        data.addCandidatura(c);
+        return c;
+    }
+
+    private Set<String> cpfs() {
+        Set<String> cpfs = new HashSet<>();
+        for (Candidatura c : list.getItems()) {
+            assertTrue(cpfs.add(c.getCpfCnpjCandidato()), "Listed twice: " + c.getCpfCnpjCandidato());
+        }
+        return cpfs;
+    }
+
+    @Test
+    void followsAddsUpdatesAndRemovals() throws Exception {
+        assertEquals(Set.of("1"), cpfs());
+
+        candidatura("3", vaga);
+        candidatura("4", outraVaga);
+        Candidatura quinta = candidatura("5", vaga);
+        assertEquals(Set.of("1", "3", "5"), cpfs());
+
+        // Out of scope and back
+        quinta.setStatus(StatusCandidatura.EM_ANALISE);
+        data.markUpdated(quinta);
+        assertEquals(Set.of("1", "3"), cpfs());
+        quinta.setStatus(StatusCandidatura.PENDENTE);
+        data.markUpdated(quinta);
+        assertEquals(Set.of("1", "3", "5"), cpfs());
+
+        // An update in scope replaces the row in place
+        int index = list.getItems().indexOf(quinta);
+        data.markUpdated(quinta);
+        assertSame(quinta, list.getItems().get(index));
+        assertEquals(3, list.getItems().size());
+
+        // The first row goes, the last one takes its place
+        Candidatura primeira = list.getItems().get(0);
+        Candidatura segunda = list.getItems().get(1);
+        Candidatura ultima = list.getItems().get(2);
+        data.removeCandidatura(primeira);
+        assertEquals(List.of(ultima, segunda), list.getItems());
+
+        // Still found by position after the move
+        data.removeCandidatura(ultima);
+        assertEquals(1, list.getItems().size());
+        assertFalse(list.getItems().contains(ultima));
+    }
+
+    @Test
+    void aVagaThatChangesRecrutadorBringsOrTakesItsCandidaturas() throws Exception {
+        candidatura("3", outraVaga);
+
+        outraVaga.setRecrutadorResponsavelCpf(RECRUTADOR);
+        data.markUpdated(outraVaga);
+        assertEquals(Set.of("1", "2", "3"), cpfs());
+
+        vaga.setRecrutadorResponsavelCpf(OUTRO);
+        data.markUpdated(vaga);
+        assertEquals(Set.of("2", "3"), cpfs());
+
+        // Its Candidaturas go with the Vaga
+        data.removeVaga(outraVaga);
+        assertTrue(cpfs().isEmpty());
+    }
+
+    @Test
+    void theFilterAppliesToTheRowsThatArrive() throws Exception {
+        list.setFilter(c -> c.getCpfCnpjCandidato().startsWith("3"));
+        candidatura("3", vaga);
+        candidatura("30", vaga);
+        candidatura("4", vaga);
+
+        assertEquals(4, list.getItems().size());
+        assertEquals(Set.of("3", "30"),
+                new HashSet<>(list.getSorted().stream().map(Candidatura::getCpfCnpjCandidato).toList()));
+
+        list.setFilter(null);
+        assertEquals(4, list.getSorted().size());
+    }
+}
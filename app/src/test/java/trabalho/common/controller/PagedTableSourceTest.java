@@ -0,0 +1,79 @@
+package trabalho.common.controller;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import trabalho.common.database.search.Page;
+import trabalho.common.database.search.PageRequest;
+
+class PagedTableSourceTest {
+    private final List<Integer> data = new ArrayList<>();
+    private final List<PageRequest<Integer>> requests = new ArrayList<>();
+    private PagedTableSource<Integer> source;
+
+    @BeforeEach
+    void setUp() {
+        IntStream.range(0, 25).forEach(data::add);
+        source = new PagedTableSource<>(this::fetch, 10);
+        source.refresh();
+    }
+
+    /**
+     * A search over the list: sort, then slice.
+     */
+    private Page<Integer> fetch(PageRequest<Integer> request) {
+        requests.add(request);
+        List<Integer> sorted = new ArrayList<>(data);
+        if (request.order() != null) {
+            sorted.sort(request.order());
+        }
+        int from = Math.min(request.offset(), sorted.size());
+        int to = Math.min(from + request.limit(), sorted.size());
+        return new Page<>(sorted.subList(from, to), request.offset(), sorted.size());
+    }
+
+    @Test
+    void fetchesOnlyThePagesThatAreRead() {
+        assertEquals(25, source.size());
+        assertEquals(1, requests.size());
+
+        assertEquals(0, source.get(0));
+        assertEquals(9, source.get(9));
+        assertEquals(1, requests.size());
+
+        assertEquals(24, source.get(24));
+        assertEquals(2, requests.size());
+        assertEquals(20, requests.get(1).offset());
+        assertThrows(IndexOutOfBoundsException.class, () -> source.get(25));
+    }
+
+    @Test
+    void refreshFetchesTheTotalAndThePagesAgain() {
+        source.get(5);
+        data.removeIf(i -> i < 10);
+        int before = requests.size();
+
+        source.refresh();
+        assertEquals(15, source.size());
+        assertEquals(10, source.get(0));
+        assertEquals(24, source.get(14));
+        assertEquals(before + 2, requests.size());
+    }
+
+    @Test
+    void theOrderIsHandedToTheSearch() {
+        source.setOrder(Comparator.reverseOrder());
+        assertEquals(24, source.get(0));
+        assertEquals(0, source.get(24));
+
+        source.setOrder(null);
+        assertEquals(0, source.get(0));
+    }
+}
@@ -0,0 +1,205 @@
+package trabalho.common.database;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.ByteArrayOutputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import trabalho.admin.model.Gestor;
+import trabalho.admin.model.Usuario;
+import trabalho.candidatura.model.Candidato;
+import trabalho.candidatura.model.Candidatura;
+import trabalho.candidatura.model.Candidatura.StatusCandidatura;
+import trabalho.candidatura.model.Pessoa;
+import trabalho.financeiro.model.Funcionario;
+import trabalho.recrutamento.model.Contratacao;
+import trabalho.recrutamento.model.Entrevista;
+import trabalho.recrutamento.model.RegimeContratacao;
+import trabalho.recrutamento.model.Vaga;
+import trabalho.recrutamento.model.Vaga.StatusVaga;
+import trabalho.servico.model.ContratoServico;
+import trabalho.servico.model.PrestadorServico;
+
+class BinaryStorageFormatTest {
+    private static final String GESTOR = "11111111111";
+    private static final String CANDIDATO = "22222222222";
+    private static final String CNPJ = "11222333000181";
+
+    @TempDir
+    Path dir;
+
+    private static AppData sample() throws Exception {
+        AppData data = new AppData();
+        data.addPessoa(new Pessoa(GESTOR, "Ana Gestora", "ana@x.com"));
+        data.addPessoa(new Pessoa(CANDIDATO, "Bruno Candidato"));
+        data.addUsuario(new Usuario(GESTOR, "$2a$12$hash"));
+        data.addFuncionario(new Gestor(GESTOR, "Gestora", "Ativo", "TI", 9000.5));
+        data.addFuncionario(new Funcionario(GESTOR, "Analista", "Ativo", "TI", 4321.0));
+        data.addCandidato(new Candidato(CANDIDATO));
+
+        Vaga vaga = new Vaga("Analista", "TI", 5000, "Java\nSQL", RegimeContratacao.CLT, GESTOR);
+        data.addVaga(vaga);
+        data.addCandidatura(new Candidatura(CANDIDATO, vaga, new Date(1_700_000_000_000L)));
+        data.addEntrevista(new Entrevista(LocalDate.of(2025, 3, 10), GESTOR, CANDIDATO, vaga.getId()));
+        data.addContratacao(new Contratacao(CANDIDATO, vaga.getId(), RegimeContratacao.CLT, GESTOR));
+
+        data.addPrestador(new PrestadorServico(CNPJ, "Prestadora Ltda", "p@x.com"));
+        ContratoServico contrato = new ContratoServico(CNPJ, "Limpeza", LocalDate.of(2025, 1, 1),
+                LocalDate.of(2025, 12, 31), 1500.25);
+        contrato.setPercentualRetencao(11);
+        data.addContratoServico(contrato);
+        return data;
+    }
+
+    private static String json(AppData data) throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        JsonStorageFormat.INSTANCE.write(data, out);
+        return out.toString(StandardCharsets.UTF_8);
+    }
+
+    private Path writeBinary(AppData data) throws Exception {
+        Path file = dir.resolve("hr_data.bin");
+        try (OutputStream out = Files.newOutputStream(file)) {
+            BinaryStorageFormat.INSTANCE.write(data, out);
+        }
+        return file;
+    }
+
+    @Test
+    void roundTripKeepsEveryEntity() throws Exception {
+        AppData data = sample();
+        Path file = writeBinary(data);
+
+        assertEquals(BinaryStorageFormat.INSTANCE, StorageFormat.detect(file));
+        AppData read = BinaryStorageFormat.INSTANCE.read(file, new AppData(), null);
+        assertEquals(json(data), json(read));
+        assertEquals(1, read.getCandidaturasByVaga(read.getVagasById().keySet().iterator().next()).size());
+        assertEquals(1, read.getContratosServicoByPrestador(CNPJ).size());
+    }
+
+    @Test
+    void isSmallerThanTheJson() throws Exception {
+        AppData data = sample();
+        assertTrue(Files.size(writeBinary(data)) < json(data).length());
+    }
+
+    @Test
+    void convertsToJsonAndBack() throws Exception {
+        AppData data = sample();
+        Path binary = writeBinary(data);
+        Path json = dir.resolve("hr_data.json");
+        Path back = dir.resolve("back.bin");
+
+        SnapshotConverter.convert(binary, json, JsonStorageFormat.INSTANCE);
+        assertEquals(JsonStorageFormat.INSTANCE, StorageFormat.detect(json));
+        SnapshotConverter.convert(json, back, BinaryStorageFormat.INSTANCE);
+
+        assertEquals(json(data), json(BinaryStorageFormat.INSTANCE.read(back, new AppData(), null)));
+    }
+
+    /**
+     * Version 1 stored the Vaga of each Candidatura: none, its id, or the
+     * whole Vaga inline.
+     */
+    @Test
+    void readsVersion1() throws Exception {
+        List<String> strings = List.of("VID-1", "Analista", "TI", "ABERTA", "CLT", "APROVADO", "VID-2");
+        Map<String, Integer> table = new HashMap<>();
+        for (String string : strings) {
+            table.put(string, table.size());
+        }
+
+        ByteArrayOutputStream file = new ByteArrayOutputStream();
+        BinaryOutput out = new BinaryOutput(table, false);
+        out.writeBytes(new byte[] { 'H', 'R', 'D', 'B' }, 0, 4);
+        out.writeVarLong(1);
+        out.writeVarLong(strings.size());
+        for (String string : strings) {
+            out.writeString(string);
+        }
+        out.writeTo(file);
+
+        BinaryOutput vaga1 = vaga(table, "VID-1");
+        section(file, 8, List.of(vaga1));
+
+        BinaryOutput byId = candidatura(table, "11111111111");
+        byId.writeByte(1);
+        byId.writeInterned("VID-1");
+        tail(byId);
+        BinaryOutput inline = candidatura(table, "22222222222");
+        inline.writeByte(2);
+        BinaryOutput vaga2 = vaga(table, "VID-2");
+        inline.writeBytes(toBytes(vaga2), 0, vaga2.size());
+        tail(inline);
+        BinaryOutput none = candidatura(table, "33333333333");
+        none.writeByte(0);
+        tail(none);
+        section(file, 9, List.of(byId, inline, none));
+        file.write(0); // End
+
+        Path path = dir.resolve("v1.bin");
+        Files.write(path, file.toByteArray());
+        AppData read = BinaryStorageFormat.INSTANCE.read(path, new AppData(), null);
+
+        assertEquals(StatusVaga.ABERTA, read.getVagasById().get("VID-1").getStatus());
+        assertEquals("VID-1", read.findCandidatura("11111111111", "VID-1").getVagaId());
+        Candidatura inlined = read.findCandidatura("22222222222", "VID-2");
+        assertEquals(StatusCandidatura.APROVADO, inlined.getStatusEnum());
+        assertEquals(new Date(42), inlined.getDataCandidatura());
+        assertNull(read.findCandidatura("33333333333", null).getVagaId());
+    }
+
+    private static BinaryOutput vaga(Map<String, Integer> table, String id) {
+        BinaryOutput v = new BinaryOutput(table, false);
+        v.writeInterned(id);
+        v.writeInterned("Analista");
+        v.writeInterned("TI");
+        v.writeDouble(5000);
+        v.writeString("Java");
+        v.writeEnum(StatusVaga.ABERTA);
+        v.writeEnum(RegimeContratacao.CLT);
+        v.writeDate(new Date(0));
+        v.writeCpfCnpj(GESTOR);
+        v.writeCpfCnpj(null);
+        return v;
+    }
+
+    private static BinaryOutput candidatura(Map<String, Integer> table, String cpf) {
+        BinaryOutput c = new BinaryOutput(table, false);
+        c.writeCpfCnpj(cpf);
+        return c;
+    }
+
+    private static void tail(BinaryOutput candidatura) {
+        candidatura.writeDate(new Date(42));
+        candidatura.writeEnum(StatusCandidatura.APROVADO);
+    }
+
+    private static void section(ByteArrayOutputStream file, int tag, List<BinaryOutput> records) throws Exception {
+        BinaryOutput frame = new BinaryOutput(null, false);
+        frame.writeVarLong(tag);
+        frame.writeVarLong(records.size());
+        for (BinaryOutput record : records) {
+            frame.writeVarLong(record.size());
+            frame.writeBytes(toBytes(record), 0, record.size());
+        }
+        frame.writeTo(file);
+    }
+
+    private static byte[] toBytes(BinaryOutput output) throws Exception {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        output.writeTo(bytes);
+        return bytes.toByteArray();
+    }
+}
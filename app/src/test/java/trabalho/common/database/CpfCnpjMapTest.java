@@ -0,0 +1,118 @@
+package trabalho.common.database;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ConcurrentModificationException;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * {@link CpfCnpjMap} against a HashMap of Strings, with the mix of keys the
+ * data holds: CPFs, CNPJs and anything else.
+ */
+class CpfCnpjMapTest {
+
+    private static String randomKey(Random random) {
+        return switch (random.nextInt(6)) {
+            case 0 -> String.format("%014d", random.nextInt(2000)); // CNPJ, shares digits with the CPFs
+            case 1 -> "123.456.789-" + random.nextInt(10); // Formatted, goes to the other map
+            default -> String.format("%011d", random.nextInt(2000));
+        };
+    }
+
+    @Test
+    void behavesLikeAHashMap() {
+        Random random = new Random(7);
+        CpfCnpjMap<Integer> map = new CpfCnpjMap<>();
+        Map<String, Integer> expected = new HashMap<>();
+
+        for (int i = 0; i < 200_000; i++) {
+            String key = randomKey(random);
+            switch (random.nextInt(4)) {
+                case 0, 1 -> assertEquals(expected.put(key, i), map.put(key, i));
+                case 2 -> assertEquals(expected.remove(key), map.remove(key));
+                default -> {
+                    assertEquals(expected.get(key), map.get(key));
+                    assertEquals(expected.containsKey(key), map.containsKey(key));
+                }
+            }
+        }
+        assertEquals(expected.size(), map.size());
+        assertEquals(expected, map);
+        assertEquals(expected, new HashMap<>(map));
+    }
+
+    @Test
+    void keepsACpfAndACnpjWithTheSameDigitsApart() {
+        CpfCnpjMap<String> map = new CpfCnpjMap<>();
+        map.put("00012345678", "cpf");
+        map.put("00000012345678", "cnpj");
+
+        assertEquals("cpf", map.get("00012345678"));
+        assertEquals("cnpj", map.get("00000012345678"));
+        assertEquals(2, map.size());
+    }
+
+    @Test
+    void iteratorRemoveVisitsEveryEntryOnce() {
+        Random random = new Random(11);
+        CpfCnpjMap<Integer> map = new CpfCnpjMap<>();
+        Map<String, Integer> expected = new HashMap<>();
+        for (int i = 0; i < 20_000; i++) {
+            String key = randomKey(random);
+            map.put(key, i);
+            expected.put(key, i);
+        }
+
+        Map<String, Integer> seen = new HashMap<>();
+        Iterator<Map.Entry<String, Integer>> iterator = map.entrySet().iterator();
+        while (iterator.hasNext()) {
+            Map.Entry<String, Integer> entry = iterator.next();
+            assertNull(seen.put(entry.getKey(), entry.getValue()), "visited twice: " + entry.getKey());
+            if (entry.getValue() % 3 == 0) {
+                iterator.remove();
+                expected.remove(entry.getKey());
+            }
+        }
+        assertEquals(expected, new HashMap<>(map));
+    }
+
+    @Test
+    void valuesIteratorRemove() {
+        CpfCnpjMap<Integer> map = new CpfCnpjMap<>();
+        for (int i = 0; i < 1000; i++) {
+            map.put(String.format("%011d", i), i);
+        }
+        map.values().removeIf(v -> v % 2 == 1);
+
+        assertEquals(500, map.size());
+        for (int i = 0; i < 1000; i++) {
+            assertEquals(i % 2 == 0 ? Integer.valueOf(i) : null, map.get(String.format("%011d", i)));
+        }
+    }
+
+    @Test
+    void failsFastWhenChangedWhileIterating() {
+        CpfCnpjMap<Integer> map = new CpfCnpjMap<>();
+        map.put("11111111111", 1);
+        map.put("22222222222", 2);
+        Iterator<Integer> iterator = map.values().iterator();
+        iterator.next();
+        map.remove("22222222222");
+
+        assertThrows(ConcurrentModificationException.class, iterator::next);
+    }
+
+    @Test
+    void setValueWritesThrough() {
+        CpfCnpjMap<String> map = new CpfCnpjMap<>();
+        map.put("11111111111", "a");
+        map.entrySet().iterator().next().setValue("b");
+
+        assertEquals("b", map.get("11111111111"));
+    }
+}
@@ -0,0 +1,202 @@
+package trabalho.common.database;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import trabalho.candidatura.model.Pessoa;
+import trabalho.servico.model.ContratoServico;
+import trabalho.servico.model.PrestadorServico;
+
+class DataJournalTest {
+    private static final String CNPJ = "11222333000181";
+
+    @TempDir
+    Path dir;
+
+    private DataJournal journal() {
+        return new DataJournal(dir.resolve("hr.journal").toString(), JsonDataManager.baseGsonBuilder().create(),
+                0);
+    }
+
+    private static AppData replayed(DataJournal journal) throws Exception {
+        AppData data = new AppData();
+        journal.replay(data);
+        return data;
+    }
+
+    @Test
+    void replaysAddsUpdatesAndRemovals() throws Exception {
+        DataJournal journal = journal();
+        AppData data = new AppData();
+        data.addChangeListener(journal);
+
+        Pessoa ana = new Pessoa("11111111111", "Ana");
+        Pessoa bia = new Pessoa("22222222222", "Bia");
+        data.addPessoa(ana);
+        data.addPessoa(bia);
+        ana.setNome("Ana Maria");
+        data.markUpdated(ana);
+        data.removePessoa(bia);
+        journal.close();
+
+        DataJournal reopened = journal();
+        AppData replayed = replayed(reopened);
+        assertEquals(1, replayed.getPessoas().size());
+        assertEquals("Ana Maria", replayed.getPessoas().get("11111111111").getNome());
+        assertEquals(4, reopened.getRecordCount());
+    }
+
+    @Test
+    void aCascadingRemovalIsOneLineAndReplaysWhole() throws Exception {
+        DataJournal journal = journal();
+        AppData data = new AppData();
+        data.addChangeListener(journal);
+        PrestadorServico prestador = new PrestadorServico(CNPJ, "Prestadora", "p@x.com");
+        data.addPrestador(prestador);
+        data.addContratoServico(new ContratoServico(CNPJ, "Limpeza", null, null, 1000));
+        data.addContratoServico(new ContratoServico(CNPJ, "Jardinagem", null, null, 500));
+        journal.flush();
+        int before = lines().size();
+
+        data.removePrestador(prestador);
+        journal.close();
+
+        List<String> lines = lines();
+        assertEquals(before + 1, lines.size());
+        assertTrue(lines.get(lines.size() - 1).startsWith("{\"op\":\"BATCH\""));
+        AppData replayed = replayed(journal());
+        assertTrue(replayed.getPrestadores().isEmpty());
+        assertTrue(replayed.getContratosServico().isEmpty());
+    }
+
+    @Test
+    void aTornLastLineIsSkipped() throws Exception {
+        DataJournal journal = journal();
+        AppData data = new AppData();
+        data.addChangeListener(journal);
+        PrestadorServico prestador = new PrestadorServico(CNPJ, "Prestadora", "p@x.com");
+        data.addPrestador(prestador);
+        data.addContratoServico(new ContratoServico(CNPJ, "Limpeza", null, null, 1000));
+        data.removePrestador(prestador);
+        journal.close();
+
+        // A crash in the middle of the batch: neither of its changes applies
+        String content = Files.readString(dir.resolve("hr.journal"));
+        int batchStart = content.lastIndexOf("{\"op\":\"BATCH\"");
+        Files.writeString(dir.resolve("hr.journal"), content.substring(0, batchStart + 40));
+
+        DataJournal reopened = journal();
+        AppData replayed = replayed(reopened);
+        assertEquals(1, replayed.getPrestadores().size());
+        assertEquals(1, replayed.getContratosServico().size());
+        assertEquals(2, reopened.getRecordCount());
+
+        // Changes after a restart still land on a line of their own
+        replayed.addChangeListener(reopened);
+        replayed.addPessoa(new Pessoa("11111111111", "Ana"));
+        reopened.close();
+        assertEquals(1, replayed(journal()).getPessoas().size());
+    }
+
+    @Test
+    void compactionIsDueAfterTheThreshold() throws Exception {
+        DataJournal journal = new DataJournal(dir.resolve("hr.journal").toString(),
+                JsonDataManager.baseGsonBuilder().create(), 3);
+        AppData data = new AppData();
+        data.addChangeListener(journal);
+
+        data.addPessoa(new Pessoa("11111111111", "Ana"));
+        data.addPessoa(new Pessoa("22222222222", "Bia"));
+        assertFalse(journal.needsCompaction());
+        data.addPessoa(new Pessoa("33333333333", "Caio"));
+        assertTrue(journal.needsCompaction());
+
+        journal.reset();
+        assertFalse(journal.needsCompaction());
+        assertFalse(Files.exists(dir.resolve("hr.journal")));
+    }
+
+    @Test
+    void aRestartReplaysTheJournalAndFoldsItIntoTheSnapshot() throws Exception {
+        Path snapshot = dir.resolve("hr.json");
+        Path journalFile = dir.resolve("hr.json.journal");
+        System.setProperty(JsonDataManager.JOURNAL_PROPERTY, "true");
+        try {
+            JsonDataManager.resetInstance();
+            JsonDataManager manager = JsonDataManager.getInstance(snapshot.toString());
+            manager.getData().addPessoa(new Pessoa("11111111111", "Ana"));
+            manager.saveData();
+            manager.flush();
+            assertEquals(1, Files.readAllLines(journalFile).size());
+            JsonDataManager.resetInstance();
+
+            manager = JsonDataManager.getInstance(snapshot.toString());
+            assertEquals("Ana", manager.getData().getPessoas().get("11111111111").getNome());
+            assertFalse(Files.exists(journalFile));
+            JsonDataManager.resetInstance();
+
+            System.clearProperty(JsonDataManager.JOURNAL_PROPERTY);
+            manager = JsonDataManager.getInstance(snapshot.toString());
+            assertTrue(manager.getData().getPessoas().containsKey("11111111111"));
+        } finally {
+            System.clearProperty(JsonDataManager.JOURNAL_PROPERTY);
+            JsonDataManager.resetInstance();
+        }
+    }
+
+    private List<String> lines() throws Exception {
+        return Files.readAllLines(dir.resolve("hr.journal"), StandardCharsets.UTF_8);
+    }
+
+    @Test
+    void rotatedRecordsAreReplayedUntilDiscarded() throws Exception {
+        DataJournal journal = journal();
+        AppData data = new AppData();
+        data.addChangeListener(journal);
+
+        data.addPessoa(new Pessoa("11111111111", "Ana"));
+        journal.rotate();
+        data.addPessoa(new Pessoa("22222222222", "Bia"));
+        journal.flush();
+
+        assertEquals(2, replayed(journal).getPessoas().size());
+        assertEquals(2, journal.getRecordCount());
+
+        journal.discardRotated();
+        AppData afterSnapshot = replayed(journal);
+        assertEquals(1, afterSnapshot.getPessoas().size());
+        assertTrue(afterSnapshot.getPessoas().containsKey("22222222222"));
+        journal.close();
+    }
+
+    @Test
+    void aSecondRotationKeepsTheOrderOfTheFirst() throws Exception {
+        DataJournal journal = journal();
+        AppData data = new AppData();
+        data.addChangeListener(journal);
+
+        Pessoa ana = new Pessoa("11111111111", "Ana");
+        data.addPessoa(ana);
+        journal.rotate(); // Its snapshot is never written
+        ana.setNome("Ana Maria");
+        data.markUpdated(ana);
+        journal.rotate();
+        data.addPessoa(new Pessoa("22222222222", "Bia"));
+        journal.close();
+
+        AppData replayed = replayed(journal);
+        assertEquals("Ana Maria", replayed.getPessoas().get("11111111111").getNome());
+        assertEquals(2, replayed.getPessoas().size());
+        assertTrue(Files.exists(dir.resolve("hr.journal.compacting")));
+
+        journal.reset();
+        assertTrue(replayed(journal).getPessoas().isEmpty());
+    }
+}
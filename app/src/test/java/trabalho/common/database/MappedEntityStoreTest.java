@@ -0,0 +1,76 @@
+package trabalho.common.database;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.nio.file.Path;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import trabalho.candidatura.model.Pessoa;
+
+class MappedEntityStoreTest {
+    private static final String ANA = "11111111111";
+
+    @TempDir
+    Path dir;
+
+    private MappedEntityStore<Pessoa> open() throws Exception {
+        return new MappedEntityStore<>(dir.resolve("pessoas.map"), BinaryStorageFormat.PESSOA_CODEC);
+    }
+
+    @Test
+    void getReturnsTheInstanceInUse() throws Exception {
+        try (MappedEntityStore<Pessoa> store = open()) {
+            store.put(ANA, new Pessoa(ANA, "Ana"));
+
+            Pessoa pessoa = store.get(ANA);
+            assertSame(pessoa, store.get(ANA));
+            pessoa.setNome("Ana Maria");
+            assertEquals("Ana Maria", store.get(ANA).getNome());
+            assertSame(pessoa, store.entrySet().iterator().next().getValue());
+        }
+    }
+
+    @Test
+    void aChangeInPlaceReachesTheRecordWhenPutBack() throws Exception {
+        try (MappedEntityStore<Pessoa> store = open()) {
+            store.put(ANA, new Pessoa(ANA, "Ana"));
+            Pessoa pessoa = store.get(ANA);
+            pessoa.setNome("Ana Maria");
+
+            Map<String, Pessoa> before = store.frozenCopy();
+            assertEquals("Ana", before.get(ANA).getNome());
+            assertNotSame(pessoa, before.get(ANA));
+
+            assertSame(pessoa, store.put(ANA, pessoa));
+            assertEquals("Ana Maria", store.frozenCopy().get(ANA).getNome());
+            assertSame(pessoa, store.get(ANA));
+        }
+    }
+
+    @Test
+    void putReplacesTheInstanceAndRemoveForgetsIt() throws Exception {
+        try (MappedEntityStore<Pessoa> store = open()) {
+            store.put(ANA, new Pessoa(ANA, "Ana"));
+            Pessoa old = store.get(ANA);
+            Pessoa replacement = new Pessoa(ANA, "Ana Maria");
+
+            assertSame(old, store.put(ANA, replacement));
+            assertSame(replacement, store.get(ANA));
+
+            replacement.setNome("Ana M.");
+            assertSame(replacement, store.remove(ANA));
+            assertNull(store.get(ANA));
+            assertNull(store.remove(ANA));
+
+            store.put(ANA, new Pessoa(ANA, "Outra Ana"));
+            Pessoa again = store.get(ANA);
+            store.clear();
+            assertNull(store.get(ANA));
+            store.put(ANA, new Pessoa(ANA, "Ana"));
+            assertNotSame(again, store.get(ANA));
+        }
+    }
+}
@@ -0,0 +1,117 @@
+package trabalho.common.database;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ConcurrentModificationException;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import trabalho.candidatura.model.Candidato;
+import trabalho.candidatura.model.Pessoa;
+import trabalho.servico.model.ContratoServico;
+import trabalho.servico.model.PrestadorServico;
+
+/**
+ * The copy the snapshot is written from, taken under the lock of the AppData
+ * and read after it was released.
+ */
+class SnapshotCopyTest {
+    private static final String CNPJ = "11222333000181";
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void laterChangesDoNotShowInTheCopy() throws Exception {
+        AppData data = new AppData();
+        data.addPessoa(new Pessoa("11111111111", "Ana"));
+        data.addPrestador(new PrestadorServico(CNPJ, "Prestadora", "p@x.com"));
+        ContratoServico contrato = new ContratoServico(CNPJ, "Limpeza", null, null, 1000);
+        data.addContratoServico(contrato);
+
+        AppData copy = data.snapshotCopy();
+        data.addPessoa(new Pessoa("22222222222", "Bia"));
+        data.removePessoa(data.getPessoas().get("11111111111"));
+        data.removeContratoServico(contrato);
+
+        assertEquals(Map.of("11111111111", "Ana"), nomes(copy));
+        assertEquals(1, copy.getContratosServico().size());
+        assertEquals(Map.of("22222222222", "Bia"), nomes(data));
+        assertTrue(data.getContratosServico().isEmpty());
+    }
+
+    @Test
+    void theCopyIsWrittenLikeTheData() throws Exception {
+        AppData data = new AppData();
+        data.addPessoa(new Pessoa("11111111111", "Ana"));
+        data.addPessoa(new Pessoa("33333333333", "Caio"));
+        data.addPrestador(new PrestadorServico(CNPJ, "Prestadora", "p@x.com"));
+
+        for (StorageFormat format : StorageFormat.all()) {
+            assertArrayEquals(write(format, data), write(format, data.snapshotCopy()), format.getName());
+        }
+    }
+
+    @Test
+    void frozenCopyOfAMappedStoreKeepsTheOldRecords() throws Exception {
+        try (MappedEntityStore<Pessoa> store = new MappedEntityStore<>(dir.resolve("pessoas.map"),
+                BinaryStorageFormat.PESSOA_CODEC)) {
+            store.put("11111111111", new Pessoa("11111111111", "Ana"));
+            store.put("22222222222", new Pessoa("22222222222", "Bia"));
+
+            Map<String, Pessoa> frozen = store.frozenCopy();
+            store.put("11111111111", new Pessoa("11111111111", "Ana Maria"));
+            store.remove("22222222222");
+            store.put("33333333333", new Pessoa("33333333333", "Caio"));
+
+            assertEquals(Map.of("11111111111", "Ana", "22222222222", "Bia"), nomes(frozen));
+            assertEquals("Ana Maria", store.get("11111111111").getNome());
+
+            store.clear();
+            assertThrows(ConcurrentModificationException.class, () -> frozen.get("11111111111"));
+        }
+    }
+
+    @Test
+    void snapshotReadsBackWithAMappedStore() throws Exception {
+        try (MappedEntityStore<Pessoa> pessoas = new MappedEntityStore<>(dir.resolve("pessoas.map"),
+                BinaryStorageFormat.PESSOA_CODEC);
+                MappedEntityStore<Candidato> candidatos = new MappedEntityStore<>(
+                        dir.resolve("candidatos.map"), BinaryStorageFormat.CANDIDATO_CODEC)) {
+            AppData data = new AppData();
+            data.useStores(pessoas, candidatos);
+            data.addPessoa(new Pessoa("11111111111", "Ana"));
+            AppData copy = data.snapshotCopy();
+            data.addPessoa(new Pessoa("22222222222", "Bia"));
+
+            for (StorageFormat format : StorageFormat.all()) {
+                Path file = dir.resolve("hr." + format.getName());
+                Files.write(file, write(format, copy));
+                assertEquals(Map.of("11111111111", "Ana"), nomes(format.read(file, new AppData(), null)),
+                        format.getName());
+            }
+        }
+    }
+
+    private static byte[] write(StorageFormat format, AppData data) throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        format.write(data, out);
+        return out.toByteArray();
+    }
+
+    private static Map<String, String> nomes(AppData data) {
+        return nomes(data.getPessoas());
+    }
+
+    private static Map<String, String> nomes(Map<String, Pessoa> pessoas) {
+        Map<String, String> result = new HashMap<>();
+        pessoas.forEach((cpf, pessoa) -> result.put(cpf, pessoa.getNome()));
+        return result;
+    }
+}
@@ -0,0 +1,93 @@
+package trabalho.common.database;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import trabalho.candidatura.model.Pessoa;
+
+class SnapshotWriterTest {
+
+    @TempDir
+    Path dir;
+
+    private static void write(SnapshotWriter writer, String content) throws IOException {
+        writer.write(out -> out.write(content.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    private String read(String name) throws IOException {
+        return Files.readString(dir.resolve(name));
+    }
+
+    @Test
+    void keepsTheLastGenerationsNewestFirst() throws Exception {
+        SnapshotWriter writer = new SnapshotWriter(dir.resolve("hr.json").toString(), 2);
+        for (int i = 1; i <= 5; i++) {
+            write(writer, "v" + i);
+        }
+
+        assertEquals("v5", read("hr.json"));
+        assertEquals("v4", read("hr.json.1"));
+        assertEquals("v3", read("hr.json.2"));
+        assertFalse(Files.exists(dir.resolve("hr.json.3")));
+        assertEquals(List.of(dir.resolve("hr.json"), dir.resolve("hr.json.1"), dir.resolve("hr.json.2")),
+                writer.existingSnapshots());
+    }
+
+    @Test
+    void noGenerationsKeepsOnlyTheSnapshot() throws Exception {
+        SnapshotWriter writer = new SnapshotWriter(dir.resolve("hr.json").toString(), 0);
+        write(writer, "v1");
+        write(writer, "v2");
+
+        assertEquals("v2", read("hr.json"));
+        assertEquals(List.of(dir.resolve("hr.json")), writer.existingSnapshots());
+    }
+
+    @Test
+    void aFailedWriteLeavesEverythingAsItWas() throws Exception {
+        SnapshotWriter writer = new SnapshotWriter(dir.resolve("hr.json").toString(), 2);
+        write(writer, "v1");
+        write(writer, "v2");
+
+        assertThrows(IOException.class, () -> writer.write(out -> {
+            out.write("half of v3".getBytes(StandardCharsets.UTF_8));
+            throw new IOException("disk full");
+        }));
+        assertThrows(IllegalStateException.class, () -> writer.write(out -> {
+            throw new IllegalStateException("bug in the encoder");
+        }));
+
+        assertEquals("v2", read("hr.json"));
+        assertEquals("v1", read("hr.json.1"));
+        assertFalse(Files.exists(dir.resolve("hr.json.tmp")));
+    }
+
+    @Test
+    void loadingFallsBackToThePreviousGeneration() throws Exception {
+        AppData saved = new AppData();
+        saved.addPessoa(new Pessoa("11111111111", "Ana"));
+        try (OutputStream out = Files.newOutputStream(dir.resolve("hr.json.1"))) {
+            JsonStorageFormat.INSTANCE.write(saved, out);
+        }
+        Files.writeString(dir.resolve("hr.json"), "{\"pessoasByCpf\": {\"111"); // Cut short
+
+        try {
+            JsonDataManager.resetInstance();
+            AppData loaded = JsonDataManager.getInstance(dir.resolve("hr.json").toString()).getData();
+            assertEquals("Ana", loaded.getPessoas().get("11111111111").getNome());
+            // Kept for inspection, it is only replaced by the next save
+            assertEquals("{\"pessoasByCpf\": {\"111", read("hr.json"));
+        } finally {
+            JsonDataManager.resetInstance();
+        }
+    }
+}
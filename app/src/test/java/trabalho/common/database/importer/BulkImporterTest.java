@@ -0,0 +1,142 @@
+package trabalho.common.database.importer;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import trabalho.candidatura.model.Candidatura.StatusCandidatura;
+import trabalho.common.database.AppData;
+import trabalho.common.database.JsonDataManager;
+import trabalho.recrutamento.model.RegimeContratacao;
+import trabalho.recrutamento.model.Vaga;
+
+class BulkImporterTest {
+    // More than one chunk, so the later ones must see what the first added
+    private static final int CANDIDATOS = 4500;
+
+    @TempDir
+    Path dir;
+
+    private JsonDataManager manager;
+    private AppData data;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        JsonDataManager.resetInstance();
+        manager = JsonDataManager.getInstance(dir.resolve("hr.json").toString());
+        data = manager.getData();
+        Vaga vaga = new Vaga("Analista", "TI", 5000, "", RegimeContratacao.CLT, null);
+        vaga.setId("V1");
+        data.addVaga(vaga);
+    }
+
+    @AfterEach
+    void tearDown() {
+        JsonDataManager.resetInstance();
+    }
+
+    /**
+     * A valid CPF, different for every n.
+     */
+    private static String cpf(int n) {
+        int[] digits = new int[11];
+        String base = String.valueOf(100_000_000 + n);
+        for (int i = 0; i < 9; i++) {
+            digits[i] = base.charAt(i) - '0';
+        }
+        for (int length = 9; length <= 10; length++) {
+            int sum = 0;
+            for (int i = 0; i < length; i++) {
+                sum += digits[i] * (length + 1 - i);
+            }
+            int rest = sum * 10 % 11;
+            digits[length] = rest == 10 ? 0 : rest;
+        }
+        StringBuilder cpf = new StringBuilder();
+        for (int digit : digits) {
+            cpf.append(digit);
+        }
+        return cpf.toString();
+    }
+
+    @Test
+    void importsInFileOrderAndReportsEveryRejectedLine() throws Exception {
+        List<String> lines = new ArrayList<>();
+        lines.add("cpf;nome;vagaId;status;dataCandidatura");
+        for (int i = 0; i < CANDIDATOS; i++) {
+            lines.add(cpf(i) + ";Candidato " + i + ";;;");
+        }
+        // The Candidatura of a Candidato imported two chunks before, no name needed
+        lines.add(cpf(0) + ";;V1;em analise;01/03/2024");
+        lines.add(cpf(1) + ";;V1;;");
+        // Rejected, one reason each
+        lines.add("123.456.789-00;Inválido;;;");               // line 4504
+        lines.add(cpf(2) + ";Candidato 2;;;");                 // 4505, already imported
+        lines.add(cpf(CANDIDATOS) + ";;;;");                   // 4506, no Pessoa and no name
+        lines.add(cpf(3) + ";;V9;;");                          // 4507, unknown Vaga
+        lines.add(cpf(0) + ";;V1;;");                          // 4508, same Candidatura again
+        lines.add(cpf(4) + ";;V1;;31/02/2024");                // 4509, bad date
+        lines.add("");
+        lines.add(cpf(CANDIDATOS + 1) + ";\"Silva; Ana\";V1;;");
+        Path input = dir.resolve("candidatos.csv");
+        Files.write(input, lines, StandardCharsets.UTF_8);
+        Path rejections = dir.resolve("rejeitados.csv");
+
+        List<long[]> progress = new ArrayList<>();
+        ImportReport report = new BulkImporter(manager, 4).importFile(input, rejections,
+                (read, imported, rejected) -> progress.add(new long[] { read, imported, rejected }));
+
+        assertEquals(CANDIDATOS + 9, report.rowsRead());
+        assertEquals(CANDIDATOS + 1, report.pessoasAdded());
+        assertEquals(CANDIDATOS + 1, report.candidatosAdded());
+        assertEquals(3, report.candidaturasAdded());
+        assertEquals(6, report.rowsRejected());
+
+        assertEquals(CANDIDATOS + 1, data.getCandidatos().size());
+        assertEquals("Silva; Ana", data.getPessoas().get(cpf(CANDIDATOS + 1)).getNome());
+        assertEquals(StatusCandidatura.EM_ANALISE, data.findCandidatura(cpf(0), "V1").getStatusEnum());
+        assertEquals(3, data.getCandidaturasByVaga("V1").size());
+
+        // One report per chunk, the last one with the totals
+        assertEquals(3, progress.size());
+        assertArrayEquals(new long[] { 2000, 2000, 0 }, progress.get(0));
+        assertArrayEquals(new long[] { 4000, 4000, 0 }, progress.get(1));
+        assertArrayEquals(new long[] { CANDIDATOS + 9, CANDIDATOS + 3, 6 }, progress.get(2));
+
+        assertEquals(List.of(
+                "linha,cpf,motivo",
+                "4504,,CPF/CNPJ inválido.",
+                "4505," + cpf(2) + ",Candidato com CPF/CNPJ " + cpf(2) + " já existe.",
+                "4506," + cpf(CANDIDATOS) + ",Pessoa não cadastrada e linha sem nome.",
+                "4507," + cpf(3) + ",Vaga V9 não existe.",
+                "4508," + cpf(0) + ",Candidatura já existe.",
+                "4509,,Data inválida: 31/02/2024."),
+                Files.readAllLines(rejections, StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void readsJsonLinesAndAnEmptyFile() throws Exception {
+        Path input = dir.resolve("candidatos.jsonl");
+        Files.write(input, List.of(
+                "{\"cpf\": \"" + cpf(0) + "\", \"nome\": \"Ana\", \"vagaId\": \"V1\"}",
+                "{\"cpf\": \"" + cpf(1) + "\""), StandardCharsets.UTF_8);
+
+        ImportReport report = new BulkImporter(manager, 1).importFile(input, null, null);
+        assertEquals(2, report.rowsRead());
+        assertEquals(1, report.candidaturasAdded());
+        assertEquals(1, report.rowsRejected());
+
+        Path empty = dir.resolve("vazio.csv");
+        Files.writeString(empty, "");
+        assertEquals(0, new BulkImporter(manager, 1).importFile(empty, null, null).rowsRead());
+    }
+}
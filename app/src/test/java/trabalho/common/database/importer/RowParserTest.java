@@ -0,0 +1,99 @@
+package trabalho.common.database.importer;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import trabalho.candidatura.model.Candidatura.StatusCandidatura;
+
+class RowParserTest {
+    private static final String CPF = "52998224725";
+
+    private static ImportRow csv(String header, String line) {
+        return RowParser.csv(header).parse(2, line);
+    }
+
+    private static String reason(RowParser parser, String line) {
+        return assertThrows(IllegalArgumentException.class, () -> parser.parse(2, line)).getMessage();
+    }
+
+    @Test
+    void splitsWithRfc4180Quoting() {
+        assertEquals(List.of("a", "b, c", "d \"e\""), RowParser.split("a,\"b, c\",\"d \"\"e\"\"\"", ','));
+        assertEquals(List.of("", "", ""), RowParser.split(",,", ','));
+        assertEquals(List.of("\"\"", "x"), RowParser.split("\"\"\"\"\"\",x", ','));
+        assertEquals(List.of("a,b", "c"), RowParser.split("a,b;c", ';'));
+        // Quotes in the middle of a field open a quoted part too
+        assertEquals(List.of("ab;c"), RowParser.split("a\"b;c\"", ';'));
+    }
+
+    @Test
+    void readsTheHeaderInAnyCaseWithOrWithoutAByteOrderMark() {
+        ImportRow row = csv("\uFEFFCPF;Nome;PretensaoSalarial", "529.982.247-25;\"Ana; Maria\";R$ 3.500,50");
+        assertEquals(CPF, row.cpf());
+        assertEquals("Ana; Maria", row.pessoa().getNome());
+        assertEquals(3500.5, row.candidato().getPretensaoSalarial());
+
+        row = csv(" CpfCnpj , NOME ", CPF + ",Ana");
+        assertEquals("Ana", row.pessoa().getNome());
+        // Missing trailing values are empty
+        assertNull(csv("cpf,nome,email", CPF).pessoa());
+    }
+
+    @Test
+    void parsesNumbers() {
+        String header = "cpf,nome,telefone,pretensaoSalarial";
+        assertEquals(3500.5, csv(header, CPF + ",Ana,,3500.50").candidato().getPretensaoSalarial());
+        assertEquals(3500.5, csv(header, CPF + ",Ana,,\"R$ 3.500,50\"").candidato().getPretensaoSalarial());
+        assertEquals(0, csv(header, CPF + ",Ana, , ").candidato().getPretensaoSalarial());
+        assertEquals(11987654321L, csv(header, CPF + ",Ana,(11) 98765-4321,").pessoa().getTelefone());
+
+        RowParser parser = RowParser.csv(header);
+        assertEquals("Pretensão salarial inválida.", reason(parser, CPF + ",Ana,,3.500.50"));
+        assertEquals("Telefone inválido.", reason(parser, CPF + ",Ana,99999999999999999999,"));
+        assertEquals("CPF/CNPJ inválido.", reason(parser, "529.982.247-24,Ana,,"));
+        assertEquals("CPF/CNPJ inválido.", reason(parser, ",Ana,,"));
+    }
+
+    @Test
+    void parsesDates() {
+        String header = "cpf,dataCadastro,vagaId,dataCandidatura,status";
+        ImportRow iso = csv(header, CPF + ",2024-03-31,V1,2024-02-29,em analise");
+        ImportRow brazilian = csv(header, CPF + ",31/03/2024,V1,29/02/2024,EM_ANALISE");
+        assertEquals(LocalDate.of(2024, 3, 31), iso.candidato().getDataCadastro());
+        assertEquals(LocalDate.of(2024, 3, 31), brazilian.candidato().getDataCadastro());
+        assertEquals(iso.candidatura().getDataCandidatura(), brazilian.candidatura().getDataCandidatura());
+        assertEquals(LocalDate.of(2024, 2, 29),
+                iso.candidatura().getDataCandidatura().toInstant().atZone(ZoneId.systemDefault()).toLocalDate());
+        assertEquals(StatusCandidatura.EM_ANALISE, iso.candidatura().getStatusEnum());
+
+        ImportRow defaults = csv(header, CPF + ",,V1,,");
+        assertEquals(LocalDate.now(), defaults.candidato().getDataCadastro());
+        assertEquals(StatusCandidatura.PENDENTE, defaults.candidatura().getStatusEnum());
+        assertNull(csv(header, CPF).candidatura());
+
+        RowParser parser = RowParser.csv(header);
+        assertEquals("Data inválida: 31/02/2024.", reason(parser, CPF + ",31/02/2024"));
+        assertEquals("Data inválida: 2023-02-29.", reason(parser, CPF + ",2023-02-29"));
+        assertEquals("Data inválida: 2024/03/31.", reason(parser, CPF + ",2024/03/31"));
+        assertEquals("Status inválido: contratado.", reason(parser, CPF + ",,V1,,contratado"));
+    }
+
+    @Test
+    void readsJsonLines() {
+        RowParser parser = RowParser.jsonLines();
+        ImportRow row = parser.parse(1, "{\"CPF\": \"529.982.247-25\", \"nome\": \"Ana\", "
+                + "\"pretensaoSalarial\": 3500.5, \"telefone\": 11987654321, \"extra\": {\"a\": 1}}");
+        assertEquals(CPF, row.cpf());
+        assertEquals("Ana", row.pessoa().getNome());
+        assertEquals(3500.5, row.candidato().getPretensaoSalarial());
+        assertEquals(11987654321L, row.pessoa().getTelefone());
+
+        assertEquals("JSON inválido.", reason(parser, "{\"cpf\": "));
+        assertEquals("JSON inválido.", reason(parser, "[1, 2]"));
+    }
+}
@@ -0,0 +1,127 @@
+package trabalho.common.database.search;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import trabalho.common.database.search.FullTextIndex.Hit;
+
+class FullTextIndexTest {
+
+    private enum Campo {
+        NOME,
+        CIDADE
+    }
+
+    private FullTextIndex<Campo> index;
+
+    @BeforeEach
+    void setUp() {
+        index = new FullTextIndex<>(Campo.class);
+    }
+
+    private void put(String key, String nome) {
+        index.put(key, Map.of(Campo.NOME, nome));
+    }
+
+    private static List<String> keys(List<Hit> hits) {
+        return hits.stream().map(Hit::key).toList();
+    }
+
+    @Test
+    void aWholeWordRanksAboveAPrefixAboveAnInfix() {
+        put("infix", "Mariana Costa");
+        put("prefix", "Anabela Souza");
+        put("whole", "Ana Silva");
+
+        List<Hit> hits = index.search("ana", 0);
+        assertEquals(List.of("whole", "prefix", "infix"), keys(hits));
+        assertTrue(hits.get(0).score() > hits.get(1).score());
+        assertTrue(hits.get(1).score() > hits.get(2).score());
+
+        assertEquals(List.of("whole"), keys(index.search("ana", 1)));
+        // Every word must match
+        assertEquals(List.of("prefix"), keys(index.search("ana souza", 0)));
+        assertTrue(index.search("ana pereira", 0).isEmpty());
+    }
+
+    @Test
+    void oneAndTwoLetterWordsMatchOnlyTheStartOfAWord() {
+        put("ana", "Ana Silva");
+        put("mariana", "Mariana Alves");
+
+        assertEquals(List.of("ana", "mariana"), keys(index.search("a", 0)).stream().sorted().toList());
+        // "mariana" holds "an", but not at the start
+        assertEquals(List.of("ana"), keys(index.search("an", 0)));
+        assertEquals(List.of("ana"), keys(index.search("si", 0)));
+        assertEquals(List.of("mariana"), keys(index.search("al", 0)));
+        assertTrue(index.search("lv", 0).isEmpty());
+    }
+
+    @Test
+    void ignoresCaseAndAccentsAndSearchesEachField() {
+        index.put("1", Map.of(Campo.NOME, "Conceição", Campo.CIDADE, "São Paulo"));
+        index.put("2", Map.of(Campo.NOME, "Paulo Souza", Campo.CIDADE, "Santos"));
+
+        assertEquals(List.of("1"), keys(index.search("CONCEICAO", 0)));
+        assertEquals(List.of("1"), keys(index.search(Map.of(Campo.CIDADE, "sao paulo"), 0)));
+        assertEquals(List.of("2"), keys(index.search(Map.of(Campo.NOME, "paulo"), 0)));
+        assertEquals(List.of("2"), keys(index.search(Map.of(Campo.NOME, "paulo", Campo.CIDADE, "san"), 0)));
+        assertTrue(index.search(Map.of(Campo.CIDADE, "souza"), 0).isEmpty());
+    }
+
+    @Test
+    void anUpdateReplacesTheOlderVersion() {
+        put("1", "Ana Silva");
+        put("2", "Ana Souza");
+        put("1", "Bruno Silva");
+
+        assertEquals(2, index.size());
+        assertEquals(List.of("2"), keys(index.search("ana", 0)));
+        assertEquals(List.of("1"), keys(index.search("bruno silva", 0)));
+        assertEquals(List.of("1"), keys(index.search("silva", 0)));
+    }
+
+    @Test
+    void aRemovedDocumentIsGoneAndItsIdIsReused() {
+        put("1", "Ana Silva");
+        put("2", "Bruno Souza");
+        index.remove("1");
+        index.remove("nunca indexado");
+
+        assertEquals(1, index.size());
+        assertTrue(index.search("ana", 0).isEmpty());
+        assertTrue(index.search("silva", 0).isEmpty());
+
+        // Takes the free slot, the postings left by the removed one stay stale
+        put("3", "Carla Silva");
+        assertEquals(2, index.slots());
+        assertEquals(List.of("3"), keys(index.search("silva", 0)));
+        assertTrue(index.search("ana", 0).isEmpty());
+
+        index.remove("3");
+        put("3", "Ana Silva");
+        assertEquals(2, index.slots());
+        assertEquals(List.of("3"), keys(index.search("ana silva", 0)));
+    }
+
+    @Test
+    void stalePostingsAreCompacted() {
+        put("outro", "Ana Souza");
+        int entries = index.postingEntries();
+        for (int i = 0; i < 100; i++) {
+            put("1", i % 2 == 0 ? "Ana Silva" : "Ana Santos");
+        }
+        index.remove("1");
+
+        // Without compaction, every update would leave its postings behind
+        assertTrue(index.postingEntries() <= 2 * entries, "Entries: " + index.postingEntries());
+        assertEquals(List.of("outro"), keys(index.search("ana", 0)));
+        assertTrue(index.search("silva", 0).isEmpty());
+        assertTrue(index.search("santos", 0).isEmpty());
+    }
+}
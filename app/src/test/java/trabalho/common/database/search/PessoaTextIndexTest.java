@@ -0,0 +1,68 @@
+package trabalho.common.database.search;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import trabalho.candidatura.model.Candidato;
+import trabalho.candidatura.model.Pessoa;
+import trabalho.common.database.AppData;
+import trabalho.common.database.search.FullTextIndex.Hit;
+import trabalho.common.database.search.PessoaTextIndex.Campo;
+import trabalho.financeiro.model.Funcionario;
+
+class PessoaTextIndexTest {
+    private static final String ANA = "52998224725";
+    private static final String BRUNO = "11144477735";
+
+    private AppData data;
+    private Pessoa ana;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        data = new AppData();
+        ana = new Pessoa(ANA, "Ana Conceição", "ana@x.com");
+        data.addPessoa(ana);
+    }
+
+    private static List<String> keys(List<Hit> hits) {
+        return hits.stream().map(Hit::key).toList();
+    }
+
+    @Test
+    void indexesWhatIsThereAndFollowsTheChanges() throws Exception {
+        PessoaTextIndex index = PessoaTextIndex.attach(data);
+        assertEquals(List.of(ANA), keys(index.search("conceicao", 0)));
+
+        data.addPessoa(new Pessoa(BRUNO, "Bruno Souza"));
+        data.addCandidato(new Candidato(BRUNO, "Engenharia", "Java", 0, null, null, null));
+        data.addFuncionario(new Funcionario(ANA, "Analista", "Ativo", "Financeiro", 5000));
+        assertEquals(2, index.size());
+        assertEquals(List.of(BRUNO), keys(index.search(Map.of(Campo.FORMACAO, "engenharia"), 0)));
+        assertEquals(List.of(ANA), keys(index.search(Map.of(Campo.DEPARTAMENTO, "financeiro"), 0)));
+
+        ana.setNome("Ana Maria");
+        data.markUpdated(ana);
+        assertTrue(index.search("conceicao", 0).isEmpty());
+        assertEquals(List.of(ANA), keys(index.search(Map.of(Campo.NOME, "maria"), 0)));
+    }
+
+    @Test
+    void aCpfStaysUntilNothingIsLeftOfIt() throws Exception {
+        Candidato candidato = new Candidato(ANA, "Direito", "", 0, null, null, null);
+        data.addCandidato(candidato);
+        PessoaTextIndex index = PessoaTextIndex.attach(data);
+
+        data.removePessoa(ana);
+        assertTrue(index.search(Map.of(Campo.NOME, "ana"), 0).isEmpty());
+        assertEquals(List.of(ANA), keys(index.search("direito", 0)));
+
+        data.removeCandidato(candidato);
+        assertEquals(0, index.size());
+        assertTrue(index.search("direito", 0).isEmpty());
+    }
+}
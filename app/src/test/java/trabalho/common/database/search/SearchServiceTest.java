@@ -0,0 +1,218 @@
+package trabalho.common.database.search;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.HashSet;
+import java.util.List;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import trabalho.candidatura.model.Candidatura;
+import trabalho.candidatura.model.Candidatura.StatusCandidatura;
+import trabalho.candidatura.model.Pessoa;
+import trabalho.common.database.AppData;
+import trabalho.financeiro.model.Funcionario;
+import trabalho.recrutamento.model.Contratacao;
+import trabalho.recrutamento.model.Contratacao.StatusContratacao;
+import trabalho.recrutamento.model.RegimeContratacao;
+import trabalho.recrutamento.model.Vaga;
+import trabalho.recrutamento.model.Vaga.StatusVaga;
+
+class SearchServiceTest {
+    private static final String R1 = "52998224725";
+    private static final String R2 = "11144477735";
+
+    private AppData data;
+    private SearchService service;
+    private final List<Vaga> vagas = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() throws Exception {
+        data = new AppData();
+        service = new SearchService(data);
+
+        // 20 Funcionarios, 2 of them in RH and 1 Gerente
+        for (int i = 0; i < 20; i++) {
+            String cpf = String.format("%011d", i + 1);
+            data.addPessoa(new Pessoa(cpf, i % 2 == 0 ? "Ana " + i : "Bruno " + i));
+            String cargo = i == 7 ? "Gerente" : "Analista " + i % 3;
+            data.addFuncionario(new Funcionario(cpf, cargo, "Ativo", i < 2 ? "RH" : "TI", 1000 + i));
+        }
+
+        // 12 Vagas, 2 closed, 1 of R2
+        for (int i = 0; i < 12; i++) {
+            Vaga vaga = new Vaga("Cargo " + i % 3, "TI", 2000 + i, "", RegimeContratacao.CLT, null);
+            vaga.setId(String.format("V%02d", i));
+            vaga.setStatus(i < 2 ? StatusVaga.FECHADA : StatusVaga.ABERTA);
+            vaga.setRecrutadorResponsavelCpf(i == 0 ? R2 : R1);
+            data.addVaga(vaga);
+            vagas.add(vaga);
+        }
+
+        // 4 Candidaturas per Vaga, 3 approved in all
+        int n = 0;
+        for (Vaga vaga : vagas) {
+            for (int j = 0; j < 4; j++) {
+                Candidatura c = new Candidatura(String.format("C%02d", (n * 7) % 48), vaga, new Date());
+                if (n % 16 == 5) {
+                    c.setStatus(StatusCandidatura.APROVADO);
+                }
+                data.addCandidatura(c);
+                n++;
+            }
+        }
+
+        // 10 Contratacoes, 1 authorized, 1 of R2
+        for (int i = 0; i < 10; i++) {
+            Contratacao c = new Contratacao(String.format("C%02d", i), vagas.get(i).getId(),
+                    i % 2 == 0 ? RegimeContratacao.CLT : RegimeContratacao.PJ, i == 3 ? R2 : R1);
+            if (i == 4) {
+                c.setStatus(StatusContratacao.AUTORIZADA);
+            }
+            data.addContratacao(c);
+        }
+    }
+
+    @Test
+    void funcionarioCriteriaPickTheirIndex() {
+        assertEquals("cpf", service.planFuncionarios(
+                new FuncionarioSearchCriteria(null, "000.000.000-03", "Analista 0", null, null)).description());
+        assertEquals("departamento=RH", service.planFuncionarios(
+                new FuncionarioSearchCriteria(null, null, "Analista 0", "Ativo", "RH")).description());
+        assertEquals("cargo=Gerente", service.planFuncionarios(
+                new FuncionarioSearchCriteria(null, null, "Gerente", "Ativo", "TI")).description());
+        assertEquals("scan", service.planFuncionarios(
+                new FuncionarioSearchCriteria("ana", null, " ", null, null)).description());
+    }
+
+    @Test
+    void vagaCriteriaPickTheirIndex() {
+        assertEquals("status=" + StatusVaga.FECHADA, service.planVagas(
+                new VagaSearchCriteria(null, null, StatusVaga.FECHADA, null, R1, null, null, null, null, null))
+                .description());
+        assertEquals("recrutador=" + R2, service.planVagas(
+                new VagaSearchCriteria(null, null, StatusVaga.ABERTA, null, R2, null, null, null, null, null))
+                .description());
+        assertEquals("scan", service.planVagas(
+                new VagaSearchCriteria("cargo", null, null, RegimeContratacao.CLT, null, null, null, null, null, null))
+                .description());
+    }
+
+    @Test
+    void candidaturaCriteriaPickTheirIndex() {
+        Candidatura first = data.getCandidaturas().get(0);
+        assertEquals("candidato+vaga", service.planCandidaturas(new CandidaturaSearchCriteria(
+                first.getCpfCnpjCandidato(), first.getVagaId(), null, null, null)).description());
+        assertEquals("vaga=V03", service.planCandidaturas(new CandidaturaSearchCriteria(
+                null, "V03", StatusCandidatura.PENDENTE, R1, null)).description());
+        assertEquals("status=APROVADO", service.planCandidaturas(new CandidaturaSearchCriteria(
+                null, null, StatusCandidatura.APROVADO, R1, null)).description());
+        assertEquals("recrutador", service.planCandidaturas(new CandidaturaSearchCriteria(
+                null, null, StatusCandidatura.PENDENTE, R2, null)).description());
+        assertEquals("scan", service.planCandidaturas(new CandidaturaSearchCriteria(
+                null, null, null, null, "V0")).description());
+    }
+
+    @Test
+    void contratacaoCriteriaPickTheirIndex() {
+        assertEquals("status=AUTORIZADA", service.planContratacoes(new ContratacaoSearchCriteria(
+                null, null, R1, StatusContratacao.AUTORIZADA, null, null, null, null, null)).description());
+        assertEquals("recrutador=" + R2, service.planContratacoes(new ContratacaoSearchCriteria(
+                null, null, R2, StatusContratacao.PENDENTE_AUTORIZACAO, null, null, null, null, null))
+                .description());
+        assertEquals("vaga=V05", service.planContratacoes(new ContratacaoSearchCriteria(
+                null, "V05", R1, null, null, null, null, null, null)).description());
+        assertEquals("scan", service.planContratacoes(new ContratacaoSearchCriteria(
+                null, null, null, null, RegimeContratacao.PJ, null, null, null, null)).description());
+    }
+
+    @Test
+    void pagesMatchAFilterSortAndSliceOfTheData() {
+        CandidaturaSearchCriteria doR1 = new CandidaturaSearchCriteria(
+                null, null, StatusCandidatura.PENDENTE, R1, null);
+        assertPages(data.getCandidaturas(),
+                c -> c.getStatusEnum() == StatusCandidatura.PENDENTE && !c.getVagaId().equals("V00"),
+                Comparator.comparing(Candidatura::getCpfCnpjCandidato).thenComparing(Candidatura::getVagaId),
+                request -> service.searchCandidaturas(doR1, request));
+
+        VagaSearchCriteria abertas = new VagaSearchCriteria(
+                "cargo 1", null, StatusVaga.ABERTA, null, null, null, null, null, null, null);
+        assertPages(vagas,
+                v -> v.getStatus() == StatusVaga.ABERTA && v.getCargo().equals("Cargo 1"),
+                Comparator.comparing(Vaga::getSalarioBase).reversed(),
+                request -> service.searchVagas(abertas, request));
+
+        FuncionarioSearchCriteria ti = new FuncionarioSearchCriteria(null, null, null, "Ativo", "TI");
+        assertPages(data.getAllFuncionarios(),
+                f -> f.getDepartamento().equals("TI"),
+                Comparator.comparing(Funcionario::getCpfCnpj),
+                request -> service.searchFuncionarios(ti, request));
+
+        // No indexed criterion, the scan
+        ContratacaoSearchCriteria todas = new ContratacaoSearchCriteria(
+                null, null, null, null, null, null, null, null, null);
+        assertPages(data.getContratacoes(),
+                c -> true,
+                Comparator.comparing(Contratacao::getCandidatoCpf),
+                request -> service.searchContratacoes(todas, request));
+    }
+
+    @Test
+    void pagingThroughEqualKeysNeitherRepeatsNorSkips() {
+        CandidaturaSearchCriteria todas = new CandidaturaSearchCriteria(null, null, null, null, null);
+        Comparator<Candidatura> byStatus = Comparator.comparing(Candidatura::getStatusEnum);
+
+        List<Candidatura> whole = service.searchCandidaturas(todas, PageRequest.<Candidatura>all().sortedBy(byStatus))
+                .items();
+        for (int limit : new int[] { 1, 5, 7 }) {
+            List<Candidatura> paged = new ArrayList<>();
+            for (int offset = 0; offset < whole.size(); offset += limit) {
+                paged.addAll(service.searchCandidaturas(todas, new PageRequest<>(offset, limit, byStatus)).items());
+            }
+            assertEquals(whole, paged);
+        }
+        assertEquals(new HashSet<>(data.getCandidaturas()), new HashSet<>(whole));
+        List<Candidatura> sorted = new ArrayList<>(whole);
+        sorted.sort(byStatus);
+        assertEquals(sorted, whole);
+    }
+
+    /**
+     * Every page, with and without an order, against the same filter, sort
+     * and slice done by hand. The order must not have ties.
+     */
+    private static <T> void assertPages(List<T> all, Predicate<T> filter, Comparator<T> order,
+            Function<PageRequest<T>, Page<T>> search) {
+        List<T> expected = all.stream().filter(filter).toList();
+        List<T> sorted = new ArrayList<>(expected);
+        sorted.sort(order);
+        assertFalse(expected.isEmpty());
+
+        List<T> unordered = search.apply(PageRequest.all()).items();
+        assertEquals(new HashSet<>(expected), new HashSet<>(unordered));
+        assertEquals(expected.size(), unordered.size());
+        assertEquals(sorted, search.apply(PageRequest.<T>all().sortedBy(order)).items());
+
+        for (int limit : new int[] { 1, 3, 7 }) {
+            List<T> pages = new ArrayList<>();
+            for (int offset = 0; offset < expected.size() + limit; offset += limit) {
+                Page<T> page = search.apply(PageRequest.of(offset, limit));
+                assertEquals(expected.size(), page.total());
+                pages.addAll(page.items());
+
+                Page<T> ordered = search.apply(new PageRequest<>(offset, limit, order));
+                assertEquals(expected.size(), ordered.total());
+                int from = Math.min(offset, sorted.size());
+                assertEquals(sorted.subList(from, Math.min(from + limit, sorted.size())), ordered.items());
+                assertEquals(offset + limit < expected.size(), ordered.hasNext());
+            }
+            assertEquals(unordered, pages);
+        }
+    }
+}
@@ -0,0 +1,29 @@
+package trabalho.financeiro.analytics;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.Test;
+
+class DictionaryTest {
+
+    @Test
+    void codesStartAfterRemovedAndAreNeverReused() {
+        Dictionary dictionary = new Dictionary();
+        assertEquals(1, dictionary.size());
+        assertNull(dictionary.decode(Dictionary.REMOVED));
+        // REMOVED is not the code of null
+        assertEquals(-1, dictionary.find(null));
+
+        assertEquals(1, dictionary.encode("TI"));
+        assertEquals(2, dictionary.encode(null));
+        assertEquals(3, dictionary.encode("RH"));
+        assertEquals(1, dictionary.encode("TI"));
+        assertEquals(4, dictionary.size());
+
+        assertEquals(2, dictionary.find(null));
+        assertEquals(3, dictionary.find("RH"));
+        assertEquals(-1, dictionary.find("rh"));
+        assertEquals("TI", dictionary.decode(1));
+        assertNull(dictionary.decode(2));
+    }
+}
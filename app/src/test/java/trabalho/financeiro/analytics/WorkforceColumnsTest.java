@@ -0,0 +1,129 @@
+package trabalho.financeiro.analytics;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import trabalho.admin.model.Gestor;
+import trabalho.candidatura.model.Pessoa;
+import trabalho.common.database.AppData;
+import trabalho.financeiro.analytics.WorkforceColumns.Coluna;
+import trabalho.financeiro.analytics.WorkforceColumns.Grupo;
+import trabalho.financeiro.analytics.WorkforceColumns.Papel;
+import trabalho.financeiro.model.Funcionario;
+import trabalho.recrutamento.model.Recrutador;
+
+class WorkforceColumnsTest {
+    private static final String A = "00000000001";
+    private static final String B = "00000000002";
+    private static final String C = "00000000003";
+    private static final String D = "00000000004";
+
+    private AppData data;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        data = new AppData();
+        for (String cpf : List.of(A, B, C, D)) {
+            data.addPessoa(new Pessoa(cpf, "Pessoa " + cpf));
+        }
+    }
+
+    private <F extends Funcionario> F add(F funcionario) throws Exception {
+        data.addFuncionario(funcionario);
+        return funcionario;
+    }
+
+    @Test
+    void aggregatesFollowAddsUpdatesAndRemovals() throws Exception {
+        WorkforceColumns columns = WorkforceColumns.attach(data);
+        Funcionario a = add(new Funcionario(A, "Analista", "Ativo", "TI", 1000));
+        add(new Gestor(B, "Gerente", "Ativo", "TI", 3000));
+        add(new Recrutador(C, "Recrutador", "Ativo", "RH", 2000));
+        Funcionario d = add(new Funcionario(D, "Analista", "Férias", "RH", 1500));
+
+        assertEquals(4, columns.size());
+        assertEquals(7500, columns.totalSalarioBase());
+        assertEquals(2, columns.contar(Papel.FUNCIONARIO));
+        assertEquals(1, columns.contar(Papel.GESTOR));
+        assertEquals(0, columns.contar(Papel.ADMINISTRADOR));
+        assertEquals(List.of(new Grupo("TI", 2, 4000, 1000, 3000), new Grupo("RH", 2, 3500, 1500, 2000)),
+                columns.agrupar(Coluna.DEPARTAMENTO));
+        assertEquals(List.of(new Grupo("TI", 2, 4000, 1000, 3000), new Grupo("RH", 1, 2000, 2000, 2000)),
+                columns.agrupar(Coluna.DEPARTAMENTO, Coluna.STATUS, "Ativo"));
+        assertEquals(List.of(new Grupo("Analista", 2, 2500, 1000, 1500)),
+                columns.agrupar(Coluna.CARGO, Papel.FUNCIONARIO));
+        assertEquals(1750, columns.agrupar(Coluna.DEPARTAMENTO).get(1).media());
+        assertTrue(columns.agrupar(Coluna.DEPARTAMENTO, Coluna.STATUS, "Demitido").isEmpty());
+
+        d.setSalarioBase(2500);
+        d.setDepartamento("TI");
+        data.markUpdated(d);
+        assertEquals(8500, columns.totalSalarioBase());
+        assertEquals(List.of(new Grupo("TI", 3, 6500, 1000, 3000), new Grupo("RH", 1, 2000, 2000, 2000)),
+                columns.agrupar(Coluna.DEPARTAMENTO));
+
+        data.removeFuncionario(a);
+        assertEquals(3, columns.size());
+        assertEquals(7500, columns.totalSalarioBase());
+        assertEquals(1, columns.contar(Papel.FUNCIONARIO));
+        assertEquals(List.of(new Grupo("TI", 2, 5500, 2500, 3000), new Grupo("RH", 1, 2000, 2000, 2000)),
+                columns.agrupar(Coluna.DEPARTAMENTO));
+        assertEquals(List.of(B, D), columns.cpfs(Coluna.DEPARTAMENTO, "TI"));
+        assertEquals(List.of(new Grupo("Analista", 1, 2500, 2500, 2500)),
+                columns.agrupar(Coluna.CARGO, Papel.FUNCIONARIO));
+    }
+
+    @Test
+    void aFreedRowIsReusedAndNeverReported() throws Exception {
+        WorkforceColumns columns = WorkforceColumns.attach(data);
+        add(new Funcionario(A, "Analista", "Ativo", "TI", 1000));
+        Funcionario b = add(new Funcionario(B, "Analista", "Ativo", "TI", 2000));
+        add(new Funcionario(C, "Analista", "Ativo", "TI", 3000));
+
+        data.removeFuncionario(b);
+        // The free row holds REMOVED and no salary, its group is dropped
+        assertEquals(List.of(new Grupo("TI", 2, 4000, 1000, 3000)), columns.agrupar(Coluna.DEPARTAMENTO));
+        assertEquals(List.of(new Grupo("Ativo", 2, 4000, 1000, 3000)),
+                columns.agrupar(Coluna.STATUS, Coluna.DEPARTAMENTO, "TI"));
+
+        // Takes the row B left, between A and C, and null is a group of its own
+        add(new Funcionario(D, "Analista", "Ativo", null, 500));
+        assertEquals(3, columns.size());
+        assertEquals(List.of(A, D, C), columns.cpfs(Coluna.STATUS, "Ativo"));
+        assertEquals(List.of(D), columns.cpfs(Coluna.DEPARTAMENTO, null));
+        assertEquals(List.of(new Grupo("TI", 2, 4000, 1000, 3000), new Grupo(null, 1, 500, 500, 500)),
+                columns.agrupar(Coluna.DEPARTAMENTO));
+        assertEquals(4500, columns.totalSalarioBase());
+    }
+
+    @Test
+    void aPersonWithSeveralRolesIsOneRow() throws Exception {
+        Funcionario funcionario = add(new Funcionario(A, "Analista", "Ativo", "TI", 1000));
+        add(new Gestor(A, "Gerente", "Ativo", "Diretoria", 5000));
+        add(new Funcionario(B, "Analista", "Ativo", "TI", 2000));
+        // Loaded from the data
+        WorkforceColumns columns = WorkforceColumns.attach(data);
+
+        assertEquals(2, columns.size());
+        assertEquals(2, columns.contar(Papel.FUNCIONARIO));
+        assertEquals(1, columns.contar(Papel.GESTOR));
+        // With the values of the Gestor
+        assertEquals(7000, columns.totalSalarioBase());
+        assertEquals(List.of(A), columns.cpfs(Coluna.DEPARTAMENTO, "Diretoria"));
+
+        // Removing one role leaves the row with the other
+        data.removeFuncionario(data.getGestores().get(A));
+        assertEquals(2, columns.size());
+        assertEquals(0, columns.contar(Papel.GESTOR));
+        assertEquals(3000, columns.totalSalarioBase());
+        assertEquals(List.of(new Grupo("TI", 2, 3000, 1000, 2000)), columns.agrupar(Coluna.DEPARTAMENTO));
+
+        data.removeFuncionario(funcionario);
+        assertEquals(1, columns.size());
+        assertEquals(List.of(B), columns.cpfs(Coluna.STATUS, "Ativo"));
+    }
+}
@@ -0,0 +1,176 @@
+package trabalho.financeiro.folha;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.google.gson.Gson;
+
+import trabalho.candidatura.model.Pessoa;
+import trabalho.common.database.AppData;
+import trabalho.common.database.JsonDataManager;
+import trabalho.financeiro.model.Contracheque;
+import trabalho.financeiro.model.FolhaPagamento;
+import trabalho.financeiro.model.Funcionario;
+import trabalho.financeiro.model.RegraSalario;
+import trabalho.recrutamento.model.RegimeContratacao;
+
+/**
+ * The incremental payroll against a full run of the same data and rules, and
+ * against its own file.
+ */
+class IncrementalPayrollTest {
+    private static final YearMonth MARCO = YearMonth.of(2024, 3);
+
+    @TempDir
+    Path dir;
+
+    private JsonDataManager manager;
+    private AppData data;
+    private final List<Funcionario> funcionarios = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() throws Exception {
+        JsonDataManager.resetInstance();
+        manager = JsonDataManager.getInstance(dir.resolve("hr.json").toString());
+        data = manager.getData();
+        for (int i = 0; i < 600; i++) {
+            String cpf = String.format("%011d", i);
+            data.addPessoa(new Pessoa(cpf, "Pessoa " + i));
+            Funcionario f = new Funcionario(cpf, i % 10 == 0 ? "Gerente" : "Analista", "Ativo", "TI", 1500 + i * 25);
+            data.addFuncionario(f);
+            funcionarios.add(f);
+        }
+    }
+
+    @AfterEach
+    void tearDown() {
+        JsonDataManager.resetInstance();
+    }
+
+    private PayrollEngine engine(String directory) {
+        return new PayrollEngine(manager, RegraSalario.padrao(), dir.resolve(directory), ForkJoinPool.commonPool());
+    }
+
+    private static void assertSameTotals(FolhaPagamento expected, FolhaPagamento actual) {
+        assertEquals(expected.getFuncionarios(), actual.getFuncionarios());
+        assertEquals(expected.getTotalBruto(), actual.getTotalBruto(), 0.001);
+        assertEquals(expected.getTotalDescontos(), actual.getTotalDescontos(), 0.001);
+        assertEquals(expected.getTotalLiquido(), actual.getTotalLiquido(), 0.001);
+    }
+
+    /**
+     * What the month's file says once every line replaced the earlier ones of
+     * the same Funcionario.
+     */
+    private static FolhaPagamento lerArquivo(Path arquivo) throws Exception {
+        Gson gson = new Gson();
+        Map<String, Contracheque> ultimos = new HashMap<>();
+        for (String line : Files.readAllLines(arquivo, StandardCharsets.UTF_8)) {
+            Contracheque contracheque = gson.fromJson(line, Contracheque.class);
+            ultimos.put(contracheque.cpfCnpj(), contracheque);
+        }
+        int count = 0;
+        long bruto = 0;
+        long descontos = 0;
+        long liquido = 0;
+        for (Contracheque contracheque : ultimos.values()) {
+            if (!contracheque.itens().isEmpty()) {
+                count++;
+                bruto += Math.round(contracheque.bruto() * 100);
+                descontos += Math.round(contracheque.descontos() * 100);
+                liquido += Math.round(contracheque.liquido() * 100);
+            }
+        }
+        return new FolhaPagamento(MARCO, arquivo, count, bruto / 100.0, descontos / 100.0, liquido / 100.0, null);
+    }
+
+    @Test
+    void matchesAFullRunAfterEditsRemovalsAndRuleChanges() throws Exception {
+        PayrollEngine engine = engine("incremental");
+        IncrementalPayroll folha = IncrementalPayroll.iniciar(engine, RegraSalario.padrao(), MARCO);
+        try {
+            for (int i = 0; i < 300; i++) {
+                Funcionario f = funcionarios.get(i);
+                f.setSalarioBase(f.getSalarioBase() + 1000);
+                data.markUpdated(f);
+            }
+            data.removeFuncionario(funcionarios.get(301));
+            data.removeFuncionario(funcionarios.get(302));
+            data.addPessoa(new Pessoa("99999999999", "Nova"));
+            data.addFuncionario(new Funcionario("99999999999", "Analista", "Ativo", "TI", 3000));
+
+            RegraSalario bonus = new RegraSalario("Bônus", RegraSalario.Tipo.ADICIONAL_FIXO, 500,
+                    RegimeContratacao.CLT);
+            bonus.setCargo("Gerente");
+            folha.adicionarRegra(bonus);
+
+            IncrementalPayroll.Recalculo recalculo = folha.recalcular();
+            assertEquals(List.of("00000000301", "00000000302"), recalculo.removidos().stream().sorted().toList());
+            assertEquals(0, folha.getPendentes());
+
+            List<RegraSalario> regras = new ArrayList<>(RegraSalario.padrao());
+            regras.add(bonus);
+            PayrollEngine full = new PayrollEngine(manager, regras, dir.resolve("full"), ForkJoinPool.commonPool());
+            FolhaPagamento esperada = full.processarFolha(MARCO);
+
+            assertSameTotals(esperada, folha.getFolha());
+            assertSameTotals(esperada, lerArquivo(PayrollEngine.arquivo(engine.getDiretorio(), MARCO)));
+        } finally {
+            folha.fechar();
+        }
+    }
+
+    @Test
+    void aRemovedFuncionarioHasNoPayslipLeft() throws Exception {
+        PayrollEngine engine = engine("incremental");
+        IncrementalPayroll folha = IncrementalPayroll.iniciar(engine, RegraSalario.padrao(), MARCO);
+        try {
+            assertEquals(1, PayrollEngine.lerContracheques(engine.getDiretorio(), "00000000007").size());
+
+            data.removeFuncionario(funcionarios.get(7));
+            folha.recalcular();
+
+            assertTrue(PayrollEngine.lerContracheques(engine.getDiretorio(), "00000000007").isEmpty());
+            assertEquals(599, folha.getFolha().getFuncionarios());
+
+            // Hired again, the new payslip is read back
+            data.addFuncionario(new Funcionario("00000000007", "Analista", "Ativo", "TI", 2000));
+            folha.recalcular();
+            List<Contracheque> contracheques = PayrollEngine.lerContracheques(engine.getDiretorio(), "00000000007");
+            assertEquals(1, contracheques.size());
+            assertEquals(2000, contracheques.get(0).bruto());
+        } finally {
+            folha.fechar();
+        }
+    }
+
+    @Test
+    void changesOffThePayslipCostNothing() throws Exception {
+        IncrementalPayroll folha = IncrementalPayroll.iniciar(engine("incremental"), RegraSalario.padrao(), MARCO);
+        try {
+            Pessoa pessoa = data.getPessoas().get("00000000003");
+            pessoa.setEmail("nova@x.com");
+            data.markUpdated(pessoa);
+
+            IncrementalPayroll.Recalculo recalculo = folha.recalcular();
+            assertTrue(recalculo.recalculados().isEmpty());
+            assertEquals(1, recalculo.ignorados());
+        } finally {
+            folha.fechar();
+        }
+    }
+}
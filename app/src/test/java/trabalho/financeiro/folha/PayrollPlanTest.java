@@ -0,0 +1,104 @@
+package trabalho.financeiro.folha;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.nio.file.Path;
+import java.time.YearMonth;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import trabalho.financeiro.model.Contracheque;
+import trabalho.financeiro.model.RegraSalario;
+import trabalho.recrutamento.model.RegimeContratacao;
+
+/**
+ * The 2024 INSS and IRRF tables of {@link RegraSalario#padrao()}, at the
+ * limits of their brackets.
+ */
+class PayrollPlanTest {
+    private static final YearMonth MARCO = YearMonth.of(2024, 3);
+    private static final PayrollPlan PLAN = PayrollPlan.compile(RegraSalario.padrao());
+
+    @TempDir
+    Path dir;
+
+    private static PayrollInput entrada(String cpf, double salario, RegimeContratacao regime) {
+        return new PayrollInput(cpf, "Nome", "Analista", "TI", "Ativo", salario, regime);
+    }
+
+    private static Contracheque calcular(double salario, RegimeContratacao regime) {
+        return PLAN.calcular(entrada("52998224725", salario, regime), MARCO, null);
+    }
+
+    private static double item(Contracheque contracheque, String descricao) {
+        return contracheque.itens().stream().filter(item -> item.descricao().equals(descricao))
+                .mapToDouble(Contracheque.Item::valor).sum();
+    }
+
+    @Test
+    void inssAtTheLimitOfEachBracket() {
+        assertEquals(105.90, item(calcular(1412.00, RegimeContratacao.CLT), "INSS"));
+        assertEquals(105.90, item(calcular(1412.01, RegimeContratacao.CLT), "INSS"));
+        assertEquals(218.82, item(calcular(2666.68, RegimeContratacao.CLT), "INSS"));
+        assertEquals(378.82, item(calcular(4000.03, RegimeContratacao.CLT), "INSS"));
+        assertEquals(908.86, item(calcular(7786.02, RegimeContratacao.CLT), "INSS"));
+    }
+
+    @Test
+    void inssStopsAtTheCeiling() {
+        assertEquals(908.86, item(calcular(7786.03, RegimeContratacao.CLT), "INSS"));
+        assertEquals(908.86, item(calcular(50_000, RegimeContratacao.CLT), "INSS"));
+    }
+
+    @Test
+    void irrfAtTheLimitOfEachBracket() {
+        // Interns have no INSS, so the whole salary is taxed
+        assertEquals(0, item(calcular(2259.20, RegimeContratacao.ESTAGIO), "IRRF"));
+        assertEquals(0, item(calcular(2259.21, RegimeContratacao.ESTAGIO), "IRRF"));
+        assertEquals(42.56, item(calcular(2826.65, RegimeContratacao.ESTAGIO), "IRRF"));
+        assertEquals(42.56, item(calcular(2826.66, RegimeContratacao.ESTAGIO), "IRRF"));
+        assertEquals(181.22, item(calcular(3751.05, RegimeContratacao.ESTAGIO), "IRRF"));
+        assertEquals(386.78, item(calcular(4664.68, RegimeContratacao.ESTAGIO), "IRRF"));
+        assertEquals(1854.00, item(calcular(10_000, RegimeContratacao.ESTAGIO), "IRRF"));
+    }
+
+    @Test
+    void irrfIsOnTheSalaryAfterInss() {
+        Contracheque contracheque = calcular(10_000, RegimeContratacao.CLT);
+
+        assertEquals(1604.06, item(contracheque, "IRRF"));
+        assertEquals(10_000, contracheque.bruto());
+        assertEquals(2512.92, contracheque.descontos());
+        assertEquals(7487.08, contracheque.liquido());
+    }
+
+    @Test
+    void exemptTaxesAreLeftOut() {
+        Contracheque clt = calcular(2000, RegimeContratacao.CLT);
+        assertEquals(List.of("Salário base", "INSS"), clt.itens().stream().map(Contracheque.Item::descricao).toList());
+        assertEquals(158.82, clt.descontos());
+
+        Contracheque pj = calcular(10_000, RegimeContratacao.PJ);
+        assertEquals(1, pj.itens().size());
+        assertEquals(10_000, pj.liquido());
+    }
+
+    @Test
+    void payslipsAreReadBackByCpf() throws Exception {
+        PayrollEngine engine = new PayrollEngine(null, RegraSalario.padrao(), dir, ForkJoinPool.commonPool());
+        PayrollInput[] entradas = new PayrollInput[1000];
+        for (int i = 0; i < entradas.length; i++) {
+            entradas[i] = entrada(String.format("%011d", i), 1000 + i, RegimeContratacao.CLT);
+        }
+        engine.processarFolha(PLAN, MARCO, entradas, null);
+        engine.processarFolha(PLAN, MARCO.plusMonths(1), entradas, null);
+
+        List<Contracheque> contracheques = PayrollEngine.lerContracheques(dir, "00000000500");
+        assertEquals(List.of("2024-03", "2024-04"), contracheques.stream().map(Contracheque::competencia).toList());
+        assertEquals(1500, contracheques.get(0).bruto());
+        assertTrue(PayrollEngine.lerContracheques(dir, "99999999999").isEmpty());
+    }
+}
@@ -0,0 +1,58 @@
+package trabalho.financeiro.utils;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import trabalho.admin.model.Usuario;
+import trabalho.candidatura.model.Pessoa;
+import trabalho.common.database.JsonDataManager;
+import trabalho.financeiro.utils.AuthenticationService.Outcome;
+
+class AuthenticationServiceTest {
+    private static final String CPF = "52998224725";
+
+    @TempDir
+    Path dir;
+
+    private JsonDataManager manager;
+    private final AuthenticationService service = new AuthenticationService(2, 8);
+
+    @BeforeEach
+    void setUp() throws Exception {
+        PasswordManager.calibrate(Duration.ZERO);
+        JsonDataManager.resetInstance();
+        manager = JsonDataManager.getInstance(dir.resolve("hr.json").toString());
+        manager.getData().addPessoa(new Pessoa(CPF, "Ana"));
+        manager.getData().addUsuario(new Usuario(CPF, PasswordManager.hashPassword("Senha#123")));
+    }
+
+    @AfterEach
+    void tearDown() {
+        JsonDataManager.resetInstance();
+    }
+
+    @Test
+    void checksThePasswordOfTheLogin() {
+        assertEquals(Outcome.SUCCESS, service.authenticate(manager, "529.982.247-25", "Senha#123").join().outcome());
+        assertEquals(Outcome.INVALID, service.authenticate(manager, CPF, "Errada#123").join().outcome());
+    }
+
+    @Test
+    void aLoginWithNoUserIsCheckedAgainstAHashOfTheCurrentFactor() {
+        AuthenticationService.Result result = service.authenticate(manager, "11144477735", "Senha#123").join();
+
+        assertEquals(Outcome.INVALID, result.outcome());
+        assertNull(result.usuario());
+        String dummy = service.dummyHash();
+        assertEquals(PasswordManager.getWorkFactor(), PasswordManager.getWorkFactor(dummy));
+        // Kept until the factor changes
+        assertSame(dummy, service.dummyHash());
+    }
+}
@@ -0,0 +1,132 @@
+package trabalho.financeiro.utils;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+class CpfCnpjManagerTest {
+
+    /**
+     * The check digits the textbook way, to compare the single pass scan
+     * against.
+     */
+    private static String withCheckDigits(String base) {
+        String digits = base;
+        for (int round = 0; round < 2; round++) {
+            int sum = 0;
+            if (base.length() == 9) { // CPF, weights 10..2 then 11..2
+                for (int i = 0; i < digits.length(); i++) {
+                    sum += (digits.charAt(i) - '0') * (digits.length() + 1 - i);
+                }
+            } else { // CNPJ, weights 2..9 from the right
+                for (int i = 0; i < digits.length(); i++) {
+                    sum += (digits.charAt(digits.length() - 1 - i) - '0') * (2 + i % 8);
+                }
+            }
+            int rest = sum % 11;
+            digits += rest < 2 ? 0 : 11 - rest;
+        }
+        return digits;
+    }
+
+    private static String randomDigits(Random random, int count) {
+        StringBuilder digits = new StringBuilder();
+        for (int i = 0; i < count; i++) {
+            digits.append((char) ('0' + random.nextInt(10)));
+        }
+        return digits.toString();
+    }
+
+    @Test
+    void knownDocuments() {
+        assertTrue(CpfCnpjManager.isValid("529.982.247-25"));
+        assertTrue(CpfCnpjManager.isValid("52998224725"));
+        assertFalse(CpfCnpjManager.isValid("529.982.247-24"));
+        assertTrue(CpfCnpjManager.isValid("11.222.333/0001-81"));
+        assertFalse(CpfCnpjManager.isValid("11.222.333/0001-80"));
+    }
+
+    @Test
+    void checkDigitsMatchTheReference() {
+        Random random = new Random(3);
+        for (int i = 0; i < 20_000; i++) {
+            String doc = withCheckDigits(randomDigits(random, i % 2 == 0 ? 9 : 12));
+            assertTrue(CpfCnpjManager.isValid(doc), doc);
+
+            // Any other last digit is wrong
+            char last = doc.charAt(doc.length() - 1);
+            char other = (char) ('0' + (last - '0' + 1 + random.nextInt(9)) % 10);
+            String wrong = doc.substring(0, doc.length() - 1) + other;
+            assertFalse(CpfCnpjManager.isValid(wrong), wrong);
+        }
+    }
+
+    @Test
+    void rejectsRepeatedDigitsWrongLengthsAndNull() {
+        assertFalse(CpfCnpjManager.isValid("111.111.111-11"));
+        assertFalse(CpfCnpjManager.isValid("00000000000000"));
+        assertFalse(CpfCnpjManager.isValid("5299822472"));
+        assertFalse(CpfCnpjManager.isValid("529982247250"));
+        assertFalse(CpfCnpjManager.isValid("112223330001810"));
+        assertFalse(CpfCnpjManager.isValid(""));
+        assertFalse(CpfCnpjManager.isValid(null));
+        assertNull(CpfCnpjManager.normalize(null));
+    }
+
+    @Test
+    void toOnlyNumbers() {
+        assertEquals("52998224725", CpfCnpjManager.toOnlyNumbers("529.982.247-25"));
+        assertEquals("11222333000181", CpfCnpjManager.toOnlyNumbers(" 11.222.333/0001-81 "));
+        assertEquals("", CpfCnpjManager.toOnlyNumbers(null));
+        assertEquals("", CpfCnpjManager.toOnlyNumbers("abc"));
+
+        String clean = "52998224725";
+        assertSame(clean, CpfCnpjManager.toOnlyNumbers(clean));
+    }
+
+    @Test
+    void normalizeIsValidThenToOnlyNumbers() {
+        Random random = new Random(5);
+        String[] separators = { "", ".", "-", "/", " " };
+        for (int i = 0; i < 5_000; i++) {
+            String digits = random.nextBoolean() ? withCheckDigits(randomDigits(random, 9))
+                    : randomDigits(random, 11 + random.nextInt(4));
+            StringBuilder doc = new StringBuilder();
+            for (char c : digits.toCharArray()) {
+                doc.append(c).append(separators[random.nextInt(separators.length)]);
+            }
+            String input = doc.toString();
+
+            String expected = CpfCnpjManager.isValid(input) ? CpfCnpjManager.toOnlyNumbers(input) : null;
+            assertEquals(expected, CpfCnpjManager.normalize(input), input);
+        }
+        String clean = "52998224725";
+        assertSame(clean, CpfCnpjManager.normalize(clean));
+    }
+
+    @Test
+    void format() {
+        assertEquals("529.982.247-25", CpfCnpjManager.format("52998224725"));
+        assertEquals("529.982.247-25", CpfCnpjManager.format("529.982.247-25"));
+        assertEquals("11.222.333/0001-81", CpfCnpjManager.format("11222333000181"));
+        assertEquals("12345", CpfCnpjManager.format("12345"));
+        assertNull(CpfCnpjManager.format(null));
+    }
+
+    @Test
+    void keysKeepLeadingZerosAndTellACpfFromACnpj() {
+        assertEquals("00012345678", CpfCnpj.toString(CpfCnpj.toKey("00012345678")));
+        assertEquals("00000012345678", CpfCnpj.toString(CpfCnpj.toKey("00000012345678")));
+        assertNotEquals(CpfCnpj.toKey("00012345678"), CpfCnpj.toKey("00000012345678"));
+        assertEquals(CpfCnpj.NO_KEY, CpfCnpj.toKey("529.982.247-25"));
+
+        CpfCnpj cnpj = CpfCnpj.of("11.222.333/0001-81");
+        assertTrue(cnpj.isCnpj());
+        assertTrue(cnpj.isValid());
+        assertEquals("11.222.333/0001-81", cnpj.format());
+        assertEquals(cnpj, CpfCnpj.fromKey(cnpj.getKey()));
+        assertThrows(IllegalArgumentException.class, () -> CpfCnpj.of("123"));
+    }
+}
@@ -0,0 +1,36 @@
+package trabalho.financeiro.utils;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.Duration;
+
+import org.junit.jupiter.api.Test;
+
+class PasswordManagerTest {
+
+    @Test
+    void calibrationNeverGoesBelowTheDefault() {
+        // No host hashes in no time, so this is the floor
+        assertEquals(12, PasswordManager.calibrate(Duration.ZERO));
+        assertEquals(12, PasswordManager.getWorkFactor());
+        assertEquals(12, PasswordManager.getWorkFactor(PasswordManager.hashPassword("Senha#123")));
+    }
+
+    @Test
+    void calibrationStopsAtTheCeiling() {
+        try {
+            assertEquals(16, PasswordManager.calibrate(Duration.ofDays(1)));
+        } finally {
+            PasswordManager.calibrate(Duration.ZERO); // Back to the default
+        }
+    }
+
+    @Test
+    void hashesOfALowerFactorNeedRehashing() {
+        PasswordManager.calibrate(Duration.ZERO);
+        assertTrue(PasswordManager.needsRehash(PasswordManager.hashPassword("Senha#123", 10)));
+        assertFalse(PasswordManager.needsRehash(PasswordManager.hashPassword("Senha#123", 12)));
+        assertFalse(PasswordManager.needsRehash("not a hash"));
+        assertEquals(-1, PasswordManager.getWorkFactor("$2a$x1$abc"));
+    }
+}
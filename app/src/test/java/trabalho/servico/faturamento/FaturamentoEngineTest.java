@@ -0,0 +1,150 @@
+package trabalho.servico.faturamento;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import trabalho.common.database.AppData;
+import trabalho.common.database.JsonDataManager;
+import trabalho.servico.model.ContratoServico;
+import trabalho.servico.model.ContratoServico.StatusContrato;
+import trabalho.servico.model.ContratoServico.TipoValor;
+import trabalho.servico.model.LoteFaturamento;
+import trabalho.servico.model.NotaServico;
+import trabalho.servico.model.PrestadorServico;
+
+class FaturamentoEngineTest {
+    private static final YearMonth MARCO = YearMonth.of(2024, 3);
+    private static final String CNPJ_1 = "11222333000181";
+    private static final String CNPJ_2 = "11444777000161";
+
+    @TempDir
+    Path dir;
+
+    private JsonDataManager manager;
+    private AppData data;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        JsonDataManager.resetInstance();
+        manager = JsonDataManager.getInstance(dir.resolve("hr.json").toString());
+        data = manager.getData();
+        data.addPrestador(new PrestadorServico(CNPJ_1, "Primeira Ltda", "a@x.com"));
+        data.addPrestador(new PrestadorServico(CNPJ_2, "Segunda Ltda", "b@x.com"));
+    }
+
+    @AfterEach
+    void tearDown() {
+        JsonDataManager.resetInstance();
+    }
+
+    private static ContratoServico contrato(String cnpj, LocalDate inicio, LocalDate fim, double valor) {
+        return new ContratoServico(cnpj, "Serviço", inicio, fim, valor);
+    }
+
+    private FaturamentoEngine engine() {
+        return new FaturamentoEngine(manager, dir.resolve("notas"), ForkJoinPool.commonPool());
+    }
+
+    @Test
+    void daysInForceWithinTheMonth() {
+        LocalDate inicio = LocalDate.of(2024, 1, 1);
+        assertEquals(31, contrato(CNPJ_1, inicio, null, 1).diasFaturaveis(MARCO));
+        assertEquals(29, contrato(CNPJ_1, inicio, null, 1).diasFaturaveis(YearMonth.of(2024, 2)));
+        assertEquals(22, contrato(CNPJ_1, LocalDate.of(2024, 3, 10), null, 1).diasFaturaveis(MARCO));
+        assertEquals(15, contrato(CNPJ_1, inicio, LocalDate.of(2024, 3, 15), 1).diasFaturaveis(MARCO));
+        assertEquals(1, contrato(CNPJ_1, LocalDate.of(2024, 3, 31), null, 1).diasFaturaveis(MARCO));
+        assertEquals(11, contrato(CNPJ_1, LocalDate.of(2024, 3, 10), LocalDate.of(2024, 3, 20), 1)
+                .diasFaturaveis(MARCO));
+
+        assertEquals(0, contrato(CNPJ_1, LocalDate.of(2024, 4, 1), null, 1).diasFaturaveis(MARCO));
+        assertEquals(0, contrato(CNPJ_1, inicio, LocalDate.of(2024, 2, 29), 1).diasFaturaveis(MARCO));
+        ContratoServico suspenso = contrato(CNPJ_1, inicio, null, 1);
+        suspenso.setStatus(StatusContrato.SUSPENSO);
+        assertEquals(0, suspenso.diasFaturaveis(MARCO));
+    }
+
+    @Test
+    void invoicesProratedByTheDaysInForce() throws Exception {
+        ContratoServico inteiro = contrato(CNPJ_1, LocalDate.of(2024, 1, 1), null, 3100);
+        inteiro.setPercentualRetencao(11);
+        data.addContratoServico(inteiro);
+        data.addContratoServico(contrato(CNPJ_2, LocalDate.of(2024, 3, 17), null, 3100));
+        ContratoServico porHora = contrato(CNPJ_1, LocalDate.of(2024, 1, 1), LocalDate.of(2024, 3, 10), 50);
+        porHora.setTipoValor(TipoValor.POR_HORA);
+        porHora.setHorasMensais(160);
+        porHora.setPercentualRetencao(5);
+        data.addContratoServico(porHora);
+        ContratoServico suspenso = contrato(CNPJ_2, LocalDate.of(2024, 1, 1), null, 9999);
+        suspenso.setStatus(StatusContrato.SUSPENSO);
+        data.addContratoServico(suspenso);
+
+        LoteFaturamento lote = engine().faturar(MARCO);
+
+        // 3100 less 11%, 15 of 31 days of 3100, and 10 of 31 days of 8000 less 5%
+        assertEquals(3, lote.getNotas());
+        assertEquals(7180.65, lote.getTotalBruto(), 0.001);
+        assertEquals(470.03, lote.getTotalRetencoes(), 0.001);
+        assertEquals(6710.62, lote.getTotalLiquido(), 0.001);
+        assertEquals(3, Files.readAllLines(lote.getArquivo()).size());
+
+        List<NotaServico> notas = FaturamentoEngine.lerNotas(dir.resolve("notas"), CNPJ_1);
+        assertEquals(2, notas.size());
+        NotaServico horas = notas.stream().filter(n -> n.contratoId().equals(porHora.getId())).findFirst()
+                .orElseThrow();
+        assertEquals(10, horas.diasFaturados());
+        assertEquals(2580.65, horas.valorBruto());
+        assertEquals(129.03, horas.retencao());
+        assertEquals(2451.62, horas.valorLiquido());
+    }
+
+    @Test
+    void runningAMonthAgainReplacesItsInvoices() throws Exception {
+        data.addContratoServico(contrato(CNPJ_1, LocalDate.of(2024, 1, 1), null, 1000));
+        FaturamentoEngine engine = engine();
+        engine.faturar(MARCO);
+        LoteFaturamento lote = engine.faturar(MARCO);
+
+        assertEquals(1, Files.readAllLines(lote.getArquivo()).size());
+        assertEquals(1, FaturamentoEngine.lerNotas(dir.resolve("notas"), CNPJ_1).size());
+        try (var files = Files.list(dir.resolve("notas"))) {
+            assertEquals(List.of(lote.getArquivo()), files.toList());
+        }
+    }
+
+    @Test
+    void totalsOfManySlicesAddUpToEachInvoice() throws Exception {
+        long bruto = 0;
+        long retencoes = 0;
+        long liquido = 0;
+        for (int i = 0; i < 2000; i++) {
+            ContratoServico contrato = contrato(i % 2 == 0 ? CNPJ_1 : CNPJ_2, LocalDate.of(2024, 3, 1 + i % 31),
+                    null, 1000 + i * 0.37);
+            contrato.setPercentualRetencao(i % 12);
+            data.addContratoServico(contrato);
+
+            NotaServico nota = FaturamentoEngine.calcular(FaturamentoEngine.Entrada.of(data, contrato,
+                    contrato.diasFaturaveis(MARCO)), MARCO);
+            bruto += Math.round(nota.valorBruto() * 100);
+            retencoes += Math.round(nota.retencao() * 100);
+            liquido += Math.round(nota.valorLiquido() * 100);
+        }
+
+        LoteFaturamento lote = engine().faturar(MARCO);
+
+        assertEquals(2000, lote.getNotas());
+        assertEquals(bruto / 100.0, lote.getTotalBruto());
+        assertEquals(retencoes / 100.0, lote.getTotalRetencoes());
+        assertEquals(liquido / 100.0, lote.getTotalLiquido());
+    }
+}
@@ -0,0 +1,125 @@
+package trabalho.servico.vencimento;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import trabalho.common.database.AppData;
+import trabalho.servico.model.ContratoServico;
+import trabalho.servico.model.ContratoServico.StatusContrato;
+import trabalho.servico.model.PrestadorServico;
+import trabalho.servico.vencimento.VencimentoIndex.Vencimento;
+
+class VencimentoIndexTest {
+    private static final String CNPJ_1 = "11222333000181";
+    private static final String CNPJ_2 = "11444777000161";
+    private static final LocalDate INICIO = LocalDate.of(2024, 1, 1);
+
+    private AppData data;
+    private PrestadorServico segundo;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        data = new AppData();
+        data.addPrestador(new PrestadorServico(CNPJ_1, "Primeira Ltda", "a@x.com"));
+        segundo = new PrestadorServico(CNPJ_2, "Segunda Ltda", "b@x.com");
+        data.addPrestador(segundo);
+    }
+
+    private ContratoServico contrato(String id, String cnpj, LocalDate fim) throws Exception {
+        ContratoServico contrato = new ContratoServico(cnpj, "Serviço", INICIO, fim, 1000);
+        contrato.setId(id);
+        data.addContratoServico(contrato);
+        return contrato;
+    }
+
+    private static LocalDate marco(int dia) {
+        return LocalDate.of(2024, 3, dia);
+    }
+
+    private static List<String> ids(List<Vencimento> vencimentos) {
+        return vencimentos.stream().map(Vencimento::contratoId).toList();
+    }
+
+    @Test
+    void rangesAreInclusiveAndOrderedByDay() throws Exception {
+        // Loaded from the data, then followed
+        contrato("c", CNPJ_1, marco(15));
+        contrato("a", CNPJ_1, marco(10));
+        ContratoServico suspenso = new ContratoServico(CNPJ_1, "Serviço", INICIO, marco(12), 1000);
+        suspenso.setStatus(StatusContrato.SUSPENSO);
+        data.addContratoServico(suspenso);
+        VencimentoIndex index = VencimentoIndex.attach(data);
+        contrato("b", CNPJ_2, marco(15));
+        contrato("d", CNPJ_2, marco(20));
+        contrato("sem-fim", CNPJ_2, null);
+
+        assertEquals(4, index.size());
+        assertEquals(new Vencimento("a", CNPJ_1, marco(10)), index.proximo());
+        assertEquals(List.of("a", "b", "c"), ids(index.vencendoEntre(marco(10), marco(15))));
+        assertEquals(List.of("d"), ids(index.vencendoEntre(marco(15).plusDays(1), marco(20))));
+        assertTrue(index.vencendoEntre(marco(16), marco(19)).isEmpty());
+        assertTrue(index.vencendoEntre(marco(20), marco(10)).isEmpty());
+        assertEquals(List.of("b", "c", "d"), ids(index.vencendoNosProximos(marco(11), 9)));
+
+        assertTrue(index.vencidos(marco(10)).isEmpty());
+        assertEquals(List.of("a"), ids(index.vencidos(marco(11))));
+        assertEquals(List.of("a", "b", "c", "d"), ids(index.vencidos(marco(21))));
+    }
+
+    @Test
+    void alertsAreNewUntilTheEndDateChanges() throws Exception {
+        ContratoServico a = contrato("a", CNPJ_1, marco(10));
+        contrato("b", CNPJ_1, marco(25));
+        VencimentoIndex index = VencimentoIndex.attach(data);
+
+        assertEquals(List.of("a"), ids(index.novosAlertas(marco(5), 7)));
+        assertTrue(index.novosAlertas(marco(5), 7).isEmpty());
+
+        // Another field changed: it is not announced again
+        a.setValor(2000);
+        data.markUpdated(a);
+        assertTrue(index.novosAlertas(marco(6), 7).isEmpty());
+
+        // Renewed, its new date is announced when it comes near
+        a.setDataFim(marco(20));
+        data.markUpdated(a);
+        assertTrue(index.novosAlertas(marco(6), 7).isEmpty());
+        assertEquals(List.of("a", "b"), ids(index.novosAlertas(marco(18), 7)));
+    }
+
+    @Test
+    void followsRenewalsClosuresAndRemovals() throws Exception {
+        ContratoServico renovado = contrato("renovado", CNPJ_1, marco(10));
+        ContratoServico encerrado = contrato("encerrado", CNPJ_1, marco(11));
+        ContratoServico suspenso = contrato("suspenso", CNPJ_1, marco(12));
+        ContratoServico removido = contrato("removido", CNPJ_1, marco(13));
+        contrato("do-segundo", CNPJ_2, marco(14));
+        VencimentoIndex index = VencimentoIndex.attach(data);
+        assertEquals(5, index.size());
+
+        renovado.setDataFim(marco(30));
+        data.markUpdated(renovado);
+        encerrado.encerrar(marco(5));
+        data.markUpdated(encerrado);
+        suspenso.setStatus(StatusContrato.SUSPENSO);
+        data.markUpdated(suspenso);
+        data.removeContratoServico(removido);
+        data.removePrestador(segundo);
+
+        assertEquals(List.of("renovado"), ids(index.vencendoEntre(INICIO, marco(31))));
+        assertEquals(new Vencimento("renovado", CNPJ_1, marco(30)), index.proximo());
+
+        suspenso.setStatus(StatusContrato.ATIVO);
+        data.markUpdated(suspenso);
+        assertEquals(List.of("suspenso", "renovado"), ids(index.vencendoEntre(INICIO, marco(31))));
+
+        renovado.setDataFim(null);
+        data.markUpdated(renovado);
+        assertEquals(1, index.size());
+    }
+}